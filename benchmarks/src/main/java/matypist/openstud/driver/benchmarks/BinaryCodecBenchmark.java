@@ -0,0 +1,97 @@
+package matypist.openstud.driver.benchmarks;
+
+import matypist.openstud.driver.core.cache.SerializableCodec;
+import matypist.openstud.driver.core.codec.BinaryCodec;
+import matypist.openstud.driver.core.models.ExamDone;
+import matypist.openstud.driver.core.models.ExamReservation;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the binary codec against the JSON mapping and Java serialization.
+ * Run {@link CodecSizeReport} for the encoded sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryCodecBenchmark {
+    @Param({"10", "40"})
+    public int size;
+
+    private final BinaryCodec binary = new BinaryCodec();
+    private final SerializableCodec serializable = new SerializableCodec();
+    private List<ExamDone> exams;
+    private List<ExamReservation> reservations;
+    private byte[] examsBinary;
+    private byte[] examsSerialized;
+    private String examsJson;
+    private byte[] reservationsBinary;
+    private String reservationsJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        exams = ModelFixtures.examsDone(size);
+        reservations = ModelFixtures.reservations(size);
+        examsBinary = binary.encode(exams);
+        examsSerialized = serializable.encode(exams);
+        examsJson = JsonModels.examsDoneToJson(exams);
+        reservationsBinary = binary.encode(reservations);
+        reservationsJson = JsonModels.reservationsToJson(reservations);
+    }
+
+    @Benchmark
+    public byte[] encodeExamsBinary() throws IOException {
+        return binary.encode(exams);
+    }
+
+    @Benchmark
+    public String encodeExamsJson() {
+        return JsonModels.examsDoneToJson(exams);
+    }
+
+    @Benchmark
+    public byte[] encodeExamsSerializable() throws IOException {
+        return serializable.encode(exams);
+    }
+
+    @Benchmark
+    public Object decodeExamsBinary() throws IOException {
+        return binary.decode(examsBinary);
+    }
+
+    @Benchmark
+    public Object decodeExamsJson() {
+        return JsonModels.examsDoneFromJson(examsJson);
+    }
+
+    @Benchmark
+    public Object decodeExamsSerializable() throws IOException {
+        return serializable.decode(examsSerialized);
+    }
+
+    @Benchmark
+    public byte[] encodeReservationsBinary() throws IOException {
+        return binary.encode(reservations);
+    }
+
+    @Benchmark
+    public String encodeReservationsJson() {
+        return JsonModels.reservationsToJson(reservations);
+    }
+
+    @Benchmark
+    public Object decodeReservationsBinary() throws IOException {
+        return binary.decode(reservationsBinary);
+    }
+
+    @Benchmark
+    public Object decodeReservationsJson() {
+        return JsonModels.reservationsFromJson(reservationsJson);
+    }
+}
@@ -0,0 +1,34 @@
+package matypist.openstud.driver.benchmarks;
+
+import matypist.openstud.driver.core.cache.SerializableCodec;
+import matypist.openstud.driver.core.codec.BinaryCodec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Prints the encoded size of the fixtures with every format, to be read next to {@link BinaryCodecBenchmark}.
+ */
+public class CodecSizeReport {
+
+    public static void main(String[] args) throws IOException {
+        BinaryCodec binary = new BinaryCodec();
+        SerializableCodec serializable = new SerializableCodec();
+        System.out.printf("%-20s %10s %10s %14s%n", "fixture", "json", "binary", "serializable");
+        print("student", JsonModels.studentToJson(ModelFixtures.student()),
+                binary.encode(ModelFixtures.student()), serializable.encode(ModelFixtures.student()));
+        print("40 exams done", JsonModels.examsDoneToJson(ModelFixtures.examsDone(40)),
+                binary.encode(ModelFixtures.examsDone(40)), serializable.encode(ModelFixtures.examsDone(40)));
+        print("10 reservations", JsonModels.reservationsToJson(ModelFixtures.reservations(10)),
+                binary.encode(ModelFixtures.reservations(10)), serializable.encode(ModelFixtures.reservations(10)));
+        print("10 taxes", JsonModels.taxesToJson(ModelFixtures.taxes(10)),
+                binary.encode(ModelFixtures.taxes(10)), serializable.encode(ModelFixtures.taxes(10)));
+        print("100 lessons", JsonModels.lessonsToJson(ModelFixtures.lessons(100)),
+                binary.encode(ModelFixtures.lessons(100)), serializable.encode(ModelFixtures.lessons(100)));
+    }
+
+    private static void print(String name, String json, byte[] binary, byte[] serialized) {
+        System.out.printf("%-20s %10d %10d %14d%n", name, json.getBytes(StandardCharsets.UTF_8).length, binary.length,
+                serialized.length);
+    }
+}
@@ -0,0 +1,78 @@
+package matypist.openstud.driver.benchmarks;
+
+import matypist.openstud.driver.core.providers.sapienza.SapienzaDates;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.format.DateTimeFormatter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the Infostud dates as done before (a formatter built for every value, or one per response)
+ * against the shared fast path of {@link SapienzaDates}. Every invocation parses {@value #SIZE} values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(DateParsingBenchmark.SIZE)
+public class DateParsingBenchmark {
+    static final int SIZE = 256;
+
+    private final String[] dates = new String[SIZE];
+    private final String[] dateTimes = new String[SIZE];
+    private final String[] timetable = new String[SIZE];
+
+    @Setup
+    public void setUp() {
+        LocalDate date = LocalDate.of(2018, 9, 1);
+        for (int i = 0; i < SIZE; i++) {
+            dates[i] = String.format("%02d/%02d/%04d", date.getDayOfMonth(), date.getMonthValue(), date.getYear());
+            dateTimes[i] = dates[i] + String.format(" %02d:%02d:%02d", i % 24, i % 60, (i * 7) % 60);
+            timetable[i] = String.format("%02d/%02d/%04d %02d:%02d", date.getMonthValue(), date.getDayOfMonth(), date.getYear(), 8 + i % 10, (i % 4) * 15);
+            date = date.plusDays(3);
+        }
+    }
+
+    @Benchmark
+    public void dateFormatterPerValue(Blackhole bh) {
+        for (String text : dates) bh.consume(LocalDate.parse(text, DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+    }
+
+    @Benchmark
+    public void dateFormatterPerResponse(Blackhole bh) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        for (String text : dates) bh.consume(LocalDate.parse(text, formatter));
+    }
+
+    @Benchmark
+    public void dateFastPath(Blackhole bh) {
+        for (String text : dates) bh.consume(SapienzaDates.parseDate(text));
+    }
+
+    @Benchmark
+    public void dateTimeFormatterPerValue(Blackhole bh) {
+        for (String text : dateTimes)
+            bh.consume(LocalDateTime.parse(text, DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")));
+    }
+
+    @Benchmark
+    public void dateTimeFastPath(Blackhole bh) {
+        for (String text : dateTimes) bh.consume(SapienzaDates.parseDateTime(text));
+    }
+
+    @Benchmark
+    public void timetableFormatterPerResponse(Blackhole bh) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm");
+        for (String text : timetable) bh.consume(LocalDateTime.parse(text, formatter));
+    }
+
+    @Benchmark
+    public void timetableFastPath(Blackhole bh) {
+        for (String text : timetable) bh.consume(SapienzaDates.parseTimetable(text));
+    }
+}
@@ -0,0 +1,45 @@
+package matypist.openstud.driver.benchmarks;
+
+import matypist.openstud.driver.core.compact.ExamDoneTable;
+import matypist.openstud.driver.core.compact.ExamReservationTable;
+import matypist.openstud.driver.core.compact.LessonTable;
+import matypist.openstud.driver.core.compact.TaxTable;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+/**
+ * Prints the retained heap of the data of a typical student, measured with JOL, as built by the parsers
+ * before (linked lists of beans), with pre-sized array lists and with the compact tables.
+ */
+public class FootprintReport {
+    private static final int EXAMS = 40;
+    private static final int RESERVATIONS = 5;
+    private static final int TAXES = 10;
+    private static final int LESSONS = 100;
+
+    public static void main(String[] args) {
+        Object[] linked = {new LinkedList<>(ModelFixtures.examsDone(EXAMS)), new LinkedList<>(ModelFixtures.reservations(RESERVATIONS)),
+                new LinkedList<>(ModelFixtures.taxes(TAXES)), new LinkedList<>(ModelFixtures.lessons(LESSONS))};
+        Object[] arrays = {new ArrayList<>(ModelFixtures.examsDone(EXAMS)), new ArrayList<>(ModelFixtures.reservations(RESERVATIONS)),
+                new ArrayList<>(ModelFixtures.taxes(TAXES)), new ArrayList<>(ModelFixtures.lessons(LESSONS))};
+        Object[] compact = {ExamDoneTable.from(ModelFixtures.examsDone(EXAMS)), ExamReservationTable.from(ModelFixtures.reservations(RESERVATIONS)),
+                TaxTable.from(ModelFixtures.taxes(TAXES)), LessonTable.from(ModelFixtures.lessons(LESSONS))};
+        String[] names = {EXAMS + " exams done", RESERVATIONS + " reservations", TAXES + " taxes", LESSONS + " lessons"};
+        System.out.printf("%-20s %12s %12s %12s%n", "fixture", "linked list", "array list", "compact");
+        for (int i = 0; i < names.length; i++)
+            print(names[i], size(linked[i]), size(arrays[i]), size(compact[i]));
+        print("per student", size(linked), size(arrays), size(compact));
+        System.out.println();
+        System.out.println(GraphLayout.parseInstance(compact).toFootprint());
+    }
+
+    private static void print(String name, long linked, long arrays, long compact) {
+        System.out.printf("%-20s %12d %12d %12d%n", name, linked, arrays, compact);
+    }
+
+    private static long size(Object... roots) {
+        return GraphLayout.parseInstance(roots).totalSize();
+    }
+}
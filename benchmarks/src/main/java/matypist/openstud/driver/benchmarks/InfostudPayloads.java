@@ -0,0 +1,88 @@
+package matypist.openstud.driver.benchmarks;
+
+/**
+ * Synthetic answers shaped like the Infostud and GOMP ones, with the same keys, nesting and value types.
+ */
+public final class InfostudPayloads {
+    private static final String[] COURSES = {"ANALISI MATEMATICA", "GEOMETRIA", "FISICA", "PROGRAMMAZIONE", "CALCOLO DELLE PROBABILITA'", "BASI DI DATI"};
+    private static final String[] SSD = {"MAT/05", "MAT/03", "FIS/01", "INF/01", "MAT/06", "ING-INF/05"};
+
+    private InfostudPayloads() {
+    }
+
+    public static String examsDone(int size) {
+        StringBuilder sb = new StringBuilder("{\"esito\":{\"flagEsito\":0},\"ritorno\":{\"esami\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"codiceInsegnamento\":\"").append(1015880 + i).append("\",")
+                    .append("\"codiceModuloDidattico\":null,")
+                    .append("\"cfu\":").append(6 + i % 3 * 3).append(',')
+                    .append("\"descrizione\":\"").append(COURSES[i % COURSES.length]).append("\",")
+                    .append("\"ssd\":\"").append(SSD[i % SSD.length]).append("\",")
+                    .append("\"data\":\"").append(String.format("%02d/%02d/%04d", 1 + i % 28, 1 + i % 12, 2015 + i % 5)).append("\",")
+                    .append("\"certificato\":true,")
+                    .append("\"superamento\":true,")
+                    .append("\"annoAcca\":\"").append(2014 + i % 5).append("\",")
+                    .append("\"esito\":{\"valoreNominale\":\"").append(18 + i % 13).append("\",\"valoreNonNominale\":").append(18 + i % 13).append("},")
+                    .append("\"tipoInsegnamento\":\"OBBLIGATORIO\",\"statoEsame\":\"V\"}");
+        }
+        return sb.append("]}}").toString();
+    }
+
+    public static String examsDoable(int size) {
+        StringBuilder sb = new StringBuilder("{\"esito\":{\"flagEsito\":0},\"ritorno\":{\"esami\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"codiceInsegnamento\":\"").append(1015880 + i).append("\",")
+                    .append("\"codiceModuloDidattico\":\"").append(i % 2).append("\",")
+                    .append("\"codiceCorsoInsegnamento\":\"").append(29923 + i % 4).append("\",")
+                    .append("\"cfu\":").append(6 + i % 3 * 3).append(',')
+                    .append("\"descrizione\":\"").append(COURSES[i % COURSES.length]).append("\",")
+                    .append("\"ssd\":\"").append(SSD[i % SSD.length]).append("\",")
+                    .append("\"annoCorso\":").append(1 + i % 3).append('}');
+        }
+        return sb.append("]}}").toString();
+    }
+
+    public static String taxes(int size) {
+        StringBuilder sb = new StringBuilder("{\"risultatoLista\":{\"risultati\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"codiceBollettino\":\"").append(9000000 + i).append("\",")
+                    .append("\"corsoDiStudi\":\"29923\",")
+                    .append("\"descCorsoDiStudi\":\"INFORMATICA\",")
+                    .append("\"impoVers\":\"").append(156 + i).append(".50\",")
+                    .append("\"annoAcca\":").append(2015 + i % 5).append(',')
+                    .append("\"dataVers\":\"").append(String.format("%02d/%02d/%04d", 1 + i % 28, 1 + i % 12, 2015 + i % 5)).append("\",")
+                    .append("\"importoBollettino\":\"").append(156 + i).append(",50\",")
+                    .append("\"scadenza\":\"").append(String.format("%02d/%02d/%04d", 1 + i % 28, 1 + i % 12, 2016 + i % 5)).append("\",")
+                    .append("\"causali\":[");
+            for (int j = 0; j < 1 + i % 3; j++) {
+                if (j > 0) sb.append(',');
+                sb.append("{\"descrizione\":\"TASSA REGIONALE\",\"importo\":\"").append(140 + j).append("\",")
+                        .append("\"annoAccademicoString\":\"").append(2015 + i % 5).append('/').append(2016 + i % 5).append("\",")
+                        .append("\"impoVers\":\"").append(140 + j).append("\"}");
+            }
+            sb.append("]}");
+        }
+        return sb.append("]}}").toString();
+    }
+
+    public static String classrooms(int size) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"roominternalid\":").append(1200 + i).append(',')
+                    .append("\"fullname\":\"Aula ").append(i).append(" - Edificio Marco Polo\",")
+                    .append("\"name\":\"Aula ").append(i).append("\",")
+                    .append("\"site\":\"Viale dello Scalo San Lorenzo 82\",")
+                    .append("\"lat\":41.89").append(i % 10).append(',')
+                    .append("\"lng\":12.51").append(i % 10).append(',')
+                    .append("\"occupied\":").append(i % 2 == 0).append(',')
+                    .append("\"willbeoccupied\":false,")
+                    .append("\"weight\":").append(i % 7).append(',')
+                    .append("\"roomid\":null}");
+        }
+        return sb.append(']').toString();
+    }
+}
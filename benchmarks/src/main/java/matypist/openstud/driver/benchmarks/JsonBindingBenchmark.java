@@ -0,0 +1,108 @@
+package matypist.openstud.driver.benchmarks;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.json.JsonEngine;
+import matypist.openstud.driver.core.json.OrgJsonEngine;
+import matypist.openstud.driver.core.json.StreamingJsonEngine;
+import matypist.openstud.driver.core.models.Classroom;
+import matypist.openstud.driver.core.models.ExamDoable;
+import matypist.openstud.driver.core.models.ExamDone;
+import matypist.openstud.driver.core.models.Tax;
+import matypist.openstud.driver.core.providers.sapienza.SapienzaBinders;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the answers behind getExamsDone, getExamsDoable, getPaidTaxes and getClassRoom: the org.json
+ * {@code keySet()}/{@code switch} loops used before, the precompiled {@link SapienzaBinders} over the default org.json
+ * engine and the same binders over {@link StreamingJsonEngine}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBindingBenchmark {
+
+    @Param({"8", "64", "512"})
+    public int size;
+
+    private final Openstud os = new Openstud();
+    private final JsonEngine orgJson = OrgJsonEngine.shared();
+    private final JsonEngine streaming = StreamingJsonEngine.shared();
+    private String examsDone;
+    private String examsDoable;
+    private String taxes;
+    private String classrooms;
+
+    @Setup
+    public void setUp() {
+        examsDone = InfostudPayloads.examsDone(size);
+        examsDoable = InfostudPayloads.examsDoable(size);
+        taxes = InfostudPayloads.taxes(size);
+        classrooms = InfostudPayloads.classrooms(size);
+    }
+
+    @Benchmark
+    public List<ExamDone> examsDoneLegacy() {
+        return LegacyParsers.examsDone(examsDone);
+    }
+
+    @Benchmark
+    public List<ExamDone> examsDoneOrgJsonBinder() {
+        return SapienzaBinders.EXAM_DONE.bindAll(os, orgJson.parseObject(examsDone).getObject("ritorno").getArray("esami"));
+    }
+
+    @Benchmark
+    public List<ExamDone> examsDoneStreamingBinder() {
+        return SapienzaBinders.EXAM_DONE.bindAll(os, streaming.parseObject(examsDone).getObject("ritorno").getArray("esami"));
+    }
+
+    @Benchmark
+    public List<ExamDoable> examsDoableLegacy() {
+        return LegacyParsers.examsDoable(examsDoable);
+    }
+
+    @Benchmark
+    public List<ExamDoable> examsDoableOrgJsonBinder() {
+        return SapienzaBinders.EXAM_DOABLE.bindAll(os, orgJson.parseObject(examsDoable).getObject("ritorno").getArray("esami"));
+    }
+
+    @Benchmark
+    public List<ExamDoable> examsDoableStreamingBinder() {
+        return SapienzaBinders.EXAM_DOABLE.bindAll(os, streaming.parseObject(examsDoable).getObject("ritorno").getArray("esami"));
+    }
+
+    @Benchmark
+    public List<Tax> taxesLegacy() {
+        return LegacyParsers.taxes(taxes);
+    }
+
+    @Benchmark
+    public List<Tax> taxesOrgJsonBinder() {
+        return SapienzaBinders.PAID_TAX.bindAll(os, orgJson.parseObject(taxes).getObject("risultatoLista").getArray("risultati"));
+    }
+
+    @Benchmark
+    public List<Tax> taxesStreamingBinder() {
+        return SapienzaBinders.PAID_TAX.bindAll(os, streaming.parseObject(taxes).getObject("risultatoLista").getArray("risultati"));
+    }
+
+    @Benchmark
+    public List<Classroom> classroomsLegacy() {
+        return LegacyParsers.classrooms(classrooms);
+    }
+
+    @Benchmark
+    public List<Classroom> classroomsOrgJsonBinder() {
+        return SapienzaBinders.CLASSROOM.bindAll(os, orgJson.parseArray(classrooms));
+    }
+
+    @Benchmark
+    public List<Classroom> classroomsStreamingBinder() {
+        return SapienzaBinders.CLASSROOM.bindAll(os, streaming.parseArray(classrooms));
+    }
+}
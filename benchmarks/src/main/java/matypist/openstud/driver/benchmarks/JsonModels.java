@@ -0,0 +1,279 @@
+package matypist.openstud.driver.benchmarks;
+
+import matypist.openstud.driver.core.models.*;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Field by field JSON mapping of the benchmarked models, the baseline the binary codec is compared to.
+ */
+public final class JsonModels {
+
+    private JsonModels() {
+    }
+
+    public static String studentToJson(Student st) {
+        JSONObject object = new JSONObject();
+        putString(object, "cf", st.getSocialSecurityNumber());
+        putString(object, "firstName", st.getFirstName());
+        putString(object, "lastName", st.getLastName());
+        putDate(object, "birthDate", st.getBirthDate());
+        putString(object, "birthCity", st.getBirthCity());
+        putString(object, "birthPlace", st.getBirthPlace());
+        putString(object, "courseYear", st.getCourseYear());
+        putString(object, "firstEnrollment", st.getFirstEnrollment());
+        putString(object, "lastEnrollment", st.getLastEnrollment());
+        putString(object, "departmentName", st.getDepartmentName());
+        putString(object, "courseName", st.getCourseName());
+        putString(object, "nation", st.getNation());
+        putString(object, "email", st.getEmail());
+        putString(object, "citizenship", st.getCitizenship());
+        putString(object, "gender", st.getGender());
+        putString(object, "studentStatus", st.getStudentStatus());
+        object.put("academicYear", st.getAcademicYear());
+        object.put("academicYearCourse", st.getAcademicYearCourse());
+        putString(object, "studentID", st.getStudentID());
+        object.put("codeCourse", st.getCodeCourse());
+        object.put("typeStudent", st.getTypeStudent());
+        object.put("cfu", st.getCfu());
+        object.put("erasmus", st.isErasmus());
+        return object.toString();
+    }
+
+    public static Student studentFromJson(String json) {
+        JSONObject object = new JSONObject(json);
+        Student st = new Student();
+        st.setSocialSecurityNumber(getString(object, "cf"));
+        st.setFirstName(getString(object, "firstName"));
+        st.setLastName(getString(object, "lastName"));
+        st.setBirthDate(getDate(object, "birthDate"));
+        st.setBirthCity(getString(object, "birthCity"));
+        st.setBirthPlace(getString(object, "birthPlace"));
+        st.setCourseYear(getString(object, "courseYear"));
+        st.setFirstEnrollment(getString(object, "firstEnrollment"));
+        st.setLastEnrollment(getString(object, "lastEnrollment"));
+        st.setDepartmentName(getString(object, "departmentName"));
+        st.setCourseName(getString(object, "courseName"));
+        st.setNation(getString(object, "nation"));
+        st.setEmail(getString(object, "email"));
+        st.setCitizenship(getString(object, "citizenship"));
+        st.setGender(getString(object, "gender"));
+        st.setStudentStatus(getString(object, "studentStatus"));
+        st.setAcademicYear(object.getInt("academicYear"));
+        st.setAcademicYearCourse(object.getInt("academicYearCourse"));
+        st.setStudentID(getString(object, "studentID"));
+        st.setCodeCourse(object.getInt("codeCourse"));
+        st.setTypeStudent(object.getInt("typeStudent"));
+        st.setCfu(object.getInt("cfu"));
+        st.setErasmus(object.getBoolean("erasmus"));
+        return st;
+    }
+
+    public static String examsDoneToJson(List<ExamDone> exams) {
+        JSONArray array = new JSONArray();
+        for (ExamDone exam : exams) {
+            JSONObject object = new JSONObject();
+            putString(object, "description", exam.getDescription());
+            putString(object, "examCode", exam.getExamCode());
+            putString(object, "ssd", exam.getSsd());
+            object.put("cfu", exam.getCfu());
+            putDate(object, "date", exam.getDate());
+            object.put("year", exam.getYear());
+            putString(object, "nominalResult", exam.getNominalResult());
+            object.put("result", exam.getResult());
+            object.put("passed", exam.isPassed());
+            object.put("certified", exam.isCertified());
+            array.put(object);
+        }
+        return array.toString();
+    }
+
+    public static List<ExamDone> examsDoneFromJson(String json) {
+        JSONArray array = new JSONArray(json);
+        List<ExamDone> ret = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject object = array.getJSONObject(i);
+            ExamDone exam = new ExamDone();
+            exam.setDescription(getString(object, "description"));
+            exam.setExamCode(getString(object, "examCode"));
+            exam.setSsd(getString(object, "ssd"));
+            exam.setCfu(object.getInt("cfu"));
+            exam.setDate(getDate(object, "date"));
+            exam.setYear(object.getInt("year"));
+            exam.setNominalResult(getString(object, "nominalResult"));
+            exam.setResult(object.getInt("result"));
+            exam.setPassed(object.getBoolean("passed"));
+            exam.setCertified(object.getBoolean("certified"));
+            ret.add(exam);
+        }
+        return ret;
+    }
+
+    public static String reservationsToJson(List<ExamReservation> reservations) {
+        JSONArray array = new JSONArray();
+        for (ExamReservation res : reservations) {
+            JSONObject object = new JSONObject();
+            object.put("reportID", res.getReportID());
+            object.put("sessionID", res.getSessionID());
+            object.put("courseCode", res.getCourseCode());
+            object.put("cfu", res.getCfu());
+            object.put("reservationNumber", res.getReservationNumber());
+            putString(object, "yearCourse", res.getYearCourse());
+            putString(object, "courseDescription", res.getCourseDescription());
+            putString(object, "examSubject", res.getExamSubject());
+            putString(object, "teacher", res.getTeacher());
+            putString(object, "department", res.getDepartment());
+            putString(object, "channel", res.getChannel());
+            putDate(object, "endDate", res.getEndDate());
+            putDate(object, "startDate", res.getStartDate());
+            putDate(object, "reservationDate", res.getReservationDate());
+            putDate(object, "examDate", res.getExamDate());
+            putString(object, "note", res.getNote());
+            putString(object, "ssd", res.getSsd());
+            putString(object, "module", res.getModule());
+            putString(object, "attendingMode", res.getAttendingMode());
+            putString(object, "attendingModeType", res.getAttendingModeType());
+            array.put(object);
+        }
+        return array.toString();
+    }
+
+    public static List<ExamReservation> reservationsFromJson(String json) {
+        JSONArray array = new JSONArray(json);
+        List<ExamReservation> ret = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject object = array.getJSONObject(i);
+            ExamReservation res = new ExamReservation();
+            res.setReportID(object.getInt("reportID"));
+            res.setSessionID(object.getInt("sessionID"));
+            res.setCourseCode(object.getInt("courseCode"));
+            res.setCfu(object.getInt("cfu"));
+            res.setReservationNumber(object.getInt("reservationNumber"));
+            res.setYearCourse(getString(object, "yearCourse"));
+            res.setCourseDescription(getString(object, "courseDescription"));
+            res.setExamSubject(getString(object, "examSubject"));
+            res.setTeacher(getString(object, "teacher"));
+            res.setDepartment(getString(object, "department"));
+            res.setChannel(getString(object, "channel"));
+            res.setEndDate(getDate(object, "endDate"));
+            res.setStartDate(getDate(object, "startDate"));
+            res.setReservationDate(getDate(object, "reservationDate"));
+            res.setExamDate(getDate(object, "examDate"));
+            res.setNote(getString(object, "note"));
+            res.setSsd(getString(object, "ssd"));
+            res.setModule(getString(object, "module"));
+            res.setAttendingMode(getString(object, "attendingMode"));
+            res.setAttendingModeType(getString(object, "attendingModeType"));
+            ret.add(res);
+        }
+        return ret;
+    }
+
+    public static String taxesToJson(List<Tax> taxes) {
+        JSONArray array = new JSONArray();
+        for (Tax tax : taxes) {
+            JSONObject object = new JSONObject();
+            putString(object, "status", tax.getStatus() == null ? null : tax.getStatus().name());
+            putString(object, "code", tax.getCode());
+            putString(object, "codeCourse", tax.getCodeCourse());
+            putString(object, "descriptionCourse", tax.getDescriptionCourse());
+            object.put("amount", tax.getAmount());
+            putDate(object, "paymentDate", tax.getPaymentDate());
+            putDate(object, "expirationDate", tax.getExpirationDate());
+            object.put("academicYear", tax.getAcademicYear());
+            JSONArray descriptions = new JSONArray();
+            for (PaymentDescription description : tax.getPaymentDescriptionList()) {
+                JSONObject item = new JSONObject();
+                putString(item, "description", description.getDescription());
+                if (description.getAmount() != null) item.put("amount", (double) description.getAmount());
+                if (description.getAmountPaid() != null) item.put("amountPaid", (double) description.getAmountPaid());
+                putString(item, "academicYear", description.getAcademicYear());
+                descriptions.put(item);
+            }
+            object.put("paymentDescriptionList", descriptions);
+            array.put(object);
+        }
+        return array.toString();
+    }
+
+    public static List<Tax> taxesFromJson(String json) {
+        JSONArray array = new JSONArray(json);
+        List<Tax> ret = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject object = array.getJSONObject(i);
+            Tax tax = new Tax();
+            String status = getString(object, "status");
+            tax.setStatus(status == null ? null : Tax.TaxStatus.valueOf(status));
+            tax.setCode(getString(object, "code"));
+            tax.setCodeCourse(getString(object, "codeCourse"));
+            tax.setDescriptionCourse(getString(object, "descriptionCourse"));
+            tax.setAmount(object.getDouble("amount"));
+            tax.setPaymentDate(getDate(object, "paymentDate"));
+            tax.setExpirationDate(getDate(object, "expirationDate"));
+            tax.setAcademicYear(object.getInt("academicYear"));
+            JSONArray descriptions = object.getJSONArray("paymentDescriptionList");
+            for (int j = 0; j < descriptions.length(); j++) {
+                JSONObject item = descriptions.getJSONObject(j);
+                PaymentDescription description = new PaymentDescription();
+                description.setDescription(getString(item, "description"));
+                if (item.has("amount")) description.setAmount(item.getDouble("amount"));
+                if (item.has("amountPaid")) description.setAmountPaid(item.getDouble("amountPaid"));
+                description.setAcademicYear(getString(item, "academicYear"));
+                tax.getPaymentDescriptionList().add(description);
+            }
+            ret.add(tax);
+        }
+        return ret;
+    }
+
+    public static String lessonsToJson(List<Lesson> lessons) {
+        JSONArray array = new JSONArray();
+        for (Lesson lesson : lessons) {
+            JSONObject object = new JSONObject();
+            putString(object, "name", lesson.getName());
+            putString(object, "where", lesson.getWhere());
+            if (lesson.getStart() != null) object.put("start", lesson.getStart().toString());
+            if (lesson.getEnd() != null) object.put("end", lesson.getEnd().toString());
+            putString(object, "teacher", lesson.getTeacher());
+            array.put(object);
+        }
+        return array.toString();
+    }
+
+    public static List<Lesson> lessonsFromJson(String json) {
+        JSONArray array = new JSONArray(json);
+        List<Lesson> ret = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject object = array.getJSONObject(i);
+            Lesson lesson = new Lesson();
+            lesson.setName(getString(object, "name"));
+            lesson.setWhere(getString(object, "where"));
+            if (object.has("start")) lesson.setStart(LocalDateTime.parse(object.getString("start")));
+            if (object.has("end")) lesson.setEnd(LocalDateTime.parse(object.getString("end")));
+            lesson.setTeacher(getString(object, "teacher"));
+            ret.add(lesson);
+        }
+        return ret;
+    }
+
+    private static void putString(JSONObject object, String key, String value) {
+        if (value != null) object.put(key, value);
+    }
+
+    private static void putDate(JSONObject object, String key, LocalDate value) {
+        if (value != null) object.put(key, value.toString());
+    }
+
+    private static String getString(JSONObject object, String key) {
+        return object.has(key) ? object.getString(key) : null;
+    }
+
+    private static LocalDate getDate(JSONObject object, String key) {
+        return object.has(key) ? LocalDate.parse(object.getString(key)) : null;
+    }
+}
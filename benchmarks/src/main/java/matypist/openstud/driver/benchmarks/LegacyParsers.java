@@ -0,0 +1,220 @@
+package matypist.openstud.driver.benchmarks;
+
+import matypist.openstud.driver.core.models.*;
+import matypist.openstud.driver.core.providers.sapienza.SapienzaDates;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The org.json parsing loops the Sapienza handlers used before {@link matypist.openstud.driver.core.json.ModelBinder},
+ * kept as the baseline of {@link JsonBindingBenchmark}.
+ */
+final class LegacyParsers {
+
+    private LegacyParsers() {
+    }
+
+    static List<ExamDone> examsDone(String body) {
+        JSONArray array = new JSONObject(body).getJSONObject("ritorno").getJSONArray("esami");
+        List<ExamDone> list = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject obj = array.getJSONObject(i);
+            ExamDone exam = new ExamDone();
+            for (String element : obj.keySet()) {
+                switch (element) {
+                    case "codiceInsegnamento":
+                        exam.setExamCode(obj.getString("codiceInsegnamento"));
+                        break;
+                    case "cfu":
+                        exam.setCfu(obj.getInt("cfu"));
+                        break;
+                    case "descrizione":
+                        exam.setDescription(obj.getString("descrizione"));
+                        break;
+                    case "ssd":
+                        exam.setSsd(obj.getString("ssd"));
+                        break;
+                    case "data":
+                        if (obj.isNull("data")) break;
+                        String date = obj.getString("data");
+                        if (date.isEmpty()) break;
+                        exam.setDate(SapienzaDates.parseDate(date));
+                        break;
+                    case "certificato":
+                        exam.setCertified(obj.getBoolean("certificato"));
+                        break;
+                    case "superamento":
+                        exam.setPassed(obj.getBoolean("superamento"));
+                        break;
+                    case "annoAcca":
+                        exam.setYear(obj.getInt("annoAcca"));
+                        break;
+                    case "esito":
+                        JSONObject esito = obj.getJSONObject("esito");
+                        if (esito.has("valoreNominale")) exam.setNominalResult(esito.getString("valoreNominale"));
+                        if (esito.has("valoreNonNominale") && !esito.isNull("valoreNonNominale"))
+                            exam.setResult(esito.getInt("valoreNonNominale"));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            list.add(exam);
+        }
+        return list;
+    }
+
+    static List<ExamDoable> examsDoable(String body) {
+        JSONArray array = new JSONObject(body).getJSONObject("ritorno").getJSONArray("esami");
+        List<ExamDoable> list = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject obj = array.getJSONObject(i);
+            ExamDoable exam = new ExamDoable();
+            for (String element : obj.keySet()) {
+                switch (element) {
+                    case "codiceInsegnamento":
+                        exam.setExamCode(obj.getString("codiceInsegnamento"));
+                        break;
+                    case "codiceModuloDidattico":
+                        exam.setModuleCode(obj.getString("codiceModuloDidattico"));
+                        break;
+                    case "codiceCorsoInsegnamento":
+                        exam.setCourseCode(obj.getString("codiceCorsoInsegnamento"));
+                        break;
+                    case "cfu":
+                        exam.setCfu(obj.getInt("cfu"));
+                        break;
+                    case "descrizione":
+                        exam.setDescription(obj.getString("descrizione"));
+                        break;
+                    case "ssd":
+                        exam.setSsd(obj.getString("ssd"));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            list.add(exam);
+        }
+        return list;
+    }
+
+    static List<Tax> taxes(String body) {
+        JSONArray array = new JSONObject(body).getJSONObject("risultatoLista").getJSONArray("risultati");
+        List<Tax> list = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject obj = array.getJSONObject(i);
+            Tax tax = new Tax();
+            for (String element : obj.keySet()) {
+                switch (element) {
+                    case "codiceBollettino":
+                        tax.setCode(obj.getString(element));
+                        break;
+                    case "corsoDiStudi":
+                        tax.setCodeCourse(obj.getString(element));
+                        break;
+                    case "descCorsoDiStudi":
+                        tax.setDescriptionCourse(obj.getString(element));
+                        break;
+                    case "impoVers":
+                        String content = obj.getString(element);
+                        if (!content.isEmpty()) tax.setAmount(Double.parseDouble(content));
+                        break;
+                    case "annoAcca":
+                        tax.setAcademicYear(obj.getInt(element));
+                        break;
+                    case "dataVers":
+                        tax.setPaymentDate(SapienzaDates.parseDate(obj.getString(element)));
+                        break;
+                    case "importoBollettino":
+                        if (obj.isNull(element)) break;
+                        tax.setAmount(Double.parseDouble(obj.getString(element).replace(",", ".")));
+                        break;
+                    case "scadenza":
+                        if (obj.getString(element).isEmpty()) continue;
+                        tax.setExpirationDate(SapienzaDates.parseDate(obj.getString(element)));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            JSONArray causali = obj.getJSONArray("causali");
+            List<PaymentDescription> descriptions = new ArrayList<>(causali.length());
+            for (int j = 0; j < causali.length(); j++) {
+                JSONObject cause = causali.getJSONObject(j);
+                PaymentDescription pdes = new PaymentDescription();
+                for (String element : cause.keySet()) {
+                    switch (element) {
+                        case "descrizione":
+                            pdes.setDescription(cause.getString(element));
+                            break;
+                        case "importo":
+                            pdes.setAmount(Double.parseDouble(cause.getString(element)));
+                            break;
+                        case "annoAccademicoString":
+                            pdes.setAcademicYear(cause.getString(element));
+                            break;
+                        case "impoVers":
+                            pdes.setAmountPaid(Double.parseDouble(cause.getString(element)));
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                descriptions.add(pdes);
+            }
+            tax.setPaymentDescriptionList(descriptions);
+            tax.setStatus(Tax.TaxStatus.PAID);
+            list.add(tax);
+        }
+        return list;
+    }
+
+    static List<Classroom> classrooms(String body) {
+        JSONArray array = new JSONArray(body);
+        List<Classroom> list = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject object = array.getJSONObject(i);
+            Classroom classroom = new Classroom();
+            for (String info : object.keySet()) {
+                if (object.isNull(info)) continue;
+                switch (info) {
+                    case "roominternalid":
+                        classroom.setInternalId(object.getInt(info));
+                        break;
+                    case "fullname":
+                        classroom.setFullName(object.getString(info));
+                        break;
+                    case "name":
+                        classroom.setName(object.getString(info));
+                        break;
+                    case "site":
+                        classroom.setWhere(object.getString(info));
+                        break;
+                    case "lat":
+                        classroom.setLatitude(object.getDouble(info));
+                        break;
+                    case "lng":
+                        classroom.setLongitude(object.getDouble(info));
+                        break;
+                    case "occupied":
+                        classroom.setOccupied(object.getBoolean(info));
+                        break;
+                    case "willbeoccupied":
+                        classroom.setWillBeOccupied(object.getBoolean(info));
+                        break;
+                    case "weight":
+                        classroom.setWeight(object.getInt(info));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            list.add(classroom);
+        }
+        return list;
+    }
+}
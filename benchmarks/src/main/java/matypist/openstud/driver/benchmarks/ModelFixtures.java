@@ -0,0 +1,131 @@
+package matypist.openstud.driver.benchmarks;
+
+import matypist.openstud.driver.core.models.*;
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic models shaped like the answers of a typical student, shared by the benchmarks.
+ */
+public final class ModelFixtures {
+    private static final String[] SSD = {"INF/01", "MAT/05", "ING-INF/05", "FIS/01", "MAT/03"};
+    private static final String[] TEACHERS = {"Rossi Mario", "Bianchi Laura", "Verdi Giuseppe", "Neri Anna"};
+
+    private ModelFixtures() {
+    }
+
+    public static Student student() {
+        Student st = new Student();
+        st.setSocialSecurityNumber("RSSMRA98C12H501X");
+        st.setFirstName("Mario");
+        st.setLastName("Rossi");
+        st.setBirthDate(LocalDate.of(1998, 3, 12));
+        st.setBirthCity("Roma");
+        st.setBirthPlace("Roma (RM)");
+        st.setCourseYear("3");
+        st.setFirstEnrollment("2017/2018");
+        st.setLastEnrollment("2019/2020");
+        st.setDepartmentName("Ingegneria dell'informazione, informatica e statistica");
+        st.setCourseName("Informatica");
+        st.setNation("Italia");
+        st.setEmail("rossi.1234567@studenti.uniroma1.it");
+        st.setCitizenship("Italiana");
+        st.setGender("M");
+        st.setStudentStatus("Iscritto");
+        st.setAcademicYear(2019);
+        st.setAcademicYearCourse(2017);
+        st.setStudentID("1234567");
+        st.setCodeCourse(29923);
+        st.setTypeStudent(1);
+        st.setCfu(138);
+        return st;
+    }
+
+    public static List<ExamDone> examsDone(int size) {
+        List<ExamDone> ret = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ExamDone exam = new ExamDone();
+            exam.setDescription("INSEGNAMENTO NUMERO " + i);
+            exam.setExamCode(String.valueOf(1015880 + i));
+            exam.setSsd(SSD[i % SSD.length]);
+            exam.setCfu(i % 3 == 0 ? 12 : 6);
+            exam.setDate(LocalDate.of(2018 + i % 3, 1 + i % 12, 1 + i % 28));
+            exam.setYear(2017 + i % 3);
+            exam.setResult(18 + i % 13);
+            exam.setNominalResult(String.valueOf(18 + i % 13));
+            exam.setPassed(true);
+            exam.setCertified(i % 4 != 0);
+            ret.add(exam);
+        }
+        return ret;
+    }
+
+    public static List<ExamReservation> reservations(int size) {
+        List<ExamReservation> ret = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ExamReservation res = new ExamReservation();
+            res.setReportID(400000 + i);
+            res.setSessionID(1200 + i);
+            res.setCourseCode(29923);
+            res.setCfu(6);
+            res.setReservationNumber(i + 1);
+            res.setYearCourse("2019/2020");
+            res.setCourseDescription("Informatica");
+            res.setExamSubject("INSEGNAMENTO NUMERO " + i);
+            res.setTeacher(TEACHERS[i % TEACHERS.length]);
+            res.setDepartment("Ingegneria dell'informazione, informatica e statistica");
+            res.setChannel("A-L");
+            res.setStartDate(LocalDate.of(2020, 1, 1 + i % 20));
+            res.setEndDate(LocalDate.of(2020, 1, 10 + i % 20));
+            res.setExamDate(LocalDate.of(2020, 1, 12 + i % 18));
+            res.setReservationDate(LocalDate.of(2020, 1, 2 + i % 20));
+            res.setNote("Aula Alfa, ore 9:00");
+            res.setSsd(SSD[i % SSD.length]);
+            res.setModule("Modulo unico");
+            res.setAttendingMode("Presenza");
+            ret.add(res);
+        }
+        return ret;
+    }
+
+    public static List<Tax> taxes(int size) {
+        List<Tax> ret = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Tax tax = new Tax();
+            tax.setStatus(i % 2 == 0 ? Tax.TaxStatus.PAID : Tax.TaxStatus.UNPAID);
+            tax.setCode("A0000" + i);
+            tax.setCodeCourse("29923");
+            tax.setDescriptionCourse("Informatica");
+            tax.setAmount(156.0 + i * 10.5);
+            tax.setAcademicYear(2017 + i % 3);
+            tax.setExpirationDate(LocalDate.of(2019 + i % 2, 12, 31));
+            if (i % 2 == 0) tax.setPaymentDate(LocalDate.of(2019, 11, 1 + i % 28));
+            PaymentDescription regional = new PaymentDescription();
+            regional.setDescription("Tassa regionale per il diritto allo studio");
+            regional.setAmount(140.0);
+            regional.setAmountPaid(i % 2 == 0 ? 140.0 : 0.0);
+            regional.setAcademicYear("2019/2020");
+            tax.getPaymentDescriptionList().add(regional);
+            ret.add(tax);
+        }
+        return ret;
+    }
+
+    public static List<Lesson> lessons(int size) {
+        List<Lesson> ret = new ArrayList<>(size);
+        LocalDateTime start = LocalDateTime.of(2019, 10, 1, 8, 0);
+        for (int i = 0; i < size; i++) {
+            Lesson lesson = new Lesson();
+            lesson.setName("INSEGNAMENTO NUMERO " + i % 6);
+            lesson.setWhere("Aula " + (i % 4 + 1));
+            lesson.setTeacher(TEACHERS[i % TEACHERS.length]);
+            lesson.setStart(start.plusHours(i * 2L));
+            lesson.setEnd(start.plusHours(i * 2L + 2));
+            ret.add(lesson);
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,79 @@
+package matypist.openstud.driver.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Anonymized answers recorded from Infostud, GOMP and uniroma1.it, stored under {@code /fixtures}. Lists are scaled by
+ * repeating the recorded entries, so that the parsers can be measured at several payload sizes.
+ */
+public final class RecordedFixtures {
+
+    private RecordedFixtures() {
+    }
+
+    public static String load(String name) {
+        try (InputStream in = RecordedFixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) throw new IllegalArgumentException("Missing fixture " + name);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) out.write(buffer, 0, read);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads a fixture and repeats {@code times} times the entries of the array stored under {@code key}, or of the
+     * top level array when {@code key} is null.
+     */
+    public static String loadScaled(String name, String key, int times) {
+        String json = load(name);
+        int open = key == null ? json.indexOf('[') : json.indexOf('[', json.indexOf("\"" + key + "\""));
+        if (open == -1) throw new IllegalArgumentException("No array " + key + " in " + name);
+        int close = matchingBracket(json, open);
+        return repeat(json, open + 1, close, ",", times);
+    }
+
+    /**
+     * Loads an HTML fixture and repeats {@code times} times the markup between the two markers.
+     */
+    public static String loadScaledHtml(String name, String startMarker, String endMarker, int times) {
+        String html = load(name);
+        int start = html.indexOf(startMarker);
+        int end = html.indexOf(endMarker, start);
+        if (start == -1 || end == -1) throw new IllegalArgumentException("Markers not found in " + name);
+        return repeat(html, start + startMarker.length(), end, "\n", times);
+    }
+
+    private static String repeat(String text, int start, int end, String separator, int times) {
+        String section = text.substring(start, end);
+        StringBuilder sb = new StringBuilder(text.length() + (section.length() + separator.length()) * (times - 1));
+        sb.append(text, 0, start);
+        for (int i = 0; i < times; i++) {
+            if (i > 0) sb.append(separator);
+            sb.append(section);
+        }
+        return sb.append(text, end, text.length()).toString();
+    }
+
+    private static int matchingBracket(String json, int open) {
+        int depth = 0;
+        boolean inString = false;
+        for (int i = open; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (inString) {
+                if (c == '\\') i++;
+                else if (c == '"') inString = false;
+            } else if (c == '"') inString = true;
+            else if (c == '[' || c == '{') depth++;
+            else if ((c == ']' || c == '}') && --depth == 0) return i;
+        }
+        throw new IllegalArgumentException("Unbalanced array at " + open);
+    }
+}
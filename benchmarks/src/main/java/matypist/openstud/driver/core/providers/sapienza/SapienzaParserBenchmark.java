@@ -0,0 +1,125 @@
+package matypist.openstud.driver.core.providers.sapienza;
+
+import matypist.openstud.driver.benchmarks.RecordedFixtures;
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.json.JsonArrayView;
+import matypist.openstud.driver.core.models.*;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.threeten.bp.format.DateTimeFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every Sapienza parser fed with the recorded answers of {@link RecordedFixtures}, from the raw body to the models.
+ * Lives in the provider package to reach the package-private helpers. The list answers are replicated
+ * {@code scale} times; run with {@code -prof gc} to read the allocation rate next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SapienzaParserBenchmark {
+    private final Openstud os = new Openstud();
+    private final DateTimeFormatter newsFormatter = SapienzaNewsHandler.getNewsDateFormatter("it");
+    private String student;
+    private String newsDetail;
+
+    @State(Scope.Benchmark)
+    public static class Payloads {
+        @Param({"1", "10", "100"})
+        public int scale;
+
+        String timetable;
+        String reservations;
+        String iseeHistory;
+        String examsDone;
+        String taxes;
+        String newsListing;
+        String pdf;
+
+        @Setup
+        public void setUp() {
+            timetable = RecordedFixtures.loadScaled("timetable.json", null, scale);
+            reservations = RecordedFixtures.loadScaled("reservations.json", "appelli", scale);
+            iseeHistory = RecordedFixtures.loadScaled("isee_history.json", "risultati", scale);
+            examsDone = RecordedFixtures.loadScaled("exams_done.json", "esami", scale);
+            taxes = RecordedFixtures.loadScaled("taxes_paid.json", "risultati", scale);
+            newsListing = RecordedFixtures.loadScaledHtml("news_listing.html", "<div class=\"view-content\">", "</div></div>", scale);
+            pdf = RecordedFixtures.loadScaled("reservation_pdf.json", "byte", scale * 64);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        student = RecordedFixtures.load("student.json");
+        newsDetail = RecordedFixtures.load("news_detail.html");
+    }
+
+    @Benchmark
+    public void extractLesson(Payloads payloads, Blackhole bh) {
+        JSONArray array = new JSONArray(payloads.timetable);
+        for (int i = 0; i < array.length(); i++) bh.consume(SapienzaHelper.extractLesson(os, array.getJSONObject(i), 0));
+    }
+
+    @Benchmark
+    public Student extractStudent() {
+        return SapienzaHelper.extractStudent(os, new JSONObject(student).getJSONObject("ritorno"));
+    }
+
+    @Benchmark
+    public List<ExamReservation> extractReservations(Payloads payloads) {
+        JSONArray array = new JSONObject(payloads.reservations).getJSONObject("ritorno").getJSONArray("appelli");
+        return SapienzaHelper.extractReservations(os, array);
+    }
+
+    @Benchmark
+    public void extractIsee(Payloads payloads, Blackhole bh) {
+        JSONArray array = new JSONObject(payloads.iseeHistory).getJSONObject("risultatoLista").getJSONArray("risultati");
+        for (int i = 0; i < array.length(); i++) bh.consume(SapienzaHelper.extractIsee(os, array.getJSONObject(i)));
+    }
+
+    @Benchmark
+    public List<ExamDone> examsDone(Payloads payloads) {
+        JsonArrayView array = os.getJsonEngine().parseObject(payloads.examsDone).getObject("ritorno").getArray("esami");
+        return SapienzaBinders.EXAM_DONE.bindAll(os, array);
+    }
+
+    @Benchmark
+    public List<Tax> taxes(Payloads payloads) {
+        JsonArrayView array = os.getJsonEngine().parseObject(payloads.taxes).getObject("risultatoLista").getArray("risultati");
+        return SapienzaBinders.PAID_TAX.bindAll(os, array);
+    }
+
+    @Benchmark
+    public List<News> extractNews(Payloads payloads) {
+        Document doc = Jsoup.parse(payloads.newsListing);
+        List<News> ret = new ArrayList<>();
+        for (Element box : doc.getElementsByClass("box-news")) {
+            News news = SapienzaHelper.extractNews(box, "it", "https://www.uniroma1.it");
+            if (news != null) ret.add(news);
+        }
+        return ret;
+    }
+
+    @Benchmark
+    public News extractNewsDetails() {
+        News news = new News();
+        SapienzaHelper.extractNewsDetails(news, Jsoup.parse(newsDetail), true, newsFormatter);
+        return news;
+    }
+
+    @Benchmark
+    public byte[] extractPdf(Payloads payloads) {
+        return SapienzaHelper.extractPdf(new JSONObject(payloads.pdf).getJSONObject("risultato").getJSONArray("byte"));
+    }
+}
@@ -1,25 +1,61 @@
 package matypist.openstud.driver.core;
 
+import matypist.openstud.driver.core.cache.PhotoCache;
+import matypist.openstud.driver.core.cache.StringPool;
+import matypist.openstud.driver.core.cache.TtlCache;
 import matypist.openstud.driver.core.internals.*;
+import matypist.openstud.driver.core.json.JsonEngine;
+import matypist.openstud.driver.core.json.OrgJsonEngine;
+import matypist.openstud.driver.core.logging.AsyncLogDispatcher;
+import matypist.openstud.driver.core.logging.SessionLogger;
+import matypist.openstud.driver.core.metrics.MetricsEventListener;
+import matypist.openstud.driver.core.metrics.NoopMetrics;
+import matypist.openstud.driver.core.metrics.OpenstudMetrics;
+import matypist.openstud.driver.core.metrics.OperationScope;
 import matypist.openstud.driver.core.models.*;
+import matypist.openstud.driver.core.net.CachingDns;
+import matypist.openstud.driver.core.net.ConnectionWarmer;
+import matypist.openstud.driver.core.net.DnsInvalidationInterceptor;
 import matypist.openstud.driver.core.providers.sapienza.*;
+import matypist.openstud.driver.core.replay.HttpRedactor;
+import matypist.openstud.driver.core.resilience.Bulkhead;
+import matypist.openstud.driver.core.resilience.BulkheadInterceptor;
+import matypist.openstud.driver.core.resilience.CircuitBreakerInterceptor;
+import matypist.openstud.driver.core.resilience.Upstream;
+import matypist.openstud.driver.core.search.NewsIndex;
+import matypist.openstud.driver.core.sync.ProfileSnapshot;
+import matypist.openstud.driver.core.sync.ProfileSynchronizer;
+import matypist.openstud.driver.core.sync.SyncPart;
+import matypist.openstud.driver.core.trace.Tracer;
 import matypist.openstud.driver.exceptions.*;
+import okhttp3.ConnectionPool;
 import okhttp3.ConnectionSpec;
+import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import org.apache.commons.lang3.tuple.Pair;
 import org.threeten.bp.LocalDate;
+
+import java.io.Closeable;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-public class Openstud implements AuthenticationHandler, BioHandler, NewsHandler, TaxHandler, ClassroomHandler, ExamHandler {
+public class Openstud implements AuthenticationHandler, BioHandler, NewsHandler, TaxHandler, ClassroomHandler, ExamHandler, Closeable {
+    private static final long REFRESH_COALESCE_MILLIS = 1000;
     private int maxTries;
     private String endpointAPI;
     private String endpointLogin;
     private String endpointTimetable;
+    private String endpointWebsite;
     private volatile String token;
     private String studentPassword;
     private String studentID;
@@ -38,6 +74,21 @@ public class Openstud implements AuthenticationHandler, BioHandler, NewsHandler,
     private ExamHandler examHandler;
     private ProviderConfig config;
     private OpenstudHelper.Mode mode;
+    private final NewsIndex newsIndex = new NewsIndex();
+    private PhotoCache photoCache;
+    private TtlCache<String, StudentCard> studentCardCache;
+    private ExecutorService syncExecutor;
+    private boolean ownSyncExecutor;
+    private StringPool stringPool;
+    private JsonEngine jsonEngine;
+    private OpenstudMetrics metrics;
+    private Tracer tracer;
+    private SessionLogger sessionLogger;
+    private Map<Upstream, Bulkhead> bulkheads;
+    private ConnectionWarmer warmer;
+    private int warmUpTimeout;
+    private volatile long refreshGeneration;
+    private volatile long lastRefresh;
 
     public Openstud() {
         super();
@@ -49,19 +100,61 @@ public class Openstud implements AuthenticationHandler, BioHandler, NewsHandler,
         this.studentID = builder.studentID;
         this.studentPassword = builder.password;
         this.logger = builder.logger;
+        this.sessionLogger = new SessionLogger(builder.logger, builder.logBodyLimit, builder.logBodySampleRate,
+                HttpRedactor.forLogs(), builder.asyncLogging ? AsyncLogDispatcher.shared() : null);
         this.isReady = builder.readyState;
         this.waitTimeClassroomRequest = builder.waitTimeClassroomRequest;
         this.limitSearch = builder.limitSearchResults;
         this.mode = builder.mode;
-        client = new OkHttpClient.Builder()
+        OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder()
                 .connectTimeout(builder.connectTimeout, TimeUnit.SECONDS)
                 .writeTimeout(builder.writeTimeout, TimeUnit.SECONDS)
                 .readTimeout(builder.readTimeout, TimeUnit.SECONDS)
                 .retryOnConnectionFailure(true)
-                .connectionSpecs(Collections.singletonList(ConnectionSpec.COMPATIBLE_TLS))
-                .build();
+                .connectionSpecs(getConnectionSpecs(builder))
+                // room for the warmed connections to the API, login and timetable endpoints
+                .connectionPool(new ConnectionPool(Math.max(5, 3 * builder.warmUpConnections), 5, TimeUnit.MINUTES));
+        if (builder.dns != null) clientBuilder.dns(builder.dns);
+        if (builder.dns instanceof CachingDns)
+            clientBuilder.addInterceptor(new DnsInvalidationInterceptor((CachingDns) builder.dns));
+        bulkheads = new EnumMap<>(Upstream.class);
+        for (Upstream upstream : Upstream.values()) {
+            Bulkhead bulkhead = builder.bulkheads.get(upstream);
+            bulkheads.put(upstream, bulkhead == null ? Bulkhead.defaults(upstream) : bulkhead);
+        }
+        for (Interceptor interceptor : builder.interceptors) clientBuilder.addInterceptor(interceptor);
+        warmer = new ConnectionWarmer(this, builder.warmUpConnections);
+        warmUpTimeout = builder.connectTimeout + builder.readTimeout;
+        clientBuilder.addInterceptor(warmer);
+        clientBuilder.addInterceptor(new BulkheadInterceptor(url -> getBulkhead(getUpstream(url))));
+        if (builder.circuitBreakers != null) clientBuilder.addInterceptor(new CircuitBreakerInterceptor(builder.circuitBreakers));
+        metrics = builder.metrics == null ? NoopMetrics.shared() : builder.metrics;
+        tracer = builder.tracer;
+        if (!(metrics instanceof NoopMetrics) || tracer != null)
+            clientBuilder.eventListenerFactory(MetricsEventListener.factory(metrics));
+        client = clientBuilder.build();
+        photoCache = new PhotoCache(builder.photoCacheSize, builder.photoDiskCache);
+        studentCardCache = new TtlCache<>(TimeUnit.SECONDS.toMillis(builder.studentCardCacheTtl), builder.studentCardCacheSize);
+        syncExecutor = builder.syncExecutor;
+        stringPool = builder.stringPool;
+        jsonEngine = builder.jsonEngine;
         init();
+        if (builder.endpointAPI != null) endpointAPI = builder.endpointAPI;
+        if (builder.endpointLogin != null) endpointLogin = builder.endpointLogin;
+        if (builder.endpointTimetable != null) endpointTimetable = builder.endpointTimetable;
+        if (builder.endpointWebsite != null) endpointWebsite = builder.endpointWebsite;
         config.addKeys(builder.keyMap);
+        if (builder.keepAliveInterval > 0)
+            warmer.startKeepAlive(builder.keepAliveInterval, builder.keepAliveMaxIdle, TimeUnit.SECONDS);
+    }
+
+    private static List<ConnectionSpec> getConnectionSpecs(OpenstudBuilder builder) {
+        // plain http is only allowed when an endpoint is explicitly overridden with it, e.g. a local stand-in server
+        for (String endpoint : new String[]{builder.endpointAPI, builder.endpointLogin, builder.endpointTimetable, builder.endpointWebsite}) {
+            if (endpoint != null && endpoint.startsWith("http://"))
+                return Arrays.asList(ConnectionSpec.COMPATIBLE_TLS, ConnectionSpec.CLEARTEXT);
+        }
+        return Collections.singletonList(ConnectionSpec.COMPATIBLE_TLS);
     }
 
     private void init() {
@@ -78,6 +171,7 @@ public class Openstud implements AuthenticationHandler, BioHandler, NewsHandler,
         endpointAPI = config.getEndpointAPI(mode);
         endpointLogin = config.getEndpointLogin(mode);
         endpointTimetable = config.getEndpointTimetable(mode);
+        endpointWebsite = config.getEndpointWebsite(mode);
         key = config.getKey(mode);
     }
 
@@ -105,6 +199,29 @@ public class Openstud implements AuthenticationHandler, BioHandler, NewsHandler,
         return endpointTimetable;
     }
 
+    public String getEndpointWebsite() {
+        return endpointWebsite;
+    }
+
+    /**
+     * Returns the upstream of a URL reached by the session, null if it doesn't belong to any of them.
+     */
+    public Upstream getUpstream(String url) {
+        if (url == null) return null;
+        int query = url.indexOf('?');
+        String path = query < 0 ? url : url.substring(0, query);
+        if (endpointLogin != null && url.startsWith(endpointLogin)) return Upstream.LOGIN;
+        if (path.contains("/cartastudente/") && path.endsWith("/foto")) return Upstream.PHOTO;
+        if (endpointAPI != null && url.startsWith(endpointAPI)) return Upstream.API;
+        if (endpointTimetable != null && url.startsWith(endpointTimetable)) return Upstream.TIMETABLE;
+        if (endpointWebsite != null && url.startsWith(endpointWebsite)) return Upstream.WEBSITE;
+        return null;
+    }
+
+    public Bulkhead getBulkhead(Upstream upstream) {
+        return upstream == null ? null : bulkheads.get(upstream);
+    }
+
     public String getStudentPassword() {
         return studentPassword;
     }
@@ -133,6 +250,34 @@ public class Openstud implements AuthenticationHandler, BioHandler, NewsHandler,
         return limitSearch;
     }
 
+    public NewsIndex getNewsIndex() {
+        return newsIndex;
+    }
+
+    public PhotoCache getPhotoCache() {
+        return photoCache;
+    }
+
+    public TtlCache<String, StudentCard> getStudentCardCache() {
+        return studentCardCache;
+    }
+
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
+    public JsonEngine getJsonEngine() {
+        return jsonEngine == null ? OrgJsonEngine.shared() : jsonEngine;
+    }
+
+    public OpenstudMetrics getMetrics() {
+        return metrics;
+    }
+
+    public Tracer getTracer() {
+        return tracer;
+    }
+
     public void setStudentPassword(String password) {
         studentPassword = password;
     }
@@ -154,11 +299,25 @@ public class Openstud implements AuthenticationHandler, BioHandler, NewsHandler,
     }
 
     void log(Level lvl, String str) {
-        if (logger != null) logger.log(lvl, str);
+        sessionLogger.log(lvl, str);
     }
 
     public void log(Level lvl, Object obj) {
-        if (logger != null) logger.log(lvl, obj.toString());
+        sessionLogger.log(lvl, obj);
+    }
+
+    /**
+     * Builds the message only if the logger accepts the level.
+     */
+    public void log(Level lvl, Supplier<String> message) {
+        sessionLogger.log(lvl, message);
+    }
+
+    /**
+     * Logs a provider answer, sampled, truncated and with tokens and personal data masked.
+     */
+    public void logBody(Level lvl, String body) {
+        sessionLogger.logBody(lvl, body);
     }
 
     public boolean isReady() {
@@ -166,192 +325,296 @@ public class Openstud implements AuthenticationHandler, BioHandler, NewsHandler,
     }
 
     @Override
-    public synchronized void refreshToken() throws OpenstudRefreshException, OpenstudInvalidResponseException {
+    public void refreshToken() throws OpenstudRefreshException, OpenstudInvalidResponseException {
         if (!config.isRefreshEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        authenticator.refreshToken();
+        OperationScope scope = OperationScope.begin(metrics, tracer, "refreshToken");
+        long observed = refreshGeneration;
+        try {
+            synchronized (this) {
+                // concurrent handlers failing on the same expired token share a single refresh
+                if (observed != refreshGeneration || System.currentTimeMillis() - lastRefresh < REFRESH_COALESCE_MILLIS) {
+                    scope.setAttribute("coalesced", true);
+                    return;
+                }
+                authenticator.refreshToken();
+                OperationScope.recordTokenRefresh();
+                lastRefresh = System.currentTimeMillis();
+                refreshGeneration++;
+            }
+        } catch (Exception e) {
+            scope.fail(e);
+            throw e;
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Resolves the API, login and timetable hosts and opens the connections configured with
+     * {@link OpenstudBuilder#setWarmUpConnections(int)}, so that the first calls of the session don't pay for them.
+     * Returns the number of warm-up requests that got an answer, it never fails.
+     */
+    public int warmUp() {
+        return measure("warmUp", () -> warmer.warmUp(warmUpTimeout, TimeUnit.SECONDS));
+    }
+
+    public ConnectionWarmer getConnectionWarmer() {
+        return warmer;
+    }
+
+    public ProfileSnapshot sync(SyncPart... parts) {
+        return measure("sync", () -> new ProfileSynchronizer(this, getSyncExecutor()).sync(parts));
+    }
+
+    private synchronized ExecutorService getSyncExecutor() {
+        if (syncExecutor == null) {
+            syncExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 30, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "openstud-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ownSyncExecutor = true;
+        }
+        return syncExecutor;
+    }
+
+    /**
+     * Releases the resources of the session: stops the connection keep-alive, shuts down the threads it started and
+     * closes its idle connections. Requests in progress are completed, but the session shouldn't be used afterwards.
+     * An executor set with {@link OpenstudBuilder#setSyncExecutor} is left running.
+     */
+    @Override
+    public void close() {
+        if (warmer != null) warmer.stopKeepAlive();
+        synchronized (this) {
+            if (ownSyncExecutor) syncExecutor.shutdown();
+        }
+        if (client != null) {
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+    }
+
+    /**
+     * Runs a public operation of the session inside an {@link OperationScope}. Exceptions are recorded on the scope and
+     * rethrown unchanged, so the operation can throw any of the checked exceptions declared by the calling method.
+     */
+    private <T> T measure(String name, Operation<T> operation) {
+        OperationScope scope = OperationScope.begin(metrics, tracer, name);
+        try {
+            return operation.run();
+        } catch (Exception e) {
+            scope.fail(e);
+            throw Openstud.<RuntimeException>rethrow(e);
+        } finally {
+            scope.close();
+        }
+    }
+
+    // the checked exceptions of an operation are those of the public method running it, which declares them
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> E rethrow(Exception e) throws E {
+        throw (E) e;
+    }
+
+    private interface Operation<T> {
+        T run() throws Exception;
     }
 
     @Override
     public void login() throws OpenstudInvalidCredentialsException, OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudUserNotEnabledException {
         if (!config.isAuthEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        authenticator.login();
+        measure("login", () -> {
+            authenticator.login();
+            return null;
+        });
     }
 
     @Override
     public String getSecurityQuestion() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isAuthEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return authenticator.getSecurityQuestion();
+        return measure("getSecurityQuestion", () -> authenticator.getSecurityQuestion());
     }
 
     @Override
     public boolean recoverPassword(String answer) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException, OpenstudInvalidAnswerException {
         if (!config.isAuthEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return authenticator.recoverPassword(answer);
+        return measure("recoverPassword", () -> authenticator.recoverPassword(answer));
     }
 
     @Override
     public void resetPassword(String new_password) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isAuthEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        authenticator.resetPassword(new_password);
+        measure("resetPassword", () -> {
+            authenticator.resetPassword(new_password);
+            return null;
+        });
     }
 
     @Override
     public boolean recoverPasswordWithEmail(String email, String answer) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException, OpenstudInvalidAnswerException {
         if (!config.isAuthEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return authenticator.recoverPasswordWithEmail(email, answer);
+        return measure("recoverPasswordWithEmail", () -> authenticator.recoverPasswordWithEmail(email, answer));
     }
 
     @Override
     public Student getInfoStudent() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isBioEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return personal.getInfoStudent();
+        return measure("getInfoStudent", () -> personal.getInfoStudent());
     }
 
     @Override
     public List<Career> getCareersChoicesForCertificate(Student student, CertificateType certificate) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isCareerForCertificateEnabled() || !config.isCertSupported(certificate))
             throw new IllegalStateException("Provider doesn't support this feature");
-        return personal.getCareersChoicesForCertificate(student, certificate);
+        return measure("getCareersChoicesForCertificate", () -> personal.getCareersChoicesForCertificate(student, certificate));
     }
 
     @Override
     public byte[] getCertificatePDF(Student student, Career career, CertificateType certificate) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isCertEnabled() || !config.isCertSupported(certificate))
             throw new IllegalStateException("Provider doesn't support this feature");
-        return personal.getCertificatePDF(student, career, certificate);
+        return measure("getCertificatePDF", () -> personal.getCertificatePDF(student, career, certificate));
     }
 
     @Override
     public List<News> getNews(String locale, boolean withDescription, Integer limit, Integer page, Integer maxPage,
                               String query) throws OpenstudInvalidResponseException, OpenstudConnectionException {
         if (!config.isNewsEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return newsHandler.getNews(locale, withDescription, limit, page, maxPage, query);
+        return measure("getNews", () -> newsHandler.getNews(locale, withDescription, limit, page, maxPage, query));
+    }
+
+    @Override
+    public NewsStream getNewsStream(String locale, boolean withDescription, Integer limit, Integer page, Integer maxPage,
+                                    String query) {
+        if (!config.isNewsEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
+        return measure("getNewsStream", () -> newsHandler.getNewsStream(locale, withDescription, limit, page, maxPage, query));
     }
 
     @Override
     public List<Event> getNewsletterEvents() throws OpenstudInvalidResponseException, OpenstudConnectionException {
         if (!config.isNewsEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return newsHandler.getNewsletterEvents();
+        return measure("getNewsletterEvents", () -> newsHandler.getNewsletterEvents());
     }
 
     @Override
     public List<Tax> getUnpaidTaxes() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isTaxEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return taxHandler.getUnpaidTaxes();
+        return measure("getUnpaidTaxes", () -> taxHandler.getUnpaidTaxes());
     }
 
     @Override
     public List<Tax> getPaidTaxes() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isTaxEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return taxHandler.getPaidTaxes();
+        return measure("getPaidTaxes", () -> taxHandler.getPaidTaxes());
     }
 
     @Override
     public byte[] getPaymentSlipPDF(Tax unpaidTax) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isTaxEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
         if (unpaidTax.getStatus() == Tax.TaxStatus.PAID) throw new IllegalStateException("Provider doesn't support printing of paid slips");
-        return taxHandler.getPaymentSlipPDF(unpaidTax);
+        return measure("getPaymentSlipPDF", () -> taxHandler.getPaymentSlipPDF(unpaidTax));
     }
 
     @Override
     public Isee getCurrentIsee() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isTaxEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return taxHandler.getCurrentIsee();
+        return measure("getCurrentIsee", () -> taxHandler.getCurrentIsee());
     }
 
     @Override
     public List<Isee> getIseeHistory() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isTaxEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return taxHandler.getIseeHistory();
+        return measure("getIseeHistory", () -> taxHandler.getIseeHistory());
     }
 
     @Override
     public List<Classroom> getClassRoom(String query, boolean withTimetable) throws OpenstudInvalidResponseException, OpenstudConnectionException {
         if (!config.isClassroomEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return classroomHandler.getClassRoom(query, withTimetable);
+        return measure("getClassRoom", () -> classroomHandler.getClassRoom(query, withTimetable));
     }
 
     @Override
     public List<Lesson> getClassroomTimetable(Classroom room, LocalDate date) throws OpenstudConnectionException, OpenstudInvalidResponseException {
         if (!config.isClassroomEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return classroomHandler.getClassroomTimetable(room, date);
+        return measure("getClassroomTimetable", () -> classroomHandler.getClassroomTimetable(room, date));
     }
 
     @Override
     public List<Lesson> getClassroomTimetable(int id, LocalDate date) throws OpenstudConnectionException, OpenstudInvalidResponseException {
         if (!config.isClassroomEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return classroomHandler.getClassroomTimetable(id, date);
+        return measure("getClassroomTimetable", () -> classroomHandler.getClassroomTimetable(id, date));
     }
 
     @Override
     public Map<String, List<Lesson>> getTimetable(List<ExamDoable> exams) throws OpenstudInvalidResponseException, OpenstudConnectionException {
         if (!config.isClassroomEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return classroomHandler.getTimetable(exams);
+        return measure("getTimetable", () -> classroomHandler.getTimetable(exams));
     }
 
     @Override
     public List<ExamDoable> getExamsDoable() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isExamEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return examHandler.getExamsDoable();
+        return measure("getExamsDoable", () -> examHandler.getExamsDoable());
     }
 
     @Override
     public List<ExamDone> getExamsDone() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isExamEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return examHandler.getExamsDone();
+        return measure("getExamsDone", () -> examHandler.getExamsDone());
     }
 
     @Override
     public String getCourseSurvey(String surveyCode) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isSurveyEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return examHandler.getCourseSurvey(surveyCode);
+        return measure("getCourseSurvey", () -> examHandler.getCourseSurvey(surveyCode));
     }
 
     @Override
     public List<ExamReservation> getActiveReservations() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isExamEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return examHandler.getActiveReservations();
+        return measure("getActiveReservations", () -> examHandler.getActiveReservations());
     }
 
     @Override
     public List<ExamReservation> getAvailableReservations(ExamDoable exam, Student student) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isExamEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return examHandler.getAvailableReservations(exam, student);
+        return measure("getAvailableReservations", () -> examHandler.getAvailableReservations(exam, student));
     }
 
     @Override
     public Pair<Integer, String> insertReservation(ExamReservation res) throws OpenstudInvalidResponseException, OpenstudConnectionException, OpenstudInvalidCredentialsException {
         if (!config.isExamEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return examHandler.insertReservation(res);
+        return measure("insertReservation", () -> examHandler.insertReservation(res));
     }
 
     @Override
     public int deleteReservation(ExamReservation res) throws OpenstudInvalidResponseException, OpenstudConnectionException, OpenstudInvalidCredentialsException {
         if (!config.isExamEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return examHandler.deleteReservation(res);
+        return measure("deleteReservation", () -> examHandler.deleteReservation(res));
     }
 
     @Override
     public byte[] getExamReservationPDF(ExamReservation reservation) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isExamEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return examHandler.getExamReservationPDF(reservation);
+        return measure("getExamReservationPDF", () -> examHandler.getExamReservationPDF(reservation));
     }
 
     @Override
     public List<Event> getCalendarEvents(Student student) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isExamEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return examHandler.getCalendarEvents(student);
+        return measure("getCalendarEvents", () -> examHandler.getCalendarEvents(student));
     }
 
     @Override
     public byte[] getStudentPhoto(Student student) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isStudentPhotoEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return personal.getStudentPhoto(student);
+        return measure("getStudentPhoto", () -> personal.getStudentPhoto(student));
     }
 
     @Override
     public StudentCard getStudentCard(Student student, boolean withPhoto) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!config.isStudentCardEnabled()) throw new IllegalStateException("Provider doesn't support this feature");
-        return personal.getStudentCard(student, withPhoto);
+        return measure("getStudentCard", () -> personal.getStudentCard(student, withPhoto));
     }
 }
\ No newline at end of file
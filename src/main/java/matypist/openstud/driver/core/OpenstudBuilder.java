@@ -1,7 +1,23 @@
 package matypist.openstud.driver.core;
 
+import matypist.openstud.driver.core.cache.DiskCache;
+import matypist.openstud.driver.core.cache.StringPool;
+import matypist.openstud.driver.core.json.JsonEngine;
+import matypist.openstud.driver.core.metrics.OpenstudMetrics;
+import matypist.openstud.driver.core.net.CachingDns;
+import matypist.openstud.driver.core.resilience.Bulkhead;
+import matypist.openstud.driver.core.resilience.CircuitBreakerRegistry;
+import matypist.openstud.driver.core.resilience.Upstream;
+import matypist.openstud.driver.core.trace.Tracer;
+import okhttp3.Dns;
+import okhttp3.Interceptor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Logger;
 
 public class OpenstudBuilder {
@@ -14,10 +30,33 @@ public class OpenstudBuilder {
     String studentID;
     String password;
     Logger logger;
+    boolean asyncLogging = true;
+    int logBodyLimit = 2048;
+    double logBodySampleRate = 1;
     boolean readyState = false;
     int limitSearchResults = 13;
     int waitTimeClassroomRequest = 200;
     Map<String, String> keyMap = new HashMap<>();
+    long photoCacheSize = 4 * 1024 * 1024;
+    DiskCache photoDiskCache;
+    int studentCardCacheTtl = 600;
+    int studentCardCacheSize = 64;
+    ExecutorService syncExecutor;
+    StringPool stringPool;
+    JsonEngine jsonEngine;
+    String endpointAPI;
+    String endpointLogin;
+    String endpointTimetable;
+    String endpointWebsite;
+    List<Interceptor> interceptors = new ArrayList<>();
+    OpenstudMetrics metrics;
+    Tracer tracer;
+    CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.shared();
+    Map<Upstream, Bulkhead> bulkheads = new EnumMap<>(Upstream.class);
+    Dns dns = CachingDns.shared();
+    int warmUpConnections = 1;
+    int keepAliveInterval;
+    int keepAliveMaxIdle;
 
     public void setLimitSearchResults(int limitSearchResults) {
         this.limitSearchResults = limitSearchResults;
@@ -63,6 +102,31 @@ public class OpenstudBuilder {
         return this;
     }
 
+    /**
+     * Hands log records to the logger on a background thread, enabled by default. Records are dropped
+     * rather than blocking the session when the logger can't keep up.
+     */
+    public OpenstudBuilder setAsyncLogging(boolean asyncLogging) {
+        this.asyncLogging = asyncLogging;
+        return this;
+    }
+
+    /**
+     * Maximum number of characters logged for each provider answer, 0 disables body logging.
+     */
+    public OpenstudBuilder setLogBodyLimit(int characters) {
+        this.logBodyLimit = characters;
+        return this;
+    }
+
+    /**
+     * Fraction of the provider answers that are logged, between 0 and 1.
+     */
+    public OpenstudBuilder setLogBodySampleRate(double rate) {
+        this.logBodySampleRate = rate;
+        return this;
+    }
+
     public OpenstudBuilder forceReadyState() {
         this.readyState = true;
         return this;
@@ -78,11 +142,166 @@ public class OpenstudBuilder {
         return this;
     }
 
+    /**
+     * Overrides the base URL of the provider API, e.g. to point the session to a stand-in server.
+     * An http:// URL enables cleartext connections for the session.
+     */
+    public OpenstudBuilder setEndpointAPI(String endpointAPI) {
+        this.endpointAPI = endpointAPI;
+        return this;
+    }
+
+    public OpenstudBuilder setEndpointLogin(String endpointLogin) {
+        this.endpointLogin = endpointLogin;
+        return this;
+    }
+
+    public OpenstudBuilder setEndpointTimetable(String endpointTimetable) {
+        this.endpointTimetable = endpointTimetable;
+        return this;
+    }
+
+    public OpenstudBuilder setEndpointWebsite(String endpointWebsite) {
+        this.endpointWebsite = endpointWebsite;
+        return this;
+    }
+
     public OpenstudBuilder setKeys(Map<String, String> keyMap) {
         this.keyMap = keyMap;
         return this;
     }
 
+    public OpenstudBuilder setPhotoCacheSize(long bytes) {
+        this.photoCacheSize = bytes;
+        return this;
+    }
+
+    /**
+     * Keeps student photos on disk across restarts. Build a single {@link DiskCache} and share it between the
+     * sessions using the same directory, so that the size bound holds for all of them. Photos are personal data
+     * and are stored unencrypted: the directory should be private to the application. Disabled by default.
+     */
+    public OpenstudBuilder setPhotoDiskCache(DiskCache diskCache) {
+        this.photoDiskCache = diskCache;
+        return this;
+    }
+
+    public OpenstudBuilder setStudentCardCacheTtl(int seconds) {
+        this.studentCardCacheTtl = seconds;
+        return this;
+    }
+
+    public OpenstudBuilder setStudentCardCacheSize(int size) {
+        this.studentCardCacheSize = size;
+        return this;
+    }
+
+    public OpenstudBuilder setSyncExecutor(ExecutorService executor) {
+        this.syncExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Interns repeated names, like teachers and courses, parsed by the session. Sessions can share the same pool,
+     * see {@link StringPool#shared()}. Disabled by default.
+     */
+    public OpenstudBuilder setStringPool(StringPool stringPool) {
+        this.stringPool = stringPool;
+        return this;
+    }
+
+    /**
+     * Replaces the JSON parser of the answers bound with {@link matypist.openstud.driver.core.json.ModelBinder}, see
+     * {@link JsonEngine}. {@link matypist.openstud.driver.core.json.OrgJsonEngine#shared()} by default.
+     */
+    public OpenstudBuilder setJsonEngine(JsonEngine jsonEngine) {
+        this.jsonEngine = jsonEngine;
+        return this;
+    }
+
+    /**
+     * Records latency, retries, token refreshes and network phases of the session, e.g. in a
+     * {@link matypist.openstud.driver.core.metrics.InMemoryMetrics}. Disabled by default.
+     */
+    public OpenstudBuilder setMetrics(OpenstudMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Traces every public call of the session, with its HTTP attempts, token refreshes, parse phases and
+     * concurrent branches, e.g. into a {@link matypist.openstud.driver.core.trace.RingBufferSpanSink}. Disabled by default.
+     */
+    public OpenstudBuilder setTracer(Tracer tracer) {
+        this.tracer = tracer;
+        return this;
+    }
+
+    /**
+     * Stops calling a provider host for a while after a maintenance answer or repeated connection failures,
+     * {@link CircuitBreakerRegistry#shared()} by default. Null disables the circuit breakers of the session.
+     */
+    public OpenstudBuilder setCircuitBreakers(CircuitBreakerRegistry circuitBreakers) {
+        this.circuitBreakers = circuitBreakers;
+        return this;
+    }
+
+    /**
+     * Replaces the concurrency limit and queue of an upstream for the sessions built afterwards, which share the
+     * given bulkhead. Upstreams left alone get their own {@link Bulkhead#defaults(Upstream)} in every session.
+     */
+    public OpenstudBuilder setBulkhead(Bulkhead bulkhead) {
+        if (bulkhead != null) this.bulkheads.put(bulkhead.getUpstream(), bulkhead);
+        return this;
+    }
+
+    /**
+     * Makes the sessions built afterwards use the process-wide {@link Bulkhead#shared(Upstream)} of every upstream,
+     * so that the limits hold for all the sessions of the process together. Off by default.
+     */
+    public OpenstudBuilder setSharedBulkheads() {
+        for (Upstream upstream : Upstream.values()) this.bulkheads.put(upstream, Bulkhead.shared(upstream));
+        return this;
+    }
+
+    /**
+     * Resolves the provider hosts, {@link CachingDns#shared()} by default. Null uses the system resolver on every
+     * new connection. The addresses of a {@link CachingDns} are dropped when a connection to the host fails.
+     */
+    public OpenstudBuilder setDns(Dns dns) {
+        this.dns = dns;
+        return this;
+    }
+
+    /**
+     * Number of connections opened to each endpoint by {@link Openstud#warmUp()}, 1 by default.
+     */
+    public OpenstudBuilder setWarmUpConnections(int connections) {
+        if (connections <= 0) return this;
+        this.warmUpConnections = connections;
+        return this;
+    }
+
+    /**
+     * Opens the connections again every interval while the session is idle, until it has been idle for maxIdle.
+     * The interval should be shorter than the time the provider keeps an idle connection open. Disabled by default.
+     */
+    public OpenstudBuilder setKeepAlive(int intervalSeconds, int maxIdleSeconds) {
+        this.keepAliveInterval = intervalSeconds;
+        this.keepAliveMaxIdle = maxIdleSeconds;
+        return this;
+    }
+
+    /**
+     * Adds an application interceptor to the HTTP client of the session, e.g. a
+     * {@link matypist.openstud.driver.core.replay.RecordingInterceptor} or a
+     * {@link matypist.openstud.driver.core.replay.ReplayInterceptor}.
+     */
+    public OpenstudBuilder addInterceptor(Interceptor interceptor) {
+        if (interceptor != null) this.interceptors.add(interceptor);
+        return this;
+    }
+
     public Openstud build() {
 
         return new Openstud(this);
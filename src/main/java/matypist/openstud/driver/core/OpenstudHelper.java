@@ -4,8 +4,8 @@ import matypist.openstud.driver.core.models.*;
 import org.apache.commons.validator.routines.UrlValidator;
 import org.threeten.bp.LocalDate;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -35,7 +35,7 @@ public class OpenstudHelper {
 
     public static int computeBaseGraduation(List<ExamDone> list, int laude, boolean removeMaxMin) {
         if (list.size() == 0 || (removeMaxMin && list.size() <= 2)) return -1;
-        List<ExamDone> tmp = new LinkedList<>(list);
+        List<ExamDone> tmp = new ArrayList<>(list);
         if (removeMaxMin) {
             ExamDone max = null;
             ExamDone min = null;
@@ -92,7 +92,7 @@ public class OpenstudHelper {
     }
 
     public static List<Event> generateEventsFromTimetable(Map<String, List<Lesson>> timetable) {
-        List<Event> events = new LinkedList<>();
+        List<Event> events = new ArrayList<>();
         for (String code : timetable.keySet()) {
             List<Lesson> lessons = timetable.get(code);
             events.addAll(generateEventsFromTimetable(lessons));
@@ -101,7 +101,7 @@ public class OpenstudHelper {
     }
 
     public static List<Event> generateEventsFromTimetable(List<Lesson> timetable) {
-        List<Event> events = new LinkedList<>();
+        List<Event> events = new ArrayList<>(timetable.size());
         for (Lesson lesson : timetable) {
             Event ev = new Event(EventType.LESSON);
             ev.setTitle(lesson.getName());
@@ -116,7 +116,7 @@ public class OpenstudHelper {
 
     public static List<Event> generateEvents(List<ExamReservation> reservations,
                                              List<ExamReservation> avaiableReservations) {
-        List<Event> events = new LinkedList<>();
+        List<Event> events = new ArrayList<>(reservations.size() + avaiableReservations.size());
         for (ExamReservation res : reservations) {
             Event ev = new Event(EventType.RESERVED);
             ev.setTitle(res.getExamSubject());
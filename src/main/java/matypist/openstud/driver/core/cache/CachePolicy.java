@@ -0,0 +1,72 @@
+package matypist.openstud.driver.core.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable caching rules for a single endpoint. Empty lists and missing values are kept
+ * for the negative TTL, which is usually shorter than the regular one.
+ */
+public class CachePolicy {
+    public static final CachePolicy DISABLED = new CachePolicy(0, 0, 1, EvictionPolicy.LRU);
+
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final int maxEntries;
+    private final EvictionPolicy evictionPolicy;
+
+    private CachePolicy(long ttlMillis, long negativeTtlMillis, int maxEntries, EvictionPolicy evictionPolicy) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be positive");
+        if (evictionPolicy == null) throw new IllegalArgumentException("Eviction policy can't be left null");
+        this.ttlMillis = Math.max(0, ttlMillis);
+        this.negativeTtlMillis = Math.max(0, negativeTtlMillis);
+        this.maxEntries = maxEntries;
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    public static CachePolicy of(long ttl, TimeUnit unit, int maxEntries) {
+        long millis = unit.toMillis(ttl);
+        return new CachePolicy(millis, millis, maxEntries, EvictionPolicy.LRU);
+    }
+
+    public CachePolicy withNegativeTtl(long ttl, TimeUnit unit) {
+        return new CachePolicy(ttlMillis, Math.min(ttlMillis, unit.toMillis(ttl)), maxEntries, evictionPolicy);
+    }
+
+    public CachePolicy withMaxEntries(int maxEntries) {
+        return new CachePolicy(ttlMillis, negativeTtlMillis, maxEntries, evictionPolicy);
+    }
+
+    public CachePolicy withEvictionPolicy(EvictionPolicy evictionPolicy) {
+        return new CachePolicy(ttlMillis, negativeTtlMillis, maxEntries, evictionPolicy);
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public long getNegativeTtlMillis() {
+        return negativeTtlMillis;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CachePolicy{" +
+                "ttlMillis=" + ttlMillis +
+                ", negativeTtlMillis=" + negativeTtlMillis +
+                ", maxEntries=" + maxEntries +
+                ", evictionPolicy=" + evictionPolicy +
+                '}';
+    }
+}
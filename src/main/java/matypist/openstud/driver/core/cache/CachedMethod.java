@@ -0,0 +1,10 @@
+package matypist.openstud.driver.core.cache;
+
+public enum CachedMethod {
+    INFO_STUDENT, CAREERS_FOR_CERTIFICATE, CERTIFICATE_PDF, STUDENT_PHOTO, STUDENT_CARD,
+    NEWS, NEWSLETTER_EVENTS,
+    UNPAID_TAXES, PAID_TAXES, PAYMENT_SLIP_PDF, CURRENT_ISEE, ISEE_HISTORY,
+    CLASSROOMS, CLASSROOM_TIMETABLE, TIMETABLE,
+    EXAMS_DOABLE, EXAMS_DONE, ACTIVE_RESERVATIONS, AVAILABLE_RESERVATIONS, EXAM_RESERVATION_PDF, CALENDAR_EVENTS,
+    COURSE_SURVEY
+}
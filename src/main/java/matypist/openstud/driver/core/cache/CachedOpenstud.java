@@ -0,0 +1,363 @@
+package matypist.openstud.driver.core.cache;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.internals.*;
+import matypist.openstud.driver.core.models.*;
+import matypist.openstud.driver.exceptions.*;
+import org.apache.commons.lang3.tuple.Pair;
+import org.threeten.bp.LocalDate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Read-through cache in front of an {@link Openstud} session. Every endpoint has its own
+ * bounded cache configured through {@link CachedOpenstudBuilder}; returned lists, maps and arrays
+ * are copies, so callers are free to sort or modify them. The models they hold are not: the same
+ * instances are handed to every caller until the entry expires, so they must be treated as read-only.
+ * When a {@link MappedCache} is provided, entries evicted from memory by the configured endpoints
+ * are moved there, and {@link #close()} moves the remaining ones so that they survive a restart.
+ */
+public class CachedOpenstud implements AuthenticationHandler, BioHandler, NewsHandler, TaxHandler, ClassroomHandler, ExamHandler, Closeable {
+    private static final String NO_ARGS = "";
+    private static final char SEPARATOR = '\u001f';
+    private static final Object NULL = new Object();
+
+    private final Openstud openstud;
+    private final Map<CachedMethod, CachePolicy> policies;
+    private final Map<CachedMethod, TieredCache<Object>> caches = new EnumMap<>(CachedMethod.class);
+    private final MappedCache coldTier;
+
+    CachedOpenstud(CachedOpenstudBuilder builder) {
+        this.openstud = builder.openstud;
+        this.policies = new EnumMap<>(builder.policies);
+        this.coldTier = builder.coldTier;
+        for (Map.Entry<CachedMethod, CachePolicy> entry : policies.entrySet()) {
+            CachedMethod method = entry.getKey();
+            CachePolicy policy = entry.getValue();
+            TtlCache<String, Object> hot = new TtlCache<>(policy.getTtlMillis(), policy.getMaxEntries(), policy.getEvictionPolicy());
+            if (coldTier != null && builder.coldTierMethods.contains(method)) {
+                String namespace = openstud.getStudentID() + SEPARATOR + method.name() + SEPARATOR;
+                caches.put(method, new TieredCache<>(hot, coldTier, builder.codec, namespace));
+            } else caches.put(method, new TieredCache<>(hot));
+        }
+    }
+
+    private interface Loader<T> {
+        T load() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException;
+    }
+
+    private interface PublicLoader<T> {
+        T load() throws OpenstudConnectionException, OpenstudInvalidResponseException;
+    }
+
+    public Openstud getOpenstud() {
+        return openstud;
+    }
+
+    public CachePolicy getPolicy(CachedMethod method) {
+        return policies.get(method);
+    }
+
+    public CacheStats getStats(CachedMethod method) {
+        return caches.get(method).getStats();
+    }
+
+    public CacheStats getColdStats() {
+        return coldTier == null ? null : coldTier.getStats();
+    }
+
+    public Map<CachedMethod, CacheStats> getStats() {
+        Map<CachedMethod, CacheStats> ret = new EnumMap<>(CachedMethod.class);
+        for (Map.Entry<CachedMethod, TieredCache<Object>> entry : caches.entrySet()) {
+            if (policies.get(entry.getKey()).isEnabled()) ret.put(entry.getKey(), entry.getValue().getStats());
+        }
+        return ret;
+    }
+
+    /**
+     * Fraction of the lookups of this instance answered from memory or from its entries in the mapped file.
+     */
+    public double getHitRatio() {
+        long hits = 0;
+        long requests = 0;
+        for (TieredCache<Object> cache : caches.values()) {
+            // memory misses served by the mapped file are hits as well
+            hits += cache.getStats().getHits() + cache.getColdHits();
+            requests += cache.getStats().getRequests();
+        }
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public void invalidate(CachedMethod method) {
+        caches.get(method).invalidateAll();
+    }
+
+    public void invalidateAll() {
+        for (TieredCache<Object> cache : caches.values()) cache.invalidateAll();
+    }
+
+    public void purgeExpired() {
+        for (TieredCache<Object> cache : caches.values()) cache.purgeExpired();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (coldTier == null) return;
+        for (TieredCache<Object> cache : caches.values()) cache.flush();
+        coldTier.close();
+    }
+
+    private Object lookup(CachedMethod method, String key) {
+        TieredCache<Object> cache = caches.get(method);
+        if (!cache.isEnabled()) return null;
+        return cache.get(key);
+    }
+
+    private <T> T store(CachedMethod method, String key, T value) {
+        CachePolicy policy = policies.get(method);
+        if (!policy.isEnabled()) return value;
+        // a null answer can also mean that the session is not ready yet, only remember it once logged in
+        if (value == null && !openstud.isReady()) return value;
+        boolean negative = value == null || (value instanceof Collection && ((Collection<?>) value).isEmpty())
+                || (value instanceof Map && ((Map<?, ?>) value).isEmpty());
+        caches.get(method).put(key, value == null ? NULL : value, negative ? policy.getNegativeTtlMillis() : policy.getTtlMillis());
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(CachedMethod method, String key, Loader<T> loader) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        Object cached = lookup(method, key);
+        if (cached == NULL) return null;
+        if (cached != null) return (T) cached;
+        return store(method, key, loader.load());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getPublic(CachedMethod method, String key, PublicLoader<T> loader) throws OpenstudConnectionException, OpenstudInvalidResponseException {
+        Object cached = lookup(method, key);
+        if (cached == NULL) return null;
+        if (cached != null) return (T) cached;
+        return store(method, key, loader.load());
+    }
+
+    private static <T> List<T> copy(List<T> list) {
+        return list == null ? null : new ArrayList<>(list);
+    }
+
+    private static byte[] copy(byte[] array) {
+        return array == null ? null : array.clone();
+    }
+
+    private static String key(Object... parts) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) builder.append(SEPARATOR);
+            builder.append(parts[i]);
+        }
+        return builder.toString();
+    }
+
+    private static String studentKey(Student student) {
+        if (student == null) return null;
+        return key(student.getStudentID(), student.getCodeCourse(), student.getAcademicYearCourse());
+    }
+
+    private static String reservationKey(ExamReservation res) {
+        if (res == null) return null;
+        return key(res.getReportID(), res.getSessionID(), res.getCourseCode());
+    }
+
+    private void invalidateReservations() {
+        invalidate(CachedMethod.ACTIVE_RESERVATIONS);
+        invalidate(CachedMethod.AVAILABLE_RESERVATIONS);
+        invalidate(CachedMethod.EXAM_RESERVATION_PDF);
+        invalidate(CachedMethod.CALENDAR_EVENTS);
+    }
+
+    @Override
+    public String getSecurityQuestion() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return openstud.getSecurityQuestion();
+    }
+
+    @Override
+    public boolean recoverPassword(String answer) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException, OpenstudInvalidAnswerException {
+        return openstud.recoverPassword(answer);
+    }
+
+    @Override
+    public void resetPassword(String new_password) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        openstud.resetPassword(new_password);
+    }
+
+    @Override
+    public boolean recoverPasswordWithEmail(String email, String answer) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException, OpenstudInvalidAnswerException {
+        return openstud.recoverPasswordWithEmail(email, answer);
+    }
+
+    @Override
+    public void login() throws OpenstudInvalidCredentialsException, OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudUserNotEnabledException {
+        openstud.login();
+    }
+
+    @Override
+    public void refreshToken() throws OpenstudRefreshException, OpenstudInvalidResponseException {
+        openstud.refreshToken();
+    }
+
+    @Override
+    public Student getInfoStudent() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return get(CachedMethod.INFO_STUDENT, NO_ARGS, openstud::getInfoStudent);
+    }
+
+    @Override
+    public List<Career> getCareersChoicesForCertificate(Student student, CertificateType certificate) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return copy(get(CachedMethod.CAREERS_FOR_CERTIFICATE, key(studentKey(student), certificate),
+                () -> openstud.getCareersChoicesForCertificate(student, certificate)));
+    }
+
+    @Override
+    public byte[] getCertificatePDF(Student student, Career career, CertificateType certificate) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        String careerKey = career == null ? null : key(career.getIndex(), career.getCodeCourse(), career.getTeachingCode());
+        return copy(get(CachedMethod.CERTIFICATE_PDF, key(studentKey(student), careerKey, certificate),
+                () -> openstud.getCertificatePDF(student, career, certificate)));
+    }
+
+    @Override
+    public byte[] getStudentPhoto(Student student) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return copy(get(CachedMethod.STUDENT_PHOTO, studentKey(student), () -> openstud.getStudentPhoto(student)));
+    }
+
+    @Override
+    public StudentCard getStudentCard(Student student, boolean withPhoto) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return get(CachedMethod.STUDENT_CARD, key(studentKey(student), withPhoto), () -> openstud.getStudentCard(student, withPhoto));
+    }
+
+    @Override
+    public List<News> getNews(String locale, boolean withDescription, Integer limit, Integer page, Integer maxPage, String query) throws OpenstudInvalidResponseException, OpenstudConnectionException {
+        return copy(getPublic(CachedMethod.NEWS, key(locale, withDescription, limit, page, maxPage, query),
+                () -> openstud.getNews(locale, withDescription, limit, page, maxPage, query)));
+    }
+
+    @Override
+    public NewsStream getNewsStream(String locale, boolean withDescription, Integer limit, Integer page, Integer maxPage, String query) {
+        return openstud.getNewsStream(locale, withDescription, limit, page, maxPage, query);
+    }
+
+    @Override
+    public List<Event> getNewsletterEvents() throws OpenstudInvalidResponseException, OpenstudConnectionException {
+        return copy(getPublic(CachedMethod.NEWSLETTER_EVENTS, NO_ARGS, openstud::getNewsletterEvents));
+    }
+
+    @Override
+    public List<Tax> getUnpaidTaxes() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return copy(get(CachedMethod.UNPAID_TAXES, NO_ARGS, openstud::getUnpaidTaxes));
+    }
+
+    @Override
+    public List<Tax> getPaidTaxes() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return copy(get(CachedMethod.PAID_TAXES, NO_ARGS, openstud::getPaidTaxes));
+    }
+
+    @Override
+    public byte[] getPaymentSlipPDF(Tax unpaidTax) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        String taxKey = unpaidTax == null ? null : unpaidTax.getCode();
+        return copy(get(CachedMethod.PAYMENT_SLIP_PDF, taxKey, () -> openstud.getPaymentSlipPDF(unpaidTax)));
+    }
+
+    @Override
+    public Isee getCurrentIsee() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return get(CachedMethod.CURRENT_ISEE, NO_ARGS, openstud::getCurrentIsee);
+    }
+
+    @Override
+    public List<Isee> getIseeHistory() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return copy(get(CachedMethod.ISEE_HISTORY, NO_ARGS, openstud::getIseeHistory));
+    }
+
+    @Override
+    public List<Classroom> getClassRoom(String query, boolean withTimetable) throws OpenstudInvalidResponseException, OpenstudConnectionException {
+        return copy(getPublic(CachedMethod.CLASSROOMS, key(query, withTimetable), () -> openstud.getClassRoom(query, withTimetable)));
+    }
+
+    @Override
+    public List<Lesson> getClassroomTimetable(Classroom room, LocalDate date) throws OpenstudConnectionException, OpenstudInvalidResponseException {
+        if (room == null) return openstud.getClassroomTimetable(null, date);
+        return getClassroomTimetable(room.getInternalId(), date);
+    }
+
+    @Override
+    public List<Lesson> getClassroomTimetable(int id, LocalDate date) throws OpenstudConnectionException, OpenstudInvalidResponseException {
+        return copy(getPublic(CachedMethod.CLASSROOM_TIMETABLE, key(id, date), () -> openstud.getClassroomTimetable(id, date)));
+    }
+
+    @Override
+    public Map<String, List<Lesson>> getTimetable(List<ExamDoable> exams) throws OpenstudInvalidResponseException, OpenstudConnectionException {
+        List<String> codes = new ArrayList<>();
+        if (exams != null) {
+            for (ExamDoable exam : exams) codes.add(exam.getExamCode());
+        }
+        String key = key(codes.toArray());
+        Map<String, List<Lesson>> ret = getPublic(CachedMethod.TIMETABLE, key, () -> openstud.getTimetable(exams));
+        if (ret == null) return null;
+        Map<String, List<Lesson>> copy = new HashMap<>();
+        for (Map.Entry<String, List<Lesson>> entry : ret.entrySet()) copy.put(entry.getKey(), copy(entry.getValue()));
+        return copy;
+    }
+
+    @Override
+    public List<ExamDoable> getExamsDoable() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return copy(get(CachedMethod.EXAMS_DOABLE, NO_ARGS, openstud::getExamsDoable));
+    }
+
+    @Override
+    public List<ExamDone> getExamsDone() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return copy(get(CachedMethod.EXAMS_DONE, NO_ARGS, openstud::getExamsDone));
+    }
+
+    @Override
+    public List<ExamReservation> getActiveReservations() throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return copy(get(CachedMethod.ACTIVE_RESERVATIONS, NO_ARGS, openstud::getActiveReservations));
+    }
+
+    @Override
+    public List<ExamReservation> getAvailableReservations(ExamDoable exam, Student student) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        String examKey = exam == null ? null : key(exam.getExamCode(), exam.getCourseCode(), exam.getModuleCode());
+        return copy(get(CachedMethod.AVAILABLE_RESERVATIONS, key(examKey, studentKey(student)),
+                () -> openstud.getAvailableReservations(exam, student)));
+    }
+
+    @Override
+    public Pair<Integer, String> insertReservation(ExamReservation res) throws OpenstudInvalidResponseException, OpenstudConnectionException, OpenstudInvalidCredentialsException {
+        try {
+            return openstud.insertReservation(res);
+        } finally {
+            invalidateReservations();
+        }
+    }
+
+    @Override
+    public int deleteReservation(ExamReservation res) throws OpenstudInvalidResponseException, OpenstudConnectionException, OpenstudInvalidCredentialsException {
+        try {
+            return openstud.deleteReservation(res);
+        } finally {
+            invalidateReservations();
+        }
+    }
+
+    @Override
+    public byte[] getExamReservationPDF(ExamReservation reservation) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return copy(get(CachedMethod.EXAM_RESERVATION_PDF, reservationKey(reservation), () -> openstud.getExamReservationPDF(reservation)));
+    }
+
+    @Override
+    public List<Event> getCalendarEvents(Student student) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return copy(get(CachedMethod.CALENDAR_EVENTS, studentKey(student), () -> openstud.getCalendarEvents(student)));
+    }
+
+    @Override
+    public String getCourseSurvey(String surveyCode) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
+        return get(CachedMethod.COURSE_SURVEY, surveyCode, () -> openstud.getCourseSurvey(surveyCode));
+    }
+}
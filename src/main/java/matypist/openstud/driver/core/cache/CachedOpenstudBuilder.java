@@ -0,0 +1,81 @@
+package matypist.openstud.driver.core.cache;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.codec.BinaryCodec;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class CachedOpenstudBuilder {
+    Openstud openstud;
+    Map<CachedMethod, CachePolicy> policies = new EnumMap<>(CachedMethod.class);
+    MappedCache coldTier;
+    ModelCodec codec = new BinaryCodec();
+    Set<CachedMethod> coldTierMethods = EnumSet.of(CachedMethod.INFO_STUDENT, CachedMethod.EXAMS_DONE,
+            CachedMethod.ACTIVE_RESERVATIONS, CachedMethod.AVAILABLE_RESERVATIONS, CachedMethod.UNPAID_TAXES,
+            CachedMethod.PAID_TAXES);
+
+    public CachedOpenstudBuilder() {
+        CachePolicy shortLived = CachePolicy.of(2, TimeUnit.MINUTES, 32);
+        CachePolicy standard = CachePolicy.of(10, TimeUnit.MINUTES, 64).withNegativeTtl(1, TimeUnit.MINUTES);
+        CachePolicy longLived = CachePolicy.of(1, TimeUnit.HOURS, 64).withNegativeTtl(5, TimeUnit.MINUTES);
+        for (CachedMethod method : CachedMethod.values()) policies.put(method, standard);
+        policies.put(CachedMethod.INFO_STUDENT, longLived);
+        policies.put(CachedMethod.STUDENT_PHOTO, longLived.withMaxEntries(8));
+        policies.put(CachedMethod.NEWSLETTER_EVENTS, longLived);
+        policies.put(CachedMethod.TIMETABLE, longLived);
+        policies.put(CachedMethod.ISEE_HISTORY, longLived);
+        policies.put(CachedMethod.CURRENT_ISEE, longLived);
+        policies.put(CachedMethod.ACTIVE_RESERVATIONS, shortLived);
+        policies.put(CachedMethod.CLASSROOMS, shortLived.withEvictionPolicy(EvictionPolicy.LFU));
+        policies.put(CachedMethod.CLASSROOM_TIMETABLE, standard.withEvictionPolicy(EvictionPolicy.LFU));
+        policies.put(CachedMethod.CERTIFICATE_PDF, CachePolicy.DISABLED);
+        policies.put(CachedMethod.PAYMENT_SLIP_PDF, CachePolicy.DISABLED);
+        policies.put(CachedMethod.EXAM_RESERVATION_PDF, CachePolicy.DISABLED);
+        policies.put(CachedMethod.COURSE_SURVEY, CachePolicy.DISABLED);
+    }
+
+    public CachedOpenstudBuilder setOpenstud(Openstud openstud) {
+        this.openstud = openstud;
+        return this;
+    }
+
+    public CachedOpenstudBuilder setPolicy(CachedMethod method, CachePolicy policy) {
+        policies.put(method, policy == null ? CachePolicy.DISABLED : policy);
+        return this;
+    }
+
+    public CachedOpenstudBuilder setDefaultPolicy(CachePolicy policy) {
+        for (CachedMethod method : CachedMethod.values()) setPolicy(method, policy);
+        return this;
+    }
+
+    public CachedOpenstudBuilder setColdTier(MappedCache coldTier) {
+        this.coldTier = coldTier;
+        return this;
+    }
+
+    public CachedOpenstudBuilder setColdTierMethods(CachedMethod... methods) {
+        this.coldTierMethods = methods.length == 0 ? EnumSet.noneOf(CachedMethod.class) : EnumSet.copyOf(Arrays.asList(methods));
+        return this;
+    }
+
+    /**
+     * Format of the entries moved to the cold tier, a {@link BinaryCodec} by default. A {@link SerializableCodec}
+     * also stores values the binary format doesn't know, but only reads the driver models back.
+     */
+    public CachedOpenstudBuilder setCodec(ModelCodec codec) {
+        if (codec == null) throw new IllegalArgumentException("Codec can't be left null");
+        this.codec = codec;
+        return this;
+    }
+
+    public CachedOpenstud build() {
+        if (openstud == null) throw new IllegalStateException("Openstud instance can't be left null");
+        return new CachedOpenstud(this);
+    }
+}
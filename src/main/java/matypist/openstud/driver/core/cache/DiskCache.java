@@ -0,0 +1,142 @@
+package matypist.openstud.driver.core.cache;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Byte-size bounded directory of blobs. Least recently used files, by modification time, are deleted first.
+ * The size is only tracked by this instance, so a directory must not be shared by several of them.
+ * Blobs are written as they are, unencrypted, under the SHA-256 of their key.
+ */
+public class DiskCache {
+    private static final String SUFFIX = ".bin";
+    private final File directory;
+    private final long maxBytes;
+    private final CacheStats stats = new CacheStats();
+    private long currentBytes;
+
+    public DiskCache(File directory, long maxBytes) {
+        if (directory == null) throw new IllegalArgumentException("Directory can't be left null");
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IllegalArgumentException("Unable to create cache directory " + directory);
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        for (File file : listEntries()) currentBytes += file.length();
+        trim();
+    }
+
+    public synchronized byte[] get(String key) {
+        File file = fileFor(key);
+        if (!file.isFile()) {
+            stats.recordMiss();
+            return null;
+        }
+        try {
+            byte[] ret = readFully(file);
+            file.setLastModified(System.currentTimeMillis());
+            stats.recordHit();
+            return ret;
+        } catch (IOException e) {
+            remove(file);
+            stats.recordMiss();
+            return null;
+        }
+    }
+
+    public synchronized void put(String key, byte[] value) {
+        if (value == null || value.length > maxBytes) return;
+        File file = fileFor(key);
+        if (file.isFile()) remove(file);
+        File tmp = new File(directory, file.getName() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            out.write(value);
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            return;
+        }
+        currentBytes += value.length;
+        trim();
+    }
+
+    public synchronized void invalidate(String key) {
+        File file = fileFor(key);
+        if (file.isFile()) {
+            remove(file);
+            stats.recordInvalidation();
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        for (File file : listEntries()) {
+            remove(file);
+            stats.recordInvalidation();
+        }
+        currentBytes = 0;
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    private void trim() {
+        if (currentBytes <= maxBytes) return;
+        File[] files = listEntries();
+        Arrays.sort(files, (o1, o2) -> Long.compare(o1.lastModified(), o2.lastModified()));
+        for (File file : files) {
+            if (currentBytes <= maxBytes) break;
+            remove(file);
+            stats.recordEviction();
+        }
+    }
+
+    private void remove(File file) {
+        long length = file.length();
+        if (file.delete()) currentBytes = Math.max(0, currentBytes - length);
+    }
+
+    private File[] listEntries() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        return files == null ? new File[0] : files;
+    }
+
+    private File fileFor(String key) {
+        StringBuilder name = new StringBuilder();
+        for (byte b : sha256(key.getBytes(StandardCharsets.UTF_8))) name.append(String.format("%02x", b));
+        return new File(directory, name.append(SUFFIX).toString());
+    }
+
+    private static byte[] sha256(byte[] value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] readFully(File file) throws IOException {
+        byte[] ret = new byte[(int) file.length()];
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            in.readFully(ret);
+        }
+        return ret;
+    }
+}
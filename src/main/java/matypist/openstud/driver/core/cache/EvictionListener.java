@@ -0,0 +1,5 @@
+package matypist.openstud.driver.core.cache;
+
+public interface EvictionListener<K, V> {
+    void onEviction(K key, V value, long expiresAt);
+}
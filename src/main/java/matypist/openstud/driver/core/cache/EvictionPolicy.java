@@ -0,0 +1,5 @@
+package matypist.openstud.driver.core.cache;
+
+public enum EvictionPolicy {
+    LRU, LFU
+}
@@ -0,0 +1,242 @@
+package matypist.openstud.driver.core.cache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Append-only log of blobs kept in a memory-mapped file of fixed size. Only keys and offsets live on-heap,
+ * the index is rebuilt by scanning the file when it is opened. When the file is full, live records are
+ * compacted and, if still needed, the oldest ones are dropped.
+ */
+public class MappedCache implements Closeable {
+    private static final int MAGIC = 0x4f534d43;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    // length, live flag, expiration, key length
+    private static final int RECORD_OVERHEAD = 4 + 1 + 8 + 4;
+    private static final byte LIVE = 1;
+    private static final byte DEAD = 0;
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final LinkedHashMap<String, Integer> index = new LinkedHashMap<>();
+    private final CacheStats stats = new CacheStats();
+    private int writePosition = HEADER_SIZE;
+    private int deadBytes;
+    private boolean closed;
+
+    public MappedCache(File file, long maxBytes) throws IOException {
+        if (file == null) throw new IllegalArgumentException("File can't be left null");
+        if (maxBytes <= HEADER_SIZE + RECORD_OVERHEAD || maxBytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid cache size " + maxBytes);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+            throw new IOException("Unable to create cache directory " + parent);
+        this.file = new RandomAccessFile(file, "rw");
+        boolean existing = this.file.length() >= HEADER_SIZE;
+        long size = Math.max(maxBytes, existing ? Math.min(this.file.length(), Integer.MAX_VALUE) : 0);
+        this.buffer = this.file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (existing && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION) scan();
+        else reset();
+    }
+
+    public synchronized byte[] get(String key) {
+        Integer offset = index.get(key);
+        if (offset == null) {
+            stats.recordMiss();
+            return null;
+        }
+        if (buffer.getLong(offset + 5) <= System.currentTimeMillis()) {
+            kill(key, offset);
+            stats.recordExpiration();
+            stats.recordMiss();
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        int keyLength = buffer.getInt(offset + 13);
+        byte[] ret = new byte[length - RECORD_OVERHEAD - keyLength];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + RECORD_OVERHEAD + keyLength);
+        view.get(ret);
+        stats.recordHit();
+        return ret;
+    }
+
+    public synchronized long getExpiration(String key) {
+        Integer offset = index.get(key);
+        return offset == null ? 0 : buffer.getLong(offset + 5);
+    }
+
+    public synchronized boolean put(String key, byte[] value, long expiresAt) {
+        if (closed || key == null || value == null) return false;
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long length = (long) RECORD_OVERHEAD + keyBytes.length + value.length;
+        if (length > buffer.capacity() - HEADER_SIZE) return false;
+        Integer previous = index.get(key);
+        if (previous != null) kill(key, previous);
+        if (writePosition + length > buffer.capacity()) makeRoom((int) length);
+        int offset = writePosition;
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.putInt((int) length);
+        view.put(DEAD);
+        view.putLong(expiresAt);
+        view.putInt(keyBytes.length);
+        view.put(keyBytes);
+        view.put(value);
+        writePosition += (int) length;
+        if (writePosition + 4 <= buffer.capacity()) buffer.putInt(writePosition, 0);
+        // the record becomes visible to a later scan only once it has been completely written
+        buffer.put(offset + 4, LIVE);
+        index.put(key, offset);
+        return true;
+    }
+
+    public synchronized void invalidate(String key) {
+        Integer offset = index.get(key);
+        if (offset == null) return;
+        kill(key, offset);
+        stats.recordInvalidation();
+    }
+
+    public synchronized void invalidatePrefix(String prefix) {
+        List<String> keys = new ArrayList<>();
+        for (String key : index.keySet()) {
+            if (key.startsWith(prefix)) keys.add(key);
+        }
+        for (String key : keys) invalidate(key);
+    }
+
+    public synchronized void invalidateAll() {
+        stats.recordInvalidations(index.size());
+        reset();
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return writePosition - deadBytes;
+    }
+
+    public long getCapacity() {
+        return buffer.capacity();
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    public synchronized void flush() {
+        if (!closed) buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        flush();
+        closed = true;
+        file.close();
+    }
+
+    private void scan() {
+        int position = HEADER_SIZE;
+        long now = System.currentTimeMillis();
+        while (position + RECORD_OVERHEAD <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length < RECORD_OVERHEAD || position + length > buffer.capacity()) break;
+            int keyLength = buffer.getInt(position + 13);
+            if (keyLength < 0 || keyLength > length - RECORD_OVERHEAD) break;
+            if (buffer.get(position + 4) == LIVE) {
+                if (buffer.getLong(position + 5) <= now) {
+                    buffer.put(position + 4, DEAD);
+                    deadBytes += length;
+                } else {
+                    byte[] keyBytes = new byte[keyLength];
+                    ByteBuffer view = buffer.duplicate();
+                    view.position(position + RECORD_OVERHEAD);
+                    view.get(keyBytes);
+                    String key = new String(keyBytes, StandardCharsets.UTF_8);
+                    Integer previous = index.remove(key);
+                    if (previous != null) {
+                        buffer.put(previous + 4, DEAD);
+                        deadBytes += buffer.getInt(previous);
+                    }
+                    index.put(key, position);
+                }
+            } else deadBytes += length;
+            position += length;
+        }
+        writePosition = position;
+        // an interrupted write leaves garbage after the last valid record, clear the next length field
+        if (position + 4 <= buffer.capacity()) buffer.putInt(position, 0);
+    }
+
+    private void reset() {
+        index.clear();
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        if (HEADER_SIZE + 4 <= buffer.capacity()) buffer.putInt(HEADER_SIZE, 0);
+        writePosition = HEADER_SIZE;
+        deadBytes = 0;
+    }
+
+    private void kill(String key, int offset) {
+        index.remove(key);
+        buffer.put(offset + 4, DEAD);
+        deadBytes += buffer.getInt(offset);
+    }
+
+    private void makeRoom(int length) {
+        int available = buffer.capacity() - HEADER_SIZE;
+        int live = writePosition - HEADER_SIZE - deadBytes;
+        Iterator<Map.Entry<String, Integer>> oldest = index.entrySet().iterator();
+        while (live + length > available && oldest.hasNext()) {
+            Map.Entry<String, Integer> entry = oldest.next();
+            int offset = entry.getValue();
+            buffer.put(offset + 4, DEAD);
+            live -= buffer.getInt(offset);
+            oldest.remove();
+            stats.recordEviction();
+        }
+        compact();
+    }
+
+    private void compact() {
+        long now = System.currentTimeMillis();
+        int position = HEADER_SIZE;
+        Map<String, Integer> moved = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : index.entrySet()) {
+            int offset = entry.getValue();
+            int length = buffer.getInt(offset);
+            if (buffer.getLong(offset + 5) <= now) {
+                stats.recordExpiration();
+                continue;
+            }
+            // records only move towards the beginning of the file, so copying them in order is safe
+            if (offset != position) {
+                byte[] record = new byte[length];
+                ByteBuffer view = buffer.duplicate();
+                view.position(offset);
+                view.get(record);
+                view.position(position);
+                view.put(record);
+            }
+            moved.put(entry.getKey(), position);
+            position += length;
+        }
+        index.clear();
+        index.putAll(moved);
+        writePosition = position;
+        deadBytes = 0;
+        if (position + 4 <= buffer.capacity()) buffer.putInt(position, 0);
+    }
+}
@@ -0,0 +1,12 @@
+package matypist.openstud.driver.core.cache;
+
+import java.io.IOException;
+
+/**
+ * Converts cached values to bytes and back, used by the cold tier of {@link TieredCache}.
+ */
+public interface ModelCodec {
+    byte[] encode(Object value) throws IOException;
+
+    Object decode(byte[] data) throws IOException;
+}
@@ -0,0 +1,105 @@
+package matypist.openstud.driver.core.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Byte-size bounded LRU of student photos, optionally backed by a write-through {@link DiskCache}
+ * that is consulted on memory misses and survives restarts.
+ */
+public class PhotoCache {
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final CacheStats stats = new CacheStats();
+    private final long maxBytes;
+    private final DiskCache disk;
+    private long currentBytes;
+
+    public PhotoCache(long maxBytes, DiskCache disk) {
+        this.maxBytes = maxBytes;
+        this.disk = disk;
+    }
+
+    public byte[] get(String studentId) {
+        synchronized (this) {
+            byte[] ret = memory.get(studentId);
+            if (ret != null) {
+                stats.recordHit();
+                return ret.clone();
+            }
+        }
+        byte[] ret = disk == null ? null : disk.get(studentId);
+        synchronized (this) {
+            if (ret == null) {
+                stats.recordMiss();
+                return null;
+            }
+            stats.recordHit();
+            putInMemory(studentId, ret);
+            return ret.clone();
+        }
+    }
+
+    public void put(String studentId, byte[] photo) {
+        if (studentId == null || photo == null || photo.length == 0) return;
+        byte[] copy = photo.clone();
+        synchronized (this) {
+            putInMemory(studentId, copy);
+        }
+        if (disk != null) disk.put(studentId, copy);
+    }
+
+    public void invalidate(String studentId) {
+        synchronized (this) {
+            byte[] removed = memory.remove(studentId);
+            if (removed != null) {
+                currentBytes -= removed.length;
+                stats.recordInvalidation();
+            }
+        }
+        if (disk != null) disk.invalidate(studentId);
+    }
+
+    public void invalidateAll() {
+        synchronized (this) {
+            stats.recordInvalidations(memory.size());
+            memory.clear();
+            currentBytes = 0;
+        }
+        if (disk != null) disk.invalidateAll();
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int size() {
+        return memory.size();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public DiskCache getDiskCache() {
+        return disk;
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    private void putInMemory(String studentId, byte[] photo) {
+        if (photo.length > maxBytes) return;
+        byte[] previous = memory.put(studentId, photo);
+        if (previous != null) currentBytes -= previous.length;
+        currentBytes += photo.length;
+        Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, byte[]> eldest = it.next();
+            it.remove();
+            currentBytes -= eldest.getValue().length;
+            stats.recordEviction();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package matypist.openstud.driver.core.cache;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Java serialization of the driver models. The cold tier is a file that anything on the device may have written,
+ * so only the classes of the models, of the dates they hold and of the standard collections are read back:
+ * any other class in the stream fails the decoding before it is instantiated.
+ */
+public class SerializableCodec implements ModelCodec {
+    private static final String[] ALLOWED_PACKAGES = {"matypist.openstud.driver.core.models.", "org.threeten.bp."};
+    private static final Set<String> ALLOWED_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "java.lang.String", "java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short",
+            "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double", "java.lang.Number",
+            "java.lang.Enum", "java.util.ArrayList", "java.util.LinkedList", "java.util.HashMap",
+            "java.util.LinkedHashMap", "java.util.TreeMap", "java.util.HashSet", "java.util.LinkedHashSet",
+            "java.util.Arrays$ArrayList", "java.util.Collections$EmptyList", "java.util.Collections$EmptyMap",
+            "java.util.Collections$SingletonList", "java.util.Collections$UnmodifiableCollection",
+            "java.util.Collections$UnmodifiableList", "java.util.Collections$UnmodifiableRandomAccessList",
+            "java.util.Collections$UnmodifiableMap")));
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] data) throws IOException {
+        try (ObjectInputStream in = new ModelInputStream(new ByteArrayInputStream(data))) {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    static boolean isAllowed(String name) {
+        // arrays of primitives are fine, arrays of objects are checked on their component type
+        if (name.startsWith("[")) {
+            int dimensions = name.lastIndexOf('[') + 1;
+            if (name.charAt(dimensions) != 'L') return name.length() == dimensions + 1;
+            if (!name.endsWith(";")) return false;
+            name = name.substring(dimensions + 1, name.length() - 1);
+        }
+        if (ALLOWED_CLASSES.contains(name)) return true;
+        for (String prefix : ALLOWED_PACKAGES) {
+            if (name.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private static class ModelInputStream extends ObjectInputStream {
+
+        ModelInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isAllowed(desc.getName())) throw new InvalidClassException(desc.getName(), "Not a driver model");
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+            throw new InvalidClassException("Proxy classes can't be decoded");
+        }
+    }
+}
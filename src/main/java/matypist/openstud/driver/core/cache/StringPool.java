@@ -0,0 +1,90 @@
+package matypist.openstud.driver.core.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free interning table for the low-cardinality strings found in the responses, like teachers,
+ * courses and rooms. Each slot keeps the last string hashed to it, so a collision just replaces the pooled copy:
+ * memory stays bounded and threads never wait on each other, at the cost of some duplicates.
+ */
+public class StringPool {
+    private static final StringPool SHARED = new StringPool(8192);
+    // free text is rarely repeated, not worth a slot
+    private static final int MAX_LENGTH = 256;
+    // header, hash and reference of the String plus the header of its array
+    private static final long STRING_OVERHEAD = 40;
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong savedBytes = new AtomicLong();
+
+    public StringPool(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 24) throw new IllegalArgumentException("Invalid pool capacity " + capacity);
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return pool shared by every session that enables interning without providing its own
+     */
+    public static StringPool shared() {
+        return SHARED;
+    }
+
+    public String intern(String value) {
+        if (value == null || value.length() > MAX_LENGTH) return value;
+        int hash = value.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+        String pooled = table.get(index);
+        if (pooled == value) {
+            hits.incrementAndGet();
+            return pooled;
+        }
+        if (pooled != null && pooled.equals(value)) {
+            hits.incrementAndGet();
+            savedBytes.addAndGet(STRING_OVERHEAD + 2L * value.length());
+            return pooled;
+        }
+        table.set(index, value);
+        misses.incrementAndGet();
+        return value;
+    }
+
+    public int getCapacity() {
+        return table.length();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return estimated bytes of the duplicate strings replaced by a pooled copy, assuming two bytes per char
+     */
+    public long getSavedBytes() {
+        return savedBytes.get();
+    }
+
+    public void clear() {
+        for (int i = 0; i < table.length(); i++) table.set(i, null);
+    }
+
+    @Override
+    public String toString() {
+        return "StringPool{" +
+                "capacity=" + table.length() +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", savedBytes=" + savedBytes +
+                '}';
+    }
+}
@@ -0,0 +1,110 @@
+package matypist.openstud.driver.core.cache;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * On-heap {@link TtlCache} backed by an optional {@link MappedCache}: entries evicted from memory are encoded
+ * with a {@link ModelCodec} and moved to the mapped file, where they are looked up on a memory miss.
+ * Values that the codec can't encode are simply dropped on eviction.
+ */
+public class TieredCache<V> {
+    private final TtlCache<String, V> hot;
+    private final MappedCache cold;
+    private final ModelCodec codec;
+    private final String namespace;
+    private final AtomicLong coldHits = new AtomicLong();
+
+    public TieredCache(TtlCache<String, V> hot) {
+        this(hot, null, null, null);
+    }
+
+    public TieredCache(TtlCache<String, V> hot, MappedCache cold, ModelCodec codec, String namespace) {
+        if (hot == null) throw new IllegalArgumentException("Memory cache can't be left null");
+        if (cold != null && codec == null) throw new IllegalArgumentException("Codec can't be left null");
+        this.hot = hot;
+        this.cold = cold;
+        this.codec = codec;
+        this.namespace = namespace == null ? "" : namespace;
+        if (cold != null) hot.setEvictionListener(this::spill);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(String key) {
+        V ret = hot.get(key);
+        if (ret != null || cold == null) return ret;
+        String coldKey = namespace + key;
+        long expiresAt = cold.getExpiration(coldKey);
+        byte[] data = cold.get(coldKey);
+        if (data == null) return null;
+        try {
+            ret = (V) codec.decode(data);
+        } catch (IOException | ClassCastException e) {
+            cold.invalidate(coldKey);
+            return null;
+        }
+        cold.invalidate(coldKey);
+        coldHits.incrementAndGet();
+        hot.put(key, ret, expiresAt - System.currentTimeMillis());
+        return ret;
+    }
+
+    public void put(String key, V value, long ttlMillis) {
+        if (cold != null) cold.invalidate(namespace + key);
+        hot.put(key, value, ttlMillis);
+    }
+
+    public void invalidate(String key) {
+        hot.invalidate(key);
+        if (cold != null) cold.invalidate(namespace + key);
+    }
+
+    public void invalidateAll() {
+        hot.invalidateAll();
+        if (cold != null) cold.invalidatePrefix(namespace);
+    }
+
+    public void purgeExpired() {
+        hot.purgeExpired();
+    }
+
+    /**
+     * Moves every entry held in memory to the mapped file, so that it survives a restart.
+     */
+    public void flush() {
+        if (cold == null) return;
+        hot.evictAll();
+        cold.flush();
+    }
+
+    public boolean isEnabled() {
+        return hot.isEnabled();
+    }
+
+    public boolean isTiered() {
+        return cold != null;
+    }
+
+    public CacheStats getStats() {
+        return hot.getStats();
+    }
+
+    /**
+     * Memory misses of this cache answered by the mapped file. Unlike {@link #getColdStats()}, which belong to the
+     * mapped file and so to every cache sharing it, these only count the lookups of this cache.
+     */
+    public long getColdHits() {
+        return coldHits.get();
+    }
+
+    public CacheStats getColdStats() {
+        return cold == null ? null : cold.getStats();
+    }
+
+    private void spill(String key, V value, long expiresAt) {
+        try {
+            cold.put(namespace + key, codec.encode(value), expiresAt);
+        } catch (IOException ignored) {
+        }
+    }
+}
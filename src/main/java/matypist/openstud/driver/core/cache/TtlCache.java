@@ -0,0 +1,207 @@
+package matypist.openstud.driver.core.cache;
+
+import java.util.*;
+
+public class TtlCache<K, V> {
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, LinkedHashSet<K>> frequencies = new HashMap<>();
+    private final CacheStats stats = new CacheStats();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final EvictionPolicy policy;
+    private EvictionListener<K, V> listener;
+    private int minFrequency;
+
+    public TtlCache(long ttlMillis, int maxEntries) {
+        this(ttlMillis, maxEntries, EvictionPolicy.LRU);
+    }
+
+    public TtlCache(long ttlMillis, int maxEntries, EvictionPolicy policy) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be positive");
+        if (policy == null) throw new IllegalArgumentException("Eviction policy can't be left null");
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.policy = policy;
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            stats.recordMiss();
+            return null;
+        }
+        if (isExpired(entry, System.currentTimeMillis())) {
+            remove(key);
+            stats.recordExpiration();
+            stats.recordMiss();
+            return null;
+        }
+        touch(key, entry);
+        stats.recordHit();
+        return entry.value;
+    }
+
+    public synchronized boolean containsKey(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && !isExpired(entry, System.currentTimeMillis());
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlMillis);
+    }
+
+    public synchronized void put(K key, V value, long ttlMillis) {
+        if (ttlMillis <= 0) return;
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            entry.value = value;
+            entry.expiresAt = System.currentTimeMillis() + ttlMillis;
+            touch(key, entry);
+            return;
+        }
+        while (entries.size() >= maxEntries) evict();
+        entry = new Entry<>(value, System.currentTimeMillis() + ttlMillis);
+        entries.put(key, entry);
+        if (policy == EvictionPolicy.LFU) {
+            bucket(1).add(key);
+            minFrequency = 1;
+        }
+    }
+
+    public synchronized void setEvictionListener(EvictionListener<K, V> listener) {
+        this.listener = listener;
+    }
+
+    public synchronized void evictAll() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+            Entry<V> value = entry.getValue();
+            if (isExpired(value, now)) stats.recordExpiration();
+            else {
+                stats.recordEviction();
+                if (listener != null) listener.onEviction(entry.getKey(), value.value, value.expiresAt);
+            }
+        }
+        entries.clear();
+        frequencies.clear();
+    }
+
+    public synchronized void invalidate(K key) {
+        if (remove(key)) stats.recordInvalidation();
+    }
+
+    public synchronized void invalidateAll() {
+        stats.recordInvalidations(entries.size());
+        entries.clear();
+        frequencies.clear();
+    }
+
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        List<K> expired = new ArrayList<>();
+        for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+            if (isExpired(entry.getValue(), now)) expired.add(entry.getKey());
+        }
+        for (K key : expired) {
+            remove(key);
+            stats.recordExpiration();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public EvictionPolicy getEvictionPolicy() {
+        return policy;
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return now >= entry.expiresAt;
+    }
+
+    private void touch(K key, Entry<V> entry) {
+        if (policy != EvictionPolicy.LFU) return;
+        LinkedHashSet<K> current = frequencies.get(entry.frequency);
+        current.remove(key);
+        if (current.isEmpty()) {
+            frequencies.remove(entry.frequency);
+            if (minFrequency == entry.frequency) minFrequency++;
+        }
+        entry.frequency++;
+        bucket(entry.frequency).add(key);
+    }
+
+    private void evict() {
+        K victim;
+        if (policy == EvictionPolicy.LFU) {
+            LinkedHashSet<K> candidates = frequencies.get(minFrequency);
+            if (candidates == null || candidates.isEmpty()) {
+                minFrequency = Collections.min(frequencies.keySet());
+                candidates = frequencies.get(minFrequency);
+            }
+            victim = candidates.iterator().next();
+        } else {
+            victim = entries.keySet().iterator().next();
+        }
+        Entry<V> entry = entries.get(victim);
+        remove(victim);
+        if (isExpired(entry, System.currentTimeMillis())) {
+            stats.recordExpiration();
+            return;
+        }
+        stats.recordEviction();
+        if (listener != null) listener.onEviction(victim, entry.value, entry.expiresAt);
+    }
+
+    private boolean remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry == null) return false;
+        if (policy == EvictionPolicy.LFU) {
+            LinkedHashSet<K> bucket = frequencies.get(entry.frequency);
+            bucket.remove(key);
+            if (bucket.isEmpty()) frequencies.remove(entry.frequency);
+        }
+        return true;
+    }
+
+    private LinkedHashSet<K> bucket(int frequency) {
+        LinkedHashSet<K> ret = frequencies.get(frequency);
+        if (ret == null) {
+            ret = new LinkedHashSet<>();
+            frequencies.put(frequency, ret);
+        }
+        return ret;
+    }
+
+    private static class Entry<V> {
+        private V value;
+        private long expiresAt;
+        private int frequency = 1;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,613 @@
+package matypist.openstud.driver.core.codec;
+
+import matypist.openstud.driver.core.cache.ModelCodec;
+import matypist.openstud.driver.core.models.*;
+import org.json.JSONArray;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Compact binary format for the driver models and for lists and maps of them. Integers are varints,
+ * dates are days or seconds from the epoch and every string is written once per message, later
+ * occurrences are references to the first one. The first two bytes are a magic number and the version.
+ */
+public class BinaryCodec implements ModelCodec {
+    static final int MAGIC = 0x4f;
+    static final int VERSION = 1;
+
+    private static final int NULL = 0;
+    private static final int LIST = 1;
+    private static final int MAP = 2;
+    private static final int STRING = 3;
+    private static final int BYTES = 4;
+    private static final int INTEGER = 5;
+    private static final int STUDENT = 16;
+    private static final int STUDENT_CARD = 17;
+    private static final int CAREER = 18;
+    private static final int EXAM_DONE = 19;
+    private static final int EXAM_DOABLE = 20;
+    private static final int EXAM_RESERVATION = 21;
+    private static final int TAX = 22;
+    private static final int PAYMENT_DESCRIPTION = 23;
+    private static final int ISEE = 24;
+    private static final int LESSON = 25;
+    private static final int CLASSROOM = 26;
+    private static final int NEWS = 27;
+    private static final int NEWS_EVENT = 28;
+    private static final int EVENT = 29;
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        BinaryWriter writer = new BinaryWriter(256);
+        writer.writeByte(MAGIC);
+        writer.writeByte(VERSION);
+        writeValue(writer, value);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] data) throws IOException {
+        if (data == null) throw new IOException("Nothing to decode");
+        BinaryReader reader = new BinaryReader(data);
+        if (reader.readByte() != MAGIC) throw new IOException("Not a binary model");
+        int version = reader.readByte();
+        if (version != VERSION) throw new IOException("Unsupported version " + version);
+        Object ret = readValue(reader);
+        if (!reader.isExhausted()) throw new IOException("Trailing data after value");
+        return ret;
+    }
+
+    private void writeValue(BinaryWriter writer, Object value) throws IOException {
+        if (value == null) writer.writeVarInt(NULL);
+        else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            writer.writeVarInt(LIST);
+            writer.writeVarInt(list.size());
+            for (Object item : list) writeValue(writer, item);
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            writer.writeVarInt(MAP);
+            writer.writeVarInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String)) throw new IOException("Only string keys are supported");
+                writer.writeString((String) entry.getKey());
+                writeValue(writer, entry.getValue());
+            }
+        } else if (value instanceof String) {
+            writer.writeVarInt(STRING);
+            writer.writeString((String) value);
+        } else if (value instanceof byte[]) {
+            writer.writeVarInt(BYTES);
+            writer.writeBytes((byte[]) value);
+        } else if (value instanceof Integer) {
+            writer.writeVarInt(INTEGER);
+            writer.writeSignedVarInt((Integer) value);
+        } else if (value instanceof Student) {
+            writer.writeVarInt(STUDENT);
+            writeStudent(writer, (Student) value);
+        } else if (value instanceof StudentCard) {
+            writer.writeVarInt(STUDENT_CARD);
+            writeStudentCard(writer, (StudentCard) value);
+        } else if (value instanceof Career) {
+            writer.writeVarInt(CAREER);
+            writeCareer(writer, (Career) value);
+        } else if (value instanceof ExamDone) {
+            writer.writeVarInt(EXAM_DONE);
+            writeExamDone(writer, (ExamDone) value);
+        } else if (value instanceof ExamDoable) {
+            writer.writeVarInt(EXAM_DOABLE);
+            writeExamDoable(writer, (ExamDoable) value);
+        } else if (value instanceof ExamReservation) {
+            writer.writeVarInt(EXAM_RESERVATION);
+            writeExamReservation(writer, (ExamReservation) value);
+        } else if (value instanceof Tax) {
+            writer.writeVarInt(TAX);
+            writeTax(writer, (Tax) value);
+        } else if (value instanceof PaymentDescription) {
+            writer.writeVarInt(PAYMENT_DESCRIPTION);
+            writePaymentDescription(writer, (PaymentDescription) value);
+        } else if (value instanceof Isee) {
+            writer.writeVarInt(ISEE);
+            writeIsee(writer, (Isee) value);
+        } else if (value instanceof Lesson) {
+            writer.writeVarInt(LESSON);
+            writeLesson(writer, (Lesson) value);
+        } else if (value instanceof Classroom) {
+            writer.writeVarInt(CLASSROOM);
+            writeClassroom(writer, (Classroom) value);
+        } else if (value instanceof News) {
+            writer.writeVarInt(NEWS);
+            writeNews(writer, (News) value);
+        } else if (value instanceof NewsEvent) {
+            writer.writeVarInt(NEWS_EVENT);
+            writeNewsEvent(writer, (NewsEvent) value);
+        } else if (value instanceof Event) {
+            writer.writeVarInt(EVENT);
+            writeEvent(writer, (Event) value);
+        } else throw new IOException("Unsupported type " + value.getClass().getName());
+    }
+
+    private Object readValue(BinaryReader reader) throws IOException {
+        int tag = reader.readVarInt();
+        switch (tag) {
+            case NULL:
+                return null;
+            case LIST: {
+                int size = reader.readVarInt();
+                List<Object> ret = new ArrayList<>(Math.min(size, 1024));
+                for (int i = 0; i < size; i++) ret.add(readValue(reader));
+                return ret;
+            }
+            case MAP: {
+                int size = reader.readVarInt();
+                Map<String, Object> ret = new HashMap<>();
+                for (int i = 0; i < size; i++) ret.put(reader.readString(), readValue(reader));
+                return ret;
+            }
+            case STRING:
+                return reader.readString();
+            case BYTES:
+                return reader.readBytes();
+            case INTEGER:
+                return reader.readSignedVarInt();
+            case STUDENT:
+                return readStudent(reader);
+            case STUDENT_CARD:
+                return readStudentCard(reader);
+            case CAREER:
+                return readCareer(reader);
+            case EXAM_DONE:
+                return readExamDone(reader);
+            case EXAM_DOABLE:
+                return readExamDoable(reader);
+            case EXAM_RESERVATION:
+                return readExamReservation(reader);
+            case TAX:
+                return readTax(reader);
+            case PAYMENT_DESCRIPTION:
+                return readPaymentDescription(reader);
+            case ISEE:
+                return readIsee(reader);
+            case LESSON:
+                return readLesson(reader);
+            case CLASSROOM:
+                return readClassroom(reader);
+            case NEWS:
+                return readNews(reader);
+            case NEWS_EVENT:
+                return readNewsEvent(reader);
+            case EVENT:
+                return readEvent(reader);
+            default:
+                throw new IOException("Unknown type tag " + tag);
+        }
+    }
+
+    private void writeStudent(BinaryWriter writer, Student st) {
+        writer.writeString(st.getSocialSecurityNumber());
+        writer.writeString(st.getFirstName());
+        writer.writeString(st.getLastName());
+        writer.writeDate(st.getBirthDate());
+        writer.writeString(st.getBirthCity());
+        writer.writeString(st.getBirthPlace());
+        writer.writeString(st.getCourseYear());
+        writer.writeString(st.getFirstEnrollment());
+        writer.writeString(st.getLastEnrollment());
+        writer.writeString(st.getDepartmentName());
+        writer.writeString(st.getCourseName());
+        writer.writeString(st.getNation());
+        writer.writeString(st.getEmail());
+        writer.writeString(st.getCitizenship());
+        writer.writeString(st.getGender());
+        writer.writeString(st.getStudentStatus());
+        writer.writeSignedVarInt(st.getAcademicYear());
+        writer.writeSignedVarInt(st.getAcademicYearCourse());
+        writer.writeString(st.getStudentID());
+        writer.writeSignedVarInt(st.getCodeCourse());
+        writer.writeSignedVarInt(st.getTypeStudent());
+        writer.writeSignedVarInt(st.getCfu());
+        writer.writeByte(st.isErasmus() ? 1 : 0);
+    }
+
+    private Student readStudent(BinaryReader reader) throws IOException {
+        Student st = new Student();
+        st.setSocialSecurityNumber(reader.readString());
+        st.setFirstName(reader.readString());
+        st.setLastName(reader.readString());
+        st.setBirthDate(reader.readDate());
+        st.setBirthCity(reader.readString());
+        st.setBirthPlace(reader.readString());
+        st.setCourseYear(reader.readString());
+        st.setFirstEnrollment(reader.readString());
+        st.setLastEnrollment(reader.readString());
+        st.setDepartmentName(reader.readString());
+        st.setCourseName(reader.readString());
+        st.setNation(reader.readString());
+        st.setEmail(reader.readString());
+        st.setCitizenship(reader.readString());
+        st.setGender(reader.readString());
+        st.setStudentStatus(reader.readString());
+        st.setAcademicYear(reader.readSignedVarInt());
+        st.setAcademicYearCourse(reader.readSignedVarInt());
+        st.setStudentID(reader.readString());
+        st.setCodeCourse(reader.readSignedVarInt());
+        st.setTypeStudent(reader.readSignedVarInt());
+        st.setCfu(reader.readSignedVarInt());
+        st.setErasmus(reader.readByte() != 0);
+        return st;
+    }
+
+    private void writeStudentCard(BinaryWriter writer, StudentCard card) {
+        writer.writeString(card.getCode());
+        writer.writeDateTime(card.getIssueDate());
+        writer.writeString(card.getStudentId());
+        writer.writeByte(card.isEnabled() ? 1 : 0);
+        byte[] image = card.getImage();
+        writer.writeByte(image == null ? 0 : 1);
+        if (image != null) writer.writeBytes(image);
+    }
+
+    private StudentCard readStudentCard(BinaryReader reader) throws IOException {
+        StudentCard card = new StudentCard();
+        card.setCode(reader.readString());
+        card.setIssueDate(reader.readDateTime());
+        card.setStudentId(reader.readString());
+        card.setEnabled(reader.readByte() != 0);
+        if (reader.readByte() != 0) card.setImage(reader.readBytes());
+        return card;
+    }
+
+    private void writeCareer(BinaryWriter writer, Career career) {
+        writer.writeSignedVarInt(career.getIndex());
+        writer.writeString(career.getRegistrationCode());
+        writer.writeString(career.getCodeCourse());
+        writer.writeString(career.getDescription());
+        writer.writeString(career.getDescriptionComplete());
+        writer.writeString(career.getOrganization());
+        writer.writeString(career.getType());
+        writer.writeString(career.getTeachingCode());
+    }
+
+    private Career readCareer(BinaryReader reader) throws IOException {
+        Career career = new Career();
+        career.setIndex(reader.readSignedVarInt());
+        career.setRegistrationCode(reader.readString());
+        career.setCodeCourse(reader.readString());
+        career.setDescription(reader.readString());
+        career.setDescriptionComplete(reader.readString());
+        career.setOrganization(reader.readString());
+        career.setType(reader.readString());
+        career.setTeachingCode(reader.readString());
+        return career;
+    }
+
+    private void writeExam(BinaryWriter writer, Exam exam) {
+        writer.writeString(exam.getDescription());
+        writer.writeString(exam.getExamCode());
+        writer.writeString(exam.getSsd());
+        writer.writeSignedVarInt(exam.getCfu());
+    }
+
+    private void readExam(BinaryReader reader, Exam exam) throws IOException {
+        exam.setDescription(reader.readString());
+        exam.setExamCode(reader.readString());
+        exam.setSsd(reader.readString());
+        exam.setCfu(reader.readSignedVarInt());
+    }
+
+    private void writeExamDone(BinaryWriter writer, ExamDone exam) {
+        writeExam(writer, exam);
+        writer.writeDate(exam.getDate());
+        writer.writeSignedVarInt(exam.getYear());
+        writer.writeString(exam.getNominalResult());
+        writer.writeSignedVarInt(exam.getResult());
+        writer.writeByte((exam.isPassed() ? 1 : 0) | (exam.isCertified() ? 2 : 0));
+    }
+
+    private ExamDone readExamDone(BinaryReader reader) throws IOException {
+        ExamDone exam = new ExamDone();
+        readExam(reader, exam);
+        exam.setDate(reader.readDate());
+        exam.setYear(reader.readSignedVarInt());
+        exam.setNominalResult(reader.readString());
+        exam.setResult(reader.readSignedVarInt());
+        int flags = reader.readByte();
+        exam.setPassed((flags & 1) != 0);
+        exam.setCertified((flags & 2) != 0);
+        return exam;
+    }
+
+    private void writeExamDoable(BinaryWriter writer, ExamDoable exam) {
+        writeExam(writer, exam);
+        writer.writeString(exam.getCourseCode());
+        writer.writeString(exam.getModuleCode());
+    }
+
+    private ExamDoable readExamDoable(BinaryReader reader) throws IOException {
+        ExamDoable exam = new ExamDoable();
+        readExam(reader, exam);
+        exam.setCourseCode(reader.readString());
+        exam.setModuleCode(reader.readString());
+        return exam;
+    }
+
+    private void writeExamReservation(BinaryWriter writer, ExamReservation res) {
+        writer.writeSignedVarInt(res.getReportID());
+        writer.writeSignedVarInt(res.getSessionID());
+        writer.writeSignedVarInt(res.getCourseCode());
+        writer.writeSignedVarInt(res.getCfu());
+        writer.writeSignedVarInt(res.getReservationNumber());
+        writer.writeString(res.getYearCourse());
+        writer.writeString(res.getCourseDescription());
+        writer.writeString(res.getExamSubject());
+        writer.writeString(res.getTeacher());
+        writer.writeString(res.getDepartment());
+        writer.writeString(res.getChannel());
+        writer.writeDate(res.getEndDate());
+        writer.writeDate(res.getStartDate());
+        writer.writeDate(res.getReservationDate());
+        writer.writeDate(res.getExamDate());
+        writer.writeString(res.getNote());
+        writer.writeString(res.getSsd());
+        writer.writeString(res.getModule());
+        JSONArray modes = res.getAttendingModesList();
+        writer.writeString(modes == null ? null : modes.toString());
+        writer.writeString(res.getAttendingMode());
+        writer.writeString(res.getAttendingModeType());
+    }
+
+    private ExamReservation readExamReservation(BinaryReader reader) throws IOException {
+        ExamReservation res = new ExamReservation();
+        res.setReportID(reader.readSignedVarInt());
+        res.setSessionID(reader.readSignedVarInt());
+        res.setCourseCode(reader.readSignedVarInt());
+        res.setCfu(reader.readSignedVarInt());
+        res.setReservationNumber(reader.readSignedVarInt());
+        res.setYearCourse(reader.readString());
+        res.setCourseDescription(reader.readString());
+        res.setExamSubject(reader.readString());
+        res.setTeacher(reader.readString());
+        res.setDepartment(reader.readString());
+        res.setChannel(reader.readString());
+        res.setEndDate(reader.readDate());
+        res.setStartDate(reader.readDate());
+        res.setReservationDate(reader.readDate());
+        res.setExamDate(reader.readDate());
+        res.setNote(reader.readString());
+        res.setSsd(reader.readString());
+        res.setModule(reader.readString());
+        String modes = reader.readString();
+        if (modes != null) res.setAttendingModesList(new JSONArray(modes));
+        res.setAttendingMode(reader.readString());
+        res.setAttendingModeType(reader.readString());
+        return res;
+    }
+
+    private void writeTax(BinaryWriter writer, Tax tax) {
+        writer.writeVarInt(tax.getStatus() == null ? 0 : tax.getStatus().ordinal() + 1);
+        writer.writeString(tax.getCode());
+        writer.writeString(tax.getCodeCourse());
+        writer.writeString(tax.getDescriptionCourse());
+        writer.writeDouble(tax.getAmount());
+        writer.writeDate(tax.getPaymentDate());
+        writer.writeDate(tax.getExpirationDate());
+        writer.writeSignedVarInt(tax.getAcademicYear());
+        List<PaymentDescription> descriptions = tax.getPaymentDescriptionList();
+        writer.writeVarInt(descriptions == null ? 0 : descriptions.size() + 1);
+        if (descriptions != null) {
+            for (PaymentDescription description : descriptions) writePaymentDescription(writer, description);
+        }
+    }
+
+    private Tax readTax(BinaryReader reader) throws IOException {
+        Tax tax = new Tax();
+        int status = reader.readVarInt();
+        Tax.TaxStatus[] statuses = Tax.TaxStatus.values();
+        if (status > statuses.length) throw new IOException("Unknown tax status " + status);
+        tax.setStatus(status == 0 ? null : statuses[status - 1]);
+        tax.setCode(reader.readString());
+        tax.setCodeCourse(reader.readString());
+        tax.setDescriptionCourse(reader.readString());
+        tax.setAmount(reader.readDouble());
+        tax.setPaymentDate(reader.readDate());
+        tax.setExpirationDate(reader.readDate());
+        tax.setAcademicYear(reader.readSignedVarInt());
+        int size = reader.readVarInt();
+        if (size == 0) tax.setPaymentDescriptionList(null);
+        else {
+            List<PaymentDescription> descriptions = new ArrayList<>(size - 1);
+            for (int i = 1; i < size; i++) descriptions.add(readPaymentDescription(reader));
+            tax.setPaymentDescriptionList(descriptions);
+        }
+        return tax;
+    }
+
+    private void writePaymentDescription(BinaryWriter writer, PaymentDescription description) {
+        writer.writeString(description.getDescription());
+        writer.writeNullableDouble(description.getAmount());
+        writer.writeNullableDouble(description.getAmountPaid());
+        writer.writeString(description.getAcademicYear());
+    }
+
+    private PaymentDescription readPaymentDescription(BinaryReader reader) throws IOException {
+        PaymentDescription description = new PaymentDescription();
+        description.setDescription(reader.readString());
+        description.setAmount(reader.readNullableDouble());
+        description.setAmountPaid(reader.readNullableDouble());
+        description.setAcademicYear(reader.readString());
+        return description;
+    }
+
+    private void writeIsee(BinaryWriter writer, Isee isee) {
+        writer.writeDouble(isee.getValue());
+        writer.writeString(isee.getProtocol());
+        writer.writeDate(isee.getDateOperation());
+        writer.writeDate(isee.getDateDeclaration());
+        writer.writeByte(isee.isEditable() ? 1 : 0);
+    }
+
+    private Isee readIsee(BinaryReader reader) throws IOException {
+        Isee isee = new Isee();
+        isee.setValue(reader.readDouble());
+        isee.setProtocol(reader.readString());
+        isee.setDateOperation(reader.readDate());
+        isee.setDateDeclaration(reader.readDate());
+        isee.setEditable(reader.readByte() != 0);
+        return isee;
+    }
+
+    private void writeLesson(BinaryWriter writer, Lesson lesson) {
+        writer.writeString(lesson.getName());
+        writer.writeString(lesson.getWhere());
+        writer.writeDateTime(lesson.getStart());
+        writer.writeDateTime(lesson.getEnd());
+        writer.writeString(lesson.getTeacher());
+    }
+
+    private Lesson readLesson(BinaryReader reader) throws IOException {
+        Lesson lesson = new Lesson();
+        lesson.setName(reader.readString());
+        lesson.setWhere(reader.readString());
+        lesson.setStart(reader.readDateTime());
+        lesson.setEnd(reader.readDateTime());
+        lesson.setTeacher(reader.readString());
+        return lesson;
+    }
+
+    private void writeNullableLesson(BinaryWriter writer, Lesson lesson) {
+        writer.writeByte(lesson == null ? 0 : 1);
+        if (lesson != null) writeLesson(writer, lesson);
+    }
+
+    private Lesson readNullableLesson(BinaryReader reader) throws IOException {
+        if (reader.readByte() == 0) return null;
+        return readLesson(reader);
+    }
+
+    private void writeClassroom(BinaryWriter writer, Classroom classroom) {
+        writer.writeByte((classroom.hasCoordinates() ? 1 : 0) | (classroom.isOccupied() ? 2 : 0)
+                | (classroom.isWillBeOccupied() ? 4 : 0));
+        if (classroom.hasCoordinates()) {
+            writer.writeDouble(classroom.getLatitude());
+            writer.writeDouble(classroom.getLongitude());
+        }
+        writer.writeString(classroom.getWhere());
+        writer.writeString(classroom.getName());
+        writer.writeString(classroom.getFullName());
+        writer.writeSignedVarInt(classroom.getInternalId());
+        writer.writeString(classroom.getRoomId());
+        writer.writeSignedVarInt(classroom.getWeight());
+        writeNullableLesson(writer, classroom.getLessonNow());
+        writeNullableLesson(writer, classroom.getNextLesson());
+        List<Lesson> lessons = classroom.getTodayLessons();
+        writer.writeVarInt(lessons == null ? 0 : lessons.size() + 1);
+        if (lessons != null) {
+            for (Lesson lesson : lessons) writeLesson(writer, lesson);
+        }
+    }
+
+    private Classroom readClassroom(BinaryReader reader) throws IOException {
+        Classroom classroom = new Classroom();
+        int flags = reader.readByte();
+        if ((flags & 1) != 0) {
+            classroom.setLatitude(reader.readDouble());
+            classroom.setLongitude(reader.readDouble());
+        }
+        classroom.setOccupied((flags & 2) != 0);
+        classroom.setWillBeOccupied((flags & 4) != 0);
+        classroom.setWhere(reader.readString());
+        classroom.setName(reader.readString());
+        classroom.setFullName(reader.readString());
+        classroom.setInternalId(reader.readSignedVarInt());
+        classroom.setRoomId(reader.readString());
+        classroom.setWeight(reader.readSignedVarInt());
+        classroom.setLessonNow(readNullableLesson(reader));
+        classroom.setNextLesson(readNullableLesson(reader));
+        int size = reader.readVarInt();
+        if (size > 0) {
+            List<Lesson> lessons = new ArrayList<>(Math.min(size - 1, 1024));
+            for (int i = 1; i < size; i++) lessons.add(readLesson(reader));
+            classroom.setTodayLessons(lessons);
+        }
+        return classroom;
+    }
+
+    private void writeNews(BinaryWriter writer, News news) {
+        writer.writeString(news.getImageUrl());
+        writer.writeString(news.getSmallImageUrl());
+        writer.writeString(news.getTitle());
+        writer.writeString(news.getUrl());
+        writer.writeString(news.getLocale());
+        writer.writeString(news.getDescription());
+        writer.writeDate(news.getDate());
+    }
+
+    private News readNews(BinaryReader reader) throws IOException {
+        News news = new News();
+        news.setImageUrl(reader.readString());
+        news.setSmallImageUrl(reader.readString());
+        news.setTitle(reader.readString());
+        news.setUrl(reader.readString());
+        news.setLocale(reader.readString());
+        news.setDescription(reader.readString());
+        news.setDate(reader.readDate());
+        return news;
+    }
+
+    private void writeNewsEvent(BinaryWriter writer, NewsEvent event) {
+        writer.writeString(event.getDate());
+        writer.writeString(event.getHour());
+        writer.writeString(event.getDescription());
+        writer.writeString(event.getWhere());
+        writer.writeString(event.getRoom());
+        writer.writeString(event.getUrl());
+        writer.writeString(event.getImageUrl());
+    }
+
+    private NewsEvent readNewsEvent(BinaryReader reader) throws IOException {
+        NewsEvent event = new NewsEvent();
+        event.setDate(reader.readString());
+        event.setHour(reader.readString());
+        event.setDescription(reader.readString());
+        event.setWhere(reader.readString());
+        event.setRoom(reader.readString());
+        event.setUrl(reader.readString());
+        event.setImageUrl(reader.readString());
+        return event;
+    }
+
+    private void writeEvent(BinaryWriter writer, Event event) {
+        writer.writeVarInt(event.getEventType() == null ? 0 : event.getEventType().ordinal() + 1);
+        writer.writeString(event.getTitle());
+        writer.writeString(event.getTeacher());
+        writer.writeDateTime(event.getStart());
+        writer.writeDateTime(event.getEnd());
+        writer.writeString(event.getWhere());
+        writer.writeString(event.getDescription());
+        writer.writeString(event.getUrl());
+        writer.writeString(event.getImageUrl());
+        writer.writeString(event.getRoom());
+        ExamReservation res = event.getReservation();
+        writer.writeByte(res == null ? 0 : 1);
+        if (res != null) writeExamReservation(writer, res);
+    }
+
+    private Event readEvent(BinaryReader reader) throws IOException {
+        int type = reader.readVarInt();
+        EventType[] types = EventType.values();
+        if (type > types.length) throw new IOException("Unknown event type " + type);
+        Event event = new Event(type == 0 ? null : types[type - 1]);
+        event.setTitle(reader.readString());
+        event.setTeacher(reader.readString());
+        event.setStart(reader.readDateTime());
+        event.setEnd(reader.readDateTime());
+        event.setWhere(reader.readString());
+        event.setDescription(reader.readString());
+        event.setUrl(reader.readString());
+        event.setImageUrl(reader.readString());
+        event.setRoom(reader.readString());
+        if (reader.readByte() != 0) event.setReservation(readExamReservation(reader));
+        return event;
+    }
+}
@@ -0,0 +1,107 @@
+package matypist.openstud.driver.core.codec;
+
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.ZoneOffset;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class BinaryReader {
+    private final List<String> dictionary = new ArrayList<>();
+    private final byte[] buffer;
+    private int position;
+
+    BinaryReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    int readByte() throws IOException {
+        if (position >= buffer.length) throw new EOFException();
+        return buffer[position++] & 0xFF;
+    }
+
+    long readVarLong() throws IOException {
+        long ret = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            ret |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return ret;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    int readVarInt() throws IOException {
+        long value = readVarLong();
+        if ((value & ~0xFFFFFFFFL) != 0) throw new IOException("Malformed varint");
+        return (int) value;
+    }
+
+    long readSignedVarLong() throws IOException {
+        return unZigZag(readVarLong());
+    }
+
+    int readSignedVarInt() throws IOException {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    double readDouble() throws IOException {
+        if (position + 8 > buffer.length) throw new EOFException();
+        long bits = 0;
+        for (int i = 0; i < 8; i++) bits |= (long) (buffer[position++] & 0xFF) << (8 * i);
+        return Double.longBitsToDouble(bits);
+    }
+
+    Double readNullableDouble() throws IOException {
+        if (readByte() == 0) return null;
+        return readDouble();
+    }
+
+    String readString() throws IOException {
+        int tag = readVarInt();
+        if (tag == 0) return null;
+        if (tag == 1) {
+            String value = new String(readBytes(), StandardCharsets.UTF_8);
+            dictionary.add(value);
+            return value;
+        }
+        int slot = tag - 2;
+        if (slot >= dictionary.size()) throw new IOException("Unknown dictionary entry " + slot);
+        return dictionary.get(slot);
+    }
+
+    byte[] readBytes() throws IOException {
+        int length = readVarInt();
+        if (length < 0 || position + length > buffer.length) throw new EOFException();
+        byte[] ret = new byte[length];
+        System.arraycopy(buffer, position, ret, 0, length);
+        position += length;
+        return ret;
+    }
+
+    LocalDate readDate() throws IOException {
+        long value = readVarLong();
+        if (value == 0) return null;
+        return LocalDate.ofEpochDay(unZigZag(value - 1));
+    }
+
+    LocalDateTime readDateTime() throws IOException {
+        long value = readVarLong();
+        if (value == 0) return null;
+        value--;
+        int nano = (value & 1) != 0 ? readVarInt() : 0;
+        return LocalDateTime.ofEpochSecond(unZigZag(value >>> 1), nano, ZoneOffset.UTC);
+    }
+
+    boolean isExhausted() {
+        return position == buffer.length;
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,113 @@
+package matypist.openstud.driver.core.codec;
+
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.ZoneOffset;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+class BinaryWriter {
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private byte[] buffer;
+    private int position;
+
+    BinaryWriter(int initialCapacity) {
+        buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeVarInt(int value) {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeSignedVarInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    void writeDouble(double value) {
+        long bits = Double.doubleToLongBits(value);
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            buffer[position++] = (byte) bits;
+            bits >>>= 8;
+        }
+    }
+
+    void writeNullableDouble(Double value) {
+        writeByte(value == null ? 0 : 1);
+        if (value != null) writeDouble(value);
+    }
+
+    /**
+     * Strings are written once per message, later occurrences only reference their dictionary slot.
+     */
+    void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        Integer slot = dictionary.get(value);
+        if (slot != null) {
+            writeVarInt(slot + 2);
+            return;
+        }
+        dictionary.put(value, dictionary.size());
+        writeVarInt(1);
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void writeBytes(byte[] value) {
+        writeVarInt(value.length);
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, buffer, position, value.length);
+        position += value.length;
+    }
+
+    void writeDate(LocalDate value) {
+        if (value == null) writeVarLong(0);
+        else writeVarLong(zigZag(value.toEpochDay()) + 1);
+    }
+
+    void writeDateTime(LocalDateTime value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        int nano = value.getNano();
+        writeVarLong((zigZag(value.toEpochSecond(ZoneOffset.UTC)) << 1 | (nano != 0 ? 1 : 0)) + 1);
+        if (nano != 0) writeVarInt(nano);
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra <= buffer.length) return;
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+    }
+}
@@ -0,0 +1,33 @@
+package matypist.openstud.driver.core.compact;
+
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.ZoneOffset;
+
+/**
+ * Dates stored as primitives: days and seconds since the epoch, with the minimum value standing for null.
+ */
+final class CompactDates {
+    static final int NO_DATE = Integer.MIN_VALUE;
+    static final long NO_DATE_TIME = Long.MIN_VALUE;
+
+    private CompactDates() {
+    }
+
+    static int toDays(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    static LocalDate fromDays(int days) {
+        return days == NO_DATE ? null : LocalDate.ofEpochDay(days);
+    }
+
+    // timetables have minute precision, fractions of second are dropped
+    static long toSeconds(LocalDateTime dateTime) {
+        return dateTime == null ? NO_DATE_TIME : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime fromSeconds(long seconds) {
+        return seconds == NO_DATE_TIME ? null : LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,120 @@
+package matypist.openstud.driver.core.compact;
+
+import matypist.openstud.driver.core.models.ExamDone;
+import org.threeten.bp.LocalDate;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of exams done stored column by column in primitive arrays. Fields are read without
+ * allocations, {@link #get(int)} builds a new {@link ExamDone} on every call. Cfu, result and year are stored as
+ * shorts, {@link #from(List)} rejects the exams whose values don't fit.
+ */
+public final class ExamDoneTable extends AbstractList<ExamDone> implements RandomAccess, Serializable {
+    private static final byte PASSED = 1;
+    private static final byte CERTIFIED = 2;
+
+    private final String[] examCodes;
+    private final String[] descriptions;
+    private final String[] ssd;
+    private final String[] nominalResults;
+    private final short[] cfu;
+    private final short[] results;
+    private final short[] years;
+    private final int[] dates;
+    private final byte[] flags;
+
+    private ExamDoneTable(int size) {
+        examCodes = new String[size];
+        descriptions = new String[size];
+        ssd = new String[size];
+        nominalResults = new String[size];
+        cfu = new short[size];
+        results = new short[size];
+        years = new short[size];
+        dates = new int[size];
+        flags = new byte[size];
+    }
+
+    public static ExamDoneTable from(List<ExamDone> exams) {
+        if (exams instanceof ExamDoneTable) return (ExamDoneTable) exams;
+        ExamDoneTable ret = new ExamDoneTable(exams == null ? 0 : exams.size());
+        if (exams == null) return ret;
+        int i = 0;
+        for (ExamDone exam : exams) {
+            ret.examCodes[i] = exam.getExamCode();
+            ret.descriptions[i] = exam.getDescription();
+            ret.ssd[i] = exam.getSsd();
+            ret.nominalResults[i] = exam.getNominalResult();
+            ret.cfu[i] = toShort("Cfu", exam.getCfu());
+            ret.results[i] = toShort("Result", exam.getResult());
+            ret.years[i] = toShort("Year", exam.getYear());
+            ret.dates[i] = CompactDates.toDays(exam.getDate());
+            ret.flags[i] = (byte) ((exam.isPassed() ? PASSED : 0) | (exam.isCertified() ? CERTIFIED : 0));
+            i++;
+        }
+        return ret;
+    }
+
+    @Override
+    public ExamDone get(int index) {
+        ExamDone ret = new ExamDone();
+        ret.setExamCode(examCodes[index]);
+        ret.setDescription(descriptions[index]);
+        ret.setSsd(ssd[index]);
+        ret.setNominalResult(nominalResults[index]);
+        ret.setCfu(cfu[index]);
+        ret.setResult(results[index]);
+        ret.setYear(years[index]);
+        ret.setDate(CompactDates.fromDays(dates[index]));
+        ret.setPassed((flags[index] & PASSED) != 0);
+        ret.setCertified((flags[index] & CERTIFIED) != 0);
+        return ret;
+    }
+
+    /**
+     * @return a mutable list with a new {@link ExamDone} for every row
+     */
+    public List<ExamDone> toList() {
+        return new ArrayList<>(this);
+    }
+
+    @Override
+    public int size() {
+        return examCodes.length;
+    }
+
+    public String getExamCode(int index) {
+        return examCodes[index];
+    }
+
+    public String getDescription(int index) {
+        return descriptions[index];
+    }
+
+    public int getCfu(int index) {
+        return cfu[index];
+    }
+
+    public int getResult(int index) {
+        return results[index];
+    }
+
+    public boolean isPassed(int index) {
+        return (flags[index] & PASSED) != 0;
+    }
+
+    public LocalDate getDate(int index) {
+        return CompactDates.fromDays(dates[index]);
+    }
+
+    private static short toShort(String field, int value) {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE)
+            throw new IllegalArgumentException(field + " " + value + " doesn't fit in a compact table");
+        return (short) value;
+    }
+}
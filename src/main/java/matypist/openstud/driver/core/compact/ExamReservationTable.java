@@ -0,0 +1,163 @@
+package matypist.openstud.driver.core.compact;
+
+import matypist.openstud.driver.core.models.ExamReservation;
+import org.json.JSONArray;
+import org.threeten.bp.LocalDate;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of reservations stored column by column. The attending modes are kept as JSON text
+ * and parsed again only when a reservation is rebuilt.
+ */
+public final class ExamReservationTable extends AbstractList<ExamReservation> implements RandomAccess, Serializable {
+    private static final int REPORT_ID = 0;
+    private static final int SESSION_ID = 1;
+    private static final int COURSE_CODE = 2;
+    private static final int CFU = 3;
+    private static final int RESERVATION_NUMBER = 4;
+    private static final int INTS = 5;
+    private static final int END_DATE = 0;
+    private static final int START_DATE = 1;
+    private static final int RESERVATION_DATE = 2;
+    private static final int EXAM_DATE = 3;
+    private static final int DATES = 4;
+    private static final int YEAR_COURSE = 0;
+    private static final int COURSE_DESCRIPTION = 1;
+    private static final int EXAM_SUBJECT = 2;
+    private static final int TEACHER = 3;
+    private static final int DEPARTMENT = 4;
+    private static final int CHANNEL = 5;
+    private static final int NOTE = 6;
+    private static final int SSD = 7;
+    private static final int MODULE = 8;
+    private static final int ATTENDING_MODES = 9;
+    private static final int ATTENDING_MODE = 10;
+    private static final int ATTENDING_MODE_TYPE = 11;
+    private static final int STRINGS = 12;
+
+    // row major, every reservation takes a fixed stride in each array
+    private final int size;
+    private final int[] ints;
+    private final int[] dates;
+    private final String[] strings;
+
+    private ExamReservationTable(int size) {
+        this.size = size;
+        ints = new int[size * INTS];
+        dates = new int[size * DATES];
+        strings = new String[size * STRINGS];
+    }
+
+    public static ExamReservationTable from(List<ExamReservation> reservations) {
+        if (reservations instanceof ExamReservationTable) return (ExamReservationTable) reservations;
+        ExamReservationTable ret = new ExamReservationTable(reservations == null ? 0 : reservations.size());
+        if (reservations == null) return ret;
+        int i = 0;
+        for (ExamReservation res : reservations) {
+            int in = i * INTS;
+            ret.ints[in + REPORT_ID] = res.getReportID();
+            ret.ints[in + SESSION_ID] = res.getSessionID();
+            ret.ints[in + COURSE_CODE] = res.getCourseCode();
+            ret.ints[in + CFU] = res.getCfu();
+            ret.ints[in + RESERVATION_NUMBER] = res.getReservationNumber();
+            int d = i * DATES;
+            ret.dates[d + END_DATE] = CompactDates.toDays(res.getEndDate());
+            ret.dates[d + START_DATE] = CompactDates.toDays(res.getStartDate());
+            ret.dates[d + RESERVATION_DATE] = CompactDates.toDays(res.getReservationDate());
+            ret.dates[d + EXAM_DATE] = CompactDates.toDays(res.getExamDate());
+            int s = i * STRINGS;
+            ret.strings[s + YEAR_COURSE] = res.getYearCourse();
+            ret.strings[s + COURSE_DESCRIPTION] = res.getCourseDescription();
+            ret.strings[s + EXAM_SUBJECT] = res.getExamSubject();
+            ret.strings[s + TEACHER] = res.getTeacher();
+            ret.strings[s + DEPARTMENT] = res.getDepartment();
+            ret.strings[s + CHANNEL] = res.getChannel();
+            ret.strings[s + NOTE] = res.getNote();
+            ret.strings[s + SSD] = res.getSsd();
+            ret.strings[s + MODULE] = res.getModule();
+            ret.strings[s + ATTENDING_MODES] = res.getAttendingModesList() == null ? null : res.getAttendingModesList().toString();
+            ret.strings[s + ATTENDING_MODE] = res.getAttendingMode();
+            ret.strings[s + ATTENDING_MODE_TYPE] = res.getAttendingModeType();
+            i++;
+        }
+        return ret;
+    }
+
+    @Override
+    public ExamReservation get(int index) {
+        checkIndex(index);
+        ExamReservation ret = new ExamReservation();
+        int in = index * INTS;
+        ret.setReportID(ints[in + REPORT_ID]);
+        ret.setSessionID(ints[in + SESSION_ID]);
+        ret.setCourseCode(ints[in + COURSE_CODE]);
+        ret.setCfu(ints[in + CFU]);
+        ret.setReservationNumber(ints[in + RESERVATION_NUMBER]);
+        int d = index * DATES;
+        ret.setEndDate(CompactDates.fromDays(dates[d + END_DATE]));
+        ret.setStartDate(CompactDates.fromDays(dates[d + START_DATE]));
+        ret.setReservationDate(CompactDates.fromDays(dates[d + RESERVATION_DATE]));
+        ret.setExamDate(CompactDates.fromDays(dates[d + EXAM_DATE]));
+        int s = index * STRINGS;
+        ret.setYearCourse(strings[s + YEAR_COURSE]);
+        ret.setCourseDescription(strings[s + COURSE_DESCRIPTION]);
+        ret.setExamSubject(strings[s + EXAM_SUBJECT]);
+        ret.setTeacher(strings[s + TEACHER]);
+        ret.setDepartment(strings[s + DEPARTMENT]);
+        ret.setChannel(strings[s + CHANNEL]);
+        ret.setNote(strings[s + NOTE]);
+        ret.setSsd(strings[s + SSD]);
+        ret.setModule(strings[s + MODULE]);
+        String modes = strings[s + ATTENDING_MODES];
+        if (modes != null) ret.setAttendingModesList(new JSONArray(modes));
+        ret.setAttendingMode(strings[s + ATTENDING_MODE]);
+        ret.setAttendingModeType(strings[s + ATTENDING_MODE_TYPE]);
+        return ret;
+    }
+
+    /**
+     * @return a mutable list with a new {@link ExamReservation} for every row
+     */
+    public List<ExamReservation> toList() {
+        return new ArrayList<>(this);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getReportID(int index) {
+        checkIndex(index);
+        return ints[index * INTS + REPORT_ID];
+    }
+
+    public int getSessionID(int index) {
+        checkIndex(index);
+        return ints[index * INTS + SESSION_ID];
+    }
+
+    public int getCourseCode(int index) {
+        checkIndex(index);
+        return ints[index * INTS + COURSE_CODE];
+    }
+
+    public String getExamSubject(int index) {
+        checkIndex(index);
+        return strings[index * STRINGS + EXAM_SUBJECT];
+    }
+
+    public LocalDate getExamDate(int index) {
+        checkIndex(index);
+        return CompactDates.fromDays(dates[index * DATES + EXAM_DATE]);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+}
@@ -0,0 +1,81 @@
+package matypist.openstud.driver.core.compact;
+
+import matypist.openstud.driver.core.models.Lesson;
+import org.threeten.bp.LocalDateTime;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable timetable stored column by column, start and end are kept as epoch seconds: timetables have minute
+ * precision, so the fractions of second of a time don't survive the round trip.
+ */
+public final class LessonTable extends AbstractList<Lesson> implements RandomAccess, Serializable {
+    private final String[] names;
+    private final String[] where;
+    private final String[] teachers;
+    private final long[] starts;
+    private final long[] ends;
+
+    private LessonTable(int size) {
+        names = new String[size];
+        where = new String[size];
+        teachers = new String[size];
+        starts = new long[size];
+        ends = new long[size];
+    }
+
+    public static LessonTable from(List<Lesson> lessons) {
+        if (lessons instanceof LessonTable) return (LessonTable) lessons;
+        LessonTable ret = new LessonTable(lessons == null ? 0 : lessons.size());
+        if (lessons == null) return ret;
+        int i = 0;
+        for (Lesson lesson : lessons) {
+            ret.names[i] = lesson.getName();
+            ret.where[i] = lesson.getWhere();
+            ret.teachers[i] = lesson.getTeacher();
+            ret.starts[i] = CompactDates.toSeconds(lesson.getStart());
+            ret.ends[i] = CompactDates.toSeconds(lesson.getEnd());
+            i++;
+        }
+        return ret;
+    }
+
+    @Override
+    public Lesson get(int index) {
+        Lesson ret = new Lesson();
+        ret.setName(names[index]);
+        ret.setWhere(where[index]);
+        ret.setTeacher(teachers[index]);
+        ret.setStart(CompactDates.fromSeconds(starts[index]));
+        ret.setEnd(CompactDates.fromSeconds(ends[index]));
+        return ret;
+    }
+
+    /**
+     * @return a mutable list with a new {@link Lesson} for every row
+     */
+    public List<Lesson> toList() {
+        return new ArrayList<>(this);
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public LocalDateTime getStart(int index) {
+        return CompactDates.fromSeconds(starts[index]);
+    }
+
+    public LocalDateTime getEnd(int index) {
+        return CompactDates.fromSeconds(ends[index]);
+    }
+}
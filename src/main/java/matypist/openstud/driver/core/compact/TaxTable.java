@@ -0,0 +1,151 @@
+package matypist.openstud.driver.core.compact;
+
+import matypist.openstud.driver.core.models.PaymentDescription;
+import matypist.openstud.driver.core.models.Tax;
+import org.threeten.bp.LocalDate;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of taxes stored column by column. Payment descriptions of every tax are flattened in
+ * shared arrays, the descriptions of a tax go from its offset to the offset of the next one.
+ */
+public final class TaxTable extends AbstractList<Tax> implements RandomAccess, Serializable {
+    private static final Tax.TaxStatus[] STATUSES = Tax.TaxStatus.values();
+
+    private final String[] codes;
+    private final String[] codeCourses;
+    private final String[] descriptionCourses;
+    private final double[] amounts;
+    private final int[] paymentDates;
+    private final int[] expirationDates;
+    private final int[] academicYears;
+    private final byte[] statuses;
+    // -1 marks a tax without description list
+    private final int[] descriptionOffsets;
+    private final String[] descriptions;
+    private final String[] descriptionYears;
+    // NaN stands for a missing amount
+    private final double[] descriptionAmounts;
+    private final double[] descriptionAmountsPaid;
+
+    private TaxTable(int size, int descriptionsSize) {
+        codes = new String[size];
+        codeCourses = new String[size];
+        descriptionCourses = new String[size];
+        amounts = new double[size];
+        paymentDates = new int[size];
+        expirationDates = new int[size];
+        academicYears = new int[size];
+        statuses = new byte[size];
+        descriptionOffsets = new int[size + 1];
+        descriptions = new String[descriptionsSize];
+        descriptionYears = new String[descriptionsSize];
+        descriptionAmounts = new double[descriptionsSize];
+        descriptionAmountsPaid = new double[descriptionsSize];
+    }
+
+    public static TaxTable from(List<Tax> taxes) {
+        if (taxes instanceof TaxTable) return (TaxTable) taxes;
+        if (taxes == null) return new TaxTable(0, 0);
+        int descriptionsSize = 0;
+        for (Tax tax : taxes) {
+            if (tax.getPaymentDescriptionList() != null) descriptionsSize += tax.getPaymentDescriptionList().size();
+        }
+        TaxTable ret = new TaxTable(taxes.size(), descriptionsSize);
+        int i = 0;
+        int d = 0;
+        for (Tax tax : taxes) {
+            ret.codes[i] = tax.getCode();
+            ret.codeCourses[i] = tax.getCodeCourse();
+            ret.descriptionCourses[i] = tax.getDescriptionCourse();
+            ret.amounts[i] = tax.getAmount();
+            ret.paymentDates[i] = CompactDates.toDays(tax.getPaymentDate());
+            ret.expirationDates[i] = CompactDates.toDays(tax.getExpirationDate());
+            ret.academicYears[i] = tax.getAcademicYear();
+            ret.statuses[i] = (byte) (tax.getStatus() == null ? -1 : tax.getStatus().ordinal());
+            List<PaymentDescription> list = tax.getPaymentDescriptionList();
+            if (list == null) ret.descriptionOffsets[i] = -1 - d;
+            else {
+                ret.descriptionOffsets[i] = d;
+                for (PaymentDescription description : list) {
+                    ret.descriptions[d] = description.getDescription();
+                    ret.descriptionYears[d] = description.getAcademicYear();
+                    ret.descriptionAmounts[d] = description.getAmount() == null ? Double.NaN : description.getAmount();
+                    ret.descriptionAmountsPaid[d] = description.getAmountPaid() == null ? Double.NaN : description.getAmountPaid();
+                    d++;
+                }
+            }
+            i++;
+        }
+        ret.descriptionOffsets[i] = d;
+        return ret;
+    }
+
+    @Override
+    public Tax get(int index) {
+        Tax ret = new Tax();
+        ret.setCode(codes[index]);
+        ret.setCodeCourse(codeCourses[index]);
+        ret.setDescriptionCourse(descriptionCourses[index]);
+        ret.setAmount(amounts[index]);
+        ret.setPaymentDate(CompactDates.fromDays(paymentDates[index]));
+        ret.setExpirationDate(CompactDates.fromDays(expirationDates[index]));
+        ret.setAcademicYear(academicYears[index]);
+        ret.setStatus(statuses[index] < 0 ? null : STATUSES[statuses[index]]);
+        int start = descriptionOffsets[index];
+        if (start < 0) {
+            ret.setPaymentDescriptionList(null);
+            return ret;
+        }
+        int end = offset(index + 1);
+        List<PaymentDescription> list = new ArrayList<>(end - start);
+        for (int d = start; d < end; d++) {
+            PaymentDescription description = new PaymentDescription();
+            description.setDescription(descriptions[d]);
+            description.setAcademicYear(descriptionYears[d]);
+            description.setAmount(Double.isNaN(descriptionAmounts[d]) ? null : descriptionAmounts[d]);
+            description.setAmountPaid(Double.isNaN(descriptionAmountsPaid[d]) ? null : descriptionAmountsPaid[d]);
+            list.add(description);
+        }
+        ret.setPaymentDescriptionList(list);
+        return ret;
+    }
+
+    /**
+     * @return a mutable list with a new {@link Tax} for every row
+     */
+    public List<Tax> toList() {
+        return new ArrayList<>(this);
+    }
+
+    @Override
+    public int size() {
+        return codes.length;
+    }
+
+    public String getCode(int index) {
+        return codes[index];
+    }
+
+    public double getAmount(int index) {
+        return amounts[index];
+    }
+
+    public Tax.TaxStatus getStatus(int index) {
+        return statuses[index] < 0 ? null : STATUSES[statuses[index]];
+    }
+
+    public LocalDate getExpirationDate(int index) {
+        return CompactDates.fromDays(expirationDates[index]);
+    }
+
+    private int offset(int index) {
+        int ret = descriptionOffsets[index];
+        return ret < 0 ? -1 - ret : ret;
+    }
+}
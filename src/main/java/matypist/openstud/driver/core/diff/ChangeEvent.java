@@ -0,0 +1,41 @@
+package matypist.openstud.driver.core.diff;
+
+public final class ChangeEvent<T> {
+    private final ChangeType type;
+    private final String key;
+    private final T previous;
+    private final T current;
+
+    ChangeEvent(ChangeType type, String key, T previous, T current) {
+        this.type = type;
+        this.key = key;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public T getPrevious() {
+        return previous;
+    }
+
+    public T getCurrent() {
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+                "type=" + type +
+                ", key='" + key + '\'' +
+                ", previous=" + previous +
+                ", current=" + current +
+                '}';
+    }
+}
@@ -0,0 +1,70 @@
+package matypist.openstud.driver.core.diff;
+
+import matypist.openstud.driver.core.models.*;
+import matypist.openstud.driver.core.sync.ProfileSnapshot;
+import matypist.openstud.driver.core.sync.SyncPart;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the fingerprints of the last seen snapshot and reports what changed in the next one. The fingerprints hold
+ * the models of that snapshot, which become the previous values of the change events, so the tracker retains about
+ * one snapshot per part. Parts that failed to sync are skipped and the first snapshot just sets the baseline.
+ */
+public class ChangeTracker {
+    private final DiffEngine engine = new DiffEngine();
+    private Fingerprints<ExamDone> examsDone;
+    private Fingerprints<ExamReservation> reservations;
+    private Fingerprints<Tax> taxes;
+    private Fingerprints<Isee> isee;
+    private Fingerprints<StudentCard> cards;
+
+    public synchronized List<ChangeEvent<?>> update(ProfileSnapshot snapshot) {
+        List<ChangeEvent<?>> ret = new ArrayList<>();
+        if (snapshot == null) return ret;
+        if (snapshot.isSuccess(SyncPart.EXAMS_DONE)) {
+            Fingerprints<ExamDone> current = Fingerprints.of(snapshot.getExamsDone(), ModelIdentities.EXAM_DONE);
+            if (examsDone != null) ret.addAll(engine.diffExamsDone(examsDone, current));
+            examsDone = current;
+        }
+        if (snapshot.isSuccess(SyncPart.ACTIVE_RESERVATIONS)) {
+            Fingerprints<ExamReservation> current = Fingerprints.of(snapshot.getActiveReservations(), ModelIdentities.EXAM_RESERVATION);
+            if (reservations != null) ret.addAll(engine.diffReservations(reservations, current));
+            reservations = current;
+        }
+        // a tax moves from the unpaid to the paid list, both are needed to tell it apart from a removal
+        if (snapshot.isSuccess(SyncPart.PAID_TAXES) && snapshot.isSuccess(SyncPart.UNPAID_TAXES)) {
+            List<Tax> all = new ArrayList<>();
+            if (snapshot.getPaidTaxes() != null) all.addAll(snapshot.getPaidTaxes());
+            if (snapshot.getUnpaidTaxes() != null) all.addAll(snapshot.getUnpaidTaxes());
+            Fingerprints<Tax> current = Fingerprints.of(all, ModelIdentities.TAX);
+            if (taxes != null) ret.addAll(engine.diffTaxes(taxes, current));
+            taxes = current;
+        }
+        if (snapshot.isSuccess(SyncPart.CURRENT_ISEE)) {
+            Fingerprints<Isee> current = Fingerprints.of(singleton(snapshot.getCurrentIsee()), ModelIdentities.ISEE);
+            if (isee != null) ret.addAll(engine.diffIsee(isee, current));
+            isee = current;
+        }
+        if (snapshot.isSuccess(SyncPart.STUDENT_CARD)) {
+            Fingerprints<StudentCard> current = Fingerprints.of(singleton(snapshot.getStudentCard()), ModelIdentities.STUDENT_CARD);
+            if (cards != null) ret.addAll(engine.diffStudentCards(cards, current));
+            cards = current;
+        }
+        return ret;
+    }
+
+    public synchronized void reset() {
+        examsDone = null;
+        reservations = null;
+        taxes = null;
+        isee = null;
+        cards = null;
+    }
+
+    private static <T> List<T> singleton(T item) {
+        return item == null ? Collections.<T>emptyList() : Collections.singletonList(item);
+    }
+}
@@ -0,0 +1,9 @@
+package matypist.openstud.driver.core.diff;
+
+public enum ChangeType {
+    GRADE_RECORDED, EXAM_ADDED, EXAM_UPDATED, EXAM_REMOVED,
+    RESERVATION_ADDED, RESERVATION_UPDATED, RESERVATION_REMOVED,
+    TAX_ADDED, TAX_PAID, TAX_UPDATED, TAX_REMOVED,
+    ISEE_ADDED, ISEE_UPDATED, ISEE_REMOVED,
+    STUDENT_CARD_ISSUED, STUDENT_CARD_UPDATED, STUDENT_CARD_REMOVED
+}
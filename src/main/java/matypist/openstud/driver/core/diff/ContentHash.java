@@ -0,0 +1,64 @@
+package matypist.openstud.driver.core.diff;
+
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.ZoneOffset;
+
+/**
+ * 64 bit FNV-1a hash fed field by field, used to tell whether a model changed without comparing object graphs.
+ */
+final class ContentHash {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private long hash = OFFSET_BASIS;
+
+    ContentHash add(String value) {
+        if (value == null) return add(-1L);
+        add((long) value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            mix(c & 0xFF);
+            mix(c >>> 8);
+        }
+        return this;
+    }
+
+    ContentHash add(long value) {
+        for (int i = 0; i < 8; i++) {
+            mix((int) (value & 0xFF));
+            value >>>= 8;
+        }
+        return this;
+    }
+
+    ContentHash add(int value) {
+        return add((long) value);
+    }
+
+    ContentHash add(double value) {
+        return add(Double.doubleToLongBits(value));
+    }
+
+    ContentHash add(boolean value) {
+        mix(value ? 1 : 0);
+        return this;
+    }
+
+    ContentHash add(LocalDate value) {
+        return add(value == null ? Long.MIN_VALUE : value.toEpochDay());
+    }
+
+    ContentHash add(LocalDateTime value) {
+        if (value == null) return add(Long.MIN_VALUE);
+        return add(value.toEpochSecond(ZoneOffset.UTC)).add(value.getNano());
+    }
+
+    long value() {
+        return hash;
+    }
+
+    private void mix(int b) {
+        hash ^= b;
+        hash *= PRIME;
+    }
+}
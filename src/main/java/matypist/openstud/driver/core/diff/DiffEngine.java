@@ -0,0 +1,179 @@
+package matypist.openstud.driver.core.diff;
+
+import matypist.openstud.driver.core.models.*;
+
+import java.util.*;
+
+/**
+ * Compares two versions of the student data through {@link Fingerprints}: unchanged lists are skipped by digest,
+ * otherwise items are matched by key and only those whose content hash differs are inspected.
+ */
+public class DiffEngine {
+
+    private interface Classifier<T> {
+        ChangeType added(T current);
+
+        ChangeType updated(T previous, T current);
+
+        ChangeType removed(T previous);
+    }
+
+    private static final Classifier<ExamDone> EXAMS = new Classifier<ExamDone>() {
+        @Override
+        public ChangeType added(ExamDone current) {
+            // a failed attempt shows up as a new exam too, it doesn't record a grade
+            return current.isPassed() ? ChangeType.GRADE_RECORDED : ChangeType.EXAM_ADDED;
+        }
+
+        @Override
+        public ChangeType updated(ExamDone previous, ExamDone current) {
+            if (!previous.isPassed() && current.isPassed()) return ChangeType.GRADE_RECORDED;
+            return ChangeType.EXAM_UPDATED;
+        }
+
+        @Override
+        public ChangeType removed(ExamDone previous) {
+            return ChangeType.EXAM_REMOVED;
+        }
+    };
+
+    private static final Classifier<ExamReservation> RESERVATIONS = new Classifier<ExamReservation>() {
+        @Override
+        public ChangeType added(ExamReservation current) {
+            return ChangeType.RESERVATION_ADDED;
+        }
+
+        @Override
+        public ChangeType updated(ExamReservation previous, ExamReservation current) {
+            return ChangeType.RESERVATION_UPDATED;
+        }
+
+        @Override
+        public ChangeType removed(ExamReservation previous) {
+            return ChangeType.RESERVATION_REMOVED;
+        }
+    };
+
+    private static final Classifier<Tax> TAXES = new Classifier<Tax>() {
+        @Override
+        public ChangeType added(Tax current) {
+            return current.getStatus() == Tax.TaxStatus.PAID ? ChangeType.TAX_PAID : ChangeType.TAX_ADDED;
+        }
+
+        @Override
+        public ChangeType updated(Tax previous, Tax current) {
+            if (previous.getStatus() != Tax.TaxStatus.PAID && current.getStatus() == Tax.TaxStatus.PAID)
+                return ChangeType.TAX_PAID;
+            return ChangeType.TAX_UPDATED;
+        }
+
+        @Override
+        public ChangeType removed(Tax previous) {
+            return ChangeType.TAX_REMOVED;
+        }
+    };
+
+    private static final Classifier<Isee> ISEE = new Classifier<Isee>() {
+        @Override
+        public ChangeType added(Isee current) {
+            return ChangeType.ISEE_ADDED;
+        }
+
+        @Override
+        public ChangeType updated(Isee previous, Isee current) {
+            return ChangeType.ISEE_UPDATED;
+        }
+
+        @Override
+        public ChangeType removed(Isee previous) {
+            return ChangeType.ISEE_REMOVED;
+        }
+    };
+
+    private static final Classifier<StudentCard> CARDS = new Classifier<StudentCard>() {
+        @Override
+        public ChangeType added(StudentCard current) {
+            return ChangeType.STUDENT_CARD_ISSUED;
+        }
+
+        @Override
+        public ChangeType updated(StudentCard previous, StudentCard current) {
+            return ChangeType.STUDENT_CARD_UPDATED;
+        }
+
+        @Override
+        public ChangeType removed(StudentCard previous) {
+            return ChangeType.STUDENT_CARD_REMOVED;
+        }
+    };
+
+    public List<ChangeEvent<ExamDone>> diffExamsDone(List<ExamDone> previous, List<ExamDone> current) {
+        return diffExamsDone(Fingerprints.of(previous, ModelIdentities.EXAM_DONE), Fingerprints.of(current, ModelIdentities.EXAM_DONE));
+    }
+
+    public List<ChangeEvent<ExamDone>> diffExamsDone(Fingerprints<ExamDone> previous, Fingerprints<ExamDone> current) {
+        return diff(previous, current, EXAMS);
+    }
+
+    public List<ChangeEvent<ExamReservation>> diffReservations(List<ExamReservation> previous, List<ExamReservation> current) {
+        return diffReservations(Fingerprints.of(previous, ModelIdentities.EXAM_RESERVATION), Fingerprints.of(current, ModelIdentities.EXAM_RESERVATION));
+    }
+
+    public List<ChangeEvent<ExamReservation>> diffReservations(Fingerprints<ExamReservation> previous, Fingerprints<ExamReservation> current) {
+        return diff(previous, current, RESERVATIONS);
+    }
+
+    /**
+     * Paid and unpaid taxes should be passed together, so that a tax moving between the two lists is seen as paid.
+     */
+    public List<ChangeEvent<Tax>> diffTaxes(List<Tax> previous, List<Tax> current) {
+        return diffTaxes(Fingerprints.of(previous, ModelIdentities.TAX), Fingerprints.of(current, ModelIdentities.TAX));
+    }
+
+    public List<ChangeEvent<Tax>> diffTaxes(Fingerprints<Tax> previous, Fingerprints<Tax> current) {
+        return diff(previous, current, TAXES);
+    }
+
+    public List<ChangeEvent<Isee>> diffIsee(List<Isee> previous, List<Isee> current) {
+        return diffIsee(Fingerprints.of(previous, ModelIdentities.ISEE), Fingerprints.of(current, ModelIdentities.ISEE));
+    }
+
+    public List<ChangeEvent<Isee>> diffIsee(Fingerprints<Isee> previous, Fingerprints<Isee> current) {
+        return diff(previous, current, ISEE);
+    }
+
+    public List<ChangeEvent<StudentCard>> diffStudentCards(List<StudentCard> previous, List<StudentCard> current) {
+        return diffStudentCards(Fingerprints.of(previous, ModelIdentities.STUDENT_CARD), Fingerprints.of(current, ModelIdentities.STUDENT_CARD));
+    }
+
+    public List<ChangeEvent<StudentCard>> diffStudentCards(Fingerprints<StudentCard> previous, Fingerprints<StudentCard> current) {
+        return diff(previous, current, CARDS);
+    }
+
+    private static <T> List<ChangeEvent<T>> diff(Fingerprints<T> previous, Fingerprints<T> current, Classifier<T> classifier) {
+        if (previous == null) previous = Fingerprints.empty();
+        if (current == null) current = Fingerprints.empty();
+        if (previous.sameAs(current)) return new ArrayList<>();
+        List<ChangeEvent<T>> ret = new ArrayList<>();
+        Map<String, Fingerprints.Entry<T>> old = previous.entries();
+        int matched = 0;
+        for (Map.Entry<String, Fingerprints.Entry<T>> entry : current.entries().entrySet()) {
+            Fingerprints.Entry<T> before = old.get(entry.getKey());
+            Fingerprints.Entry<T> after = entry.getValue();
+            if (before == null) {
+                ret.add(new ChangeEvent<>(classifier.added(after.item), entry.getKey(), null, after.item));
+                continue;
+            }
+            matched++;
+            if (before.hash != after.hash)
+                ret.add(new ChangeEvent<>(classifier.updated(before.item, after.item), entry.getKey(), before.item, after.item));
+        }
+        // every old key was found again, nothing has been removed
+        if (matched == old.size()) return ret;
+        for (Map.Entry<String, Fingerprints.Entry<T>> entry : old.entrySet()) {
+            if (!current.entries().containsKey(entry.getKey()))
+                ret.add(new ChangeEvent<>(classifier.removed(entry.getValue().item), entry.getKey(), entry.getValue().item, null));
+        }
+        return ret;
+    }
+}
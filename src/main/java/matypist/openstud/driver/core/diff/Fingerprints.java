@@ -0,0 +1,72 @@
+package matypist.openstud.driver.core.diff;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Key to content hash index of a list of models. Two indexes with the same digest are equal with overwhelming
+ * probability, so an unchanged list is detected without looking at its items again. The items are kept along with
+ * their hashes, to be reported as the previous version of the changed ones.
+ */
+public final class Fingerprints<T> {
+    private final Map<String, Entry<T>> entries;
+    private final long digest;
+
+    private Fingerprints(Map<String, Entry<T>> entries, long digest) {
+        this.entries = entries;
+        this.digest = digest;
+    }
+
+    public static <T> Fingerprints<T> empty() {
+        return new Fingerprints<>(Collections.<String, Entry<T>>emptyMap(), 0);
+    }
+
+    public static <T> Fingerprints<T> of(Collection<T> items, ModelIdentity<T> identity) {
+        if (items == null || items.isEmpty()) return empty();
+        Map<String, Entry<T>> entries = new LinkedHashMap<>(items.size() * 4 / 3 + 1);
+        long digest = 0;
+        for (T item : items) {
+            if (item == null) continue;
+            String key = identity.key(item);
+            long hash = identity.contentHash(item);
+            Entry<T> previous = entries.put(key, new Entry<>(item, hash));
+            if (previous != null) digest -= mix(key, previous.hash);
+            digest += mix(key, hash);
+        }
+        return new Fingerprints<>(entries, digest);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getDigest() {
+        return digest;
+    }
+
+    public boolean sameAs(Fingerprints<T> other) {
+        return other != null && digest == other.digest && entries.size() == other.entries.size();
+    }
+
+    Map<String, Entry<T>> entries() {
+        return entries;
+    }
+
+    // order independent: the digest of a list is the sum of the mixed entries
+    private static long mix(String key, long hash) {
+        long h = (new ContentHash().add(key).value() ^ hash) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    static final class Entry<T> {
+        final T item;
+        final long hash;
+
+        Entry(T item, long hash) {
+            this.item = item;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package matypist.openstud.driver.core.diff;
+
+import matypist.openstud.driver.core.models.*;
+
+public final class ModelIdentities {
+    public static final ModelIdentity<ExamDone> EXAM_DONE = new ModelIdentity<ExamDone>() {
+        @Override
+        public String key(ExamDone exam) {
+            // the code alone is not unique, the same exam can be listed again with a later date
+            return exam.getExamCode() + "/" + exam.getDate();
+        }
+
+        @Override
+        public long contentHash(ExamDone exam) {
+            return new ContentHash().add(exam.getDescription()).add(exam.getSsd()).add(exam.getCfu())
+                    .add(exam.getDate()).add(exam.getYear()).add(exam.getNominalResult()).add(exam.getResult())
+                    .add(exam.isPassed()).add(exam.isCertified()).value();
+        }
+    };
+
+    public static final ModelIdentity<ExamReservation> EXAM_RESERVATION = new ModelIdentity<ExamReservation>() {
+        @Override
+        public String key(ExamReservation res) {
+            return res.getReportID() + "/" + res.getSessionID() + "/" + res.getCourseCode();
+        }
+
+        @Override
+        public long contentHash(ExamReservation res) {
+            return new ContentHash().add(res.getReservationNumber()).add(res.getExamSubject()).add(res.getTeacher())
+                    .add(res.getChannel()).add(res.getExamDate()).add(res.getStartDate()).add(res.getEndDate())
+                    .add(res.getReservationDate()).add(res.getNote()).add(res.getAttendingMode()).value();
+        }
+    };
+
+    public static final ModelIdentity<Tax> TAX = new ModelIdentity<Tax>() {
+        @Override
+        public String key(Tax tax) {
+            return tax.getCode();
+        }
+
+        @Override
+        public long contentHash(Tax tax) {
+            return new ContentHash().add(tax.getStatus() == null ? null : tax.getStatus().name()).add(tax.getAmount())
+                    .add(tax.getPaymentDate()).add(tax.getExpirationDate()).add(tax.getAcademicYear())
+                    .add(tax.getDescriptionCourse()).value();
+        }
+    };
+
+    public static final ModelIdentity<Isee> ISEE = new ModelIdentity<Isee>() {
+        @Override
+        public String key(Isee isee) {
+            if (isee.isValid()) return isee.getProtocol();
+            return String.valueOf(isee.getDateDeclaration());
+        }
+
+        @Override
+        public long contentHash(Isee isee) {
+            return new ContentHash().add(isee.getValue()).add(isee.getDateOperation()).add(isee.getDateDeclaration())
+                    .add(isee.isEditable()).value();
+        }
+    };
+
+    public static final ModelIdentity<StudentCard> STUDENT_CARD = new ModelIdentity<StudentCard>() {
+        @Override
+        public String key(StudentCard card) {
+            return card.getStudentId();
+        }
+
+        @Override
+        public long contentHash(StudentCard card) {
+            return new ContentHash().add(card.getCode()).add(card.getIssueDate()).add(card.isEnabled()).value();
+        }
+    };
+
+    private ModelIdentities() {
+    }
+}
@@ -0,0 +1,10 @@
+package matypist.openstud.driver.core.diff;
+
+/**
+ * Stable key of a model across polls, plus a hash of the fields whose change is worth an event.
+ */
+public interface ModelIdentity<T> {
+    String key(T item);
+
+    long contentHash(T item);
+}
@@ -11,6 +11,9 @@ public interface NewsHandler {
     List<News> getNews(String locale, boolean withDescription, Integer limit, Integer page, Integer maxPage,
                        String query) throws OpenstudInvalidResponseException, OpenstudConnectionException;
 
+    NewsStream getNewsStream(String locale, boolean withDescription, Integer limit, Integer page, Integer maxPage,
+                             String query);
+
     List<Event> getNewsletterEvents() throws OpenstudInvalidResponseException, OpenstudConnectionException;
 }
 
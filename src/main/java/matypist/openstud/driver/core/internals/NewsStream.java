@@ -0,0 +1,16 @@
+package matypist.openstud.driver.core.internals;
+
+import matypist.openstud.driver.core.models.News;
+import matypist.openstud.driver.exceptions.OpenstudConnectionException;
+import matypist.openstud.driver.exceptions.OpenstudInvalidResponseException;
+
+import java.io.Closeable;
+
+public interface NewsStream extends Closeable {
+    boolean hasNext() throws OpenstudConnectionException, OpenstudInvalidResponseException;
+
+    News next() throws OpenstudConnectionException, OpenstudInvalidResponseException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,10 @@
+package matypist.openstud.driver.core.json;
+
+import matypist.openstud.driver.core.Openstud;
+
+/**
+ * Copies the value stored under {@code key} into the model.
+ */
+public interface FieldBinder<T> {
+    void bind(Openstud os, T target, JsonObjectView object, String key);
+}
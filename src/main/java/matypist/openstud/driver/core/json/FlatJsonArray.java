@@ -0,0 +1,51 @@
+package matypist.openstud.driver.core.json;
+
+import java.util.Arrays;
+
+final class FlatJsonArray implements JsonArrayView {
+    private byte[] types = new byte[8];
+    private Object[] values = new Object[8];
+    private int length;
+
+    void add(byte type, Object value) {
+        if (length == types.length) {
+            types = Arrays.copyOf(types, length * 2);
+            values = Arrays.copyOf(values, length * 2);
+        }
+        types[length] = type;
+        values[length++] = value;
+    }
+
+    private int require(int index) {
+        if (index < 0 || index >= length) throw new JsonFormatException("JSONArray[" + index + "] not found.");
+        return index;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return index < 0 || index >= length || types[index] == FlatJsonParser.NULL;
+    }
+
+    @Override
+    public String getString(int index) {
+        require(index);
+        return FlatJsonParser.toString(types[index], values[index], "JSONArray[" + index + "]");
+    }
+
+    @Override
+    public JsonObjectView getObject(int index) {
+        require(index);
+        return FlatJsonParser.toObject(types[index], values[index], "JSONArray[" + index + "]");
+    }
+
+    @Override
+    public JsonArrayView getArray(int index) {
+        require(index);
+        return FlatJsonParser.toArray(types[index], values[index], "JSONArray[" + index + "]");
+    }
+}
@@ -0,0 +1,94 @@
+package matypist.openstud.driver.core.json;
+
+import java.util.Arrays;
+
+final class FlatJsonObject implements JsonObjectView {
+    private String[] keys = new String[8];
+    private byte[] types = new byte[8];
+    private Object[] values = new Object[8];
+    private int size;
+
+    void add(String key, byte type, Object value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            types = Arrays.copyOf(types, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        types[size] = type;
+        values[size++] = value;
+    }
+
+    private int indexOf(String key) {
+        for (int i = size - 1; i >= 0; i--) if (keys[i].equals(key)) return i;
+        return -1;
+    }
+
+    private int require(String key) {
+        int index = indexOf(key);
+        if (index < 0) throw new JsonFormatException(name(key) + " not found.");
+        return index;
+    }
+
+    private static String name(String key) {
+        return "JSONObject[\"" + key + "\"]";
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String keyAt(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException(String.valueOf(index));
+        return keys[index];
+    }
+
+    @Override
+    public boolean has(String key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean isNull(String key) {
+        int index = indexOf(key);
+        return index < 0 || types[index] == FlatJsonParser.NULL;
+    }
+
+    @Override
+    public String getString(String key) {
+        int index = require(key);
+        return FlatJsonParser.toString(types[index], values[index], name(key));
+    }
+
+    @Override
+    public int getInt(String key) {
+        int index = require(key);
+        return FlatJsonParser.toInt(types[index], values[index], name(key));
+    }
+
+    @Override
+    public double getDouble(String key) {
+        int index = require(key);
+        return FlatJsonParser.toDouble(types[index], values[index], name(key));
+    }
+
+    @Override
+    public boolean getBoolean(String key) {
+        int index = require(key);
+        return FlatJsonParser.toBoolean(types[index], values[index], name(key));
+    }
+
+    @Override
+    public JsonObjectView getObject(String key) {
+        int index = require(key);
+        return FlatJsonParser.toObject(types[index], values[index], name(key));
+    }
+
+    @Override
+    public JsonArrayView getArray(String key) {
+        int index = require(key);
+        return FlatJsonParser.toArray(types[index], values[index], name(key));
+    }
+}
@@ -0,0 +1,327 @@
+package matypist.openstud.driver.core.json;
+
+import java.math.BigDecimal;
+
+final class FlatJsonParser {
+    static final byte STRING = 1;
+    static final byte NUMBER = 2;
+    static final byte TRUE = 3;
+    static final byte FALSE = 4;
+    static final byte NULL = 5;
+    static final byte OBJECT = 6;
+    static final byte ARRAY = 7;
+
+    private static final int KEY_CACHE_SIZE = 64;
+
+    private final String in;
+    private final int length;
+    private final String[] keyCache = new String[KEY_CACHE_SIZE];
+    private int pos;
+    private Object value;
+
+    FlatJsonParser(String in) {
+        this.in = in;
+        this.length = in.length();
+    }
+
+    FlatJsonObject parseObject() {
+        skipWhitespace();
+        if (pos >= length || in.charAt(pos) != '{') throw error("A JSON object text must begin with '{'");
+        FlatJsonObject object = readObject();
+        expectEnd();
+        return object;
+    }
+
+    FlatJsonArray parseArray() {
+        skipWhitespace();
+        if (pos >= length || in.charAt(pos) != '[') throw error("A JSON array text must begin with '['");
+        FlatJsonArray array = readArray();
+        expectEnd();
+        return array;
+    }
+
+    private FlatJsonObject readObject() {
+        pos++;
+        FlatJsonObject object = new FlatJsonObject();
+        skipWhitespace();
+        if (pos < length && in.charAt(pos) == '}') {
+            pos++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (pos >= length || in.charAt(pos) != '"') throw error("Expected a key");
+            String key = readKey();
+            if (object.has(key)) throw error("Duplicate key \"" + key + "\"");
+            skipWhitespace();
+            if (pos >= length || in.charAt(pos) != ':') throw error("Expected ':' after a key");
+            pos++;
+            byte type = readValue();
+            object.add(key, type, value);
+            skipWhitespace();
+            if (pos >= length) throw error("Unterminated object");
+            char c = in.charAt(pos++);
+            if (c == '}') return object;
+            if (c != ',') throw error("Expected ',' or '}'");
+        }
+    }
+
+    private FlatJsonArray readArray() {
+        pos++;
+        FlatJsonArray array = new FlatJsonArray();
+        skipWhitespace();
+        if (pos < length && in.charAt(pos) == ']') {
+            pos++;
+            return array;
+        }
+        while (true) {
+            byte type = readValue();
+            array.add(type, value);
+            skipWhitespace();
+            if (pos >= length) throw error("Unterminated array");
+            char c = in.charAt(pos++);
+            if (c == ']') return array;
+            if (c != ',') throw error("Expected ',' or ']'");
+        }
+    }
+
+    private byte readValue() {
+        skipWhitespace();
+        if (pos >= length) throw error("Expected a value");
+        char c = in.charAt(pos);
+        switch (c) {
+            case '"':
+                value = readString();
+                return STRING;
+            case '{':
+                value = readObject();
+                return OBJECT;
+            case '[':
+                value = readArray();
+                return ARRAY;
+            case 't':
+                readLiteral("true");
+                value = null;
+                return TRUE;
+            case 'f':
+                readLiteral("false");
+                value = null;
+                return FALSE;
+            case 'n':
+                readLiteral("null");
+                value = null;
+                return NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return readNumber();
+                throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    private String readKey() {
+        int start = pos + 1;
+        int hash = 0;
+        for (int i = start; i < length; i++) {
+            char c = in.charAt(i);
+            if (c == '\\') return readString();
+            if (c == '\n' || c == '\r') break;
+            if (c == '"') {
+                pos = i + 1;
+                int len = i - start;
+                int slot = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+                String cached = keyCache[slot];
+                if (cached != null && cached.length() == len && in.regionMatches(start, cached, 0, len)) return cached;
+                String key = in.substring(start, i);
+                keyCache[slot] = key;
+                return key;
+            }
+            hash = 31 * hash + c;
+        }
+        throw error("Unterminated string");
+    }
+
+    private String readString() {
+        int start = pos + 1;
+        for (int i = start; i < length; i++) {
+            char c = in.charAt(i);
+            if (c == '"') {
+                pos = i + 1;
+                return in.substring(start, i);
+            }
+            if (c == '\\') return readEscapedString(start, i);
+            if (c == '\n' || c == '\r') break;
+        }
+        throw error("Unterminated string");
+    }
+
+    private String readEscapedString(int start, int escape) {
+        StringBuilder sb = new StringBuilder(escape - start + 16);
+        sb.append(in, start, escape);
+        int i = escape;
+        while (i < length) {
+            char c = in.charAt(i++);
+            if (c == '"') {
+                pos = i;
+                return sb.toString();
+            }
+            if (c == '\n' || c == '\r') break;
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (i >= length) break;
+            char e = in.charAt(i++);
+            switch (e) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 > length) throw error("Illegal escape");
+                    try {
+                        sb.append((char) Integer.parseInt(in.substring(i, i + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw error("Illegal escape");
+                    }
+                    i += 4;
+                    break;
+                case '"':
+                case '\'':
+                case '\\':
+                case '/':
+                    sb.append(e);
+                    break;
+                default:
+                    throw error("Illegal escape");
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private byte readNumber() {
+        int start = pos;
+        while (pos < length) {
+            char c = in.charAt(pos);
+            if ((c < '0' || c > '9') && c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E') break;
+            pos++;
+        }
+        value = in.substring(start, pos);
+        // org.json keeps the values that don't parse as a number, like 1-2e+, as strings
+        return isNumber(start, pos) ? NUMBER : STRING;
+    }
+
+    /**
+     * Whether the characters between start and end are a number {@link BigDecimal} can parse: an optional minus,
+     * digits with at most one dot and an optional exponent.
+     */
+    private boolean isNumber(int start, int end) {
+        int i = start;
+        if (in.charAt(i) == '-') i++;
+        boolean digits = false;
+        boolean dot = false;
+        for (; i < end; i++) {
+            char c = in.charAt(i);
+            if (c >= '0' && c <= '9') digits = true;
+            else if (c == '.' && !dot) dot = true;
+            else break;
+        }
+        if (!digits) return false;
+        if (i == end) return true;
+        char c = in.charAt(i++);
+        if (c != 'e' && c != 'E') return false;
+        if (i < end && (in.charAt(i) == '+' || in.charAt(i) == '-')) i++;
+        if (i == end) return false;
+        for (; i < end; i++) {
+            c = in.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    private void readLiteral(String literal) {
+        if (!in.startsWith(literal, pos)) throw error("Unexpected literal");
+        pos += literal.length();
+    }
+
+    private void skipWhitespace() {
+        while (pos < length) {
+            char c = in.charAt(pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return;
+            pos++;
+        }
+    }
+
+    private void expectEnd() {
+        skipWhitespace();
+        if (pos != length) throw error("Unexpected content after the document");
+    }
+
+    private JsonFormatException error(String message) {
+        return new JsonFormatException(message + " at character " + pos);
+    }
+
+    // conversions and messages follow org.json: numbers are narrowed like Number.intValue(), strings are parsed
+
+    static String toString(byte type, Object value, String name) {
+        if (type == STRING) return (String) value;
+        throw new JsonFormatException(name + " is not a string.");
+    }
+
+    static int toInt(byte type, Object value, String name) {
+        if (type == NUMBER || type == STRING) {
+            String text = (String) value;
+            try {
+                return Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                if (type == NUMBER) {
+                    try {
+                        return new BigDecimal(text).intValue();
+                    } catch (NumberFormatException ignored) {
+                        // exponent out of range
+                    }
+                }
+            }
+        }
+        throw new JsonFormatException(name + " is not a int.");
+    }
+
+    static double toDouble(byte type, Object value, String name) {
+        if (type == NUMBER || type == STRING) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        throw new JsonFormatException(name + " is not a double.");
+    }
+
+    static boolean toBoolean(byte type, Object value, String name) {
+        if (type == TRUE) return true;
+        if (type == FALSE) return false;
+        if (type == STRING) {
+            if ("true".equalsIgnoreCase((String) value)) return true;
+            if ("false".equalsIgnoreCase((String) value)) return false;
+        }
+        throw new JsonFormatException(name + " is not a Boolean.");
+    }
+
+    static JsonObjectView toObject(byte type, Object value, String name) {
+        if (type == OBJECT) return (JsonObjectView) value;
+        throw new JsonFormatException(name + " is not a JSONObject.");
+    }
+
+    static JsonArrayView toArray(byte type, Object value, String name) {
+        if (type == ARRAY) return (JsonArrayView) value;
+        throw new JsonFormatException(name + " is not a JSONArray.");
+    }
+}
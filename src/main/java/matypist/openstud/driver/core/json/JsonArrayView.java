@@ -0,0 +1,17 @@
+package matypist.openstud.driver.core.json;
+
+/**
+ * Read-only view of a JSON array, see {@link JsonObjectView}.
+ */
+public interface JsonArrayView {
+
+    int length();
+
+    boolean isNull(int index);
+
+    String getString(int index);
+
+    JsonObjectView getObject(int index);
+
+    JsonArrayView getArray(int index);
+}
@@ -0,0 +1,15 @@
+package matypist.openstud.driver.core.json;
+
+/**
+ * Parses the JSON answers bound with {@link ModelBinder}: exams done and doable, paid and unpaid taxes and the
+ * classroom search. The other answers are still read with org.json, which stays a dependency of the driver.
+ * The default engine is {@link OrgJsonEngine#shared()}, {@link StreamingJsonEngine#shared()} or a different library
+ * can be plugged in through {@link matypist.openstud.driver.core.OpenstudBuilder#setJsonEngine(JsonEngine)}.
+ * Implementations must be thread-safe.
+ */
+public interface JsonEngine {
+
+    JsonObjectView parseObject(String json);
+
+    JsonArrayView parseArray(String json);
+}
@@ -0,0 +1,15 @@
+package matypist.openstud.driver.core.json;
+
+/**
+ * Thrown by a {@link JsonEngine} when a document is malformed or a value is missing or of the wrong type.
+ */
+public class JsonFormatException extends RuntimeException {
+
+    public JsonFormatException(String message) {
+        super(message);
+    }
+
+    public JsonFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
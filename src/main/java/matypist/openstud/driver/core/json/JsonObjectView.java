@@ -0,0 +1,33 @@
+package matypist.openstud.driver.core.json;
+
+/**
+ * Read-only view of a JSON object. Getters follow the org.json semantics: they throw a
+ * {@link JsonFormatException} when the key is missing or the value can't be converted, and {@link #isNull(String)}
+ * is true for missing keys too.
+ */
+public interface JsonObjectView {
+
+    int size();
+
+    /**
+     * Returns the key at the given position. The order is up to the engine, {@link StreamingJsonEngine} keeps the
+     * document order.
+     */
+    String keyAt(int index);
+
+    boolean has(String key);
+
+    boolean isNull(String key);
+
+    String getString(String key);
+
+    int getInt(String key);
+
+    double getDouble(String key);
+
+    boolean getBoolean(String key);
+
+    JsonObjectView getObject(String key);
+
+    JsonArrayView getArray(String key);
+}
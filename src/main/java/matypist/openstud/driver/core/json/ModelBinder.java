@@ -0,0 +1,61 @@
+package matypist.openstud.driver.core.json;
+
+import matypist.openstud.driver.core.Openstud;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps the keys of a JSON object onto a model. The dispatch table is built once per model type and shared by every
+ * session, replacing the per-call {@code switch} over the field names. Fields are bound in the order they were
+ * registered, whatever the key order of the engine, so two keys writing the same property resolve the same way on
+ * every engine. Immutable and thread-safe.
+ */
+public final class ModelBinder<T> {
+    private final ModelFactory<T> factory;
+    private final Map<String, FieldBinder<T>> fields;
+    private final String[] keys;
+    private final FieldBinder<T>[] binders;
+    private final boolean skipNulls;
+
+    ModelBinder(ModelBinderBuilder<T> builder) {
+        if (builder.factory == null) throw new IllegalArgumentException("Factory can't be left null");
+        factory = builder.factory;
+        fields = new LinkedHashMap<>(builder.fields);
+        keys = fields.keySet().toArray(new String[0]);
+        binders = fields.values().toArray(newBinders(keys.length));
+        skipNulls = builder.skipNulls;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> FieldBinder<T>[] newBinders(int size) {
+        return (FieldBinder<T>[]) new FieldBinder[size];
+    }
+
+    public T bind(Openstud os, JsonObjectView object) {
+        return bindInto(os, factory.create(), object);
+    }
+
+    public T bindInto(Openstud os, T target, JsonObjectView object) {
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            if (!object.has(key) || skipNulls && object.isNull(key)) continue;
+            binders[i].bind(os, target, object, key);
+        }
+        return target;
+    }
+
+    public List<T> bindAll(Openstud os, JsonArrayView array) {
+        List<T> list = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) list.add(bind(os, array.getObject(i)));
+        return list;
+    }
+
+    public Set<String> getFields() {
+        return Collections.unmodifiableSet(fields.keySet());
+    }
+}
@@ -0,0 +1,32 @@
+package matypist.openstud.driver.core.json;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ModelBinderBuilder<T> {
+    ModelFactory<T> factory;
+    Map<String, FieldBinder<T>> fields = new LinkedHashMap<>();
+    boolean skipNulls;
+
+    public ModelBinderBuilder<T> setFactory(ModelFactory<T> factory) {
+        this.factory = factory;
+        return this;
+    }
+
+    public ModelBinderBuilder<T> bind(String key, FieldBinder<T> binder) {
+        fields.put(key, binder);
+        return this;
+    }
+
+    /**
+     * Skips the keys holding {@code null} instead of handing them to their binder.
+     */
+    public ModelBinderBuilder<T> setSkipNulls(boolean skipNulls) {
+        this.skipNulls = skipNulls;
+        return this;
+    }
+
+    public ModelBinder<T> build() {
+        return new ModelBinder<>(this);
+    }
+}
@@ -0,0 +1,5 @@
+package matypist.openstud.driver.core.json;
+
+public interface ModelFactory<T> {
+    T create();
+}
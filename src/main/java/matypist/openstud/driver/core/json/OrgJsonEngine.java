@@ -0,0 +1,164 @@
+package matypist.openstud.driver.core.json;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Default {@link JsonEngine}, backed by org.json. Keys are not kept in document order, see
+ * {@link JsonObjectView#keyAt(int)}.
+ */
+public final class OrgJsonEngine implements JsonEngine {
+    private static final OrgJsonEngine SHARED = new OrgJsonEngine();
+
+    public static OrgJsonEngine shared() {
+        return SHARED;
+    }
+
+    @Override
+    public JsonObjectView parseObject(String json) {
+        try {
+            return new ObjectView(new JSONObject(json));
+        } catch (JSONException e) {
+            throw new JsonFormatException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public JsonArrayView parseArray(String json) {
+        try {
+            return new ArrayView(new JSONArray(json));
+        } catch (JSONException e) {
+            throw new JsonFormatException(e.getMessage(), e);
+        }
+    }
+
+    private static final class ObjectView implements JsonObjectView {
+        private final JSONObject object;
+        private String[] keys;
+
+        ObjectView(JSONObject object) {
+            this.object = object;
+        }
+
+        @Override
+        public int size() {
+            return object.length();
+        }
+
+        @Override
+        public String keyAt(int index) {
+            if (keys == null) keys = object.keySet().toArray(new String[0]);
+            return keys[index];
+        }
+
+        @Override
+        public boolean has(String key) {
+            return object.has(key);
+        }
+
+        @Override
+        public boolean isNull(String key) {
+            return object.isNull(key);
+        }
+
+        @Override
+        public String getString(String key) {
+            try {
+                return object.getString(key);
+            } catch (JSONException e) {
+                throw new JsonFormatException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public int getInt(String key) {
+            try {
+                return object.getInt(key);
+            } catch (JSONException e) {
+                throw new JsonFormatException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public double getDouble(String key) {
+            try {
+                return object.getDouble(key);
+            } catch (JSONException e) {
+                throw new JsonFormatException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public boolean getBoolean(String key) {
+            try {
+                return object.getBoolean(key);
+            } catch (JSONException e) {
+                throw new JsonFormatException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public JsonObjectView getObject(String key) {
+            try {
+                return new ObjectView(object.getJSONObject(key));
+            } catch (JSONException e) {
+                throw new JsonFormatException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public JsonArrayView getArray(String key) {
+            try {
+                return new ArrayView(object.getJSONArray(key));
+            } catch (JSONException e) {
+                throw new JsonFormatException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class ArrayView implements JsonArrayView {
+        private final JSONArray array;
+
+        ArrayView(JSONArray array) {
+            this.array = array;
+        }
+
+        @Override
+        public int length() {
+            return array.length();
+        }
+
+        @Override
+        public boolean isNull(int index) {
+            return array.isNull(index);
+        }
+
+        @Override
+        public String getString(int index) {
+            try {
+                return array.getString(index);
+            } catch (JSONException e) {
+                throw new JsonFormatException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public JsonObjectView getObject(int index) {
+            try {
+                return new ObjectView(array.getJSONObject(index));
+            } catch (JSONException e) {
+                throw new JsonFormatException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public JsonArrayView getArray(int index) {
+            try {
+                return new ArrayView(array.getJSONArray(index));
+            } catch (JSONException e) {
+                throw new JsonFormatException(e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package matypist.openstud.driver.core.json;
+
+/**
+ * {@link JsonEngine} with a single pass parser building flat, array backed objects. Strings without escapes are
+ * sliced straight from the input, repeated keys share one instance per document and numbers are only converted when
+ * they are read. Documents, values and errors are read the same way as {@link OrgJsonEngine}.
+ */
+public final class StreamingJsonEngine implements JsonEngine {
+    private static final StreamingJsonEngine SHARED = new StreamingJsonEngine();
+
+    public static StreamingJsonEngine shared() {
+        return SHARED;
+    }
+
+    @Override
+    public JsonObjectView parseObject(String json) {
+        if (json == null) throw new JsonFormatException("Document can't be null");
+        return new FlatJsonParser(json).parseObject();
+    }
+
+    @Override
+    public JsonArrayView parseArray(String json) {
+        if (json == null) throw new JsonFormatException("Document can't be null");
+        return new FlatJsonParser(json).parseArray();
+    }
+}
@@ -0,0 +1,94 @@
+package matypist.openstud.driver.core.logging;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Hands log records to their loggers on a background thread, so that slow handlers never hold up a request.
+ * Submitting never blocks: when the queue is full the record is dropped and counted.
+ */
+public class AsyncLogDispatcher {
+    private static final AsyncLogDispatcher SHARED = new AsyncLogDispatcher(1024);
+
+    private final BlockingQueue<Entry> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+    private Thread worker;
+
+    public AsyncLogDispatcher(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Invalid capacity " + capacity);
+        queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public static AsyncLogDispatcher shared() {
+        return SHARED;
+    }
+
+    public boolean submit(Logger logger, LogRecord record) {
+        ensureStarted();
+        pending.incrementAndGet();
+        if (queue.offer(new Entry(logger, record))) return true;
+        pending.decrementAndGet();
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Waits until the queued records have been handed to their loggers, mostly useful before shutting down.
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (pending.get() > 0) {
+            if (System.nanoTime() > deadline) return false;
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    private synchronized void ensureStarted() {
+        if (worker != null) return;
+        worker = new Thread(this::drain, "openstud-log");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void drain() {
+        while (true) {
+            Entry entry;
+            try {
+                entry = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                entry.logger.log(entry.record);
+            } catch (RuntimeException ignored) {
+                // a failing handler must not stop the delivery of the following records
+            } finally {
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Logger logger;
+        private final LogRecord record;
+
+        Entry(Logger logger, LogRecord record) {
+            this.logger = logger;
+            this.record = record;
+        }
+    }
+}
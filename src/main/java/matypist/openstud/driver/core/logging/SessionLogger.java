@@ -0,0 +1,76 @@
+package matypist.openstud.driver.core.logging;
+
+import matypist.openstud.driver.core.replay.HttpRedactor;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Logging front of a session. Messages are only built when the logger accepts their level, response bodies
+ * are sampled, truncated and redacted, and records are handed over to an {@link AsyncLogDispatcher} when
+ * one is set.
+ */
+public class SessionLogger {
+    private final Logger logger;
+    private final int bodyLimit;
+    private final double bodySampleRate;
+    private final HttpRedactor redactor;
+    private final AsyncLogDispatcher dispatcher;
+
+    public SessionLogger(Logger logger, int bodyLimit, double bodySampleRate, HttpRedactor redactor, AsyncLogDispatcher dispatcher) {
+        if (bodyLimit < 0) throw new IllegalArgumentException("Invalid body limit " + bodyLimit);
+        if (bodySampleRate < 0 || bodySampleRate > 1) throw new IllegalArgumentException("Invalid sample rate " + bodySampleRate);
+        this.logger = logger;
+        this.bodyLimit = bodyLimit;
+        this.bodySampleRate = bodySampleRate;
+        this.redactor = redactor;
+        this.dispatcher = dispatcher;
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    public boolean isLoggable(Level level) {
+        return logger != null && logger.isLoggable(level);
+    }
+
+    public void log(Level level, String message) {
+        if (isLoggable(level)) publish(level, message);
+    }
+
+    public void log(Level level, Object message) {
+        if (message != null && isLoggable(level)) publish(level, message.toString());
+    }
+
+    public void log(Level level, Supplier<String> message) {
+        if (isLoggable(level)) publish(level, message.get());
+    }
+
+    /**
+     * Logs a response body, keeping only a sample of the bodies and the first characters of each one.
+     */
+    public void logBody(Level level, String body) {
+        if (body == null || bodyLimit == 0 || !isLoggable(level)) return;
+        if (bodySampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= bodySampleRate) return;
+        String shown = body.length() > bodyLimit ? body.substring(0, bodyLimit) : body;
+        if (redactor != null) shown = redactor.redactText(null, shown);
+        if (body.length() > bodyLimit) shown += "... (" + (body.length() - bodyLimit) + " more characters)";
+        publish(level, shown);
+    }
+
+    private void publish(Level level, String message) {
+        if (dispatcher == null) {
+            logger.log(level, message);
+            return;
+        }
+        LogRecord record = new LogRecord(level, message);
+        record.setLoggerName(logger.getName());
+        // the caller can't be inferred on the dispatcher thread
+        record.setSourceClassName(logger.getName());
+        dispatcher.submit(logger, record);
+    }
+}
@@ -0,0 +1,74 @@
+package matypist.openstud.driver.core.metrics;
+
+/**
+ * Timings of a single HTTP call. Phases that did not happen, like DNS and connect on a pooled connection,
+ * are reported as -1.
+ */
+public class CallSample {
+    private final String host;
+    private final boolean failed;
+    private final long durationNanos;
+    private final long dnsNanos;
+    private final long connectNanos;
+    private final long tlsNanos;
+    private final long timeToFirstByteNanos;
+    private final long responseBytes;
+
+    public CallSample(String host, boolean failed, long durationNanos, long dnsNanos, long connectNanos, long tlsNanos,
+                      long timeToFirstByteNanos, long responseBytes) {
+        this.host = host;
+        this.failed = failed;
+        this.durationNanos = durationNanos;
+        this.dnsNanos = dnsNanos;
+        this.connectNanos = connectNanos;
+        this.tlsNanos = tlsNanos;
+        this.timeToFirstByteNanos = timeToFirstByteNanos;
+        this.responseBytes = responseBytes;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getDnsNanos() {
+        return dnsNanos;
+    }
+
+    public long getConnectNanos() {
+        return connectNanos;
+    }
+
+    public long getTlsNanos() {
+        return tlsNanos;
+    }
+
+    public long getTimeToFirstByteNanos() {
+        return timeToFirstByteNanos;
+    }
+
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CallSample{" +
+                "host='" + host + '\'' +
+                ", failed=" + failed +
+                ", durationNanos=" + durationNanos +
+                ", dnsNanos=" + dnsNanos +
+                ", connectNanos=" + connectNanos +
+                ", tlsNanos=" + tlsNanos +
+                ", timeToFirstByteNanos=" + timeToFirstByteNanos +
+                ", responseBytes=" + responseBytes +
+                '}';
+    }
+}
@@ -0,0 +1,106 @@
+package matypist.openstud.driver.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent histogram with HDR layout: values are grouped in buckets of doubling size, each split in the
+ * same number of linear sub-buckets, so that every recorded value keeps the requested number of significant
+ * digits whatever its magnitude. Values above the highest trackable one are clamped.
+ */
+public class Histogram {
+    private final long highestTrackableValue;
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalSum = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    public Histogram(long highestTrackableValue, int significantDigits) {
+        if (highestTrackableValue < 2) throw new IllegalArgumentException("Invalid highest trackable value " + highestTrackableValue);
+        if (significantDigits < 1 || significantDigits > 5)
+            throw new IllegalArgumentException("Significant digits must be between 1 and 5");
+        this.highestTrackableValue = highestTrackableValue;
+        long largestSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        int subBucketCountMagnitude = 64 - Long.numberOfLeadingZeros(largestSingleUnitResolution - 1);
+        subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        subBucketHalfCount = 1 << subBucketHalfCountMagnitude;
+        subBucketMask = (1L << subBucketCountMagnitude) - 1;
+        leadingZeroCountBase = 64 - subBucketHalfCountMagnitude - 1;
+        int buckets = 1;
+        long smallestUntrackableValue = 1L << subBucketCountMagnitude;
+        while (smallestUntrackableValue <= highestTrackableValue) {
+            if (smallestUntrackableValue > Long.MAX_VALUE / 2) {
+                buckets++;
+                break;
+            }
+            smallestUntrackableValue <<= 1;
+            buckets++;
+        }
+        counts = new AtomicLongArray((buckets + 1) * subBucketHalfCount);
+    }
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        else if (value > highestTrackableValue) value = highestTrackableValue;
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalSum.addAndGet(value);
+        long max = maxValue.get();
+        while (value > max && !maxValue.compareAndSet(max, value)) max = maxValue.get();
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalSum.get() / count;
+    }
+
+    /**
+     * Returns the highest value equivalent to the one at the given percentile, between 0 and 100.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = totalCount.get();
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(highestEquivalentValue(i), getMax());
+        }
+        return getMax();
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+        totalCount.set(0);
+        totalSum.set(0);
+        maxValue.set(0);
+    }
+
+    private int indexOf(long value) {
+        int bucket = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+        int subBucket = (int) (value >>> bucket);
+        return ((bucket + 1) << subBucketHalfCountMagnitude) + (subBucket - subBucketHalfCount);
+    }
+
+    private long highestEquivalentValue(int index) {
+        int bucket = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucket = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucket < 0) {
+            subBucket -= subBucketHalfCount;
+            bucket = 0;
+        }
+        return ((long) subBucket << bucket) + (1L << bucket) - 1;
+    }
+}
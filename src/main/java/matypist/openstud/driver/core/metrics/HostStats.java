@@ -0,0 +1,128 @@
+package matypist.openstud.driver.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Network phases of the HTTP calls directed to a single host, in microseconds.
+ */
+public class HostStats implements HostStatsMXBean {
+    private final String host;
+    private final Histogram dns = new Histogram(OperationStats.HIGHEST_MICROS, 2);
+    private final Histogram connect = new Histogram(OperationStats.HIGHEST_MICROS, 2);
+    private final Histogram tls = new Histogram(OperationStats.HIGHEST_MICROS, 2);
+    private final Histogram timeToFirstByte = new Histogram(OperationStats.HIGHEST_MICROS, 2);
+    private final Histogram call = new Histogram(OperationStats.HIGHEST_MICROS, 2);
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+
+    HostStats(String host) {
+        this.host = host;
+    }
+
+    void record(CallSample sample) {
+        call.record(TimeUnit.NANOSECONDS.toMicros(sample.getDurationNanos()));
+        if (sample.getDnsNanos() >= 0) dns.record(TimeUnit.NANOSECONDS.toMicros(sample.getDnsNanos()));
+        if (sample.getConnectNanos() >= 0) connect.record(TimeUnit.NANOSECONDS.toMicros(sample.getConnectNanos()));
+        if (sample.getTlsNanos() >= 0) tls.record(TimeUnit.NANOSECONDS.toMicros(sample.getTlsNanos()));
+        if (sample.getTimeToFirstByteNanos() >= 0)
+            timeToFirstByte.record(TimeUnit.NANOSECONDS.toMicros(sample.getTimeToFirstByteNanos()));
+        if (sample.isFailed()) failures.incrementAndGet();
+        responseBytes.addAndGet(sample.getResponseBytes());
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public Histogram getDnsHistogram() {
+        return dns;
+    }
+
+    public Histogram getConnectHistogram() {
+        return connect;
+    }
+
+    public Histogram getTlsHistogram() {
+        return tls;
+    }
+
+    public Histogram getTimeToFirstByteHistogram() {
+        return timeToFirstByte;
+    }
+
+    public Histogram getCallHistogram() {
+        return call;
+    }
+
+    @Override
+    public long getCalls() {
+        return call.getCount();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public long getResponseBytes() {
+        return responseBytes.get();
+    }
+
+    @Override
+    public double getDnsP50Millis() {
+        return dns.getValueAtPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getDnsP99Millis() {
+        return dns.getValueAtPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getConnectP50Millis() {
+        return connect.getValueAtPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getConnectP99Millis() {
+        return connect.getValueAtPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getTlsP50Millis() {
+        return tls.getValueAtPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getTlsP99Millis() {
+        return tls.getValueAtPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getTimeToFirstByteP50Millis() {
+        return timeToFirstByte.getValueAtPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getTimeToFirstByteP99Millis() {
+        return timeToFirstByte.getValueAtPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getCallP99Millis() {
+        return call.getValueAtPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public void reset() {
+        dns.reset();
+        connect.reset();
+        tls.reset();
+        timeToFirstByte.reset();
+        call.reset();
+        failures.set(0);
+        responseBytes.set(0);
+    }
+}
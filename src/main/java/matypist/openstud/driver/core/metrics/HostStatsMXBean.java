@@ -0,0 +1,29 @@
+package matypist.openstud.driver.core.metrics;
+
+public interface HostStatsMXBean {
+    long getCalls();
+
+    long getFailures();
+
+    long getResponseBytes();
+
+    double getDnsP50Millis();
+
+    double getDnsP99Millis();
+
+    double getConnectP50Millis();
+
+    double getConnectP99Millis();
+
+    double getTlsP50Millis();
+
+    double getTlsP99Millis();
+
+    double getTimeToFirstByteP50Millis();
+
+    double getTimeToFirstByteP99Millis();
+
+    double getCallP99Millis();
+
+    void reset();
+}
@@ -0,0 +1,82 @@
+package matypist.openstud.driver.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps histograms per operation and per host in memory. Sessions can share the same instance.
+ * See {@link MetricsJmx} to expose them through JMX.
+ */
+public class InMemoryMetrics implements OpenstudMetrics {
+    private final ConcurrentMap<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, HostStats> hosts = new ConcurrentHashMap<>();
+    private final List<StatsListener> listeners = new CopyOnWriteArrayList<>();
+
+    interface StatsListener {
+        void onOperation(OperationStats stats);
+
+        void onHost(HostStats stats);
+    }
+
+    @Override
+    public void recordOperation(OperationSample sample) {
+        OperationStats stats = operations.get(sample.getOperation());
+        if (stats == null) {
+            OperationStats created = new OperationStats(sample.getOperation());
+            stats = operations.putIfAbsent(sample.getOperation(), created);
+            if (stats == null) {
+                stats = created;
+                for (StatsListener listener : listeners) listener.onOperation(created);
+            }
+        }
+        stats.record(sample);
+    }
+
+    @Override
+    public void recordCall(CallSample sample) {
+        HostStats stats = hosts.get(sample.getHost());
+        if (stats == null) {
+            HostStats created = new HostStats(sample.getHost());
+            stats = hosts.putIfAbsent(sample.getHost(), created);
+            if (stats == null) {
+                stats = created;
+                for (StatsListener listener : listeners) listener.onHost(created);
+            }
+        }
+        stats.record(sample);
+    }
+
+    public OperationStats getOperation(String operation) {
+        return operations.get(operation);
+    }
+
+    public Collection<OperationStats> getOperations() {
+        return Collections.unmodifiableCollection(new ArrayList<>(operations.values()));
+    }
+
+    public HostStats getHost(String host) {
+        return hosts.get(host);
+    }
+
+    public Collection<HostStats> getHosts() {
+        return Collections.unmodifiableCollection(new ArrayList<>(hosts.values()));
+    }
+
+    public void reset() {
+        for (OperationStats stats : operations.values()) stats.reset();
+        for (HostStats stats : hosts.values()) stats.reset();
+    }
+
+    void addListener(StatsListener listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(StatsListener listener) {
+        listeners.remove(listener);
+    }
+}
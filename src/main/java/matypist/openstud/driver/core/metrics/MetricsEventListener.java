@@ -0,0 +1,129 @@
+package matypist.openstud.driver.core.metrics;
+
+import matypist.openstud.driver.core.trace.Span;
+import matypist.openstud.driver.core.trace.Tracer;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * Breaks every HTTP call down into DNS, connect, TLS and time-to-first-byte, and attributes it to the
+ * operation that issued it. When tracing, every attempt is a span nested in the span current when the
+ * call was created.
+ */
+public class MetricsEventListener extends EventListener {
+    private final OpenstudMetrics metrics;
+    private final OperationScope scope;
+    private final Span parent;
+    private Span span;
+    private long callStart;
+    private long dnsStart;
+    private long dnsNanos = -1;
+    private long connectStart;
+    private long connectNanos = -1;
+    private long tlsStart;
+    private long tlsNanos = -1;
+    private long requestStart;
+    private long timeToFirstByteNanos = -1;
+    private long responseBytes;
+
+    MetricsEventListener(OpenstudMetrics metrics, OperationScope scope, Span parent) {
+        this.metrics = metrics;
+        this.scope = scope;
+        this.parent = parent;
+    }
+
+    public static EventListener.Factory factory(OpenstudMetrics metrics) {
+        // the scope is captured when the call is created, on the thread running the operation
+        return call -> new MetricsEventListener(metrics, OperationScope.current(), Tracer.currentSpan());
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+        HttpUrl url = call.request().url();
+        String endpoint = call.request().method() + " " + url.host() + url.encodedPath();
+        int attempt = scope == null ? 1 : scope.startCall(endpoint);
+        if (parent != null && !parent.isNoop())
+            span = parent.startChild("http").setAttribute("endpoint", endpoint).setAttribute("attempt", attempt);
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> addresses) {
+        dnsNanos = System.nanoTime() - dnsStart;
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        tlsStart = System.nanoTime();
+        connectNanos = tlsStart - connectStart;
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        tlsNanos = System.nanoTime() - tlsStart;
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+        if (tlsNanos < 0) connectNanos = System.nanoTime() - connectStart;
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        if (requestStart != 0) timeToFirstByteNanos = System.nanoTime() - requestStart;
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        if (span != null) span.setAttribute("status", response.code());
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        responseBytes += byteCount;
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        finish(call, false);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException e) {
+        if (span != null) span.setError(e);
+        finish(call, true);
+    }
+
+    private void finish(Call call, boolean failed) {
+        long duration = System.nanoTime() - callStart;
+        HttpUrl url = call.request().url();
+        if (span != null) span.end();
+        if (scope != null) scope.endCall(duration, responseBytes);
+        metrics.recordCall(new CallSample(url.host(), failed, duration, dnsNanos, connectNanos, tlsNanos, timeToFirstByteNanos, responseBytes));
+    }
+}
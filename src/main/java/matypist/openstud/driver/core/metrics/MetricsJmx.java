@@ -0,0 +1,83 @@
+package matypist.openstud.driver.core.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registers the operations and hosts of an {@link InMemoryMetrics} as MXBeans, e.g.
+ * {@code matypist.openstud.driver:type=Operation,name=getExamsDone}. Operations and hosts seen later are
+ * registered as they appear. Kept apart from the metrics since JMX is not available on Android.
+ */
+public class MetricsJmx implements Closeable, InMemoryMetrics.StatsListener {
+    public static final String DEFAULT_DOMAIN = "matypist.openstud.driver";
+    private static final Logger LOGGER = Logger.getLogger(MetricsJmx.class.getName());
+
+    private final InMemoryMetrics metrics;
+    private final MBeanServer server;
+    private final String domain;
+    private final List<ObjectName> registered = new CopyOnWriteArrayList<>();
+
+    private MetricsJmx(InMemoryMetrics metrics, MBeanServer server, String domain) {
+        this.metrics = metrics;
+        this.server = server;
+        this.domain = domain;
+    }
+
+    public static MetricsJmx register(InMemoryMetrics metrics) {
+        return register(metrics, ManagementFactory.getPlatformMBeanServer(), DEFAULT_DOMAIN);
+    }
+
+    public static MetricsJmx register(InMemoryMetrics metrics, MBeanServer server, String domain) {
+        if (metrics == null) throw new IllegalArgumentException("Metrics can't be left null");
+        MetricsJmx ret = new MetricsJmx(metrics, server, domain);
+        metrics.addListener(ret);
+        for (OperationStats stats : metrics.getOperations()) ret.onOperation(stats);
+        for (HostStats stats : metrics.getHosts()) ret.onHost(stats);
+        return ret;
+    }
+
+    @Override
+    public void onOperation(OperationStats stats) {
+        register(stats, "Operation", stats.getOperation());
+    }
+
+    @Override
+    public void onHost(HostStats stats) {
+        register(stats, "Host", stats.getHost());
+    }
+
+    @Override
+    public void close() {
+        metrics.removeListener(this);
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (InstanceNotFoundException ignored) {
+            } catch (JMException e) {
+                LOGGER.log(Level.WARNING, "Unable to unregister " + name, e);
+            }
+        }
+        registered.clear();
+    }
+
+    private void register(Object bean, String type, String name) {
+        try {
+            ObjectName objectName = new ObjectName(domain + ":type=" + type + ",name=" + ObjectName.quote(name));
+            server.registerMBean(bean, objectName);
+            registered.add(objectName);
+        } catch (InstanceAlreadyExistsException ignored) {
+            // another session already exposes the same metrics under this domain
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Unable to register " + type + " " + name, e);
+        }
+    }
+}
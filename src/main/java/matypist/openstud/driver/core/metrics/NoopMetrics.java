@@ -0,0 +1,20 @@
+package matypist.openstud.driver.core.metrics;
+
+public final class NoopMetrics implements OpenstudMetrics {
+    private static final NoopMetrics INSTANCE = new NoopMetrics();
+
+    private NoopMetrics() {
+    }
+
+    public static NoopMetrics shared() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void recordOperation(OperationSample sample) {
+    }
+
+    @Override
+    public void recordCall(CallSample sample) {
+    }
+}
@@ -0,0 +1,17 @@
+package matypist.openstud.driver.core.metrics;
+
+/**
+ * Receives the measurements of a session. Implementations are called on the threads issuing the requests,
+ * so they must be thread-safe and cheap.
+ */
+public interface OpenstudMetrics {
+    /**
+     * Called once a public operation of the session, like getExamsDone, returns or fails.
+     */
+    void recordOperation(OperationSample sample);
+
+    /**
+     * Called once an HTTP call, including every retry, completes or fails.
+     */
+    void recordCall(CallSample sample);
+}
@@ -0,0 +1,5 @@
+package matypist.openstud.driver.core.metrics;
+
+public enum OperationOutcome {
+    SUCCESS, FAILURE, MAINTENANCE, RATE_LIMIT
+}
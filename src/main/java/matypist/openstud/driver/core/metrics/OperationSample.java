@@ -0,0 +1,76 @@
+package matypist.openstud.driver.core.metrics;
+
+public class OperationSample {
+    private final String operation;
+    private final OperationOutcome outcome;
+    private final long latencyNanos;
+    private final long parseNanos;
+    private final long responseBytes;
+    private final int httpCalls;
+    private final int retries;
+    private final int tokenRefreshes;
+
+    public OperationSample(String operation, OperationOutcome outcome, long latencyNanos, long parseNanos, long responseBytes,
+                           int httpCalls, int retries, int tokenRefreshes) {
+        this.operation = operation;
+        this.outcome = outcome;
+        this.latencyNanos = latencyNanos;
+        this.parseNanos = parseNanos;
+        this.responseBytes = responseBytes;
+        this.httpCalls = httpCalls;
+        this.retries = retries;
+        this.tokenRefreshes = tokenRefreshes;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public OperationOutcome getOutcome() {
+        return outcome;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * Time spent by the operation outside of HTTP calls, mostly parsing the answers.
+     */
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    public int getHttpCalls() {
+        return httpCalls;
+    }
+
+    /**
+     * HTTP calls repeating a request already issued by the same operation.
+     */
+    public int getRetries() {
+        return retries;
+    }
+
+    public int getTokenRefreshes() {
+        return tokenRefreshes;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationSample{" +
+                "operation='" + operation + '\'' +
+                ", outcome=" + outcome +
+                ", latencyNanos=" + latencyNanos +
+                ", parseNanos=" + parseNanos +
+                ", responseBytes=" + responseBytes +
+                ", httpCalls=" + httpCalls +
+                ", retries=" + retries +
+                ", tokenRefreshes=" + tokenRefreshes +
+                '}';
+    }
+}
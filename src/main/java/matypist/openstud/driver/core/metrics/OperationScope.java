@@ -0,0 +1,151 @@
+package matypist.openstud.driver.core.metrics;
+
+import matypist.openstud.driver.core.trace.Span;
+import matypist.openstud.driver.core.trace.Tracer;
+import matypist.openstud.driver.exceptions.OpenstudBaseResponseException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the measurements of a public operation of the session while it runs on the calling thread.
+ * HTTP calls and token refreshes are attributed to the innermost open scope of the thread; a nested scope
+ * hands its network time, bytes and token refreshes to the enclosing one when it is closed. When tracing, the operation is
+ * also a span, and the time between HTTP calls is traced as parse phases.
+ */
+public class OperationScope {
+    private static final ThreadLocal<OperationScope> CURRENT = new ThreadLocal<>();
+    private static final OperationScope NONE = new OperationScope(null, null, null, null);
+
+    private final OpenstudMetrics metrics;
+    private final String operation;
+    private final OperationScope parent;
+    private final Span span;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Integer> attempts = new HashMap<>();
+    private Span parse;
+    private int inFlight;
+    private OperationOutcome outcome = OperationOutcome.SUCCESS;
+    private long networkNanos;
+    private long responseBytes;
+    private int httpCalls;
+    private int retries;
+    private int tokenRefreshes;
+
+    private OperationScope(OpenstudMetrics metrics, String operation, OperationScope parent, Span span) {
+        this.metrics = metrics;
+        this.operation = operation;
+        this.parent = parent;
+        this.span = span;
+    }
+
+    /**
+     * Opens a scope on the calling thread, it must be closed by the same thread. Either argument can be null.
+     */
+    public static OperationScope begin(OpenstudMetrics metrics, Tracer tracer, String operation) {
+        boolean measured = metrics != null && !(metrics instanceof NoopMetrics);
+        if (!measured && tracer == null) return NONE;
+        Span span = tracer == null ? null : tracer.startActiveSpan(operation);
+        OperationScope parent = CURRENT.get();
+        if (parent != null) parent.endParse();
+        OperationScope scope = new OperationScope(measured ? metrics : NoopMetrics.shared(), operation, parent, span);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static OperationScope current() {
+        return CURRENT.get();
+    }
+
+    public static void recordTokenRefresh() {
+        OperationScope scope = CURRENT.get();
+        if (scope != null) scope.addTokenRefresh();
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setAttribute(String key, Object value) {
+        if (span != null) span.setAttribute(key, value);
+    }
+
+    public void fail(Throwable e) {
+        if (this == NONE) return;
+        if (span != null) span.setError(e);
+        OperationOutcome ret = OperationOutcome.FAILURE;
+        if (e instanceof OpenstudBaseResponseException) {
+            OpenstudBaseResponseException response = (OpenstudBaseResponseException) e;
+            if (response.isMaintenance()) ret = OperationOutcome.MAINTENANCE;
+            else if (response.isRateLimit()) ret = OperationOutcome.RATE_LIMIT;
+        }
+        synchronized (this) {
+            outcome = ret;
+        }
+    }
+
+    public void close() {
+        if (this == NONE) return;
+        long latency = System.nanoTime() - startNanos;
+        if (CURRENT.get() == this) {
+            if (parent == null) CURRENT.remove();
+            else CURRENT.set(parent);
+        }
+        OperationSample sample;
+        synchronized (this) {
+            endParse();
+            sample = new OperationSample(operation, outcome, latency, Math.max(0, latency - networkNanos), responseBytes,
+                    httpCalls, retries, tokenRefreshes);
+        }
+        if (span != null) span.end();
+        if (parent != null) {
+            parent.addNested(sample.getLatencyNanos() - sample.getParseNanos(), sample.getResponseBytes(), sample.getTokenRefreshes());
+            parent.resumeParse();
+        }
+        metrics.recordOperation(sample);
+    }
+
+    /**
+     * Returns the attempt number of a request, requests already issued by the operation count as retries.
+     */
+    synchronized int startCall(String request) {
+        Integer previous = attempts.get(request);
+        int attempt = previous == null ? 1 : previous + 1;
+        attempts.put(request, attempt);
+        if (attempt > 1) retries++;
+        if (inFlight++ == 0) endParse();
+        return attempt;
+    }
+
+    synchronized void endCall(long durationNanos, long bytes) {
+        httpCalls++;
+        networkNanos += durationNanos;
+        responseBytes += bytes;
+        if (--inFlight == 0) startParse();
+    }
+
+    private synchronized void startParse() {
+        if (span != null && parse == null) parse = span.startChild("parse");
+    }
+
+    private synchronized void endParse() {
+        if (parse == null) return;
+        parse.end();
+        parse = null;
+    }
+
+    // the enclosing operation goes back to parsing the answer it was handling, if any
+    private synchronized void resumeParse() {
+        if (inFlight == 0 && httpCalls > 0) startParse();
+    }
+
+    private synchronized void addNested(long nanos, long bytes, int refreshes) {
+        networkNanos += nanos;
+        responseBytes += bytes;
+        tokenRefreshes += refreshes;
+    }
+
+    private synchronized void addTokenRefresh() {
+        tokenRefreshes++;
+    }
+}
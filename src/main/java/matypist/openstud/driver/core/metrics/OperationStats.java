@@ -0,0 +1,158 @@
+package matypist.openstud.driver.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregated measurements of a single operation. Latencies are kept in microseconds up to ten minutes.
+ */
+public class OperationStats implements OperationStatsMXBean {
+    static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final long HIGHEST_BYTES = 256L * 1024 * 1024;
+
+    private final String operation;
+    private final Histogram latency = new Histogram(HIGHEST_MICROS, 2);
+    private final Histogram parse = new Histogram(HIGHEST_MICROS, 2);
+    private final Histogram bytes = new Histogram(HIGHEST_BYTES, 2);
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong maintenance = new AtomicLong();
+    private final AtomicLong rateLimit = new AtomicLong();
+    private final AtomicLong httpCalls = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong tokenRefreshes = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+
+    OperationStats(String operation) {
+        this.operation = operation;
+    }
+
+    void record(OperationSample sample) {
+        latency.record(TimeUnit.NANOSECONDS.toMicros(sample.getLatencyNanos()));
+        parse.record(TimeUnit.NANOSECONDS.toMicros(sample.getParseNanos()));
+        bytes.record(sample.getResponseBytes());
+        switch (sample.getOutcome()) {
+            case FAILURE:
+                failures.incrementAndGet();
+                break;
+            case MAINTENANCE:
+                failures.incrementAndGet();
+                maintenance.incrementAndGet();
+                break;
+            case RATE_LIMIT:
+                failures.incrementAndGet();
+                rateLimit.incrementAndGet();
+                break;
+            default:
+                break;
+        }
+        httpCalls.addAndGet(sample.getHttpCalls());
+        retries.addAndGet(sample.getRetries());
+        tokenRefreshes.addAndGet(sample.getTokenRefreshes());
+        responseBytes.addAndGet(sample.getResponseBytes());
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public Histogram getLatencyHistogram() {
+        return latency;
+    }
+
+    public Histogram getParseHistogram() {
+        return parse;
+    }
+
+    public Histogram getResponseBytesHistogram() {
+        return bytes;
+    }
+
+    @Override
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public long getMaintenanceOutcomes() {
+        return maintenance.get();
+    }
+
+    @Override
+    public long getRateLimitOutcomes() {
+        return rateLimit.get();
+    }
+
+    @Override
+    public long getHttpCalls() {
+        return httpCalls.get();
+    }
+
+    @Override
+    public long getRetries() {
+        return retries.get();
+    }
+
+    @Override
+    public long getTokenRefreshes() {
+        return tokenRefreshes.get();
+    }
+
+    @Override
+    public long getResponseBytes() {
+        return responseBytes.get();
+    }
+
+    @Override
+    public double getLatencyMeanMillis() {
+        return latency.getMean() / 1000;
+    }
+
+    @Override
+    public double getLatencyP50Millis() {
+        return latency.getValueAtPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getLatencyP99Millis() {
+        return latency.getValueAtPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getLatencyMaxMillis() {
+        return latency.getMax() / 1000.0;
+    }
+
+    @Override
+    public double getParseP50Millis() {
+        return parse.getValueAtPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getParseP99Millis() {
+        return parse.getValueAtPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public long getResponseBytesP99() {
+        return bytes.getValueAtPercentile(99);
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        parse.reset();
+        bytes.reset();
+        failures.set(0);
+        maintenance.set(0);
+        rateLimit.set(0);
+        httpCalls.set(0);
+        retries.set(0);
+        tokenRefreshes.set(0);
+        responseBytes.set(0);
+    }
+}
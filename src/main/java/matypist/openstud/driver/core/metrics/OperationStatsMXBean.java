@@ -0,0 +1,35 @@
+package matypist.openstud.driver.core.metrics;
+
+public interface OperationStatsMXBean {
+    long getCount();
+
+    long getFailures();
+
+    long getMaintenanceOutcomes();
+
+    long getRateLimitOutcomes();
+
+    long getHttpCalls();
+
+    long getRetries();
+
+    long getTokenRefreshes();
+
+    long getResponseBytes();
+
+    double getLatencyMeanMillis();
+
+    double getLatencyP50Millis();
+
+    double getLatencyP99Millis();
+
+    double getLatencyMaxMillis();
+
+    double getParseP50Millis();
+
+    double getParseP99Millis();
+
+    long getResponseBytesP99();
+
+    void reset();
+}
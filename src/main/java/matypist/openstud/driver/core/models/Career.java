@@ -1,8 +1,11 @@
 package matypist.openstud.driver.core.models;
 
+import java.io.Serializable;
 import java.util.Objects;
 
-public class Career {
+public class Career implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private int index;
     private String registrationCode;
     private String codeCourse;
@@ -1,9 +1,12 @@
 package matypist.openstud.driver.core.models;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Objects;
 
-public class Classroom {
+public class Classroom implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private double latitude;
     private double longitude;
     private String where;
@@ -5,10 +5,13 @@ import org.threeten.bp.LocalDate;
 import org.threeten.bp.LocalDateTime;
 import org.threeten.bp.ZoneId;
 
+import java.io.Serializable;
 import java.sql.Timestamp;
 import java.util.Objects;
 
-public class Event {
+public class Event implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private EventType eventType;
     private String title;
     private String teacher;
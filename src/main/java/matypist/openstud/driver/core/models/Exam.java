@@ -1,6 +1,10 @@
 package matypist.openstud.driver.core.models;
 
-public abstract class Exam {
+import java.io.Serializable;
+
+public abstract class Exam implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String description;
     private String examCode;
     private String ssd;
@@ -3,6 +3,8 @@ package matypist.openstud.driver.core.models;
 import java.util.Objects;
 
 public class ExamDoable extends Exam {
+    private static final long serialVersionUID = 1L;
+
     private String courseCode;
     private String moduleCode;
 
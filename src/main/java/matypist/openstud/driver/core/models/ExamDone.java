@@ -6,6 +6,8 @@ import org.threeten.bp.LocalDate;
 import java.util.Objects;
 
 public class ExamDone extends Exam {
+    private static final long serialVersionUID = 1L;
+
     private LocalDate date;
     private int year;
     private String nominalResult;
@@ -3,9 +3,15 @@ package matypist.openstud.driver.core.models;
 import org.json.JSONArray;
 import org.threeten.bp.LocalDate;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.Objects;
 
-public class ExamReservation {
+public class ExamReservation implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private int reportID;
     private int sessionID;
     private int courseCode;
@@ -25,7 +31,7 @@ public class ExamReservation {
     private String ssd;
     private String module;
 
-    private JSONArray attendingModesList;
+    private transient JSONArray attendingModesList;
 
     private String attendingMode;
     private String attendingModeType = "0";
@@ -257,4 +263,15 @@ public class ExamReservation {
     public int hashCode() {
         return Objects.hash(reportID, sessionID, courseCode, cfu, reservationNumber, yearCourse, courseDescription, examSubject, teacher, department, channel, endDate, startDate, reservationDate, examDate, note, ssd, module, attendingModesList.toString(), attendingMode, attendingModeType);
     }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(attendingModesList == null ? null : attendingModesList.toString());
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        String modes = (String) in.readObject();
+        if (modes != null) attendingModesList = new JSONArray(modes);
+    }
 }
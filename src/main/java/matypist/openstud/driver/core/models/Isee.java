@@ -3,9 +3,12 @@ package matypist.openstud.driver.core.models;
 
 import org.threeten.bp.LocalDate;
 
+import java.io.Serializable;
 import java.util.Objects;
 
-public class Isee {
+public class Isee implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private double value;
     private String protocol;
     private LocalDate dateOperation;
@@ -3,7 +3,11 @@ package matypist.openstud.driver.core.models;
 
 import org.threeten.bp.LocalDateTime;
 
-public class Lesson {
+import java.io.Serializable;
+
+public class Lesson implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String name;
     private String where;
     private LocalDateTime start;
@@ -1,8 +1,11 @@
 package matypist.openstud.driver.core.models;
 
+import java.io.Serializable;
 import java.util.Objects;
 
-public class NewsEvent {
+public class NewsEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     // to local date
     private String date;
     private String hour;
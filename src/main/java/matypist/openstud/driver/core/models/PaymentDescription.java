@@ -1,8 +1,11 @@
 package matypist.openstud.driver.core.models;
 
+import java.io.Serializable;
 import java.util.Objects;
 
-public class PaymentDescription {
+public class PaymentDescription implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String description;
     private Double amount;
     private Double amountPaid;
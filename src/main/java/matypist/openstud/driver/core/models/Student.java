@@ -2,9 +2,12 @@ package matypist.openstud.driver.core.models;
 
 import org.threeten.bp.LocalDate;
 
+import java.io.Serializable;
 import java.util.Objects;
 
-public class Student {
+public class Student implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String CF;
     private String firstName;
     private String lastName;
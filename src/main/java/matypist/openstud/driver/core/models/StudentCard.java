@@ -3,9 +3,12 @@ package matypist.openstud.driver.core.models;
 import org.apache.commons.codec.binary.Base64;
 import org.threeten.bp.LocalDateTime;
 
+import java.io.Serializable;
 import java.util.Objects;
 
-public class StudentCard {
+public class StudentCard implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String code;
     private LocalDateTime issueDate;
     private String studentId;
@@ -2,11 +2,14 @@ package matypist.openstud.driver.core.models;
 
 import org.threeten.bp.LocalDate;
 
-import java.util.LinkedList;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-public class Tax {
+public class Tax implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private TaxStatus status;
     private String code;
     private String codeCourse;
@@ -18,7 +21,7 @@ public class Tax {
     private int academicYear;
 
     public Tax() {
-        paymentDescriptionList = new LinkedList<PaymentDescription>();
+        paymentDescriptionList = new ArrayList<PaymentDescription>();
     }
 
     public String getCode() {
@@ -0,0 +1,83 @@
+package matypist.openstud.driver.core.net;
+
+import matypist.openstud.driver.core.cache.CacheStats;
+import matypist.openstud.driver.core.cache.TtlCache;
+import okhttp3.Dns;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the addresses of the provider hosts for a fixed time, so that the first call after an idle period doesn't
+ * wait for a lookup. Failed lookups are not cached, and {@link DnsInvalidationInterceptor} drops the addresses of a
+ * host that refuses connections.
+ */
+public class CachingDns implements Dns {
+    // the positive TTL of the JVM when networkaddress.cache.ttl is not set
+    private static final long DEFAULT_TTL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final CachingDns SHARED = new CachingDns(Dns.SYSTEM, systemTtlMillis(), 64);
+
+    private final Dns delegate;
+    private final TtlCache<String, List<InetAddress>> cache;
+
+    public CachingDns(Dns delegate, long ttlMillis, int maxEntries) {
+        if (delegate == null) throw new IllegalArgumentException("Delegate can't be left null");
+        this.delegate = delegate;
+        this.cache = new TtlCache<>(ttlMillis, maxEntries);
+    }
+
+    /**
+     * Resolves with the system resolver and keeps up to 64 hosts no longer than the JVM would, see
+     * {@link #systemTtlMillis()}.
+     */
+    public static CachingDns shared() {
+        return SHARED;
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        List<InetAddress> addresses = cache.get(hostname);
+        if (addresses != null) return addresses;
+        addresses = Collections.unmodifiableList(new ArrayList<>(delegate.lookup(hostname)));
+        if (!addresses.isEmpty()) cache.put(hostname, addresses);
+        return addresses;
+    }
+
+    public void invalidate(String hostname) {
+        cache.invalidate(hostname);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * How long the JVM caches successful lookups: {@code networkaddress.cache.ttl}, or {@code sun.net.inetaddr.ttl},
+     * capped to 30 seconds when they are missing or ask to cache forever. Zero disables the cache.
+     */
+    public static long systemTtlMillis() {
+        String ttl = Security.getProperty("networkaddress.cache.ttl");
+        if (ttl == null) ttl = System.getProperty("sun.net.inetaddr.ttl");
+        return ttlMillis(ttl);
+    }
+
+    static long ttlMillis(String seconds) {
+        if (seconds == null) return DEFAULT_TTL_MILLIS;
+        try {
+            long ttl = Long.parseLong(seconds.trim());
+            if (ttl < 0) return DEFAULT_TTL_MILLIS;
+            return Math.min(TimeUnit.SECONDS.toMillis(ttl), DEFAULT_TTL_MILLIS);
+        } catch (NumberFormatException e) {
+            return DEFAULT_TTL_MILLIS;
+        }
+    }
+}
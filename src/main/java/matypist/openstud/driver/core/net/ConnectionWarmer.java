@@ -0,0 +1,189 @@
+package matypist.openstud.driver.core.net;
+
+import matypist.openstud.driver.core.Openstud;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Opens connections to the API, login and timetable endpoints of a session before they are needed, with a HEAD
+ * request to each endpoint, and optionally keeps them open while the session is idle. It watches the requests of
+ * the session to know when it was last used, HEAD requests are never sent by the handlers and don't count.
+ */
+public class ConnectionWarmer implements Interceptor {
+    private static ScheduledThreadPoolExecutor scheduler;
+
+    private final Openstud os;
+    private final int connectionsPerEndpoint;
+    private volatile long lastActivity = System.nanoTime();
+    private ScheduledFuture<?> keepAlive;
+
+    public ConnectionWarmer(Openstud os, int connectionsPerEndpoint) {
+        if (connectionsPerEndpoint <= 0)
+            throw new IllegalArgumentException("Invalid number of connections " + connectionsPerEndpoint);
+        this.os = os;
+        this.connectionsPerEndpoint = connectionsPerEndpoint;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (!"HEAD".equals(chain.request().method())) lastActivity = System.nanoTime();
+        return chain.proceed(chain.request());
+    }
+
+    /**
+     * Resolves the endpoint hosts and opens up to the configured number of connections to each endpoint, waiting
+     * at most the given time. Returns the number of warm-up requests that got an answer.
+     */
+    public int warmUp(long timeout, TimeUnit unit) {
+        List<HttpUrl> urls = resolveEndpoints();
+        if (urls.isEmpty()) return 0;
+        CountDownLatch done = new CountDownLatch(urls.size() * connectionsPerEndpoint);
+        AtomicInteger answered = new AtomicInteger();
+        send(urls, connectionsPerEndpoint, done, answered);
+        try {
+            done.await(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return answered.get();
+    }
+
+    /**
+     * Every interval, opens the connections again if the session has been idle for at least the interval but less
+     * than maxIdle. Past maxIdle the pool is left to expire, e.g. for a session that is no longer used.
+     * The refresh stops by itself when the session is garbage collected.
+     */
+    public synchronized void startKeepAlive(long interval, long maxIdle, TimeUnit unit) {
+        if (interval <= 0) throw new IllegalArgumentException("Invalid keep-alive interval " + interval);
+        stopKeepAlive();
+        KeepAliveTask task = new KeepAliveTask(this, unit.toNanos(interval), unit.toNanos(maxIdle));
+        keepAlive = getScheduler().scheduleWithFixedDelay(task, interval, interval, unit);
+        task.future = keepAlive;
+    }
+
+    public synchronized void stopKeepAlive() {
+        if (keepAlive != null) keepAlive.cancel(false);
+        keepAlive = null;
+    }
+
+    public synchronized boolean isKeepAliveRunning() {
+        return keepAlive != null && !keepAlive.isDone();
+    }
+
+    /**
+     * Nanoseconds since the last request of the session, warm-up requests excluded.
+     */
+    public long getIdleNanos() {
+        return System.nanoTime() - lastActivity;
+    }
+
+    private void refresh() {
+        List<HttpUrl> urls = resolveEndpoints();
+        // a single connection per endpoint is enough to keep an idle session warm
+        send(urls, 1, null, null);
+    }
+
+    private List<HttpUrl> resolveEndpoints() {
+        Set<String> endpoints = new LinkedHashSet<>();
+        for (String endpoint : new String[]{os.getEndpointAPI(), os.getEndpointLogin(), os.getEndpointTimetable()}) {
+            if (endpoint != null) endpoints.add(endpoint);
+        }
+        OkHttpClient client = os.getClient();
+        List<HttpUrl> urls = new ArrayList<>(endpoints.size());
+        Set<String> resolved = new LinkedHashSet<>();
+        for (String endpoint : endpoints) {
+            HttpUrl url = HttpUrl.parse(endpoint);
+            if (url == null) continue;
+            if (!resolved.contains(url.host())) {
+                try {
+                    client.dns().lookup(url.host());
+                    resolved.add(url.host());
+                } catch (UnknownHostException e) {
+                    os.log(Level.WARNING, () -> "Can't resolve " + url.host() + ": " + e.getMessage());
+                    continue;
+                }
+            }
+            urls.add(url);
+        }
+        return urls;
+    }
+
+    private void send(List<HttpUrl> urls, int connections, CountDownLatch done, AtomicInteger answered) {
+        OkHttpClient client = os.getClient();
+        Callback callback = new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                os.log(Level.FINE, () -> "Warm-up of " + call.request().url() + " failed: " + e.getMessage());
+                if (done != null) done.countDown();
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+                if (answered != null) answered.incrementAndGet();
+                if (done != null) done.countDown();
+            }
+        };
+        for (HttpUrl url : urls) {
+            for (int i = 0; i < connections; i++) {
+                client.newCall(new Request.Builder().url(url).head().build()).enqueue(callback);
+            }
+        }
+    }
+
+    private static class KeepAliveTask implements Runnable {
+        // the scheduler must not keep the session alive
+        private final WeakReference<ConnectionWarmer> warmer;
+        private final long intervalNanos;
+        private final long maxIdleNanos;
+        private volatile ScheduledFuture<?> future;
+
+        KeepAliveTask(ConnectionWarmer warmer, long intervalNanos, long maxIdleNanos) {
+            this.warmer = new WeakReference<>(warmer);
+            this.intervalNanos = intervalNanos;
+            this.maxIdleNanos = maxIdleNanos;
+        }
+
+        @Override
+        public void run() {
+            ConnectionWarmer current = warmer.get();
+            if (current == null) {
+                if (future != null) future.cancel(false);
+                return;
+            }
+            long idle = current.getIdleNanos();
+            if (idle >= intervalNanos && idle < maxIdleNanos) current.refresh();
+        }
+    }
+
+    private static synchronized ScheduledThreadPoolExecutor getScheduler() {
+        if (scheduler == null) {
+            scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "openstud-keepalive");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+        }
+        return scheduler;
+    }
+}
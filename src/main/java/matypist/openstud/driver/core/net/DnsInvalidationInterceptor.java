@@ -0,0 +1,31 @@
+package matypist.openstud.driver.core.net;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+
+/**
+ * Drops the cached addresses of a host as soon as a connection to it can't be opened, so that a host that moved is
+ * looked up again on the next call instead of failing until its entry expires.
+ */
+public class DnsInvalidationInterceptor implements Interceptor {
+    private final CachingDns dns;
+
+    public DnsInvalidationInterceptor(CachingDns dns) {
+        if (dns == null) throw new IllegalArgumentException("Dns can't be left null");
+        this.dns = dns;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        try {
+            return chain.proceed(chain.request());
+        } catch (ConnectException | NoRouteToHostException e) {
+            dns.invalidate(chain.request().url().host());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package matypist.openstud.driver.core.pool;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.exceptions.OpenstudConnectionException;
+import matypist.openstud.driver.exceptions.OpenstudInvalidCredentialsException;
+import matypist.openstud.driver.exceptions.OpenstudInvalidResponseException;
+import matypist.openstud.driver.exceptions.OpenstudUserNotEnabledException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Keeps logged in sessions keyed by student ID, so that hot users don't log in again on every request.
+ * Sessions are created on demand and dropped, least recently used first, when they stay idle too long or when
+ * the pool exceeds its number of sessions or its estimated memory. Concurrent requests for a missing student
+ * share the same creation. Every {@link #acquire(String)} leases the session and must be paired with a
+ * {@link #release(Openstud)} once the caller is done with it. Removed sessions are closed with {@link Openstud#close()}
+ * once the {@link RemovalListener} has been notified and the last lease has been released, so that a session is never
+ * closed under a caller that is still using it.
+ */
+public class OpenstudPool {
+    // handlers, config, tokens and the http client of a session, measured on a JVM with compressed oops
+    private static final long SESSION_BASE_BYTES = 64 * 1024;
+    private static final long STUDENT_CARD_BYTES = 4 * 1024;
+    static final SessionWeigher DEFAULT_WEIGHER = os -> {
+        long ret = SESSION_BASE_BYTES;
+        if (os.getPhotoCache() != null) ret += os.getPhotoCache().getCurrentBytes();
+        if (os.getStudentCardCache() != null) ret += os.getStudentCardCache().size() * STUDENT_CARD_BYTES;
+        return ret;
+    };
+
+    private final SessionFactory factory;
+    private final int maxSessions;
+    private final long maxBytes;
+    private final long idleTimeoutMillis;
+    private final SessionWeigher weigher;
+    private final RemovalListener removalListener;
+    // access ordered, the head is the least recently used session
+    private final LinkedHashMap<String, Entry> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    // sessions with at least one lease, including the ones already removed from the pool
+    private final IdentityHashMap<Openstud, Entry> leased = new IdentityHashMap<>();
+    private final ConcurrentHashMap<String, FutureTask<Entry>> creations = new ConcurrentHashMap<>();
+    private final Map<RemovalCause, Long> removals = new EnumMap<>(RemovalCause.class);
+    private long estimatedBytes;
+    private long hits;
+    private long misses;
+    private long creationFailures;
+
+    OpenstudPool(OpenstudPoolBuilder builder) {
+        if (builder.factory == null) throw new IllegalArgumentException("Session factory can't be left null");
+        if (builder.maxSessions <= 0) throw new IllegalArgumentException("Max sessions must be positive");
+        if (builder.maxBytes <= 0) throw new IllegalArgumentException("Max bytes must be positive");
+        if (builder.idleTimeoutMillis <= 0) throw new IllegalArgumentException("Idle timeout must be positive");
+        this.factory = builder.factory;
+        this.maxSessions = builder.maxSessions;
+        this.maxBytes = builder.maxBytes;
+        this.idleTimeoutMillis = builder.idleTimeoutMillis;
+        this.weigher = builder.weigher == null ? DEFAULT_WEIGHER : builder.weigher;
+        this.removalListener = builder.removalListener;
+    }
+
+    /**
+     * Returns the pooled session of the student, creating it with the {@link SessionFactory} if missing or idle for too long.
+     * The session is leased to the caller until it is handed back with {@link #release(Openstud)}.
+     */
+    public Openstud acquire(String studentID) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException, OpenstudUserNotEnabledException {
+        if (studentID == null) throw new IllegalArgumentException("Student ID can't be left null");
+        while (true) {
+            List<Removal> removed = new ArrayList<>();
+            Openstud ret = null;
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                purgeIdle(now, removed);
+                Entry entry = sessions.get(studentID);
+                if (entry != null) {
+                    hits++;
+                    entry.lastAccess = now;
+                    reweigh(entry);
+                    enforceLimits(removed);
+                    lease(entry);
+                    ret = entry.session;
+                }
+            }
+            notifyRemovals(removed);
+            if (ret != null) return ret;
+            ret = create(studentID);
+            // null if the shared creation was removed and closed before this caller could lease it
+            if (ret != null) return ret;
+        }
+    }
+
+    /**
+     * Hands back a session returned by {@link #acquire(String)}. A session removed from the pool while leased is
+     * closed when its last lease is released.
+     */
+    public void release(Openstud session) {
+        if (session == null) throw new IllegalArgumentException("Session can't be left null");
+        synchronized (this) {
+            Entry entry = leased.get(session);
+            if (entry == null) throw new IllegalArgumentException("Session is not leased from this pool");
+            if (--entry.leases > 0) return;
+            leased.remove(session);
+            if (!entry.removalNotified) return;
+            entry.closed = true;
+        }
+        session.close();
+    }
+
+    /**
+     * @return the pooled session of the student, without creating it, leasing it nor refreshing its last access
+     */
+    public synchronized Openstud peek(String studentID) {
+        Entry entry = sessions.get(studentID);
+        if (entry == null || isIdle(entry, System.currentTimeMillis())) return null;
+        return entry.session;
+    }
+
+    public void invalidate(String studentID) {
+        Removal removal = null;
+        synchronized (this) {
+            Entry entry = sessions.remove(studentID);
+            if (entry != null) removal = remove(studentID, entry, RemovalCause.EXPLICIT);
+        }
+        if (removal != null) notifyRemovals(Collections.singletonList(removal));
+    }
+
+    public void invalidateAll() {
+        List<Removal> removed = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, Entry> entry : sessions.entrySet())
+                removed.add(remove(entry.getKey(), entry.getValue(), RemovalCause.EXPLICIT));
+            sessions.clear();
+        }
+        notifyRemovals(removed);
+    }
+
+    /**
+     * Drops the sessions idle for longer than the timeout, this also happens lazily on every {@link #acquire(String)}.
+     */
+    public void purgeIdle() {
+        List<Removal> removed = new ArrayList<>();
+        synchronized (this) {
+            purgeIdle(System.currentTimeMillis(), removed);
+        }
+        notifyRemovals(removed);
+    }
+
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized PoolStats getStats() {
+        return new PoolStats(sessions.size(), estimatedBytes, hits, misses, creationFailures, removals);
+    }
+
+    private Openstud create(final String studentID) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException, OpenstudUserNotEnabledException {
+        FutureTask<Entry> task = new FutureTask<>(() -> new Entry(factory.create(studentID), System.currentTimeMillis()));
+        FutureTask<Entry> running = creations.putIfAbsent(studentID, task);
+        boolean owner = running == null;
+        if (owner) {
+            // another creation may have completed between the lookup in acquire and the putIfAbsent above
+            Openstud existing = null;
+            synchronized (this) {
+                Entry entry = sessions.get(studentID);
+                long now = System.currentTimeMillis();
+                if (entry != null && !isIdle(entry, now)) {
+                    hits++;
+                    entry.lastAccess = now;
+                    lease(entry);
+                    existing = entry.session;
+                }
+            }
+            if (existing != null) {
+                creations.remove(studentID, task);
+                return existing;
+            }
+            running = task;
+            task.run();
+        }
+        Entry ret;
+        try {
+            ret = running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenstudConnectionException(e);
+        } catch (ExecutionException e) {
+            if (owner) {
+                creations.remove(studentID, task);
+                synchronized (this) {
+                    misses++;
+                    creationFailures++;
+                }
+            }
+            throw rethrow(e.getCause());
+        }
+        if (!owner) {
+            synchronized (this) {
+                return lease(ret) ? ret.session : null;
+            }
+        }
+        List<Removal> removed = new ArrayList<>();
+        synchronized (this) {
+            creations.remove(studentID, task);
+            misses++;
+            ret.lastAccess = System.currentTimeMillis();
+            reweigh(ret);
+            lease(ret);
+            Entry previous = sessions.put(studentID, ret);
+            if (previous != null) removed.add(remove(studentID, previous, RemovalCause.EXPLICIT));
+            enforceLimits(removed);
+        }
+        notifyRemovals(removed);
+        return ret.session;
+    }
+
+    /**
+     * Adds a lease to the entry, called with the lock held. Returns false if the entry was already closed.
+     */
+    private boolean lease(Entry entry) {
+        if (entry.closed) return false;
+        if (entry.leases++ == 0) leased.put(entry.session, entry);
+        return true;
+    }
+
+    private void purgeIdle(long now, List<Removal> removed) {
+        Iterator<Map.Entry<String, Entry>> iterator = sessions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            // access order: the first session still in use means every following one is too
+            if (!isIdle(entry.getValue(), now)) break;
+            iterator.remove();
+            removed.add(remove(entry.getKey(), entry.getValue(), RemovalCause.IDLE));
+        }
+    }
+
+    private void enforceLimits(List<Removal> removed) {
+        Iterator<Map.Entry<String, Entry>> iterator = sessions.entrySet().iterator();
+        // the most recently used session is always kept, even if alone it exceeds the memory bound
+        while (sessions.size() > 1 && (sessions.size() > maxSessions || estimatedBytes > maxBytes) && iterator.hasNext()) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            RemovalCause cause = sessions.size() > maxSessions ? RemovalCause.SIZE : RemovalCause.MEMORY;
+            iterator.remove();
+            removed.add(remove(entry.getKey(), entry.getValue(), cause));
+        }
+    }
+
+    private boolean isIdle(Entry entry, long now) {
+        return now - entry.lastAccess >= idleTimeoutMillis;
+    }
+
+    private void reweigh(Entry entry) {
+        long weight = Math.max(0, weigher.weigh(entry.session));
+        estimatedBytes += weight - entry.bytes;
+        entry.bytes = weight;
+    }
+
+    private Removal remove(String studentID, Entry entry, RemovalCause cause) {
+        estimatedBytes -= entry.bytes;
+        Long count = removals.get(cause);
+        removals.put(cause, count == null ? 1 : count + 1);
+        return new Removal(studentID, entry, cause);
+    }
+
+    private void notifyRemovals(List<Removal> removed) {
+        for (Removal removal : removed) {
+            try {
+                if (removalListener != null) removalListener.onRemoval(removal.studentID, removal.entry.session, removal.cause);
+            } finally {
+                // sessions still leased are closed by the last release
+                boolean close;
+                synchronized (this) {
+                    removal.entry.removalNotified = true;
+                    close = removal.entry.leases == 0 && !removal.entry.closed;
+                    if (close) removal.entry.closed = true;
+                }
+                if (close) removal.entry.session.close();
+            }
+        }
+    }
+
+    private static OpenstudConnectionException rethrow(Throwable cause) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException, OpenstudUserNotEnabledException {
+        if (cause instanceof OpenstudConnectionException) throw (OpenstudConnectionException) cause;
+        if (cause instanceof OpenstudInvalidResponseException) throw (OpenstudInvalidResponseException) cause;
+        if (cause instanceof OpenstudInvalidCredentialsException) throw (OpenstudInvalidCredentialsException) cause;
+        if (cause instanceof OpenstudUserNotEnabledException) throw (OpenstudUserNotEnabledException) cause;
+        if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+        if (cause instanceof Error) throw (Error) cause;
+        return new OpenstudConnectionException((Exception) cause);
+    }
+
+    private static final class Entry {
+        final Openstud session;
+        long lastAccess;
+        long bytes;
+        int leases;
+        boolean removalNotified;
+        boolean closed;
+
+        Entry(Openstud session, long lastAccess) {
+            this.session = session;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private static final class Removal {
+        final String studentID;
+        final Entry entry;
+        final RemovalCause cause;
+
+        Removal(String studentID, Entry entry, RemovalCause cause) {
+            this.studentID = studentID;
+            this.entry = entry;
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package matypist.openstud.driver.core.pool;
+
+import java.util.concurrent.TimeUnit;
+
+public class OpenstudPoolBuilder {
+    SessionFactory factory;
+    int maxSessions = 1024;
+    long maxBytes = 64 * 1024 * 1024;
+    long idleTimeoutMillis = TimeUnit.MINUTES.toMillis(30);
+    SessionWeigher weigher = OpenstudPool.DEFAULT_WEIGHER;
+    RemovalListener removalListener;
+
+    public OpenstudPoolBuilder setFactory(SessionFactory factory) {
+        this.factory = factory;
+        return this;
+    }
+
+    public OpenstudPoolBuilder setMaxSessions(int maxSessions) {
+        this.maxSessions = maxSessions;
+        return this;
+    }
+
+    /**
+     * Upper bound of the memory retained by the pooled sessions, as estimated by the {@link SessionWeigher}.
+     */
+    public OpenstudPoolBuilder setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    public OpenstudPoolBuilder setIdleTimeout(long timeout, TimeUnit unit) {
+        this.idleTimeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    public OpenstudPoolBuilder setWeigher(SessionWeigher weigher) {
+        this.weigher = weigher;
+        return this;
+    }
+
+    public OpenstudPoolBuilder setRemovalListener(RemovalListener removalListener) {
+        this.removalListener = removalListener;
+        return this;
+    }
+
+    public OpenstudPool build() {
+        return new OpenstudPool(this);
+    }
+}
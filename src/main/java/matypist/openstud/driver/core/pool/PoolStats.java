@@ -0,0 +1,71 @@
+package matypist.openstud.driver.core.pool;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Point in time view of the counters of an {@link OpenstudPool}.
+ */
+public final class PoolStats {
+    private final int size;
+    private final long estimatedBytes;
+    private final long hits;
+    private final long misses;
+    private final long creationFailures;
+    private final Map<RemovalCause, Long> removals;
+
+    PoolStats(int size, long estimatedBytes, long hits, long misses, long creationFailures, Map<RemovalCause, Long> removals) {
+        this.size = size;
+        this.estimatedBytes = estimatedBytes;
+        this.hits = hits;
+        this.misses = misses;
+        this.creationFailures = creationFailures;
+        this.removals = Collections.unmodifiableMap(new EnumMap<>(removals));
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of acquisitions that had to create a new session
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getCreationFailures() {
+        return creationFailures;
+    }
+
+    public long getRemovals(RemovalCause cause) {
+        Long ret = removals.get(cause);
+        return ret == null ? 0 : ret;
+    }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "size=" + size +
+                ", estimatedBytes=" + estimatedBytes +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", creationFailures=" + creationFailures +
+                ", removals=" + removals +
+                '}';
+    }
+}
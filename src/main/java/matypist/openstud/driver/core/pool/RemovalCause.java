@@ -0,0 +1,5 @@
+package matypist.openstud.driver.core.pool;
+
+public enum RemovalCause {
+    IDLE, SIZE, MEMORY, EXPLICIT
+}
@@ -0,0 +1,7 @@
+package matypist.openstud.driver.core.pool;
+
+import matypist.openstud.driver.core.Openstud;
+
+public interface RemovalListener {
+    void onRemoval(String studentID, Openstud os, RemovalCause cause);
+}
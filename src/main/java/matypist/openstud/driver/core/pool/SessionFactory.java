@@ -0,0 +1,14 @@
+package matypist.openstud.driver.core.pool;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.exceptions.OpenstudConnectionException;
+import matypist.openstud.driver.exceptions.OpenstudInvalidCredentialsException;
+import matypist.openstud.driver.exceptions.OpenstudInvalidResponseException;
+import matypist.openstud.driver.exceptions.OpenstudUserNotEnabledException;
+
+/**
+ * Creates a ready to use session for a student, usually building an {@link Openstud} and logging in.
+ */
+public interface SessionFactory {
+    Openstud create(String studentID) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException, OpenstudUserNotEnabledException;
+}
@@ -0,0 +1,10 @@
+package matypist.openstud.driver.core.pool;
+
+import matypist.openstud.driver.core.Openstud;
+
+public interface SessionWeigher {
+    /**
+     * @return estimated number of bytes retained by the session
+     */
+    long weigh(Openstud os);
+}
@@ -0,0 +1,66 @@
+package matypist.openstud.driver.core.providers.sapienza;
+
+import com.lithium.kapitalize.Kapitalize;
+import com.lithium.kapitalize.languages.EnglishLanguage;
+import com.lithium.kapitalize.languages.SpecialRules;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Thread-safe capitalizer for the upper case names sent by Infostud, with Italian particles rules.
+ * Results are memoized in a bounded, lock-free table: names repeat a lot across students, so most
+ * calls don't reach {@link Kapitalize} at all. Whole values are memoized rather than single words,
+ * since the rules for particles depend on their position in the name.
+ */
+public final class NameCapitalizer {
+    private static final NameCapitalizer SHARED = new NameCapitalizer(4096);
+    private static final int MAX_MEMO_LENGTH = 64;
+
+    private final Kapitalize kapitalize;
+    private final AtomicReferenceArray<Memo> memo;
+    private final int mask;
+
+    public NameCapitalizer(int memoSize) {
+        if (memoSize <= 0 || memoSize > 1 << 20) throw new IllegalArgumentException("Invalid memo size " + memoSize);
+        int size = Integer.highestOneBit(memoSize);
+        if (size < memoSize) size <<= 1;
+        EnglishLanguage lang = new EnglishLanguage(SpecialRules.ITALIAN);
+        lang.setCapitalizePostNominalsInitials(false);
+        this.kapitalize = new Kapitalize(lang);
+        this.memo = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public static NameCapitalizer shared() {
+        return SHARED;
+    }
+
+    public String capitalize(String name) {
+        if (name == null) return null;
+        if (name.length() > MAX_MEMO_LENGTH) return compute(name);
+        int hash = name.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+        Memo entry = memo.get(index);
+        if (entry != null && entry.name.equals(name)) return entry.capitalized;
+        String ret = compute(name);
+        memo.set(index, new Memo(name, ret));
+        return ret;
+    }
+
+    // Kapitalize makes no thread-safety promise
+    private String compute(String name) {
+        synchronized (kapitalize) {
+            return kapitalize.capitalize(name);
+        }
+    }
+
+    private static final class Memo {
+        final String name;
+        final String capitalized;
+
+        Memo(String name, String capitalized) {
+            this.name = name;
+            this.capitalized = capitalized;
+        }
+    }
+}
@@ -207,7 +207,7 @@ public class SapienzaAuthenticationHandler implements AuthenticationHandler {
                 throw new OpenstudInvalidResponseException("InfoStud is in maintenance").setMaintenanceType();
             if (body.contains("Matricola Errata")) throw new OpenstudInvalidCredentialsException("Invalid studentID");
             if (body.contains("Impossibile recuperare la password per email")) return null;
-            os.log(Level.INFO, body);
+            os.logBody(Level.INFO, body);
             JSONObject response = new JSONObject(body);
             if (response.isNull("risultato"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid.");
@@ -248,7 +248,7 @@ public class SapienzaAuthenticationHandler implements AuthenticationHandler {
                 throw new OpenstudInvalidResponseException("InfoStud is in maintenance").setMaintenanceType();
             if (body.contains("Matricola Errata")) throw new OpenstudInvalidCredentialsException("Invalid studentID");
             if (body.contains("Impossibile recuperare la password per email")) return false;
-            os.log(Level.INFO, body);
+            os.logBody(Level.INFO, body);
             JSONObject response = new JSONObject(body);
             if (response.isNull("livelloErrore"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid.");
@@ -310,7 +310,7 @@ public class SapienzaAuthenticationHandler implements AuthenticationHandler {
             if (resp.body() == null) throw new OpenstudInvalidResponseException("Infostud answer is not valid");
             String body = resp.body().string();
             resp.close();
-            os.log(Level.INFO, body);
+            os.logBody(Level.INFO, body);
             JSONObject response = new JSONObject(body);
             if (response.isNull("codiceErrore") || response.isNull("risultato"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid.");
@@ -356,7 +356,7 @@ public class SapienzaAuthenticationHandler implements AuthenticationHandler {
             String body = executeRecoveryRequest(formBody);
             if (body.contains("Matricola Errata")) throw new OpenstudInvalidCredentialsException("Invalid studentID");
             if (body.contains("Impossibile recuperare la password per email")) return false;
-            os.log(Level.INFO, body);
+            os.logBody(Level.INFO, body);
             JSONObject response = new JSONObject(body);
             if (response.isNull("livelloErrore"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid.");
@@ -403,7 +403,7 @@ public class SapienzaAuthenticationHandler implements AuthenticationHandler {
             if (!StringUtils.isNumeric(os.getStudentID()))
                 throw new OpenstudInvalidCredentialsException("Student ID is not valid");
             String body = executeLoginRequest();
-            os.log(Level.INFO, body);
+            os.logBody(Level.INFO, body);
 
             JSONObject response = new JSONObject(body);
 
@@ -0,0 +1,139 @@
+package matypist.openstud.driver.core.providers.sapienza;
+
+import matypist.openstud.driver.core.json.JsonObjectView;
+import matypist.openstud.driver.core.json.ModelBinder;
+import matypist.openstud.driver.core.json.ModelBinderBuilder;
+import matypist.openstud.driver.core.models.Classroom;
+import matypist.openstud.driver.core.models.ExamDoable;
+import matypist.openstud.driver.core.models.ExamDone;
+import matypist.openstud.driver.core.models.PaymentDescription;
+import matypist.openstud.driver.core.models.Tax;
+import org.threeten.bp.format.DateTimeParseException;
+
+import java.util.logging.Level;
+
+/**
+ * Field mappings of the Infostud and GOMP answers read through the {@link matypist.openstud.driver.core.json.JsonEngine}
+ * of the session, built once and shared by every session.
+ */
+public final class SapienzaBinders {
+
+    public static final ModelBinder<ExamDoable> EXAM_DOABLE = new ModelBinderBuilder<ExamDoable>()
+            .setFactory(ExamDoable::new)
+            .bind("codiceInsegnamento", (os, exam, obj, key) -> exam.setExamCode(obj.getString(key)))
+            .bind("codiceModuloDidattico", (os, exam, obj, key) -> exam.setModuleCode(obj.getString(key)))
+            .bind("codiceCorsoInsegnamento", (os, exam, obj, key) -> exam.setCourseCode(obj.getString(key)))
+            .bind("cfu", (os, exam, obj, key) -> exam.setCfu(obj.getInt(key)))
+            .bind("descrizione", (os, exam, obj, key) -> exam.setDescription(SapienzaHelper.intern(os, obj.getString(key))))
+            .bind("ssd", (os, exam, obj, key) -> exam.setSsd(SapienzaHelper.intern(os, obj.getString(key))))
+            .build();
+
+    public static final ModelBinder<ExamDone> EXAM_DONE = new ModelBinderBuilder<ExamDone>()
+            .setFactory(ExamDone::new)
+            .bind("codiceInsegnamento", (os, exam, obj, key) -> exam.setExamCode(obj.getString(key)))
+            .bind("cfu", (os, exam, obj, key) -> exam.setCfu(obj.getInt(key)))
+            .bind("descrizione", (os, exam, obj, key) -> exam.setDescription(SapienzaHelper.intern(os, obj.getString(key))))
+            .bind("ssd", (os, exam, obj, key) -> exam.setSsd(SapienzaHelper.intern(os, obj.getString(key))))
+            .bind("data", (os, exam, obj, key) -> {
+                if (obj.isNull(key)) return;
+                String date = obj.getString(key);
+                if (date.isEmpty()) return;
+                try {
+                    exam.setDate(SapienzaDates.parseDate(date));
+                } catch (DateTimeParseException e) {
+                    e.printStackTrace();
+                }
+            })
+            .bind("certificato", (os, exam, obj, key) -> exam.setCertified(obj.getBoolean(key)))
+            .bind("superamento", (os, exam, obj, key) -> exam.setPassed(obj.getBoolean(key)))
+            .bind("annoAcca", (os, exam, obj, key) -> exam.setYear(obj.getInt(key)))
+            .bind("esito", (os, exam, obj, key) -> {
+                JsonObjectView esito = obj.getObject(key);
+                if (esito.has("valoreNominale")) exam.setNominalResult(esito.getString("valoreNominale"));
+                if (esito.has("valoreNonNominale") && !esito.isNull("valoreNonNominale"))
+                    exam.setResult(esito.getInt("valoreNonNominale"));
+            })
+            .build();
+
+    public static final ModelBinder<PaymentDescription> PAYMENT_DESCRIPTION = new ModelBinderBuilder<PaymentDescription>()
+            .setFactory(PaymentDescription::new)
+            .bind("descrizione", (os, pdes, obj, key) -> pdes.setDescription(SapienzaHelper.intern(os, obj.getString(key))))
+            .bind("importo", (os, pdes, obj, key) -> {
+                try {
+                    pdes.setAmount(Double.parseDouble(obj.getString(key)));
+                } catch (NumberFormatException e) {
+                    e.printStackTrace();
+                    os.log(Level.SEVERE, e);
+                }
+            })
+            .bind("annoAccademicoString", (os, pdes, obj, key) -> pdes.setAcademicYear(obj.getString(key)))
+            .bind("impoVers", (os, pdes, obj, key) -> {
+                try {
+                    pdes.setAmountPaid(Double.parseDouble(obj.getString(key)));
+                } catch (NumberFormatException e) {
+                    e.printStackTrace();
+                    os.log(Level.SEVERE, e);
+                }
+            })
+            .build();
+
+    public static final ModelBinder<Tax> PAID_TAX = taxBinder(true);
+
+    public static final ModelBinder<Tax> UNPAID_TAX = taxBinder(false);
+
+    public static final ModelBinder<Classroom> CLASSROOM = new ModelBinderBuilder<Classroom>()
+            .setFactory(Classroom::new)
+            .setSkipNulls(true)
+            .bind("roominternalid", (os, classroom, obj, key) -> classroom.setInternalId(obj.getInt(key)))
+            .bind("fullname", (os, classroom, obj, key) -> classroom.setFullName(obj.getString(key)))
+            .bind("name", (os, classroom, obj, key) -> classroom.setName(SapienzaHelper.intern(os, obj.getString(key))))
+            .bind("site", (os, classroom, obj, key) -> classroom.setWhere(SapienzaHelper.intern(os, obj.getString(key))))
+            .bind("lat", (os, classroom, obj, key) -> classroom.setLatitude(obj.getDouble(key)))
+            .bind("lng", (os, classroom, obj, key) -> classroom.setLongitude(obj.getDouble(key)))
+            .bind("occupied", (os, classroom, obj, key) -> classroom.setOccupied(obj.getBoolean(key)))
+            .bind("willbeoccupied", (os, classroom, obj, key) -> classroom.setWillBeOccupied(obj.getBoolean(key)))
+            .bind("weight", (os, classroom, obj, key) -> classroom.setWeight(obj.getInt(key)))
+            .build();
+
+    private SapienzaBinders() {
+    }
+
+    private static ModelBinder<Tax> taxBinder(boolean paid) {
+        ModelBinderBuilder<Tax> builder = new ModelBinderBuilder<Tax>()
+                .setFactory(() -> {
+                    Tax tax = new Tax();
+                    tax.setStatus(paid ? Tax.TaxStatus.PAID : Tax.TaxStatus.UNPAID);
+                    return tax;
+                })
+                .bind("codiceBollettino", (os, tax, obj, key) -> tax.setCode(obj.getString(key)))
+                .bind("corsoDiStudi", (os, tax, obj, key) -> tax.setCodeCourse(obj.getString(key)))
+                .bind("descCorsoDiStudi", (os, tax, obj, key) -> tax.setDescriptionCourse(SapienzaHelper.intern(os, obj.getString(key))))
+                .bind("impoVers", (os, tax, obj, key) -> {
+                    try {
+                        String content = obj.getString(key);
+                        if (!content.isEmpty()) tax.setAmount(Double.parseDouble(content));
+                    } catch (NumberFormatException e) {
+                        e.printStackTrace();
+                        os.log(Level.SEVERE, e);
+                    }
+                })
+                .bind("annoAcca", (os, tax, obj, key) -> tax.setAcademicYear(obj.getInt(key)))
+                .bind("importoBollettino", (os, tax, obj, key) -> {
+                    if (obj.isNull(key)) return;
+                    try {
+                        tax.setAmount(Double.parseDouble(obj.getString(key).replace(",", ".")));
+                    } catch (NumberFormatException e) {
+                        e.printStackTrace();
+                        os.log(Level.SEVERE, e);
+                    }
+                })
+                .bind("scadenza", (os, tax, obj, key) -> {
+                    String date = obj.getString(key);
+                    if (!date.isEmpty()) tax.setExpirationDate(SapienzaDates.parseDate(date));
+                })
+                .bind("causali", (os, tax, obj, key) -> tax.setPaymentDescriptionList(PAYMENT_DESCRIPTION.bindAll(os, obj.getArray(key))));
+        if (paid)
+            builder.bind("dataVers", (os, tax, obj, key) -> tax.setPaymentDate(SapienzaDates.parseDate(obj.getString(key))));
+        return builder.build();
+    }
+}
@@ -10,19 +10,22 @@ import matypist.openstud.driver.exceptions.OpenstudConnectionException;
 import matypist.openstud.driver.exceptions.OpenstudInvalidCredentialsException;
 import matypist.openstud.driver.exceptions.OpenstudInvalidResponseException;
 import matypist.openstud.driver.exceptions.OpenstudRefreshException;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.format.DateTimeFormatter;
 
 import javax.net.ssl.SSLException;
 import java.io.IOException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
 import java.util.logging.Level;
 
 public class SapienzaBioHandler implements BioHandler {
@@ -92,7 +95,7 @@ public class SapienzaBioHandler implements BioHandler {
             if (resp.body() == null) throw new OpenstudInvalidResponseException("Infostud answer is not valid");
             String body = resp.body().string();
             resp.close();
-            os.log(Level.INFO, body);
+            os.logBody(Level.INFO, body);
             JSONObject response = new JSONObject(body);
             if (!response.has("risultato"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid. I guess the token is no longer valid");
@@ -152,17 +155,17 @@ public class SapienzaBioHandler implements BioHandler {
             if (resp.body() == null) throw new OpenstudInvalidResponseException("Infostud answer is not valid");
             String body = resp.body().string();
             resp.close();
-            os.log(Level.INFO, body);
+            os.logBody(Level.INFO, body);
             JSONObject response = new JSONObject(body);
             if (response.has("descrizioneErrore") && !response.isNull("descrizioneErrore") && response.getString("descrizioneErrore").toLowerCase().contains("non risultano"))
-                return new LinkedList<>();
+                return new ArrayList<>();
             if (!response.has("risultatoLista"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid. I guess the token is no longer valid");
             response = response.getJSONObject("risultatoLista");
-            if (response == null) return new LinkedList<>();
+            if (response == null) return new ArrayList<>();
             JSONArray array = response.getJSONArray("risultati");
-            if (array == null) return new LinkedList<>();
-            List<Career> ret = new LinkedList<>();
+            if (array == null) return new ArrayList<>();
+            List<Career> ret = new ArrayList<>(array.length());
             for (int i = 0; i < array.length(); i++) {
                 JSONObject obj = array.getJSONObject(i);
                 Career car = new Career();
@@ -176,10 +179,10 @@ public class SapienzaBioHandler implements BioHandler {
                             car.setCodeCourse(obj.getString(element));
                             break;
                         case "descCorsStud":
-                            car.setDescriptionComplete(obj.getString(element));
+                            car.setDescriptionComplete(SapienzaHelper.intern(os, obj.getString(element)));
                             break;
                         case "descDenoCost":
-                            car.setDescription(obj.getString(element));
+                            car.setDescription(SapienzaHelper.intern(os, obj.getString(element)));
                             break;
                         case "descStruOrga":
                             car.setOrganization(obj.getString(element));
@@ -214,7 +217,7 @@ public class SapienzaBioHandler implements BioHandler {
             if (resp.body() == null) throw new OpenstudInvalidResponseException("Infostud answer is not valid");
             String body = resp.body().string();
             resp.close();
-            os.log(Level.INFO, body);
+            os.logBody(Level.INFO, body);
             JSONObject response = new JSONObject(body);
             if (!response.has("ritorno"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid. I guess the token is no longer valid");
@@ -234,12 +237,15 @@ public class SapienzaBioHandler implements BioHandler {
 
     public byte[] getStudentPhoto(Student student) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!os.isReady() || student == null) return null;
+        byte[] cached = os.getPhotoCache().get(student.getStudentID());
+        if (cached != null) return cached;
         int count = 0;
         while (true) {
             try {
                 if (count > 0) os.refreshToken();
                 byte[] ret = _getStudentPhoto(student);
                 if (ret != null && ret.length == 0) return null;
+                os.getPhotoCache().put(student.getStudentID(), ret);
                 return ret;
             } catch (OpenstudInvalidResponseException e) {
                 if (e.isMaintenance()) throw e;
@@ -255,55 +261,145 @@ public class SapienzaBioHandler implements BioHandler {
         }
     }
 
+    private Request buildStudentPhotoRequest(Student student, String token) {
+        return new Request.Builder().url(String.format("%s/cartastudente/%s/foto?ingresso=%s", "https://www.studenti.uniroma1.it/phoenixws", student.getStudentID(), token)).build();
+    }
+
     private byte[] _getStudentPhoto(Student student) throws OpenstudInvalidResponseException, OpenstudConnectionException {
         try {
-            Request req = new Request.Builder().url(String.format("%s/cartastudente/%s/foto?ingresso=%s", "https://www.studenti.uniroma1.it/phoenixws", student.getStudentID(), os.getToken())).build();
+            Request req = buildStudentPhotoRequest(student, os.getToken());
             Response resp = os.getClient().newCall(req).execute();
-            byte[] ret = resp.body().bytes();
-            resp.close();
-            return ret;
+            return readPhoto(resp);
         } catch (IOException e) {
-            if (e instanceof SSLException) {
-                OpenstudInvalidResponseException invalidResponseException = new OpenstudInvalidResponseException(e);
-                invalidResponseException.setSSLType();
-                os.log(Level.SEVERE, invalidResponseException);
-                throw invalidResponseException;
+            throw handlePhotoException(e);
+        }
+    }
+
+    /**
+     * Reads and closes a photo answer. An empty successful answer means that the student has no photo, anything
+     * else that is not an image, like the expired token JSON or an error page, is rejected so that it never ends
+     * up in the photo cache.
+     */
+    private static byte[] readPhoto(Response resp) throws IOException, OpenstudInvalidResponseException {
+        try {
+            ResponseBody body = resp.body();
+            if (body == null) throw new OpenstudInvalidResponseException("Infostud answer is not valid");
+            MediaType type = body.contentType();
+            if (resp.isSuccessful()) {
+                byte[] ret = body.bytes();
+                if (ret.length == 0 || type != null && type.type().equals("image")) return ret;
+            } else if (type != null && type.subtype().equals("html") && body.string().contains("the page you are looking for is currently unavailable")) {
+                throw new OpenstudInvalidResponseException("InfoStud is in maintenance").setMaintenanceType();
             }
+            throw new OpenstudInvalidResponseException("Infostud answer is not a photo. I guess the token is no longer valid");
+        } finally {
+            resp.close();
+        }
+    }
+
+    private PendingPhoto _getStudentPhotoAsync(Student student) {
+        String token = os.getToken();
+        Call call = os.getClient().newCall(buildStudentPhotoRequest(student, token));
+        PendingPhoto pending = new PendingPhoto(call, token);
+        call.enqueue(pending);
+        return pending;
+    }
+
+    private byte[] awaitStudentPhoto(Student student, PendingPhoto pending) throws OpenstudInvalidResponseException, OpenstudConnectionException {
+        // the card lookup refreshed the token, so the photo request already in flight is no longer authorized
+        if (!Objects.equals(pending.token, os.getToken())) {
+            pending.cancel();
+            return _getStudentPhoto(student);
+        }
+        try {
+            return pending.await();
+        } catch (IOException e) {
+            throw handlePhotoException(e);
+        } catch (InterruptedException e) {
+            pending.cancel();
+            Thread.currentThread().interrupt();
             OpenstudConnectionException connectionException = new OpenstudConnectionException(e);
             os.log(Level.SEVERE, connectionException);
             throw connectionException;
         }
     }
 
+    private OpenstudConnectionException handlePhotoException(IOException e) throws OpenstudInvalidResponseException {
+        if (e instanceof SSLException) {
+            OpenstudInvalidResponseException invalidResponseException = new OpenstudInvalidResponseException(e);
+            invalidResponseException.setSSLType();
+            os.log(Level.SEVERE, invalidResponseException);
+            throw invalidResponseException;
+        }
+        OpenstudConnectionException connectionException = new OpenstudConnectionException(e);
+        os.log(Level.SEVERE, connectionException);
+        return connectionException;
+    }
+
 
     public StudentCard getStudentCard(Student student, boolean withPhoto) throws OpenstudConnectionException, OpenstudInvalidResponseException, OpenstudInvalidCredentialsException {
         if (!os.isReady() || student == null) return null;
-        int count = 0;
-        StudentCard card;
-        while (true) {
-            try {
-                if (count > 0) os.refreshToken();
-                card = _getStudentCard(student);
-                break;
-            } catch (OpenstudInvalidResponseException e) {
-                if (e.isMaintenance()) throw e;
-                if (++count == os.getMaxTries()) {
-                    os.log(Level.SEVERE, e);
-                    throw e;
+        StudentCard card = getCachedStudentCard(student);
+        byte[] image = null;
+        PendingPhoto pendingPhoto = null;
+        if (withPhoto) {
+            image = os.getPhotoCache().get(student.getStudentID());
+            if (image == null) pendingPhoto = _getStudentPhotoAsync(student);
+        }
+        try {
+            int count = 0;
+            while (card == null) {
+                try {
+                    if (count > 0) os.refreshToken();
+                    card = _getStudentCard(student);
+                    if (card == null) return null;
+                    os.getStudentCardCache().put(student.getStudentID(), copyStudentCard(card));
+                    break;
+                } catch (OpenstudInvalidResponseException e) {
+                    if (e.isMaintenance()) throw e;
+                    if (++count == os.getMaxTries()) {
+                        os.log(Level.SEVERE, e);
+                        throw e;
+                    }
+                } catch (OpenstudRefreshException e) {
+                    OpenstudInvalidCredentialsException invalidCredentials = new OpenstudInvalidCredentialsException(e);
+                    os.log(Level.SEVERE, invalidCredentials);
+                    throw invalidCredentials;
                 }
-            } catch (OpenstudRefreshException e) {
-                OpenstudInvalidCredentialsException invalidCredentials = new OpenstudInvalidCredentialsException(e);
-                os.log(Level.SEVERE, invalidCredentials);
-                throw invalidCredentials;
             }
+            if (pendingPhoto != null) {
+                try {
+                    image = awaitStudentPhoto(student, pendingPhoto);
+                    os.getPhotoCache().put(student.getStudentID(), image);
+                } catch (OpenstudInvalidResponseException e) {
+                    if (e.isMaintenance()) throw e;
+                    // not a photo, go through the refresh loop of the synchronous download
+                    image = getStudentPhoto(student);
+                }
+                pendingPhoto = null;
+            }
+        } finally {
+            if (pendingPhoto != null) pendingPhoto.cancel();
         }
-        if (card != null && withPhoto) {
-            byte[] image = _getStudentPhoto(student);
-            if (image != null && image.length != 0) card.setImage(image);
-        }
+        if (image != null && image.length != 0) card.setImage(image);
         return card;
     }
 
+    private StudentCard getCachedStudentCard(Student student) {
+        StudentCard cached = os.getStudentCardCache().get(student.getStudentID());
+        if (cached == null) return null;
+        return copyStudentCard(cached);
+    }
+
+    private static StudentCard copyStudentCard(StudentCard card) {
+        StudentCard ret = new StudentCard();
+        ret.setCode(card.getCode());
+        ret.setStudentId(card.getStudentId());
+        ret.setIssueDate(card.getIssueDate());
+        ret.setEnabled(card.isEnabled());
+        return ret;
+    }
+
     private StudentCard _getStudentCard(Student student) throws OpenstudInvalidResponseException, OpenstudConnectionException {
         try {
             Request req = new Request.Builder().url(String.format("%s/cartastudente/%s/info?ingresso=%s", os.getEndpointAPI(), student.getStudentID(), os.getToken())).build();
@@ -312,7 +408,7 @@ public class SapienzaBioHandler implements BioHandler {
             ResponseBody body = resp.body();
             if (body == null) return null;
             String stringBody = body.string();
-            os.log(Level.INFO, stringBody);
+            os.logBody(Level.INFO, stringBody);
             JSONObject response = new JSONObject(stringBody);
             if (!response.has("ritorno"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid. I guess the token is no longer valid");
@@ -320,7 +416,7 @@ public class SapienzaBioHandler implements BioHandler {
             if (!response.has("carte"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid. I guess the token is no longer valid");
             JSONArray array = response.getJSONArray("carte");
-            List<StudentCard> cards = new LinkedList<>();
+            List<StudentCard> cards = new ArrayList<>(array.length());
             for (int i = 0; i < array.length(); i++) {
                 JSONObject obj = array.getJSONObject(i);
                 StudentCard card = new StudentCard();
@@ -336,8 +432,7 @@ public class SapienzaBioHandler implements BioHandler {
                             if (obj.getString(element).toLowerCase().equals("attiva")) card.setEnabled(true);
                             break;
                         case "dataRichiesta":
-                            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
-                            card.setIssueDate(LocalDateTime.parse(obj.getString(element), formatter));
+                            card.setIssueDate(SapienzaDates.parseDateTime(obj.getString(element)));
                             break;
                     }
                 }
@@ -361,4 +456,48 @@ public class SapienzaBioHandler implements BioHandler {
             throw connectionException;
         }
     }
+
+    private static class PendingPhoto implements Callback {
+        private final Call call;
+        private final String token;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private byte[] photo;
+        private IOException error;
+        private OpenstudInvalidResponseException invalidResponse;
+
+        PendingPhoto(Call call, String token) {
+            this.call = call;
+            this.token = token;
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            error = e;
+            done.countDown();
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            try {
+                photo = readPhoto(response);
+            } catch (IOException e) {
+                error = e;
+            } catch (OpenstudInvalidResponseException e) {
+                invalidResponse = e;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        byte[] await() throws IOException, InterruptedException, OpenstudInvalidResponseException {
+            done.await();
+            if (error != null) throw error;
+            if (invalidResponse != null) throw invalidResponse;
+            return photo;
+        }
+
+        void cancel() {
+            call.cancel();
+        }
+    }
 }
@@ -3,6 +3,8 @@ package matypist.openstud.driver.core.providers.sapienza;
 import matypist.openstud.driver.core.Openstud;
 import matypist.openstud.driver.core.OpenstudHelper;
 import matypist.openstud.driver.core.internals.ClassroomHandler;
+import matypist.openstud.driver.core.json.JsonArrayView;
+import matypist.openstud.driver.core.json.JsonFormatException;
 import matypist.openstud.driver.core.models.Classroom;
 import matypist.openstud.driver.core.models.ExamDoable;
 import matypist.openstud.driver.core.models.Lesson;
@@ -16,11 +18,10 @@ import org.json.JSONObject;
 import org.threeten.bp.LocalDate;
 import org.threeten.bp.LocalDateTime;
 import org.threeten.bp.ZoneOffset;
-import org.threeten.bp.format.DateTimeFormatter;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -50,17 +51,16 @@ public class SapienzaClassroomHandler implements ClassroomHandler {
     }
 
     private List<Classroom> _getClassroom(String query, boolean withTimetable) throws OpenstudInvalidResponseException, OpenstudConnectionException {
-        List<Classroom> ret = new LinkedList<>();
+        List<Classroom> ret = new ArrayList<>();
         try {
             Request req = new Request.Builder().url(String.format("%s/classroom/search?q=%s", os.getEndpointTimetable(), query.replace(" ", "%20"))).build();
             String body = handleRequest(req);
-            JSONArray array = new JSONArray(body);
+            JsonArrayView array = os.getJsonEngine().parseArray(body);
             LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
             LocalDateTime zonedTime = now.atOffset(ZoneOffset.UTC).withOffsetSameInstant(ZoneOffset.of("+1")).toLocalDateTime();
             for (int i = 0; i < array.length(); i++) {
                 if (i == os.getLimitSearch()) break;
-                JSONObject object = array.getJSONObject(i);
-                Classroom classroom = parseClassroom(object);
+                Classroom classroom = SapienzaBinders.CLASSROOM.bind(os, array.getObject(i));
                 if (withTimetable) {
                     List<Lesson> classLessons = getClassroomTimetable(classroom.getInternalId(), LocalDate.now());
                     for (Lesson lesson : classLessons) {
@@ -82,7 +82,7 @@ public class SapienzaClassroomHandler implements ClassroomHandler {
             OpenstudConnectionException connectionException = new OpenstudConnectionException(e);
             os.log(Level.SEVERE, connectionException);
             throw connectionException;
-        } catch (JSONException e) {
+        } catch (JsonFormatException e) {
             OpenstudInvalidResponseException invalidResponse = new OpenstudInvalidResponseException(e).setJSONType();
             os.log(Level.SEVERE, invalidResponse);
             throw invalidResponse;
@@ -99,52 +99,13 @@ public class SapienzaClassroomHandler implements ClassroomHandler {
         resp.close();
         if (body.contains("maximum request limit"))
             throw new OpenstudInvalidResponseException("Request rate limit reached").setRateLimitType();
-        os.log(Level.INFO, body);
+        os.logBody(Level.INFO, body);
         return body;
     }
 
-    private Classroom parseClassroom(JSONObject object) {
-        Classroom classroom = new Classroom();
-        for (String info : object.keySet()) {
-            if (object.isNull(info)) continue;
-            switch (info) {
-                case "roominternalid":
-                    classroom.setInternalId(object.getInt(info));
-                    break;
-                case "fullname":
-                    classroom.setFullName(object.getString(info));
-                    break;
-                case "name":
-                    classroom.setName(object.getString(info));
-                    break;
-                case "site":
-                    classroom.setWhere(object.getString(info));
-                    break;
-                case "lat":
-                    classroom.setLatitude(object.getDouble(info));
-                    break;
-                case "lng":
-                    classroom.setLongitude(object.getDouble(info));
-                    break;
-                case "occupied":
-                    classroom.setOccupied(object.getBoolean(info));
-                    break;
-                case "willbeoccupied":
-                    classroom.setWillBeOccupied(object.getBoolean(info));
-                    break;
-                case "weight":
-                    classroom.setWeight(object.getInt(info));
-                    break;
-                default:
-                    break;
-            }
-        }
-        return classroom;
-    }
-
     @Override
     public List<Lesson> getClassroomTimetable(Classroom room, LocalDate date) throws OpenstudConnectionException, OpenstudInvalidResponseException {
-        if (room == null) return new LinkedList<>();
+        if (room == null) return new ArrayList<>();
         return getClassroomTimetable(room.getInternalId(), date);
     }
 
@@ -166,15 +127,14 @@ public class SapienzaClassroomHandler implements ClassroomHandler {
     }
 
     private List<Lesson> _getClassroomTimetable(int id, LocalDate date) throws OpenstudInvalidResponseException, OpenstudConnectionException {
-        List<Lesson> ret = new LinkedList<>();
         try {
             Request req = new Request.Builder().url(String.format("%s/events/%s/%s/%s/%s", os.getEndpointTimetable(), date.getYear(), date.getMonthValue(), date.getDayOfMonth(), id)).build();
             String body = handleRequest(req);
             JSONArray array = new JSONArray(body);
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm");
+            List<Lesson> ret = new ArrayList<>(array.length());
             for (int i = 0; i < array.length(); i++) {
                 JSONObject object = array.getJSONObject(i);
-                ret.add(SapienzaHelper.extractLesson(object, formatter, 0));
+                ret.add(SapienzaHelper.extractLesson(os, object, 0));
             }
             return OpenstudHelper.sortLessonsByStartDate(ret, true);
 
@@ -225,14 +185,13 @@ public class SapienzaClassroomHandler implements ClassroomHandler {
             Request req = new Request.Builder().url(String.format("%s/lectures/%s", os.getEndpointTimetable(), builderExams.toString())).build();
             String body = handleRequest(req);
             JSONObject response = new JSONObject(body);
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm");
             for (String examCode : response.keySet()) {
                 if (!codes.contains(examCode)) continue;
                 JSONArray array = response.getJSONArray(examCode);
-                LinkedList<Lesson> lessons = new LinkedList<>();
+                List<Lesson> lessons = new ArrayList<>(array.length());
                 for (int i = 0; i < array.length(); i++) {
                     JSONObject object = array.getJSONObject(i);
-                    lessons.add(SapienzaHelper.extractLesson(object, formatter, -1));
+                    lessons.add(SapienzaHelper.extractLesson(os, object, -1));
                 }
                 ret.put(examCode, lessons);
             }
@@ -0,0 +1,111 @@
+package matypist.openstud.driver.core.providers.sapienza;
+
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.format.DateTimeFormatter;
+
+/**
+ * Parsers for the fixed-width date formats used by Infostud and the timetable service. Well formed input is
+ * scanned digit by digit without intermediate objects, anything else goes through the equivalent
+ * {@link DateTimeFormatter}, so that results and exceptions are the same as before.
+ */
+public final class SapienzaDates {
+    public static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    public static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    public static final DateTimeFormatter TIMETABLE = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm");
+
+    private SapienzaDates() {
+    }
+
+    /**
+     * Parses a dd/MM/yyyy date.
+     */
+    public static LocalDate parseDate(String text) {
+        if (text != null && text.length() == 10 && isDate(text, 0)) {
+            LocalDate ret = date(number(text, 6, 4), number(text, 3, 2), number(text, 0, 2));
+            if (ret != null) return ret;
+        }
+        return LocalDate.parse(text, DATE);
+    }
+
+    /**
+     * Parses a dd/MM/yyyy HH:mm:ss date time.
+     */
+    public static LocalDateTime parseDateTime(String text) {
+        if (text != null && text.length() == 19 && isDate(text, 0) && text.charAt(10) == ' ' && isTime(text, 11, true)) {
+            LocalDateTime ret = dateTime(number(text, 6, 4), number(text, 3, 2), number(text, 0, 2),
+                    number(text, 11, 2), number(text, 14, 2), number(text, 17, 2));
+            if (ret != null) return ret;
+        }
+        return LocalDateTime.parse(text, DATE_TIME);
+    }
+
+    /**
+     * Parses the date of a dd/MM/yyyy HH:mm:ss date time.
+     */
+    public static LocalDate parseDateOfDateTime(String text) {
+        if (text != null && text.length() == 19 && isDate(text, 0) && text.charAt(10) == ' ' && isTime(text, 11, true)
+                && number(text, 11, 2) < 24 && number(text, 14, 2) < 60 && number(text, 17, 2) < 60) {
+            LocalDate ret = date(number(text, 6, 4), number(text, 3, 2), number(text, 0, 2));
+            if (ret != null) return ret;
+        }
+        return LocalDate.parse(text, DATE_TIME);
+    }
+
+    /**
+     * Parses a MM/dd/yyyy HH:mm date time, as sent by the timetable service.
+     */
+    public static LocalDateTime parseTimetable(String text) {
+        if (text != null && text.length() == 16 && isDate(text, 0) && text.charAt(10) == ' ' && isTime(text, 11, false)) {
+            LocalDateTime ret = dateTime(number(text, 6, 4), number(text, 0, 2), number(text, 3, 2),
+                    number(text, 11, 2), number(text, 14, 2), 0);
+            if (ret != null) return ret;
+        }
+        return LocalDateTime.parse(text, TIMETABLE);
+    }
+
+    // xx/xx/xxxx
+    private static boolean isDate(String text, int offset) {
+        return isDigits(text, offset, 2) && text.charAt(offset + 2) == '/' && isDigits(text, offset + 3, 2)
+                && text.charAt(offset + 5) == '/' && isDigits(text, offset + 6, 4);
+    }
+
+    // xx:xx or xx:xx:xx
+    private static boolean isTime(String text, int offset, boolean withSeconds) {
+        if (!isDigits(text, offset, 2) || text.charAt(offset + 2) != ':' || !isDigits(text, offset + 3, 2)) return false;
+        return !withSeconds || (text.charAt(offset + 5) == ':' && isDigits(text, offset + 6, 2));
+    }
+
+    private static boolean isDigits(String text, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    private static int number(String text, int offset, int length) {
+        int ret = 0;
+        for (int i = offset; i < offset + length; i++) ret = ret * 10 + (text.charAt(i) - '0');
+        return ret;
+    }
+
+    // anything else is left to the formatter, e.g. the 31st of a shorter month is resolved to its last day
+    private static LocalDate date(int year, int month, int day) {
+        if (!isValid(year, month, day)) return null;
+        return LocalDate.of(year, month, day);
+    }
+
+    private static LocalDateTime dateTime(int year, int month, int day, int hour, int minute, int second) {
+        if (!isValid(year, month, day) || hour > 23 || minute > 59 || second > 59) return null;
+        return LocalDateTime.of(year, month, day, hour, minute, second);
+    }
+
+    private static boolean isValid(int year, int month, int day) {
+        if (year == 0 || month < 1 || month > 12 || day < 1) return false;
+        if (day <= 28) return true;
+        if (month == 2) return day == 29 && (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0));
+        if (month == 4 || month == 6 || month == 9 || month == 11) return day <= 30;
+        return day <= 31;
+    }
+}
@@ -3,7 +3,11 @@ package matypist.openstud.driver.core.providers.sapienza;
 import matypist.openstud.driver.core.Openstud;
 import matypist.openstud.driver.core.OpenstudHelper;
 import matypist.openstud.driver.core.internals.ExamHandler;
+import matypist.openstud.driver.core.json.JsonFormatException;
+import matypist.openstud.driver.core.json.JsonObjectView;
 import matypist.openstud.driver.core.models.*;
+import matypist.openstud.driver.core.trace.Span;
+import matypist.openstud.driver.core.trace.Tracer;
 import matypist.openstud.driver.exceptions.OpenstudConnectionException;
 import matypist.openstud.driver.exceptions.OpenstudInvalidCredentialsException;
 import matypist.openstud.driver.exceptions.OpenstudInvalidResponseException;
@@ -16,12 +20,9 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.format.DateTimeFormatter;
-import org.threeten.bp.format.DateTimeParseException;
 
 import java.io.IOException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 
@@ -60,48 +61,17 @@ public class SapienzaExamHandler implements ExamHandler {
     private List<ExamDoable> _getExamsDoable() throws OpenstudConnectionException, OpenstudInvalidResponseException {
         try {
             Request req = new Request.Builder().url(String.format("%s/studente/%s/insegnamentisostenibili?ingresso=%s", os.getEndpointAPI(), os.getStudentID(), os.getToken())).build();
-            JSONObject response = handleRequest(req);
+            JsonObjectView response = handleJsonRequest(req);
             if (!response.has("ritorno"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid. I guess the token is no longer valid");
-            response = response.getJSONObject("ritorno");
-            List<ExamDoable> list = new LinkedList<>();
-            if (!response.has("esami") || response.isNull("esami")) return list;
-            JSONArray array = response.getJSONArray("esami");
-            for (int i = 0; i < array.length(); i++) {
-                JSONObject obj = array.getJSONObject(i);
-                ExamDoable exam = new ExamDoable();
-                for (String element : obj.keySet()) {
-                    switch (element) {
-                        case "codiceInsegnamento":
-                            exam.setExamCode(obj.getString("codiceInsegnamento"));
-                            break;
-                        case "codiceModuloDidattico":
-                            exam.setModuleCode(obj.getString("codiceModuloDidattico"));
-                            break;
-                        case "codiceCorsoInsegnamento":
-                            exam.setCourseCode(obj.getString("codiceCorsoInsegnamento"));
-                            break;
-                        case "cfu":
-                            exam.setCfu(obj.getInt("cfu"));
-                            break;
-                        case "descrizione":
-                            exam.setDescription(obj.getString("descrizione"));
-                            break;
-                        case "ssd":
-                            exam.setSsd(obj.getString("ssd"));
-                            break;
-                        default:
-                            break;
-                    }
-                }
-                list.add(exam);
-            }
-            return list;
+            response = response.getObject("ritorno");
+            if (!response.has("esami") || response.isNull("esami")) return new ArrayList<>();
+            return SapienzaBinders.EXAM_DOABLE.bindAll(os, response.getArray("esami"));
         } catch (IOException e) {
             OpenstudConnectionException connectionException = new OpenstudConnectionException(e);
             os.log(Level.SEVERE, connectionException);
             throw connectionException;
-        } catch (JSONException e) {
+        } catch (JsonFormatException e) {
             OpenstudInvalidResponseException invalidResponse = new OpenstudInvalidResponseException(e).setJSONType();
             os.log(Level.SEVERE, invalidResponse);
             throw invalidResponse;
@@ -136,68 +106,17 @@ public class SapienzaExamHandler implements ExamHandler {
     private List<ExamDone> _getExamsDone() throws OpenstudConnectionException, OpenstudInvalidResponseException {
         try {
             Request req = new Request.Builder().url(String.format("%s/studente/%s/esamiall?ingresso=%s", os.getEndpointAPI(), os.getStudentID(), os.getToken())).build();
-            JSONObject response = handleRequest(req);
+            JsonObjectView response = handleJsonRequest(req);
             if (!response.has("ritorno"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid. I guess the token is no longer valid");
-            response = response.getJSONObject("ritorno");
-            List<ExamDone> list = new LinkedList<>();
-            if (!response.has("esami") || response.isNull("esami")) return list;
-            JSONArray array = response.getJSONArray("esami");
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-            for (int i = 0; i < array.length(); i++) {
-                JSONObject obj = array.getJSONObject(i);
-                ExamDone exam = new ExamDone();
-                for (String element : obj.keySet()) {
-                    switch (element) {
-                        case "codiceInsegnamento":
-                            exam.setExamCode(obj.getString("codiceInsegnamento"));
-                            break;
-                        case "cfu":
-                            exam.setCfu(obj.getInt("cfu"));
-                            break;
-                        case "descrizione":
-                            exam.setDescription(obj.getString("descrizione"));
-                            break;
-                        case "ssd":
-                            exam.setSsd(obj.getString("ssd"));
-                            break;
-                        case "data":
-                            if (obj.isNull("data")) break;
-                            String dateBirth = obj.getString("data");
-                            if (dateBirth.isEmpty()) break;
-                            try {
-                                exam.setDate(LocalDate.parse(dateBirth, formatter));
-                            } catch (DateTimeParseException e) {
-                                e.printStackTrace();
-                            }
-                            break;
-                        case "certificato":
-                            exam.setCertified(obj.getBoolean("certificato"));
-                            break;
-                        case "superamento":
-                            exam.setPassed(obj.getBoolean("superamento"));
-                            break;
-                        case "annoAcca":
-                            exam.setYear(obj.getInt("annoAcca"));
-                            break;
-                        case "esito":
-                            JSONObject esito = obj.getJSONObject("esito");
-                            if (esito.has("valoreNominale")) exam.setNominalResult(esito.getString("valoreNominale"));
-                            if (esito.has("valoreNonNominale") && !esito.isNull("valoreNonNominale"))
-                                exam.setResult(esito.getInt("valoreNonNominale"));
-                            break;
-                        default:
-                            break;
-                    }
-                }
-                list.add(exam);
-            }
-            return list;
+            response = response.getObject("ritorno");
+            if (!response.has("esami") || response.isNull("esami")) return new ArrayList<>();
+            return SapienzaBinders.EXAM_DONE.bindAll(os, response.getArray("esami"));
         } catch (IOException e) {
             OpenstudConnectionException connectionException = new OpenstudConnectionException(e);
             os.log(Level.SEVERE, connectionException);
             throw connectionException;
-        } catch (JSONException e) {
+        } catch (JsonFormatException e) {
             OpenstudInvalidResponseException invalidResponse = new OpenstudInvalidResponseException(e).setJSONType();
             os.log(Level.SEVERE, invalidResponse);
             throw invalidResponse;
@@ -283,7 +202,7 @@ public class SapienzaExamHandler implements ExamHandler {
             if (!response.has("ritorno"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid. I guess the token is no longer valid");
             response = response.getJSONObject("ritorno");
-            if (!response.has("appelli") || response.isNull("appelli")) return new LinkedList<>();
+            if (!response.has("appelli") || response.isNull("appelli")) return new ArrayList<>();
             JSONArray array = response.getJSONArray("appelli");
             return SapienzaHelper.extractReservations(os, array);
         } catch (IOException e) {
@@ -372,10 +291,19 @@ public class SapienzaExamHandler implements ExamHandler {
         if (resp.body() == null) throw new OpenstudInvalidResponseException("Infostud answer is not valid");
         String body = resp.body().string();
         resp.close();
-        os.log(Level.INFO, body);
+        os.logBody(Level.INFO, body);
         return new JSONObject(body);
     }
 
+    private JsonObjectView handleJsonRequest(Request req) throws IOException, OpenstudInvalidResponseException {
+        Response resp = os.getClient().newCall(req).execute();
+        if (resp.body() == null) throw new OpenstudInvalidResponseException("Infostud answer is not valid");
+        String body = resp.body().string();
+        resp.close();
+        os.logBody(Level.INFO, body);
+        return os.getJsonEngine().parseObject(body);
+    }
+
     @Override
     public int deleteReservation(ExamReservation res) throws OpenstudInvalidResponseException, OpenstudConnectionException, OpenstudInvalidCredentialsException {
         if (!os.isReady() || res.getReservationNumber() == -1) return -1;
@@ -458,10 +386,8 @@ public class SapienzaExamHandler implements ExamHandler {
             response = response.getJSONObject("risultato");
             if (!response.has("byte") || response.isNull("byte"))
                 throw new OpenstudInvalidResponseException("Infostud answer is not valid");
-            JSONArray byteArray = response.getJSONArray("byte");
-            byte[] pdf = new byte[byteArray.length()];
-            for (int i = 0; i < byteArray.length(); i++) pdf[i] = (byte) byteArray.getInt(i);
-            os.log(Level.INFO, "Found PDF made of " + pdf.length + " bytes \n");
+            byte[] pdf = SapienzaHelper.extractPdf(response.getJSONArray("byte"));
+            os.log(Level.INFO, () -> "Found PDF made of " + pdf.length + " bytes \n");
             return pdf;
         } catch (IOException e) {
             OpenstudConnectionException connectionException = new OpenstudConnectionException(e);
@@ -483,9 +409,17 @@ public class SapienzaExamHandler implements ExamHandler {
                 if (count > 0) os.refreshToken();
                 List<ExamDoable> exams = _getExamsDoable();
                 List<ExamReservation> reservations = _getActiveReservations();
-                List<ExamReservation> avaiableReservations = new LinkedList<>();
+                List<ExamReservation> avaiableReservations = new ArrayList<>();
                 for (ExamDoable exam : exams) {
-                    avaiableReservations.addAll(_getAvailableReservations(exam, student));
+                    Span branch = Tracer.startChild("branch:availableReservations").setAttribute("exam", exam.getExamCode());
+                    try {
+                        avaiableReservations.addAll(_getAvailableReservations(exam, student));
+                    } catch (Exception e) {
+                        branch.setError(e);
+                        throw e;
+                    } finally {
+                        branch.end();
+                    }
                 }
                 return OpenstudHelper.generateEvents(reservations, avaiableReservations);
             } catch (OpenstudInvalidResponseException e) {
@@ -545,7 +479,7 @@ public class SapienzaExamHandler implements ExamHandler {
             if (resp.body() == null) throw new OpenstudInvalidResponseException("Infostud answer is not valid");
             String body = resp.body().string();
             resp.close();
-            os.log(Level.INFO, body);
+            os.logBody(Level.INFO, body);
             if (body.toLowerCase().contains("access denied")) throw new OpenstudInvalidResponseException("Infostud response is not valid. I guess the token is no longer valid");
             return String.format("https://www.studenti.uniroma1.it/opis/app/index.html?token_opis=%s&env=opis_free&ingresso=%s", surveyCode, os.getToken());
         } catch (IOException e) {
@@ -1,25 +1,30 @@
 package matypist.openstud.driver.core.providers.sapienza;
 
-import com.lithium.kapitalize.Kapitalize;
-import com.lithium.kapitalize.languages.EnglishLanguage;
-import com.lithium.kapitalize.languages.SpecialRules;
 import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.cache.StringPool;
 import matypist.openstud.driver.core.models.*;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 import org.threeten.bp.LocalDate;
 import org.threeten.bp.LocalDateTime;
 import org.threeten.bp.format.DateTimeFormatter;
 import org.threeten.bp.format.DateTimeParseException;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 
 class SapienzaHelper {
 
-    static Lesson extractLesson(JSONObject response, DateTimeFormatter formatter, int offset) {
+    static String intern(Openstud os, String value) {
+        StringPool pool = os.getStringPool();
+        return pool == null ? value : pool.intern(value);
+    }
+
+    static Lesson extractLesson(Openstud os, JSONObject response, int offset) {
         Lesson lesson = new Lesson();
         for (String lessonInfo : response.keySet()) {
             if (response.isNull(lessonInfo)) continue;
@@ -32,21 +37,21 @@ class SapienzaHelper {
                         if (name.endsWith(" ")) {
                             name = name.substring(0, name.length() - 1);
                         }
-                        lesson.setName(name.substring(startIdx, endIdx).trim());
-                    } else lesson.setName(name);
+                        lesson.setName(intern(os, name.substring(startIdx, endIdx).trim()));
+                    } else lesson.setName(intern(os, name));
                     int indexTeacher = name.indexOf("Docente:");
-                    if (indexTeacher != -1) lesson.setTeacher(name.substring(indexTeacher + "Docente: ".length()));
+                    if (indexTeacher != -1) lesson.setTeacher(intern(os, name.substring(indexTeacher + "Docente: ".length())));
                     break;
                 case "where":
-                    lesson.setWhere(response.getString(lessonInfo));
+                    lesson.setWhere(intern(os, response.getString(lessonInfo)));
                     break;
                 case "start":
-                    LocalDateTime startTime = LocalDateTime.parse(response.getString(lessonInfo), formatter);
+                    LocalDateTime startTime = SapienzaDates.parseTimetable(response.getString(lessonInfo));
                     startTime = startTime.plusHours(offset);
                     lesson.setStart(startTime);
                     break;
                 case "end":
-                    LocalDateTime endTime = LocalDateTime.parse(response.getString(lessonInfo), formatter);
+                    LocalDateTime endTime = SapienzaDates.parseTimetable(response.getString(lessonInfo));
                     endTime = endTime.plusHours(offset);
                     lesson.setEnd(endTime);
                     break;
@@ -76,11 +81,10 @@ class SapienzaHelper {
                     break;
                 case "dataOperazione":
                     if (response.isNull("dataOperazione")) break;
-                    DateTimeFormatter formatterOperation = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
                     String dateOperation = response.getString("dataOperazione");
                     if (!(dateOperation == null || dateOperation.isEmpty())) {
                         try {
-                            res.setDateOperation(LocalDate.parse(response.getString("dataOperazione"), formatterOperation));
+                            res.setDateOperation(SapienzaDates.parseDateOfDateTime(response.getString("dataOperazione")));
                         } catch (DateTimeParseException e) {
                             e.printStackTrace();
                             os.log(Level.SEVERE, e);
@@ -88,12 +92,11 @@ class SapienzaHelper {
                     }
                     break;
                 case "data":
-                    DateTimeFormatter formatterDateDeclaration = DateTimeFormatter.ofPattern("dd/MM/yyyy");
                     if (response.isNull("data")) return null;
                     String dateDeclaration = response.getString("data");
                     if (!(dateDeclaration == null || dateDeclaration.isEmpty())) {
                         try {
-                            res.setDateDeclaration(LocalDate.parse(response.getString("data"), formatterDateDeclaration));
+                            res.setDateDeclaration(SapienzaDates.parseDate(response.getString("data")));
                         } catch (DateTimeParseException e) {
                             e.printStackTrace();
                             os.log(Level.SEVERE, e);
@@ -108,50 +111,8 @@ class SapienzaHelper {
         return res;
     }
 
-    static List<PaymentDescription> extractPaymentDescriptionList(Openstud os, JSONArray array) {
-        List<PaymentDescription> list = new LinkedList<>();
-        if (array == null) return list;
-        for (int i = 0; i < array.length(); i++) {
-            JSONObject obj = array.getJSONObject(i);
-            PaymentDescription pdes = new PaymentDescription();
-            for (String element : obj.keySet()) {
-                switch (element) {
-                    case "descrizione":
-                        pdes.setDescription(obj.getString("descrizione"));
-                        break;
-                    case "importo":
-                        try {
-                            Double value = Double.parseDouble(obj.getString("importo"));
-                            pdes.setAmount(value);
-                        } catch (NumberFormatException e) {
-                            e.printStackTrace();
-                            os.log(Level.SEVERE, e);
-                        }
-                        break;
-                    case "annoAccademicoString":
-                        pdes.setAcademicYear(obj.getString("annoAccademicoString"));
-                        break;
-                    case "impoVers":
-                        try {
-                            Double valueVers = Double.parseDouble(obj.getString("impoVers"));
-                            pdes.setAmountPaid(valueVers);
-                        } catch (NumberFormatException e) {
-                            e.printStackTrace();
-                            os.log(Level.SEVERE, e);
-                        }
-                        break;
-                    default:
-                        break;
-                }
-            }
-            list.add(pdes);
-        }
-        return list;
-    }
-
     static List<ExamReservation> extractReservations(Openstud os, JSONArray array) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        List<ExamReservation> list = new LinkedList<>();
+        List<ExamReservation> list = new ArrayList<>(array.length());
         for (int i = 0; i < array.length(); i++) {
             JSONObject obj = array.getJSONObject(i);
             ExamReservation res = new ExamReservation();
@@ -161,7 +122,7 @@ class SapienzaHelper {
                         res.setReportID(obj.getInt("codIdenVerb"));
                         break;
                     case "canale":
-                        res.setChannel(obj.getString("canale"));
+                        res.setChannel(intern(os, obj.getString("canale")));
                         break;
                     case "codAppe":
                         res.setSessionID(obj.getInt("codAppe"));
@@ -170,22 +131,22 @@ class SapienzaHelper {
                         res.setCourseCode(Integer.parseInt(obj.getString("codCorsoStud")));
                         break;
                     case "descrizione":
-                        res.setExamSubject(obj.getString("descrizione"));
+                        res.setExamSubject(intern(os, obj.getString("descrizione")));
                         break;
                     case "descCorsoStud":
-                        res.setCourseDescription(obj.getString("descCorsoStud"));
+                        res.setCourseDescription(intern(os, obj.getString("descCorsoStud")));
                         break;
                     case "crediti":
                         res.setCfu(obj.getInt("crediti"));
                         break;
                     case "docente":
-                        res.setTeacher(obj.getString("docente"));
+                        res.setTeacher(intern(os, obj.getString("docente")));
                         break;
                     case "annoAcca":
                         res.setYearCourse(obj.getString("annoAcca"));
                         break;
                     case "facolta":
-                        res.setDepartment(obj.getString("facolta"));
+                        res.setDepartment(intern(os, obj.getString("facolta")));
                         break;
                     case "numeroPrenotazione":
                         if (obj.isNull("numeroPrenotazione")) break;
@@ -193,14 +154,14 @@ class SapienzaHelper {
                         break;
                     case "ssd":
                         if (obj.isNull("ssd")) break;
-                        res.setSsd(obj.getString("ssd"));
+                        res.setSsd(intern(os, obj.getString("ssd")));
                         break;
                     case "dataprenotazione":
                         if (obj.isNull("dataprenotazione")) break;
                         String reservationDate = obj.getString("dataprenotazione");
                         if (!(reservationDate == null || reservationDate.isEmpty())) {
                             try {
-                                res.setReservationDate(LocalDate.parse(reservationDate, formatter));
+                                res.setReservationDate(SapienzaDates.parseDate(reservationDate));
                             } catch (DateTimeParseException e) {
                                 e.printStackTrace();
                                 os.log(Level.SEVERE, e);
@@ -214,7 +175,7 @@ class SapienzaHelper {
                         String examDate = obj.getString("dataAppe");
                         if (!(examDate == null || examDate.isEmpty())) {
                             try {
-                                res.setExamDate(LocalDate.parse(examDate, formatter));
+                                res.setExamDate(SapienzaDates.parseDate(examDate));
                             } catch (DateTimeParseException e) {
                                 e.printStackTrace();
                                 os.log(Level.SEVERE, e);
@@ -226,7 +187,7 @@ class SapienzaHelper {
                         String startDate = obj.getString("dataInizioPrenotazione");
                         if (!(startDate == null || startDate.isEmpty())) {
                             try {
-                                res.setStartDate(LocalDate.parse(startDate, formatter));
+                                res.setStartDate(SapienzaDates.parseDate(startDate));
                             } catch (DateTimeParseException e) {
                                 e.printStackTrace();
                                 os.log(Level.SEVERE, e);
@@ -238,7 +199,7 @@ class SapienzaHelper {
                         String endDate = obj.getString("dataFinePrenotazione");
                         if (!(endDate == null || endDate.isEmpty())) {
                             try {
-                                res.setEndDate(LocalDate.parse(endDate, formatter));
+                                res.setEndDate(SapienzaDates.parseDate(endDate));
                             } catch (DateTimeParseException e) {
                                 e.printStackTrace();
                                 os.log(Level.SEVERE, e);
@@ -246,7 +207,7 @@ class SapienzaHelper {
                         }
                         break;
                     case "SiglaModuloDidattico":
-                        if (!obj.isNull("SiglaModuloDidattico")) res.setModule(obj.getString("SiglaModuloDidattico"));
+                        if (!obj.isNull("SiglaModuloDidattico")) res.setModule(intern(os, obj.getString("SiglaModuloDidattico")));
                         break;
                     case "modalitaSvolgimentoList":
                         if (!obj.isNull("modalitaSvolgimentoList")) res.setAttendingModesList(obj.getJSONArray("modalitaSvolgimentoList"));
@@ -263,13 +224,16 @@ class SapienzaHelper {
         return list;
     }
 
+    static byte[] extractPdf(JSONArray array) {
+        byte[] pdf = new byte[array.length()];
+        for (int i = 0; i < pdf.length; i++) pdf[i] = (byte) array.getInt(i);
+        return pdf;
+    }
+
     static Student extractStudent(Openstud os, JSONObject response) {
         Student st = new Student();
         st.setStudentID(os.getStudentID());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        EnglishLanguage lang = new EnglishLanguage(SpecialRules.ITALIAN);
-        lang.setCapitalizePostNominalsInitials(false);
-        Kapitalize kapitalize = new Kapitalize(lang);
+        NameCapitalizer capitalizer = NameCapitalizer.shared();
         for (String element : response.keySet()) {
             if (response.isNull(element)) continue;
             switch (element) {
@@ -277,19 +241,19 @@ class SapienzaHelper {
                     st.setSocialSecurityNumber(response.getString("codiceFiscale"));
                     break;
                 case "cognome":
-                    st.setLastName(kapitalize.capitalize(response.getString("cognome")));
+                    st.setLastName(capitalizer.capitalize(response.getString("cognome")));
                     break;
                 case "nome":
-                    st.setFirstName(kapitalize.capitalize(response.getString("nome")));
+                    st.setFirstName(capitalizer.capitalize(response.getString("nome")));
                     break;
                 case "aliasNome":
-                    st.setFirstName(kapitalize.capitalize(response.getString("aliasNome")));
+                    st.setFirstName(capitalizer.capitalize(response.getString("aliasNome")));
                     break;
                 case "dataDiNascita":
                     String dateBirth = response.getString("dataDiNascita");
                     if (!(dateBirth == null || dateBirth.isEmpty())) {
                         try {
-                            st.setBirthDate(LocalDate.parse(response.getString("dataDiNascita"), formatter));
+                            st.setBirthDate(SapienzaDates.parseDate(response.getString("dataDiNascita")));
                         } catch (DateTimeParseException e) {
                             e.printStackTrace();
                             os.log(Level.SEVERE, e);
@@ -297,10 +261,10 @@ class SapienzaHelper {
                     }
                     break;
                 case "comuneDiNasciata":
-                    st.setBirthCity(response.getString("comuneDiNasciata"));
+                    st.setBirthCity(intern(os, response.getString("comuneDiNasciata")));
                     break;
                 case "luogoDiNascita":
-                    st.setBirthPlace(response.getString("luogoDiNascita"));
+                    st.setBirthPlace(intern(os, response.getString("luogoDiNascita")));
                     break;
                 case "annoCorso":
                     st.setCourseYear(response.getString("annoCorso"));
@@ -312,10 +276,10 @@ class SapienzaHelper {
                     st.setLastEnrollment(response.getString("ultIscr"));
                     break;
                 case "facolta":
-                    st.setDepartmentName(response.getString("facolta"));
+                    st.setDepartmentName(intern(os, response.getString("facolta")));
                     break;
                 case "nomeCorso":
-                    st.setCourseName(response.getString("nomeCorso"));
+                    st.setCourseName(intern(os, response.getString("nomeCorso")));
                     break;
                 case "annoAccaAtt":
                     st.setAcademicYear(response.getInt("annoAccaAtt"));
@@ -327,13 +291,13 @@ class SapienzaHelper {
                     st.setTypeStudent(response.getInt("tipoStudente"));
                     break;
                 case "tipoIscrizione":
-                    st.setStudentStatus(response.getString("tipoIscrizione"));
+                    st.setStudentStatus(intern(os, response.getString("tipoIscrizione")));
                     break;
                 case "isErasmus":
                     st.setErasmus(response.getBoolean("isErasmus"));
                     break;
                 case "nazioneNascita":
-                    st.setNation(response.getString("nazioneNascita"));
+                    st.setNation(intern(os, response.getString("nazioneNascita")));
                     break;
                 case "creditiTotali":
                     String cfu = response.getString("creditiTotali");
@@ -358,6 +322,33 @@ class SapienzaHelper {
     }
 
 
+    static News extractNews(Element box, String locale, String websiteUrl) {
+        News news = new News();
+        news.setTitle(box.getElementsByTag("img").attr("title"));
+        if (news.getTitle().isEmpty()) return null;
+        news.setLocale(locale);
+        news.setUrl(websiteUrl + box.getElementsByTag("a").attr("href").trim());
+        news.setSmallImageUrl(box.getElementsByTag("img").attr("src"));
+        return news;
+    }
+
+    static void extractNewsDetails(News news, Document doc, boolean withDescription, DateTimeFormatter formatter) {
+        if (withDescription) {
+            Element start = doc.getElementsByAttributeValueEnding("class", "testosommario").first();
+            if (start != null)
+                news.setDescription(start.getElementsByClass("field-item even").first().text());
+        }
+        Element date = doc.getElementsByClass("date-display-single").first();
+        if (date != null) {
+            try {
+                news.setDate(LocalDate.parse(date.text().substring(date.text().indexOf(",") + 1).trim(), formatter));
+            } catch (DateTimeParseException e) {
+                e.printStackTrace();
+            }
+        }
+        news.setImageUrl(doc.getElementsByClass("img-responsive").attr("src"));
+    }
+
     static int getCertificateValue(CertificateType certificate) {
         switch (certificate) {
             case REGISTRATION:
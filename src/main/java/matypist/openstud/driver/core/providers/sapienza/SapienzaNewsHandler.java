@@ -3,9 +3,13 @@ package matypist.openstud.driver.core.providers.sapienza;
 import matypist.openstud.driver.core.Openstud;
 import matypist.openstud.driver.core.OpenstudHelper;
 import matypist.openstud.driver.core.internals.NewsHandler;
+import matypist.openstud.driver.core.internals.NewsStream;
 import matypist.openstud.driver.core.models.Event;
 import matypist.openstud.driver.core.models.EventType;
 import matypist.openstud.driver.core.models.News;
+import matypist.openstud.driver.core.resilience.Bulkhead;
+import matypist.openstud.driver.core.resilience.Upstream;
+import matypist.openstud.driver.core.search.NewsIndex;
 import matypist.openstud.driver.exceptions.OpenstudConnectionException;
 import matypist.openstud.driver.exceptions.OpenstudInvalidResponseException;
 import org.jsoup.Connection;
@@ -13,14 +17,13 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
-import org.threeten.bp.LocalDate;
 import org.threeten.bp.LocalDateTime;
 import org.threeten.bp.format.DateTimeFormatter;
 import org.threeten.bp.format.DateTimeFormatterBuilder;
 import org.threeten.bp.format.DateTimeParseException;
 
 import java.io.IOException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.logging.Level;
@@ -39,51 +42,90 @@ public class SapienzaNewsHandler implements NewsHandler {
         return _getNews(locale, withDescription, limit, page, maxPage, query);
     }
 
-    private List<News> _getNews(String locale, boolean withDescription, Integer limit, Integer page, Integer maxPage, String query) throws OpenstudConnectionException, OpenstudInvalidResponseException {
+    @Override
+    public NewsStream getNewsStream(String locale, boolean withDescription, Integer limit, Integer page, Integer maxPage, String query) {
+        if (limit == null && page == null && maxPage == null)
+            throw new IllegalStateException("limit, page and maxpage can't be all null");
         if (locale == null)
             locale = "en";
+        return new SapienzaNewsStream(os, locale, withDescription, limit, page, maxPage, query);
+    }
+
+    static Document getNewsListing(Openstud os, String locale, int page, String query) throws IOException {
+        Connection connection = Jsoup.connect(String.format("%s/%s/tutte-le-notizie", os.getEndpointWebsite(), locale))
+                .data("page", page + "");
+        if (query != null)
+            connection = connection.data("search_api_views_fulltext", query);
+        return fetch(os, connection);
+    }
+
+    /**
+     * Jsoup doesn't go through the HTTP client of the session, the website bulkhead is taken here.
+     */
+    static Document fetch(Openstud os, Connection connection) throws IOException {
+        Bulkhead bulkhead = os.getBulkhead(Upstream.WEBSITE);
+        bulkhead.acquire();
+        try {
+            return connection.get();
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * The index only answers queries for the first page of results, once the whole listing has been crawled.
+     */
+    static boolean canSearchLocally(Openstud os, String locale, boolean withDescription, Integer page, String query) {
+        if (query == null || (page != null && page != 0)) return false;
+        return os.getNewsIndex().isWarm(locale, withDescription);
+    }
+
+    static DateTimeFormatter getNewsDateFormatter(String locale) {
         Locale localeFormatter;
         if (locale.toLowerCase().equals("it")) localeFormatter = Locale.ITALIAN;
         else localeFormatter = Locale.ENGLISH;
+        return DateTimeFormatter.ofPattern("dd MMMM yyyy").withLocale(localeFormatter);
+    }
+
+    private List<News> _getNews(String locale, boolean withDescription, Integer limit, Integer page, Integer maxPage, String query) throws OpenstudConnectionException, OpenstudInvalidResponseException {
+        if (locale == null)
+            locale = "en";
+
+        NewsIndex index = os.getNewsIndex();
+        if (canSearchLocally(os, locale, withDescription, page, query)) return index.search(locale, query, limit);
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMMM yyyy").withLocale(localeFormatter);
+        DateTimeFormatter formatter = getNewsDateFormatter(locale);
+        long crawlStart = index.startCrawl();
         try {
-            List<News> ret = new LinkedList<>();
+            List<News> ret = new ArrayList<>();
             int startPage = 0;
             int endPage = maxPage == null ? 1 : maxPage;
             if (page != null) {
                 startPage = page;
                 endPage = startPage + 1;
             }
-            String website_url = "https://www.uniroma1.it";
-            String page_key = "page";
-            String query_key = "search_api_views_fulltext";
             boolean shouldStop = false;
+            boolean reachedEnd = false;
             int iterations = 0;
             int miss = 0;
             for (int i = startPage; i < endPage && !shouldStop; i++) {
-                Connection connection = Jsoup.connect(String.format("%s/%s/tutte-le-notizie", website_url, locale))
-                        .data(page_key, i + "");
-                if (query != null)
-                    connection = connection.data(query_key, query);
-                Document doc = connection.get();
+                Document doc = getNewsListing(os, locale, i, query);
                 Elements boxes = doc.getElementsByClass("box-news");
                 for (Element box : boxes) {
-                    News news = new News();
-                    news.setTitle(box.getElementsByTag("img").attr("title"));
+                    News news = SapienzaHelper.extractNews(box, locale, os.getEndpointWebsite());
                     // handle empty news
-                    if (news.getTitle().isEmpty())
+                    if (news == null)
                         continue;
-                    news.setLocale(locale);
-                    news.setUrl(website_url + box.getElementsByTag("a").attr("href").trim());
-                    news.setSmallImageUrl(box.getElementsByTag("img").attr("src"));
                     ret.add(news);
                     if (limit != null && ret.size() >= limit) {
                         shouldStop = true;
                         break;
                     }
                 }
-                if (boxes.isEmpty()) miss++;
+                if (boxes.isEmpty()) {
+                    miss++;
+                    reachedEnd = true;
+                }
                 iterations++;
             }
             if (iterations == miss) {
@@ -91,26 +133,15 @@ public class SapienzaNewsHandler implements NewsHandler {
                 os.log(Level.SEVERE, invalidResponse);
                 throw invalidResponse;
             }
-            LinkedList<News> ignored = new LinkedList<>();
+            List<News> ignored = new ArrayList<>();
             for (News news : ret) {
                 if (!OpenstudHelper.isValidUrl(news.getUrl())) ignored.add(news);
-                Document doc = Jsoup.connect(news.getUrl()).get();
-                if (withDescription) {
-                    Element start = doc.getElementsByAttributeValueEnding("class", "testosommario").first();
-                    if (start != null)
-                        news.setDescription(start.getElementsByClass("field-item even").first().text());
-                }
-                Element date = doc.getElementsByClass("date-display-single").first();
-                if (date != null) {
-                    try {
-                        news.setDate(LocalDate.parse(date.text().substring(date.text().indexOf(",") + 1).trim(), formatter));
-                    } catch (DateTimeParseException e) {
-                        e.printStackTrace();
-                    }
-                }
-                news.setImageUrl(doc.getElementsByClass("img-responsive").attr("src"));
+                Document doc = fetch(os, Jsoup.connect(news.getUrl()));
+                SapienzaHelper.extractNewsDetails(news, doc, withDescription, formatter);
             }
             ret.removeAll(ignored);
+            index.index(ret);
+            if (query == null && startPage == 0 && !shouldStop && reachedEnd) index.markCrawled(locale, withDescription, crawlStart);
             return ret;
 
         } catch (IOException e) {
@@ -127,10 +158,10 @@ public class SapienzaNewsHandler implements NewsHandler {
 
     private List<Event> _getNewsletterEvents() throws OpenstudInvalidResponseException, OpenstudConnectionException {
         try {
-            List<Event> ret = new LinkedList<>();
+            List<Event> ret = new ArrayList<>();
 
-            String website_url = "https://www.uniroma1.it/it/newsletter";
-            Document doc = Jsoup.connect(website_url).get();
+            String website_url = os.getEndpointWebsite() + "/it/newsletter";
+            Document doc = fetch(os, Jsoup.connect(website_url));
             Elements events = doc.getElementsByClass("event");
             DateTimeFormatter formatter = new DateTimeFormatterBuilder()
                     .appendOptional(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm"))
@@ -157,7 +188,7 @@ public class SapienzaNewsHandler implements NewsHandler {
                 Elements title = views.remove(0).getElementsByTag("a");
                 ev.setTitle(title.text());
                 ev.setUrl(title.attr("href"));
-                doc = Jsoup.connect(ev.getUrl()).get();
+                doc = fetch(os, Jsoup.connect(ev.getUrl()));
                 ev.setRoom(doc.getElementsByClass("views-field-field-apm-aula").first().text().trim().replaceAll(" ?- ?",", "));
                 ev.setWhere(doc.getElementsByClass("views-field-field-apm-edificio").first().text().trim());
                 Element image = doc.getElementsByClass("field-type-image").first();
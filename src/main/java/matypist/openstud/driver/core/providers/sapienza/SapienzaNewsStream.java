@@ -0,0 +1,202 @@
+package matypist.openstud.driver.core.providers.sapienza;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.OpenstudHelper;
+import matypist.openstud.driver.core.internals.NewsStream;
+import matypist.openstud.driver.core.models.News;
+import matypist.openstud.driver.exceptions.OpenstudConnectionException;
+import matypist.openstud.driver.exceptions.OpenstudInvalidResponseException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.threeten.bp.format.DateTimeFormatter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Lazily crawls the news listing: articles are emitted one by one as soon as their page is parsed,
+ * while the next listing page is fetched in background. Closing the stream stops the crawl.
+ */
+class SapienzaNewsStream implements NewsStream {
+    // shared by every stream, idle threads go away so that abandoned streams don't keep any
+    private static final ThreadPoolExecutor PREFETCHER = newPrefetcher();
+
+    private final Openstud os;
+    private final String locale;
+    private final boolean withDescription;
+    private final Integer limit;
+    private final String query;
+    private final DateTimeFormatter formatter;
+    private final int startPage;
+    private final int endPage;
+    private final long crawlStart;
+    private final Deque<News> pending = new ArrayDeque<>();
+    private Future<Document> nextListing;
+    private Iterator<News> local;
+    private News ready;
+    private int nextPage;
+    private int queued;
+    private int iterations;
+    private int miss;
+    private boolean reachedEnd;
+    private volatile boolean closed;
+
+    SapienzaNewsStream(Openstud os, String locale, boolean withDescription, Integer limit, Integer page, Integer maxPage, String query) {
+        this.os = os;
+        this.locale = locale;
+        this.withDescription = withDescription;
+        this.limit = limit;
+        this.query = query;
+        this.formatter = SapienzaNewsHandler.getNewsDateFormatter(locale);
+        int startPage = 0;
+        int end = maxPage == null ? 1 : maxPage;
+        if (page != null) {
+            startPage = page;
+            end = startPage + 1;
+        }
+        this.startPage = startPage;
+        this.nextPage = startPage;
+        this.endPage = end;
+        this.crawlStart = os.getNewsIndex().startCrawl();
+        if (SapienzaNewsHandler.canSearchLocally(os, locale, withDescription, page, query)) {
+            local = os.getNewsIndex().search(locale, query, limit).iterator();
+            return;
+        }
+        prefetchListing();
+    }
+
+    @Override
+    public boolean hasNext() throws OpenstudConnectionException, OpenstudInvalidResponseException {
+        if (ready != null) return true;
+        if (closed) return false;
+        if (local != null) {
+            if (local.hasNext()) {
+                ready = local.next();
+                return true;
+            }
+            close();
+            return false;
+        }
+        while (!closed) {
+            News candidate = pending.poll();
+            if (candidate == null) {
+                if (!loadNextListing()) {
+                    finish();
+                    return false;
+                }
+                continue;
+            }
+            if (!OpenstudHelper.isValidUrl(candidate.getUrl())) continue;
+            try {
+                Document doc = SapienzaNewsHandler.fetch(os, Jsoup.connect(candidate.getUrl()));
+                SapienzaHelper.extractNewsDetails(candidate, doc, withDescription, formatter);
+            } catch (IOException e) {
+                close();
+                OpenstudConnectionException connectionException = new OpenstudConnectionException(e);
+                os.log(Level.SEVERE, connectionException);
+                throw connectionException;
+            }
+            os.getNewsIndex().index(Collections.singletonList(candidate));
+            ready = candidate;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public News next() throws OpenstudConnectionException, OpenstudInvalidResponseException {
+        if (!hasNext()) throw new NoSuchElementException();
+        News ret = ready;
+        ready = null;
+        return ret;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (nextListing != null) nextListing.cancel(true);
+    }
+
+    private boolean limitReached() {
+        return limit != null && queued >= limit;
+    }
+
+    private void prefetchListing() {
+        if (closed || nextPage >= endPage || limitReached()) {
+            nextListing = null;
+            return;
+        }
+        final int page = nextPage++;
+        nextListing = PREFETCHER.submit(() -> SapienzaNewsHandler.getNewsListing(os, locale, page, query));
+    }
+
+    private boolean loadNextListing() throws OpenstudConnectionException {
+        if (nextListing == null) return false;
+        Document doc;
+        try {
+            doc = nextListing.get();
+        } catch (CancellationException e) {
+            return false;
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            close();
+            Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            OpenstudConnectionException connectionException = new OpenstudConnectionException(cause);
+            os.log(Level.SEVERE, connectionException);
+            throw connectionException;
+        }
+        Elements boxes = doc.getElementsByClass("box-news");
+        for (Element box : boxes) {
+            if (limitReached()) break;
+            News news = SapienzaHelper.extractNews(box, locale, os.getEndpointWebsite());
+            // handle empty news
+            if (news == null) continue;
+            pending.add(news);
+            queued++;
+        }
+        if (boxes.isEmpty()) {
+            miss++;
+            reachedEnd = true;
+        }
+        iterations++;
+        prefetchListing();
+        return true;
+    }
+
+    private void finish() throws OpenstudInvalidResponseException {
+        boolean cancelled = closed;
+        close();
+        if (cancelled) return;
+        if (iterations == miss) {
+            OpenstudInvalidResponseException invalidResponse = new OpenstudInvalidResponseException("invalid HTML").setHTMLType();
+            os.log(Level.SEVERE, invalidResponse);
+            throw invalidResponse;
+        }
+        // a crawl cut by the limit or by the last page doesn't cover the whole listing
+        if (query == null && startPage == 0 && !limitReached() && reachedEnd)
+            os.getNewsIndex().markCrawled(locale, withDescription, crawlStart);
+    }
+
+    private static ThreadPoolExecutor newPrefetcher() {
+        final AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 4, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "openstud-news-prefetch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -2,6 +2,8 @@ package matypist.openstud.driver.core.providers.sapienza;
 
 import matypist.openstud.driver.core.Openstud;
 import matypist.openstud.driver.core.internals.TaxHandler;
+import matypist.openstud.driver.core.json.JsonFormatException;
+import matypist.openstud.driver.core.json.JsonObjectView;
 import matypist.openstud.driver.core.models.Isee;
 import matypist.openstud.driver.core.models.Tax;
 import matypist.openstud.driver.exceptions.OpenstudConnectionException;
@@ -13,11 +15,9 @@ import okhttp3.Response;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.format.DateTimeFormatter;
 
 import java.io.IOException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 
@@ -85,7 +85,7 @@ public class SapienzaTaxHandler implements TaxHandler {
             if (resp.body() == null) throw new OpenstudInvalidResponseException("Infostud answer is not valid");
             String body = resp.body().string();
             resp.close();
-            os.log(Level.INFO, body);
+            os.logBody(Level.INFO, body);
             JSONObject response = new JSONObject(body);
             if (!response.has("risultato") || response.isNull("risultato"))
                 throw new OpenstudInvalidResponseException("Infostud answer is not valid, maybe the token is no longer valid");
@@ -95,7 +95,7 @@ public class SapienzaTaxHandler implements TaxHandler {
             JSONArray byteArray = response.getJSONArray("byte");
             byte[] pdf = new byte[byteArray.length()];
             for (int i = 0; i < byteArray.length(); i++) pdf[i] = (byte) byteArray.getInt(i);
-            os.log(Level.INFO, "Found PDF made of " + pdf.length + " bytes \n");
+            os.log(Level.INFO, () -> "Found PDF made of " + pdf.length + " bytes \n");
             return pdf;
         } catch (IOException e) {
             OpenstudConnectionException connectionException = new OpenstudConnectionException(e);
@@ -141,79 +141,24 @@ public class SapienzaTaxHandler implements TaxHandler {
             else partial = "bollettininonpagati";
             Request req = new Request.Builder().url(String.format("%s/contabilita/%s/%s?ingresso=%s", os.getEndpointAPI(), os.getStudentID(), partial, os.getToken())).build();
             Response resp = os.getClient().newCall(req).execute();
-            List<Tax> list = new LinkedList<>();
             if (resp.body() == null) throw new OpenstudInvalidResponseException("Infostud answer is not valid");
             String body = resp.body().string();
             resp.close();
-            os.log(Level.INFO, body);
-            JSONObject response = new JSONObject(body);
+            os.logBody(Level.INFO, body);
+            JsonObjectView response = os.getJsonEngine().parseObject(body);
             if (!response.has("risultatoLista"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid. I guess the token is no longer valid");
             if (response.isNull("risultatoLista"))
-                return new LinkedList<>();
-            response = response.getJSONObject("risultatoLista");
-            if (!response.has("risultati") || response.isNull("risultati")) return new LinkedList<>();
-            JSONArray array = response.getJSONArray("risultati");
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-            for (int i = 0; i < array.length(); i++) {
-                JSONObject obj = array.getJSONObject(i);
-                Tax tax = new Tax();
-                for (String element : obj.keySet()) {
-                    switch (element) {
-                        case "codiceBollettino":
-                            tax.setCode(obj.getString(element));
-                            break;
-                        case "corsoDiStudi":
-                            tax.setCodeCourse(obj.getString(element));
-                            break;
-                        case "descCorsoDiStudi":
-                            tax.setDescriptionCourse(obj.getString(element));
-                            break;
-                        case "impoVers":
-                            try {
-                                String content = obj.getString(element);
-                                if (!content.isEmpty()) tax.setAmount(Double.parseDouble(obj.getString(element)));
-                            } catch (NumberFormatException e) {
-                                e.printStackTrace();
-                                os.log(Level.SEVERE, e);
-                            }
-                            break;
-                        case "annoAcca":
-                            tax.setAcademicYear(obj.getInt(element));
-                            break;
-                        case "dataVers":
-                            if (!paid) break;
-                            tax.setPaymentDate(LocalDate.parse(obj.getString(element), formatter));
-                            break;
-                        case "importoBollettino":
-                            if (obj.isNull(element)) break;
-                            try {
-                                double value = Double.parseDouble(obj.getString(element).replace(",", "."));
-                                tax.setAmount(value);
-                            } catch (NumberFormatException e) {
-                                e.printStackTrace();
-                                os.log(Level.SEVERE, e);
-                            }
-                            break;
-                        case "scadenza":
-                            if (obj.getString(element).isEmpty()) continue;
-                            tax.setExpirationDate(LocalDate.parse(obj.getString(element), formatter));
-                            break;
-                        default:
-                            break;
-                    }
-                }
-                tax.setPaymentDescriptionList(SapienzaHelper.extractPaymentDescriptionList(os, obj.getJSONArray("causali")));
-                if (paid) tax.setStatus(Tax.TaxStatus.PAID);
-                else tax.setStatus(Tax.TaxStatus.UNPAID);
-                list.add(tax);
-            }
-            return list;
+                return new ArrayList<>();
+            response = response.getObject("risultatoLista");
+            if (!response.has("risultati") || response.isNull("risultati")) return new ArrayList<>();
+            if (paid) return SapienzaBinders.PAID_TAX.bindAll(os, response.getArray("risultati"));
+            return SapienzaBinders.UNPAID_TAX.bindAll(os, response.getArray("risultati"));
         } catch (IOException e) {
             OpenstudConnectionException connectionException = new OpenstudConnectionException(e);
             os.log(Level.SEVERE, connectionException);
             throw connectionException;
-        } catch (JSONException e) {
+        } catch (JsonFormatException e) {
             OpenstudInvalidResponseException invalidResponse = new OpenstudInvalidResponseException(e).setJSONType();
             os.log(Level.SEVERE, invalidResponse);
             throw invalidResponse;
@@ -251,7 +196,7 @@ public class SapienzaTaxHandler implements TaxHandler {
             if (resp.body() == null) throw new OpenstudInvalidResponseException("Infostud answer is not valid");
             String body = resp.body().string();
             resp.close();
-            os.log(Level.INFO, body);
+            os.logBody(Level.INFO, body);
             JSONObject response = new JSONObject(body);
             if (!response.has("risultato"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid. I guess the token is no longer valid");
@@ -295,17 +240,17 @@ public class SapienzaTaxHandler implements TaxHandler {
         try {
             Request req = new Request.Builder().url(String.format("%s/contabilita/%s/listaIsee?ingresso=%s", os.getEndpointAPI(), os.getStudentID(), os.getToken())).build();
             Response resp = os.getClient().newCall(req).execute();
-            List<Isee> list = new LinkedList<>();
             if (resp.body() == null) throw new OpenstudInvalidResponseException("Infostud answer is not valid");
             String body = resp.body().string();
             resp.close();
-            os.log(Level.INFO, body);
+            os.logBody(Level.INFO, body);
             JSONObject response = new JSONObject(body);
             if (!response.has("risultatoLista"))
                 throw new OpenstudInvalidResponseException("Infostud response is not valid. I guess the token is no longer valid");
             response = response.getJSONObject("risultatoLista");
-            if (!response.has("risultati") || response.isNull("risultati")) return new LinkedList<>();
+            if (!response.has("risultati") || response.isNull("risultati")) return new ArrayList<>();
             JSONArray array = response.getJSONArray("risultati");
+            List<Isee> list = new ArrayList<>(array.length());
             for (int i = 0; i < array.length(); i++) {
                 Isee result = SapienzaHelper.extractIsee(os, array.getJSONObject(i));
                 if (result == null) continue;
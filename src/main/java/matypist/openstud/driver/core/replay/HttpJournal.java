@@ -0,0 +1,190 @@
+package matypist.openstud.driver.core.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only journal of HTTP exchanges kept in a memory-mapped file. Numbers are stored as varints and
+ * every record is prefixed by its length, which is written last so that an interrupted append is ignored
+ * when the journal is opened again. The mapping doubles whenever it is full and the file is trimmed on close.
+ */
+public class HttpJournal implements Closeable {
+    private static final int MAGIC = 0x4f534a31;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int INITIAL_SIZE = 1024 * 1024;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long startNanos = System.nanoTime();
+    private MappedByteBuffer buffer;
+    private int writePosition = HEADER_SIZE;
+    private int size;
+    private boolean closed;
+
+    public HttpJournal(File file) throws IOException {
+        if (file == null) throw new IllegalArgumentException("File can't be left null");
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+            throw new IOException("Unable to create journal directory " + parent);
+        this.file = new RandomAccessFile(file, "rw");
+        this.channel = this.file.getChannel();
+        long length = this.file.length();
+        if (length > Integer.MAX_VALUE) throw new IOException("Journal is too big " + length);
+        boolean existing = length >= HEADER_SIZE;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_SIZE, length));
+        if (existing && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION) scan();
+        else {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(HEADER_SIZE, 0);
+        }
+    }
+
+    /**
+     * Milliseconds elapsed since the journal was opened, used as offset of the recorded exchanges.
+     */
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public synchronized void append(RecordedExchange exchange) throws IOException {
+        if (closed) throw new IOException("Journal is closed");
+        byte[] record = encode(exchange);
+        ensureCapacity(4 + record.length + 4);
+        ByteBuffer view = buffer.duplicate();
+        view.position(writePosition + 4);
+        view.put(record);
+        view.putInt(0);
+        buffer.putInt(writePosition, record.length);
+        writePosition += 4 + record.length;
+        size++;
+    }
+
+    public synchronized List<RecordedExchange> read() {
+        List<RecordedExchange> ret = new ArrayList<>(size);
+        int position = HEADER_SIZE;
+        while (position < writePosition) {
+            int length = buffer.getInt(position);
+            ByteBuffer view = buffer.duplicate();
+            view.position(position + 4);
+            view.limit(position + 4 + length);
+            ret.add(decode(view));
+            position += 4 + length;
+        }
+        return ret;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getUsedBytes() {
+        return writePosition;
+    }
+
+    public synchronized void flush() {
+        if (!closed) buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        buffer.force();
+        closed = true;
+        try {
+            channel.truncate(writePosition + 4);
+        } finally {
+            file.close();
+        }
+    }
+
+    private void scan() {
+        int position = HEADER_SIZE;
+        while (position + 4 <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + 4L + length > buffer.capacity()) break;
+            position += 4 + length;
+            size++;
+        }
+        writePosition = position;
+        if (position + 4 <= buffer.capacity()) buffer.putInt(position, 0);
+    }
+
+    private void ensureCapacity(int needed) throws IOException {
+        long required = (long) writePosition + needed;
+        if (required <= buffer.capacity()) return;
+        long capacity = buffer.capacity();
+        while (capacity < required) capacity *= 2;
+        if (capacity > Integer.MAX_VALUE) throw new IOException("Journal is full");
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private static byte[] encode(RecordedExchange exchange) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + exchange.getBody().length);
+        writeVarLong(out, exchange.getOffsetMillis());
+        writeVarLong(out, exchange.getDurationMillis());
+        writeVarLong(out, exchange.getCode());
+        writeString(out, exchange.getMethod());
+        writeString(out, exchange.getUrl());
+        writeString(out, exchange.getContentType());
+        writeVarLong(out, exchange.getBody().length);
+        out.write(exchange.getBody(), 0, exchange.getBody().length);
+        return out.toByteArray();
+    }
+
+    private static RecordedExchange decode(ByteBuffer in) {
+        long offset = readVarLong(in);
+        long duration = readVarLong(in);
+        int code = (int) readVarLong(in);
+        String method = readString(in);
+        String url = readString(in);
+        String contentType = readString(in);
+        byte[] body = new byte[(int) readVarLong(in)];
+        in.get(body);
+        return new RecordedExchange(offset, duration, method, url, code, contentType, body);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    // null is stored as length zero, the journal never needs to tell it apart from the empty string
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long ret = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            ret |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return ret;
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        if (length == 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,123 @@
+package matypist.openstud.driver.core.replay;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Masks credentials before an exchange is written to a journal. Replay applies the same rules to the
+ * incoming requests, so a session logged in with the masked token finds the recorded answers.
+ * A value cut short at the end of a text, like a truncated log line, is masked as well.
+ */
+public class HttpRedactor {
+    public static final String MASK = "REDACTED";
+    private static final Pattern OUTPUT_PATTERN = Pattern.compile("(\"output\"\\s*:\\s*)\"(?:[^\"\\\\]|\\\\.)*(?:\"|\\\\?$)");
+    private static final HttpRedactor DEFAULT = new HttpRedactor(
+            new HashSet<>(Arrays.asList("ingresso", "key", "stringaAutenticazione", "passwd", "password")),
+            new HashSet<>(Arrays.asList("tokeniws", "passwd", "password", "stringaAutenticazione")));
+    private static final HttpRedactor LOGS = new HttpRedactor(DEFAULT.queryParameters,
+            new HashSet<>(Arrays.asList("tokeniws", "output", "passwd", "password", "stringaAutenticazione", "codiceFiscale",
+                    "dataDiNascita", "luogoDiNascita", "comuneDiNasciata", "indirizzo", "telefono", "cellulare", "email",
+                    "indiMailIstituzionale", "indirizzoEmail")));
+    private final Set<String> queryParameters;
+    private final Set<String> jsonFields;
+    private final Pattern jsonPattern;
+
+    public HttpRedactor(Set<String> queryParameters, Set<String> jsonFields) {
+        this.queryParameters = Collections.unmodifiableSet(new HashSet<>(queryParameters));
+        this.jsonFields = Collections.unmodifiableSet(new HashSet<>(jsonFields));
+        StringBuilder alternatives = new StringBuilder();
+        for (String field : this.jsonFields) {
+            if (alternatives.length() > 0) alternatives.append('|');
+            alternatives.append(Pattern.quote(field));
+        }
+        this.jsonPattern = alternatives.length() == 0 ? null : Pattern.compile("(\"(?:" + alternatives + ")\"\\s*:\\s*)\"(?:[^\"\\\\]|\\\\.)*(?:\"|\\\\?$)");
+    }
+
+    /**
+     * Masks the Infostud token, the application key and the credentials sent by the Sapienza provider.
+     */
+    public static HttpRedactor defaults() {
+        return DEFAULT;
+    }
+
+    /**
+     * Masks, besides the credentials, the personal data of the student that would otherwise end up in logs.
+     */
+    public static HttpRedactor forLogs() {
+        return LOGS;
+    }
+
+    public Set<String> getQueryParameters() {
+        return queryParameters;
+    }
+
+    public Set<String> getJsonFields() {
+        return jsonFields;
+    }
+
+    public String redactUrl(String url) {
+        if (url == null) return null;
+        int query = url.indexOf('?');
+        if (query < 0 || queryParameters.isEmpty()) return url;
+        int fragment = url.indexOf('#', query);
+        int end = fragment < 0 ? url.length() : fragment;
+        StringBuilder ret = new StringBuilder(url.length()).append(url, 0, query + 1);
+        int start = query + 1;
+        while (start <= end) {
+            int next = url.indexOf('&', start);
+            if (next < 0 || next > end) next = end;
+            int equals = url.indexOf('=', start);
+            if (equals >= 0 && equals < next && queryParameters.contains(url.substring(start, equals)))
+                ret.append(url, start, equals + 1).append(MASK);
+            else ret.append(url, start, next);
+            if (next < end) ret.append('&');
+            start = next + 1;
+        }
+        if (fragment >= 0) ret.append(url, fragment, url.length());
+        return ret.toString();
+    }
+
+    /**
+     * Masks the string values of the sensitive fields of a JSON answer, any other body is left untouched.
+     * The legacy login answers with the bare token in "output", so that field is masked on that path only.
+     */
+    public byte[] redactBody(String url, String contentType, byte[] body) {
+        if (body == null || body.length == 0 || !isText(contentType, body)) return body;
+        String text = new String(body, StandardCharsets.UTF_8);
+        String ret = redactText(url, text);
+        return ret == text ? body : ret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Masks the string values of the sensitive fields of a JSON text, url can be null.
+     */
+    public String redactText(String url, String text) {
+        if (text == null || text.isEmpty()) return text;
+        String ret = text;
+        if (jsonPattern != null) ret = replace(jsonPattern, ret);
+        if (url != null && url.contains("/autenticazione")) ret = replace(OUTPUT_PATTERN, ret);
+        return ret;
+    }
+
+    private static String replace(Pattern pattern, String text) {
+        Matcher matcher = pattern.matcher(text);
+        if (!matcher.find()) return text;
+        StringBuffer ret = new StringBuffer(text.length());
+        do {
+            matcher.appendReplacement(ret, Matcher.quoteReplacement(matcher.group(1) + "\"" + MASK + "\""));
+        } while (matcher.find());
+        matcher.appendTail(ret);
+        return ret.toString();
+    }
+
+    private static boolean isText(String contentType, byte[] body) {
+        if (contentType != null) return contentType.contains("json") || contentType.startsWith("text/");
+        byte first = body[0];
+        return first == '{' || first == '[';
+    }
+}
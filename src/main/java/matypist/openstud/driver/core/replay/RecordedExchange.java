@@ -0,0 +1,66 @@
+package matypist.openstud.driver.core.replay;
+
+/**
+ * A request/response pair captured by {@link RecordingInterceptor}, already redacted.
+ */
+public class RecordedExchange {
+    private final long offsetMillis;
+    private final long durationMillis;
+    private final String method;
+    private final String url;
+    private final int code;
+    private final String contentType;
+    private final byte[] body;
+
+    public RecordedExchange(long offsetMillis, long durationMillis, String method, String url, int code, String contentType, byte[] body) {
+        this.offsetMillis = offsetMillis;
+        this.durationMillis = durationMillis;
+        this.method = method;
+        this.url = url;
+        this.code = code;
+        this.contentType = contentType;
+        this.body = body == null ? new byte[0] : body;
+    }
+
+    /**
+     * Milliseconds between the opening of the journal and the start of the request.
+     */
+    public long getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return "RecordedExchange{" +
+                "method='" + method + '\'' +
+                ", url='" + url + '\'' +
+                ", code=" + code +
+                ", durationMillis=" + durationMillis +
+                ", bodyLength=" + body.length +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package matypist.openstud.driver.core.replay;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends every exchange of the session to a {@link HttpJournal}. The answer is buffered in memory so that
+ * the caller reads it as usual. Request bodies are never recorded, the credentials they carry included.
+ */
+public class RecordingInterceptor implements Interceptor {
+    private final HttpJournal journal;
+    private final HttpRedactor redactor;
+
+    public RecordingInterceptor(HttpJournal journal) {
+        this(journal, HttpRedactor.defaults());
+    }
+
+    public RecordingInterceptor(HttpJournal journal, HttpRedactor redactor) {
+        if (journal == null) throw new IllegalArgumentException("Journal can't be left null");
+        this.journal = journal;
+        this.redactor = redactor;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        long offset = journal.elapsedMillis();
+        long start = System.nanoTime();
+        Response response = chain.proceed(request);
+        ResponseBody body = response.body();
+        if (body == null) return response;
+        MediaType type = body.contentType();
+        byte[] bytes;
+        try {
+            bytes = body.bytes();
+        } finally {
+            body.close();
+        }
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        String url = redactor.redactUrl(request.url().toString());
+        String contentType = type == null ? null : type.toString();
+        journal.append(new RecordedExchange(offset, duration, request.method(), url, response.code(), contentType,
+                redactor.redactBody(url, contentType, bytes)));
+        return response.newBuilder().body(ResponseBody.create(bytes, type)).build();
+    }
+}
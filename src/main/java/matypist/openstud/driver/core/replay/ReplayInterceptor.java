@@ -0,0 +1,82 @@
+package matypist.openstud.driver.core.replay;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers the requests of the session from recorded exchanges without touching the network. Requests are
+ * matched by method and redacted URL; the exchanges recorded for the same request are served in order and
+ * the last one is repeated once they are exhausted.
+ */
+public class ReplayInterceptor implements Interceptor {
+    private final Map<String, List<RecordedExchange>> exchanges = new HashMap<>();
+    private final Map<String, Integer> cursors = new HashMap<>();
+    private final ReplayMode mode;
+    private final HttpRedactor redactor;
+
+    public ReplayInterceptor(HttpJournal journal, ReplayMode mode) {
+        this(journal.read(), mode, HttpRedactor.defaults());
+    }
+
+    public ReplayInterceptor(List<RecordedExchange> recorded, ReplayMode mode, HttpRedactor redactor) {
+        this.mode = mode == null ? ReplayMode.FULL_SPEED : mode;
+        this.redactor = redactor;
+        for (RecordedExchange exchange : recorded) {
+            String key = key(exchange.getMethod(), exchange.getUrl());
+            List<RecordedExchange> list = exchanges.get(key);
+            if (list == null) {
+                list = new ArrayList<>();
+                exchanges.put(key, list);
+            }
+            list.add(exchange);
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RecordedExchange exchange = next(key(request.method(), redactor.redactUrl(request.url().toString())));
+        if (exchange == null)
+            throw new IOException("No recorded exchange for " + request.method() + " " + redactor.redactUrl(request.url().toString()));
+        if (mode == ReplayMode.RECORDED_LATENCY && exchange.getDurationMillis() > 0) {
+            try {
+                Thread.sleep(exchange.getDurationMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Replay interrupted");
+            }
+        }
+        MediaType type = exchange.getContentType() == null ? null : MediaType.parse(exchange.getContentType());
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(exchange.getCode())
+                .message("Replayed")
+                .body(ResponseBody.create(exchange.getBody(), type))
+                .build();
+    }
+
+    private synchronized RecordedExchange next(String key) {
+        List<RecordedExchange> list = exchanges.get(key);
+        if (list == null) return null;
+        Integer cursor = cursors.get(key);
+        int index = cursor == null ? 0 : cursor;
+        if (index < list.size() - 1) cursors.put(key, index + 1);
+        return list.get(index);
+    }
+
+    private static String key(String method, String url) {
+        return method + " " + url;
+    }
+}
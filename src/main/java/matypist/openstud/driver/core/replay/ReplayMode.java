@@ -0,0 +1,12 @@
+package matypist.openstud.driver.core.replay;
+
+public enum ReplayMode {
+    /**
+     * Answers as soon as the request is issued.
+     */
+    FULL_SPEED,
+    /**
+     * Holds every answer for as long as the original exchange took.
+     */
+    RECORDED_LATENCY
+}
@@ -0,0 +1,118 @@
+package matypist.openstud.driver.core.resilience;
+
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the concurrent requests to a single upstream. Requests over the limit wait in a bounded queue, for at most
+ * the configured time, and are rejected with a {@link BulkheadFullException} when the queue is full or the wait is over.
+ * Every session gets its own {@link #defaults(Upstream)} unless it is built with
+ * {@link matypist.openstud.driver.core.OpenstudBuilder#setSharedBulkheads()} or given a bulkhead.
+ */
+public class Bulkhead {
+    private static final Map<Upstream, Bulkhead> SHARED = new EnumMap<>(Upstream.class);
+
+    static {
+        for (Upstream upstream : Upstream.values()) SHARED.put(upstream, defaults(upstream));
+    }
+
+    private final Upstream upstream;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public Bulkhead(Upstream upstream, int maxConcurrent, int maxQueued, long maxWaitMillis) {
+        if (upstream == null) throw new IllegalArgumentException("Upstream can't be left null");
+        if (maxConcurrent <= 0) throw new IllegalArgumentException("Invalid concurrency limit " + maxConcurrent);
+        if (maxQueued < 0) throw new IllegalArgumentException("Invalid queue size " + maxQueued);
+        if (maxWaitMillis < 0) throw new IllegalArgumentException("Invalid wait time " + maxWaitMillis);
+        this.upstream = upstream;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Process-wide bulkhead of the upstream, with the {@link #defaults(Upstream)} limits, for the sessions that opt in
+     * to share their limits with {@link matypist.openstud.driver.core.OpenstudBuilder#setSharedBulkheads()}.
+     */
+    public static Bulkhead shared(Upstream upstream) {
+        if (upstream == null) throw new IllegalArgumentException("Upstream can't be left null");
+        return SHARED.get(upstream);
+    }
+
+    /**
+     * Creates a bulkhead with the default limits: latency critical Infostud calls get the largest share, the news
+     * website and student photos the smallest.
+     */
+    public static Bulkhead defaults(Upstream upstream) {
+        switch (upstream) {
+            case API:
+                return new Bulkhead(upstream, 16, 64, TimeUnit.SECONDS.toMillis(10));
+            case TIMETABLE:
+                return new Bulkhead(upstream, 8, 32, TimeUnit.SECONDS.toMillis(10));
+            default:
+                return new Bulkhead(upstream, 4, 16, TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Takes a slot, waiting in the queue if needed. Every successful call must be followed by {@link #release()}.
+     */
+    public void acquire() throws BulkheadFullException, InterruptedIOException {
+        if (permits.tryAcquire()) return;
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new BulkheadFullException(upstream);
+        }
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                throw new BulkheadFullException(upstream);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + upstream);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public Upstream getUpstream() {
+        return upstream;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,21 @@
+package matypist.openstud.driver.core.resilience;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request when the bulkhead of its upstream has no free slot and its queue is full,
+ * or the request waited too long in the queue. Handlers wrap it in an
+ * {@link matypist.openstud.driver.exceptions.OpenstudConnectionException}.
+ */
+public class BulkheadFullException extends IOException {
+    private final Upstream upstream;
+
+    public BulkheadFullException(Upstream upstream) {
+        super("Too many concurrent requests to " + upstream);
+        this.upstream = upstream;
+    }
+
+    public Upstream getUpstream() {
+        return upstream;
+    }
+}
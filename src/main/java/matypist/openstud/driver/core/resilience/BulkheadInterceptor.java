@@ -0,0 +1,35 @@
+package matypist.openstud.driver.core.resilience;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Runs every request of the session inside the bulkhead of its upstream. The slot is held until the response
+ * headers are received, requests that don't belong to any upstream are not limited.
+ */
+public class BulkheadInterceptor implements Interceptor {
+    private final Function<String, Bulkhead> bulkheads;
+
+    /**
+     * @param bulkheads returns the bulkhead of a request URL, or null
+     */
+    public BulkheadInterceptor(Function<String, Bulkhead> bulkheads) {
+        if (bulkheads == null) throw new IllegalArgumentException("Bulkheads can't be left null");
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Bulkhead bulkhead = bulkheads.apply(chain.request().url().toString());
+        if (bulkhead == null) return chain.proceed(chain.request());
+        bulkhead.acquire();
+        try {
+            return chain.proceed(chain.request());
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package matypist.openstud.driver.core.resilience;
+
+/**
+ * Circuit breaker of a single upstream host. It opens right away on a maintenance answer and after a number
+ * of consecutive connection failures, rejects every request while open and, once the open period is over,
+ * lets a limited number of probes through: the first one that succeeds closes it again.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String host;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final int halfOpenProbes;
+    private State state = State.CLOSED;
+    private boolean maintenance;
+    private int consecutiveFailures;
+    private long openedAt;
+    private int probesInFlight;
+    private long rejected;
+    private long trips;
+
+    CircuitBreaker(String host, int failureThreshold, long openMillis, int halfOpenProbes) {
+        this.host = host;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * Returns false if the request must be rejected, otherwise the outcome of the request must be reported
+     * with one of {@link #onSuccess()}, {@link #onFailure()}, {@link #onMaintenance()} or {@link #onIgnored()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMillis) {
+                rejected++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                rejected++;
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            probesInFlight = 0;
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            trip(false);
+            return;
+        }
+        if (++consecutiveFailures >= failureThreshold && state == State.CLOSED) trip(false);
+    }
+
+    public synchronized void onMaintenance() {
+        if (state != State.OPEN) trip(true);
+    }
+
+    /**
+     * Releases a probe whose outcome says nothing about the host, e.g. a cancelled request.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probesInFlight > 0) probesInFlight--;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) return State.HALF_OPEN;
+        return state;
+    }
+
+    /**
+     * Milliseconds left before the breaker lets probes through, 0 if it is not open.
+     */
+    public synchronized long getRetryAfterMillis() {
+        if (state != State.OPEN) return 0;
+        return Math.max(0, openMillis - (System.currentTimeMillis() - openedAt));
+    }
+
+    /**
+     * Returns true if the breaker was last opened by a maintenance answer.
+     */
+    public synchronized boolean isMaintenance() {
+        return maintenance;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public synchronized long getTrips() {
+        return trips;
+    }
+
+    private void trip(boolean maintenance) {
+        state = State.OPEN;
+        this.maintenance = maintenance;
+        openedAt = System.currentTimeMillis();
+        consecutiveFailures = 0;
+        probesInFlight = 0;
+        trips++;
+    }
+}
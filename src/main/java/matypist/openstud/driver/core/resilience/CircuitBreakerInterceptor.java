@@ -0,0 +1,72 @@
+package matypist.openstud.driver.core.resilience;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+
+/**
+ * Guards every request of the session with the circuit breaker of its host. The Infostud maintenance page trips
+ * the breaker right away, connection failures and 503 answers without that page count towards its threshold and
+ * any other answer is a success. While the breaker is open requests fail with a {@link CircuitOpenException}, or
+ * with a local copy of the maintenance page if that is what opened it, so that callers keep reporting maintenance.
+ */
+public class CircuitBreakerInterceptor implements Interceptor {
+    private static final String MAINTENANCE_MARKER = "the page you are looking for is currently unavailable";
+    private static final long MAINTENANCE_PEEK_BYTES = 16 * 1024;
+    private static final String MAINTENANCE_PAGE = "<html><body><p>Sorry, " + MAINTENANCE_MARKER + ".</p></body></html>";
+
+    private final CircuitBreakerRegistry registry;
+
+    public CircuitBreakerInterceptor(CircuitBreakerRegistry registry) {
+        if (registry == null) throw new IllegalArgumentException("Registry can't be left null");
+        this.registry = registry;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        HttpUrl url = chain.request().url();
+        CircuitBreaker breaker = registry.get(url.host(), url.port());
+        if (!breaker.tryAcquire()) {
+            if (breaker.isMaintenance()) return maintenancePage(chain.request());
+            throw new CircuitOpenException(breaker.getHost(), breaker.getRetryAfterMillis());
+        }
+        Response response = null;
+        try {
+            response = chain.proceed(chain.request());
+            // the body is peeked before reporting: a read that fails here must still release the breaker
+            if (isMaintenance(response)) breaker.onMaintenance();
+            else if (response.code() == 503) breaker.onFailure();
+            else breaker.onSuccess();
+            return response;
+        } catch (IOException e) {
+            if (response != null) response.close();
+            if (chain.call() != null && chain.call().isCanceled()) breaker.onIgnored();
+            else breaker.onFailure();
+            throw e;
+        } catch (RuntimeException e) {
+            if (response != null) response.close();
+            breaker.onIgnored();
+            throw e;
+        }
+    }
+
+    private static boolean isMaintenance(Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) return false;
+        MediaType type = body.contentType();
+        if (type == null || !type.toString().contains("html")) return false;
+        return response.peekBody(MAINTENANCE_PEEK_BYTES).string().contains(MAINTENANCE_MARKER);
+    }
+
+    private static Response maintenancePage(Request request) {
+        return new Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(503).message("Service Unavailable")
+                .body(ResponseBody.create(MAINTENANCE_PAGE, MediaType.get("text/html; charset=utf-8")))
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package matypist.openstud.driver.core.resilience;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breakers keyed by upstream host and port. Sessions sharing a registry stop calling a host together,
+ * by default every session uses {@link #shared()}.
+ */
+public class CircuitBreakerRegistry {
+    private static final CircuitBreakerRegistry SHARED = new CircuitBreakerRegistry(5, TimeUnit.SECONDS.toMillis(30), 1);
+
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final int failureThreshold;
+    private final long openMillis;
+    private final int halfOpenProbes;
+
+    public CircuitBreakerRegistry(int failureThreshold, long openMillis, int halfOpenProbes) {
+        if (failureThreshold <= 0) throw new IllegalArgumentException("Invalid failure threshold " + failureThreshold);
+        if (openMillis < 0) throw new IllegalArgumentException("Invalid open period " + openMillis);
+        if (halfOpenProbes <= 0) throw new IllegalArgumentException("Invalid number of probes " + halfOpenProbes);
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * Opens after 5 consecutive failures, connection errors or 503 answers, stays open for 30 seconds and then lets a
+     * single probe through.
+     */
+    public static CircuitBreakerRegistry shared() {
+        return SHARED;
+    }
+
+    public CircuitBreaker get(String host, int port) {
+        String key = host + ":" + port;
+        CircuitBreaker breaker = breakers.get(key);
+        if (breaker != null) return breaker;
+        CircuitBreaker created = new CircuitBreaker(key, failureThreshold, openMillis, halfOpenProbes);
+        breaker = breakers.putIfAbsent(key, created);
+        return breaker == null ? created : breaker;
+    }
+
+    public Collection<CircuitBreaker> getBreakers() {
+        return new ArrayList<>(breakers.values());
+    }
+
+    public void reset() {
+        breakers.clear();
+    }
+}
@@ -0,0 +1,27 @@
+package matypist.openstud.driver.core.resilience;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request to a host whose circuit breaker is open. Handlers wrap it in an
+ * {@link matypist.openstud.driver.exceptions.OpenstudConnectionException}, see
+ * {@link matypist.openstud.driver.exceptions.OpenstudConnectionException#isCircuitOpen()}.
+ */
+public class CircuitOpenException extends IOException {
+    private final String host;
+    private final long retryAfterMillis;
+
+    public CircuitOpenException(String host, long retryAfterMillis) {
+        super("Circuit open for " + host + ", retry in " + retryAfterMillis + " ms");
+        this.host = host;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
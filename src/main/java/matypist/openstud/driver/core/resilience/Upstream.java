@@ -0,0 +1,8 @@
+package matypist.openstud.driver.core.resilience;
+
+/**
+ * Upstream services reached by a session, each one isolated by its own {@link Bulkhead}.
+ */
+public enum Upstream {
+    API, LOGIN, TIMETABLE, WEBSITE, PHOTO
+}
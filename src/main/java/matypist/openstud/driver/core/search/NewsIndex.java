@@ -0,0 +1,303 @@
+package matypist.openstud.driver.core.search;
+
+import matypist.openstud.driver.core.models.News;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over crawled news titles and descriptions, partitioned by locale.
+ * Queries are ranked with BM25 and every query token also matches indexed terms starting with it.
+ * A locale is warm, and can answer queries on its own, only for a while after a crawl of the whole listing.
+ */
+public class NewsIndex {
+    private static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_BOOST = 3;
+    private static final double PREFIX_PENALTY = 0.6;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final Map<String, LocaleIndex> indexes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long ttlMillis;
+    private long sequence;
+
+    public NewsIndex() {
+        this(DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * @param ttlMillis how long a complete crawl keeps the locale warm
+     */
+    public NewsIndex(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    public void index(Collection<News> news) {
+        lock.writeLock().lock();
+        try {
+            for (News item : news) {
+                if (item == null || item.getUrl() == null) continue;
+                localeIndex(item.getLocale()).add(item, sequence++);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the mark to pass to {@link #markCrawled(String, boolean, long)} once a crawl started now completes.
+     */
+    public long startCrawl() {
+        lock.readLock().lock();
+        try {
+            return sequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records a crawl of the whole listing of the locale, from the first page until the listing ran out.
+     * News not indexed again since {@code crawlStart} are no longer listed and are removed.
+     * Partial crawls must not be recorded, the index couldn't answer the queries they don't cover.
+     */
+    public void markCrawled(String locale, boolean withDescription, long crawlStart) {
+        lock.writeLock().lock();
+        try {
+            LocaleIndex index = localeIndex(locale);
+            index.removeBefore(crawlStart);
+            long now = System.currentTimeMillis();
+            index.crawledAt = now;
+            if (withDescription) index.crawledWithDescriptionAt = now;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isWarm(String locale, boolean withDescription) {
+        lock.readLock().lock();
+        try {
+            LocaleIndex index = indexes.get(normalizeLocale(locale));
+            if (index == null || index.documents.isEmpty()) return false;
+            long crawledAt = withDescription ? index.crawledWithDescriptionAt : index.crawledAt;
+            return crawledAt > 0 && System.currentTimeMillis() - crawledAt < ttlMillis;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size(String locale) {
+        lock.readLock().lock();
+        try {
+            LocaleIndex index = indexes.get(normalizeLocale(locale));
+            return index == null ? 0 : index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<News> search(String locale, String query, Integer limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) return new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            LocaleIndex index = indexes.get(normalizeLocale(locale));
+            if (index == null || index.documents.isEmpty()) return new ArrayList<>();
+            return index.search(tokens, limit == null ? Integer.MAX_VALUE : limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear(String locale) {
+        lock.writeLock().lock();
+        try {
+            indexes.remove(normalizeLocale(locale));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            indexes.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private LocaleIndex localeIndex(String locale) {
+        String key = normalizeLocale(locale);
+        LocaleIndex index = indexes.get(key);
+        if (index == null) {
+            index = new LocaleIndex();
+            indexes.put(key, index);
+        }
+        return index;
+    }
+
+    private static String normalizeLocale(String locale) {
+        if (locale == null) return "en";
+        return locale.toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) current.append(Character.toLowerCase(c));
+            else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) tokens.add(current.toString());
+        return tokens;
+    }
+
+    private static class LocaleIndex {
+        private final Map<String, Document> documents = new HashMap<>();
+        private final TreeMap<String, Map<Document, Integer>> postings = new TreeMap<>();
+        private long totalLength;
+        private long crawledAt;
+        private long crawledWithDescriptionAt;
+
+        void add(News news, long sequence) {
+            Document previous = documents.remove(news.getUrl());
+            if (previous != null) remove(previous);
+            // descriptions can't be searched anymore until the next crawl that fetches them
+            if (isEmpty(news.getDescription()) && (previous == null || !isEmpty(previous.news.getDescription())))
+                crawledWithDescriptionAt = 0;
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = 0;
+            for (String token : tokenize(news.getTitle())) {
+                frequencies.put(token, getOrZero(frequencies, token) + TITLE_BOOST);
+                length += TITLE_BOOST;
+            }
+            for (String token : tokenize(news.getDescription())) {
+                frequencies.put(token, getOrZero(frequencies, token) + 1);
+                length++;
+            }
+            Document doc = new Document(news, frequencies, length, sequence);
+            documents.put(news.getUrl(), doc);
+            totalLength += length;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                Map<Document, Integer> posting = postings.get(entry.getKey());
+                if (posting == null) {
+                    posting = new HashMap<>();
+                    postings.put(entry.getKey(), posting);
+                }
+                posting.put(doc, entry.getValue());
+            }
+        }
+
+        void remove(Document doc) {
+            for (String term : doc.frequencies.keySet()) {
+                Map<Document, Integer> posting = postings.get(term);
+                if (posting == null) continue;
+                posting.remove(doc);
+                if (posting.isEmpty()) postings.remove(term);
+            }
+            totalLength -= doc.length;
+        }
+
+        void removeBefore(long sequence) {
+            Iterator<Document> iterator = documents.values().iterator();
+            while (iterator.hasNext()) {
+                Document doc = iterator.next();
+                if (doc.sequence >= sequence) continue;
+                iterator.remove();
+                remove(doc);
+            }
+        }
+
+        List<News> search(List<String> tokens, int limit) {
+            int count = documents.size();
+            double averageLength = count == 0 ? 0 : (double) totalLength / count;
+            Map<Document, double[]> scores = new HashMap<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                Map<Document, Double> matches = new HashMap<>();
+                collect(postings.get(token), 1.0, count, averageLength, matches);
+                if (token.length() >= MIN_PREFIX_LENGTH) {
+                    SortedMap<String, Map<Document, Integer>> range = postings.subMap(token, token + Character.MAX_VALUE);
+                    for (Map.Entry<String, Map<Document, Integer>> entry : range.entrySet()) {
+                        if (entry.getKey().equals(token)) continue;
+                        collect(entry.getValue(), PREFIX_PENALTY, count, averageLength, matches);
+                    }
+                }
+                for (Map.Entry<Document, Double> match : matches.entrySet()) {
+                    double[] score = scores.get(match.getKey());
+                    if (score == null) {
+                        score = new double[2];
+                        scores.put(match.getKey(), score);
+                    }
+                    score[0] += match.getValue();
+                    score[1]++;
+                }
+            }
+            List<Map.Entry<Document, double[]>> ranked = new ArrayList<>(scores.entrySet());
+            final int queryTerms = tokens.size();
+            Collections.sort(ranked, (o1, o2) -> {
+                double s1 = o1.getValue()[0] * o1.getValue()[1] / queryTerms;
+                double s2 = o2.getValue()[0] * o2.getValue()[1] / queryTerms;
+                if (s1 != s2) return Double.compare(s2, s1);
+                return Long.compare(o2.getKey().sequence, o1.getKey().sequence);
+            });
+            List<News> ret = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (Map.Entry<Document, double[]> entry : ranked) {
+                if (ret.size() >= limit) break;
+                ret.add(entry.getKey().news);
+            }
+            return ret;
+        }
+
+        private void collect(Map<Document, Integer> posting, double weight, int count, double averageLength,
+                             Map<Document, Double> matches) {
+            if (posting == null || posting.isEmpty()) return;
+            double idf = Math.log(1 + (count - posting.size() + 0.5) / (posting.size() + 0.5));
+            for (Map.Entry<Document, Integer> entry : posting.entrySet()) {
+                Document doc = entry.getKey();
+                int tf = entry.getValue();
+                double norm = K1 * (1 - B + B * (averageLength == 0 ? 1 : doc.length / averageLength));
+                double score = weight * idf * (tf * (K1 + 1)) / (tf + norm);
+                Double best = matches.get(doc);
+                if (best == null || best < score) matches.put(doc, score);
+            }
+        }
+
+        private static boolean isEmpty(String text) {
+            return text == null || text.isEmpty();
+        }
+
+        private static int getOrZero(Map<String, Integer> map, String key) {
+            Integer value = map.get(key);
+            return value == null ? 0 : value;
+        }
+    }
+
+    private static class Document {
+        private final News news;
+        private final Map<String, Integer> frequencies;
+        private final int length;
+        private final long sequence;
+
+        Document(News news, Map<String, Integer> frequencies, int length, long sequence) {
+            this.news = news;
+            this.frequencies = frequencies;
+            this.length = length;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package matypist.openstud.driver.core.sync;
+
+public final class PartResult<T> {
+    private final T value;
+    private final Exception error;
+    private final long elapsedMillis;
+
+    private PartResult(T value, Exception error, long elapsedMillis) {
+        this.value = value;
+        this.error = error;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    static <T> PartResult<T> success(T value, long elapsedMillis) {
+        return new PartResult<>(value, null, elapsedMillis);
+    }
+
+    static <T> PartResult<T> failure(Exception error, long elapsedMillis) {
+        return new PartResult<>(null, error, elapsedMillis);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "PartResult{" +
+                (isSuccess() ? "value=" + value : "error=" + error) +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,7 @@
+package matypist.openstud.driver.core.sync;
+
+import matypist.openstud.driver.core.Openstud;
+
+public interface PollListener {
+    void onResult(Openstud os, SyncPart part, PartResult<?> result);
+}
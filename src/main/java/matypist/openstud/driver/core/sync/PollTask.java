@@ -0,0 +1,5 @@
+package matypist.openstud.driver.core.sync;
+
+public interface PollTask {
+    void poll() throws Exception;
+}
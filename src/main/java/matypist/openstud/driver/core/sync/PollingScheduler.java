@@ -0,0 +1,234 @@
+package matypist.openstud.driver.core.sync;
+
+import matypist.openstud.driver.core.Openstud;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs periodic polls for many accounts from a single dispatcher thread and a fixed pool of workers.
+ * Polls are kept in a {@link TimingWheel}, their first run is spread over the whole interval and every
+ * following run is jittered, so that accounts registered together don't hit the server together.
+ * When the global {@link TokenBucket} is exhausted, due polls are queued behind each other instead of being sent,
+ * and leave the queue in the order they became due as soon as the budget allows.
+ */
+public class PollingScheduler implements Closeable {
+    private final TimingWheel wheel;
+    private final long tickNanos;
+    private final double jitter;
+    private final TokenBucket budget;
+    private final ExecutorService executor;
+    private final boolean ownExecutor;
+    private final Queue<ScheduledPoll> incoming = new ConcurrentLinkedQueue<>();
+    // polls waiting for the budget, only accessed by the dispatcher thread
+    private final ArrayDeque<ScheduledPoll> backlog = new ArrayDeque<>();
+    private final Map<String, Map<String, ScheduledPoll>> accounts = new ConcurrentHashMap<>();
+    private final AtomicInteger scheduled = new AtomicInteger();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    PollingScheduler(PollingSchedulerBuilder builder) {
+        if (builder.tickMillis <= 0) throw new IllegalArgumentException("Tick must be positive");
+        if (builder.jitter < 0 || builder.jitter > 1) throw new IllegalArgumentException("Jitter must be between 0 and 1");
+        if (builder.permitsPerSecond < 0) throw new IllegalArgumentException("Rate limit can't be negative");
+        if (builder.executor == null && builder.workers <= 0) throw new IllegalArgumentException("Workers must be positive");
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(builder.tickMillis);
+        this.wheel = new TimingWheel(tickNanos, builder.wheelSize, System.nanoTime());
+        this.jitter = builder.jitter;
+        this.budget = builder.permitsPerSecond > 0 ? new TokenBucket(builder.permitsPerSecond, builder.burst) : null;
+        this.ownExecutor = builder.executor == null;
+        if (ownExecutor) {
+            final AtomicInteger counter = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(builder.workers, runnable -> {
+                Thread thread = new Thread(runnable, "openstud-poll-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else this.executor = builder.executor;
+        this.dispatcher = new Thread(this::dispatch, "openstud-poll-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Polls the given endpoint of an account every interval, replacing the poll previously registered for the same pair.
+     * A run is never started while the previous one of the same poll is still in progress.
+     */
+    public ScheduledPoll schedule(String accountId, String endpoint, long interval, TimeUnit unit, PollTask task) {
+        if (closed) throw new IllegalStateException("Scheduler is closed");
+        if (accountId == null || endpoint == null || task == null)
+            throw new IllegalArgumentException("Account, endpoint and task can't be left null");
+        long intervalMillis = unit.toMillis(interval);
+        if (intervalMillis <= 0) throw new IllegalArgumentException("Interval must be positive");
+        ScheduledPoll poll = new ScheduledPoll(this, accountId, endpoint, intervalMillis, task);
+        Map<String, ScheduledPoll> endpoints = accounts.get(accountId);
+        if (endpoints == null) {
+            Map<String, ScheduledPoll> created = new ConcurrentHashMap<>(4);
+            endpoints = accounts.putIfAbsent(accountId, created);
+            if (endpoints == null) endpoints = created;
+        }
+        ScheduledPoll previous = endpoints.put(endpoint, poll);
+        if (previous != null) previous.markCancelled();
+        else scheduled.incrementAndGet();
+        // the first run falls anywhere in the interval, so that polls registered together are spread evenly
+        poll.deadline = System.nanoTime() + (long) (ThreadLocalRandom.current().nextDouble() * TimeUnit.MILLISECONDS.toNanos(intervalMillis));
+        incoming.add(poll);
+        return poll;
+    }
+
+    /**
+     * Periodically fetches a part of the profile of the given session, see {@link ProfileSynchronizer}.
+     */
+    public ScheduledPoll schedule(final Openstud os, final SyncPart part, long interval, TimeUnit unit, final PollListener listener) {
+        if (os == null || part == null) throw new IllegalArgumentException("Openstud instance and part can't be left null");
+        return schedule(os.getStudentID(), part.name(), interval, unit, () -> {
+            PartResult<?> result = ProfileSynchronizer.fetch(os, part);
+            if (!result.isSuccess()) failed.incrementAndGet();
+            if (listener != null) listener.onResult(os, part, result);
+        });
+    }
+
+    public ScheduledPoll getPoll(String accountId, String endpoint) {
+        Map<String, ScheduledPoll> endpoints = accounts.get(accountId);
+        return endpoints == null ? null : endpoints.get(endpoint);
+    }
+
+    public List<ScheduledPoll> getPolls(String accountId) {
+        Map<String, ScheduledPoll> endpoints = accounts.get(accountId);
+        return endpoints == null ? new ArrayList<>() : new ArrayList<>(endpoints.values());
+    }
+
+    public void cancel(String accountId) {
+        Map<String, ScheduledPoll> endpoints = accounts.remove(accountId);
+        if (endpoints == null) return;
+        for (ScheduledPoll poll : endpoints.values()) {
+            poll.markCancelled();
+            scheduled.decrementAndGet();
+        }
+    }
+
+    public int getAccountCount() {
+        return accounts.size();
+    }
+
+    public int getScheduledCount() {
+        return scheduled.get();
+    }
+
+    public long getExecutedCount() {
+        return executed.get();
+    }
+
+    /**
+     * @return number of times a due poll was postponed because the rate budget was exhausted
+     */
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(dispatcher);
+        for (String accountId : new ArrayList<>(accounts.keySet())) cancel(accountId);
+        if (ownExecutor) executor.shutdownNow();
+    }
+
+    void remove(ScheduledPoll poll) {
+        Map<String, ScheduledPoll> endpoints = accounts.get(poll.getAccountId());
+        if (endpoints == null || !endpoints.remove(poll.getEndpoint(), poll)) return;
+        scheduled.decrementAndGet();
+        if (endpoints.isEmpty()) accounts.remove(poll.getAccountId(), endpoints);
+    }
+
+    private void dispatch() {
+        List<TimingWheel.Timeout> due = new ArrayList<>();
+        while (!closed) {
+            ScheduledPoll poll;
+            while ((poll = incoming.poll()) != null) {
+                if (!poll.isCancelled()) wheel.add(poll);
+            }
+            drainBacklog();
+            wheel.advance(System.nanoTime(), due);
+            for (TimingWheel.Timeout timeout : due) {
+                ScheduledPoll current = (ScheduledPoll) timeout;
+                if (current.isCancelled()) continue;
+                // once polls are waiting for the budget, new ones line up behind them instead of competing for permits
+                if (budget != null && (!backlog.isEmpty() || !budget.tryAcquire())) {
+                    throttled.incrementAndGet();
+                    backlog.add(current);
+                    continue;
+                }
+                submit(current);
+            }
+            due.clear();
+            long sleep = wheel.nextTickNanos() - System.nanoTime();
+            // wake up as soon as the next permit is available rather than on the next tick
+            if (!backlog.isEmpty()) sleep = Math.min(sleep, budget.nanosUntilAvailable());
+            if (sleep > 0) LockSupport.parkNanos(this, sleep);
+        }
+    }
+
+    private void drainBacklog() {
+        ScheduledPoll next;
+        while ((next = backlog.peek()) != null) {
+            if (!next.isCancelled() && !budget.tryAcquire()) return;
+            backlog.poll();
+            if (!next.isCancelled()) submit(next);
+        }
+    }
+
+    private void submit(final ScheduledPoll poll) {
+        try {
+            executor.execute(() -> run(poll));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            reschedule(poll);
+        }
+    }
+
+    private void run(ScheduledPoll poll) {
+        try {
+            if (!poll.isCancelled()) poll.task.poll();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+        } finally {
+            executed.incrementAndGet();
+            poll.setLastRun(System.currentTimeMillis());
+            reschedule(poll);
+        }
+    }
+
+    private void reschedule(ScheduledPoll poll) {
+        if (closed || poll.isCancelled()) return;
+        long interval = TimeUnit.MILLISECONDS.toNanos(poll.getIntervalMillis());
+        long spread = (long) (interval * jitter * (ThreadLocalRandom.current().nextDouble() * 2 - 1));
+        poll.deadline = System.nanoTime() + Math.max(tickNanos, interval + spread);
+        incoming.add(poll);
+    }
+}
@@ -0,0 +1,58 @@
+package matypist.openstud.driver.core.sync;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class PollingSchedulerBuilder {
+    long tickMillis = 100;
+    int wheelSize = 512;
+    double jitter = 0.1;
+    double permitsPerSecond;
+    int burst = 1;
+    int workers = 4;
+    ExecutorService executor;
+
+    public PollingSchedulerBuilder setTick(long tick, TimeUnit unit) {
+        this.tickMillis = unit.toMillis(tick);
+        return this;
+    }
+
+    public PollingSchedulerBuilder setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+        return this;
+    }
+
+    /**
+     * @param jitter fraction of the interval by which every run is randomly anticipated or delayed, between 0 and 1
+     */
+    public PollingSchedulerBuilder setJitter(double jitter) {
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * Global budget of requests sent upstream, shared by every account. A rate of 0 disables the limit.
+     */
+    public PollingSchedulerBuilder setRateLimit(double permitsPerSecond, int burst) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        return this;
+    }
+
+    public PollingSchedulerBuilder setWorkers(int workers) {
+        this.workers = workers;
+        return this;
+    }
+
+    /**
+     * Executor running the polls, it is not shut down when the scheduler is closed.
+     */
+    public PollingSchedulerBuilder setExecutor(ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public PollingScheduler build() {
+        return new PollingScheduler(this);
+    }
+}
@@ -0,0 +1,111 @@
+package matypist.openstud.driver.core.sync;
+
+import matypist.openstud.driver.core.models.*;
+
+import java.util.*;
+
+/**
+ * Immutable result of {@link ProfileSynchronizer#sync(SyncPart...)}. Every requested part holds either its value
+ * or the exception raised while fetching it; parts that were not requested are absent.
+ */
+public final class ProfileSnapshot {
+    private final String studentID;
+    private final long timestamp;
+    private final long elapsedMillis;
+    private final Map<SyncPart, PartResult<?>> results;
+
+    ProfileSnapshot(String studentID, long timestamp, long elapsedMillis, Map<SyncPart, PartResult<?>> results) {
+        this.studentID = studentID;
+        this.timestamp = timestamp;
+        this.elapsedMillis = elapsedMillis;
+        this.results = Collections.unmodifiableMap(new EnumMap<>(results));
+    }
+
+    public String getStudentID() {
+        return studentID;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public Set<SyncPart> getParts() {
+        return results.keySet();
+    }
+
+    public PartResult<?> getResult(SyncPart part) {
+        return results.get(part);
+    }
+
+    public boolean isSuccess(SyncPart part) {
+        PartResult<?> result = results.get(part);
+        return result != null && result.isSuccess();
+    }
+
+    public boolean isComplete() {
+        for (PartResult<?> result : results.values()) {
+            if (!result.isSuccess()) return false;
+        }
+        return true;
+    }
+
+    public Map<SyncPart, Exception> getErrors() {
+        Map<SyncPart, Exception> ret = new EnumMap<>(SyncPart.class);
+        for (Map.Entry<SyncPart, PartResult<?>> entry : results.entrySet()) {
+            if (!entry.getValue().isSuccess()) ret.put(entry.getKey(), entry.getValue().getError());
+        }
+        return ret;
+    }
+
+    public Student getStudent() {
+        return value(SyncPart.INFO_STUDENT);
+    }
+
+    public List<ExamDone> getExamsDone() {
+        return value(SyncPart.EXAMS_DONE);
+    }
+
+    public List<ExamDoable> getExamsDoable() {
+        return value(SyncPart.EXAMS_DOABLE);
+    }
+
+    public List<ExamReservation> getActiveReservations() {
+        return value(SyncPart.ACTIVE_RESERVATIONS);
+    }
+
+    public List<Tax> getPaidTaxes() {
+        return value(SyncPart.PAID_TAXES);
+    }
+
+    public List<Tax> getUnpaidTaxes() {
+        return value(SyncPart.UNPAID_TAXES);
+    }
+
+    public Isee getCurrentIsee() {
+        return value(SyncPart.CURRENT_ISEE);
+    }
+
+    public StudentCard getStudentCard() {
+        return value(SyncPart.STUDENT_CARD);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T value(SyncPart part) {
+        PartResult<?> result = results.get(part);
+        return result == null ? null : (T) result.getValue();
+    }
+
+    @Override
+    public String toString() {
+        return "ProfileSnapshot{" +
+                "studentID='" + studentID + '\'' +
+                ", timestamp=" + timestamp +
+                ", elapsedMillis=" + elapsedMillis +
+                ", results=" + results +
+                '}';
+    }
+}
@@ -0,0 +1,93 @@
+package matypist.openstud.driver.core.sync;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.models.Student;
+import matypist.openstud.driver.core.trace.Tracer;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+
+/**
+ * Fetches the parts of a student profile concurrently, so that a sync takes about as long as the slowest endpoint.
+ * Handlers that hit an expired token all wait for the same refresh, see {@link Openstud#refreshToken()}.
+ */
+public class ProfileSynchronizer {
+    private final Openstud os;
+    private final ExecutorService executor;
+
+    public ProfileSynchronizer(Openstud os, ExecutorService executor) {
+        if (os == null) throw new IllegalArgumentException("Openstud instance can't be left null");
+        if (executor == null) throw new IllegalArgumentException("Executor can't be left null");
+        this.os = os;
+        this.executor = executor;
+    }
+
+    public ProfileSnapshot sync(SyncPart... parts) {
+        Set<SyncPart> requested = parts == null || parts.length == 0 ? EnumSet.allOf(SyncPart.class) : EnumSet.copyOf(Arrays.asList(parts));
+        long start = System.currentTimeMillis();
+        Map<SyncPart, Future<PartResult<?>>> futures = new EnumMap<>(SyncPart.class);
+        for (final SyncPart part : requested) futures.put(part, executor.submit(Tracer.propagate("branch:" + part, () -> fetch(os, part))));
+        Map<SyncPart, PartResult<?>> results = new EnumMap<>(SyncPart.class);
+        boolean interrupted = false;
+        for (Map.Entry<SyncPart, Future<PartResult<?>>> entry : futures.entrySet()) {
+            PartResult<?> result;
+            try {
+                if (interrupted) {
+                    entry.getValue().cancel(true);
+                    result = PartResult.failure(new InterruptedException(), System.currentTimeMillis() - start);
+                } else result = entry.getValue().get();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                entry.getValue().cancel(true);
+                result = PartResult.failure(e, System.currentTimeMillis() - start);
+            } catch (ExecutionException e) {
+                Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                result = PartResult.failure(cause, System.currentTimeMillis() - start);
+            }
+            results.put(entry.getKey(), result);
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        return new ProfileSnapshot(os.getStudentID(), start, System.currentTimeMillis() - start, results);
+    }
+
+    static PartResult<?> fetch(Openstud os, SyncPart part) {
+        long start = System.currentTimeMillis();
+        try {
+            return PartResult.success(invoke(os, part), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            os.log(Level.WARNING, () -> "Sync of " + part + " failed: " + e);
+            return PartResult.failure(e, System.currentTimeMillis() - start);
+        }
+    }
+
+    private static Object invoke(Openstud os, SyncPart part) throws Exception {
+        switch (part) {
+            case INFO_STUDENT:
+                return os.getInfoStudent();
+            case EXAMS_DONE:
+                return unmodifiable(os.getExamsDone());
+            case EXAMS_DOABLE:
+                return unmodifiable(os.getExamsDoable());
+            case ACTIVE_RESERVATIONS:
+                return unmodifiable(os.getActiveReservations());
+            case PAID_TAXES:
+                return unmodifiable(os.getPaidTaxes());
+            case UNPAID_TAXES:
+                return unmodifiable(os.getUnpaidTaxes());
+            case CURRENT_ISEE:
+                return os.getCurrentIsee();
+            case STUDENT_CARD:
+                // the card only needs the student id, no need to wait for the student infos
+                Student student = new Student();
+                student.setStudentID(os.getStudentID());
+                return os.getStudentCard(student, true);
+            default:
+                throw new IllegalArgumentException("Unknown part " + part);
+        }
+    }
+
+    private static <T> List<T> unmodifiable(List<T> list) {
+        return list == null ? null : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+}
@@ -0,0 +1,78 @@
+package matypist.openstud.driver.core.sync;
+
+/**
+ * Handle of a periodic poll registered in a {@link PollingScheduler}.
+ */
+public final class ScheduledPoll extends TimingWheel.Timeout {
+    private final PollingScheduler scheduler;
+    private final String accountId;
+    private final String endpoint;
+    final PollTask task;
+    private volatile long intervalMillis;
+    private volatile long lastRun;
+    private volatile boolean cancelled;
+
+    ScheduledPoll(PollingScheduler scheduler, String accountId, String endpoint, long intervalMillis, PollTask task) {
+        this.scheduler = scheduler;
+        this.accountId = accountId;
+        this.endpoint = endpoint;
+        this.intervalMillis = intervalMillis;
+        this.task = task;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * The new interval is applied from the next run on.
+     */
+    public void setIntervalMillis(long intervalMillis) {
+        if (intervalMillis <= 0) throw new IllegalArgumentException("Interval must be positive");
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * @return the time in milliseconds of the last completed run, 0 if it never ran
+     */
+    public long getLastRun() {
+        return lastRun;
+    }
+
+    void setLastRun(long lastRun) {
+        this.lastRun = lastRun;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void cancel() {
+        if (cancelled) return;
+        cancelled = true;
+        scheduler.remove(this);
+    }
+
+    void markCancelled() {
+        cancelled = true;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledPoll{" +
+                "accountId='" + accountId + '\'' +
+                ", endpoint='" + endpoint + '\'' +
+                ", intervalMillis=" + intervalMillis +
+                ", lastRun=" + lastRun +
+                ", cancelled=" + cancelled +
+                '}';
+    }
+}
@@ -0,0 +1,5 @@
+package matypist.openstud.driver.core.sync;
+
+public enum SyncPart {
+    INFO_STUDENT, EXAMS_DONE, EXAMS_DOABLE, ACTIVE_RESERVATIONS, PAID_TAXES, UNPAID_TAXES, CURRENT_ISEE, STUDENT_CARD
+}
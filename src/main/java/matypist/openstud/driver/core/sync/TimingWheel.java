@@ -0,0 +1,79 @@
+package matypist.openstud.driver.core.sync;
+
+import java.util.List;
+
+/**
+ * Hashed timing wheel: insertion is O(1) whatever the number of pending timeouts and every tick only visits
+ * one bucket. Timeouts further than a full turn stay in their bucket and count down the remaining rounds.
+ * Not thread-safe, it is meant to be driven by a single dispatcher thread.
+ */
+final class TimingWheel {
+    private final Timeout[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final long start;
+    private long tick;
+    private int size;
+
+    TimingWheel(long tickNanos, int wheelSize, long startNanos) {
+        if (tickNanos <= 0) throw new IllegalArgumentException("Tick must be positive");
+        if (wheelSize <= 0 || wheelSize > 1 << 20) throw new IllegalArgumentException("Invalid wheel size " + wheelSize);
+        int normalized = Integer.highestOneBit(wheelSize);
+        if (normalized < wheelSize) normalized <<= 1;
+        this.buckets = new Timeout[normalized];
+        this.mask = normalized - 1;
+        this.tickNanos = tickNanos;
+        this.start = startNanos;
+    }
+
+    void add(Timeout timeout) {
+        long ticks = (timeout.deadline - start + tickNanos - 1) / tickNanos;
+        if (ticks < tick) ticks = tick;
+        timeout.rounds = (ticks - tick) / buckets.length;
+        int index = (int) (ticks & mask);
+        timeout.next = buckets[index];
+        buckets[index] = timeout;
+        size++;
+    }
+
+    /**
+     * Processes every tick elapsed up to now, adding the expired timeouts to the given list.
+     */
+    void advance(long now, List<Timeout> expired) {
+        long target = (now - start) / tickNanos;
+        while (tick <= target) {
+            int index = (int) (tick & mask);
+            Timeout previous = null;
+            Timeout current = buckets[index];
+            while (current != null) {
+                Timeout next = current.next;
+                if (current.rounds <= 0) {
+                    if (previous == null) buckets[index] = next;
+                    else previous.next = next;
+                    current.next = null;
+                    size--;
+                    expired.add(current);
+                } else {
+                    current.rounds--;
+                    previous = current;
+                }
+                current = next;
+            }
+            tick++;
+        }
+    }
+
+    long nextTickNanos() {
+        return start + tick * tickNanos;
+    }
+
+    int size() {
+        return size;
+    }
+
+    abstract static class Timeout {
+        long deadline;
+        long rounds;
+        Timeout next;
+    }
+}
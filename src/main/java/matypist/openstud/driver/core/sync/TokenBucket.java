@@ -0,0 +1,51 @@
+package matypist.openstud.driver.core.sync;
+
+/**
+ * Rate limiter refilled continuously at a fixed rate, allowing bursts up to its capacity.
+ */
+public class TokenBucket {
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) throw new IllegalArgumentException("Rate must be positive");
+        if (burst < 1) throw new IllegalArgumentException("Burst must be at least 1");
+        this.permitsPerNano = permitsPerSecond / 1e9;
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill(System.nanoTime());
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * @return nanoseconds until a permit will be available, 0 if one is available now
+     */
+    public synchronized long nanosUntilAvailable() {
+        refill(System.nanoTime());
+        if (tokens >= 1) return 0;
+        return (long) Math.ceil((1 - tokens) / permitsPerNano);
+    }
+
+    public synchronized double getAvailablePermits() {
+        refill(System.nanoTime());
+        return tokens;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerNano * 1e9;
+    }
+
+    private void refill(long now) {
+        if (now <= lastRefill) return;
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+}
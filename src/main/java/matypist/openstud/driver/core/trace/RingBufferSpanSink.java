@@ -0,0 +1,55 @@
+package matypist.openstud.driver.core.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the latest ended spans in memory, the oldest ones are overwritten once the buffer is full.
+ */
+public class RingBufferSpanSink implements SpanSink {
+    private final Span[] spans;
+    private int next;
+    private int size;
+    private long dropped;
+
+    public RingBufferSpanSink(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Invalid capacity " + capacity);
+        spans = new Span[capacity];
+    }
+
+    @Override
+    public synchronized void export(Span span) {
+        if (size == spans.length) dropped++;
+        else size++;
+        spans[next] = span;
+        next = (next + 1) % spans.length;
+    }
+
+    /**
+     * Returns the spans in the order they ended.
+     */
+    public synchronized List<Span> getSpans() {
+        List<Span> ret = new ArrayList<>(size);
+        int start = (next - size + spans.length) % spans.length;
+        for (int i = 0; i < size; i++) ret.add(spans[(start + i) % spans.length]);
+        return ret;
+    }
+
+    public List<Span> getTrace(long traceId) {
+        List<Span> ret = new ArrayList<>();
+        for (Span span : getSpans()) {
+            if (span.getTraceId() == traceId) ret.add(span);
+        }
+        return ret;
+    }
+
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < spans.length; i++) spans[i] = null;
+        next = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,137 @@
+package matypist.openstud.driver.core.trace;
+
+import matypist.openstud.driver.exceptions.OpenstudBaseResponseException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timed step of a traced call. The driver sets the attributes "endpoint", "attempt", "status" on HTTP
+ * attempts and "error.type" on any span that failed.
+ */
+public class Span {
+    static final Span NOOP = new Span(null, 0, 0, 0, "noop");
+
+    private final Tracer tracer;
+    private final long traceId;
+    private final long spanId;
+    private final long parentId;
+    private final String name;
+    private final long startMillis = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private long durationNanos = -1;
+    private Span previous;
+    private Thread activeThread;
+
+    Span(Tracer tracer, long traceId, long spanId, long parentId, String name) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.name = name;
+    }
+
+    /**
+     * Starts a span nested in this one without making it current, e.g. for work completed on another thread.
+     */
+    public Span startChild(String name) {
+        if (tracer == null) return NOOP;
+        return tracer.startSpan(name, this);
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (tracer == null) return this;
+        synchronized (this) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    public Span setError(Throwable e) {
+        return e == null ? this : setAttribute("error.type", errorType(e));
+    }
+
+    /**
+     * Ends the span and hands it to the sink. Ending a span twice has no effect.
+     */
+    public void end() {
+        if (tracer == null) return;
+        synchronized (this) {
+            if (durationNanos >= 0) return;
+            durationNanos = System.nanoTime() - startNanos;
+        }
+        if (activeThread == Thread.currentThread() && Tracer.currentSpan() == this) Tracer.restore(previous);
+        tracer.getSink().export(this);
+    }
+
+    public boolean isNoop() {
+        return tracer == null;
+    }
+
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public long getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Returns the id of the enclosing span, 0 for the root of a trace.
+     */
+    public long getParentId() {
+        return parentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public synchronized long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public synchronized Map<String, Object> getAttributes() {
+        return new LinkedHashMap<>(attributes);
+    }
+
+    public synchronized Object getAttribute(String key) {
+        return attributes.get(key);
+    }
+
+    void activate(Span previous) {
+        this.previous = previous;
+        this.activeThread = Thread.currentThread();
+    }
+
+    static String errorType(Throwable e) {
+        String ret = e.getClass().getSimpleName();
+        if (e instanceof OpenstudBaseResponseException) {
+            OpenstudBaseResponseException response = (OpenstudBaseResponseException) e;
+            if (response.isMaintenance()) ret += ":maintenance";
+            else if (response.isRateLimit()) ret += ":rate_limit";
+            else if (response.isJSONError()) ret += ":json";
+            else if (response.isHTMLError()) ret += ":html";
+            else if (response.isSSLType()) ret += ":ssl";
+        }
+        return ret;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Span{" +
+                "name='" + name + '\'' +
+                ", traceId=" + Long.toHexString(traceId) +
+                ", spanId=" + Long.toHexString(spanId) +
+                ", parentId=" + Long.toHexString(parentId) +
+                ", durationMicros=" + (durationNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMicros(durationNanos)) +
+                ", attributes=" + attributes +
+                '}';
+    }
+}
@@ -0,0 +1,8 @@
+package matypist.openstud.driver.core.trace;
+
+/**
+ * Receives the spans of a {@link Tracer} as soon as they end, on the thread that ended them.
+ */
+public interface SpanSink {
+    void export(Span span);
+}
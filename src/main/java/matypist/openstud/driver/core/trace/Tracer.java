@@ -0,0 +1,98 @@
+package matypist.openstud.driver.core.trace;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * Creates the spans of the sessions it is set on, see {@link matypist.openstud.driver.core.OpenstudBuilder#setTracer(Tracer)}.
+ * Every thread has a current span: spans started with {@link #startActiveSpan(String)} nest under it and replace
+ * it until they end.
+ */
+public class Tracer {
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private final SpanSink sink;
+    private final Random random = new Random();
+
+    public Tracer(SpanSink sink) {
+        if (sink == null) throw new IllegalArgumentException("Sink can't be left null");
+        this.sink = sink;
+    }
+
+    public SpanSink getSink() {
+        return sink;
+    }
+
+    /**
+     * Starts a span nested in the current one of the thread, or a new trace, and makes it current.
+     */
+    public Span startActiveSpan(String name) {
+        Span parent = CURRENT.get();
+        Span span = startSpan(name, parent);
+        span.activate(parent);
+        CURRENT.set(span);
+        return span;
+    }
+
+    public Span startSpan(String name, Span parent) {
+        if (parent == null || parent.isNoop()) return new Span(this, nextId(), nextId(), 0, name);
+        return new Span(this, parent.getTraceId(), nextId(), parent.getSpanId(), name);
+    }
+
+    /**
+     * Returns the current span of the thread, or null when the thread is not tracing.
+     */
+    public static Span currentSpan() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts a span nested in the current one of the thread and makes it current. Returns a span that
+     * records nothing when the thread is not tracing, so callers don't need to check.
+     */
+    public static Span startChild(String name) {
+        Span parent = CURRENT.get();
+        if (parent == null || parent.isNoop()) return Span.NOOP;
+        Span span = parent.startChild(name);
+        span.activate(parent);
+        CURRENT.set(span);
+        return span;
+    }
+
+    /**
+     * Wraps a task handed to another thread so that it runs in a span nested in the current one of the
+     * submitting thread.
+     */
+    public static <T> Callable<T> propagate(String name, Callable<T> task) {
+        Span parent = CURRENT.get();
+        if (parent == null || parent.isNoop()) return task;
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(parent);
+            Span span = startChild(name);
+            try {
+                return task.call();
+            } catch (Exception e) {
+                span.setError(e);
+                throw e;
+            } finally {
+                span.end();
+                restore(previous);
+            }
+        };
+    }
+
+    static void restore(Span span) {
+        if (span == null) CURRENT.remove();
+        else CURRENT.set(span);
+    }
+
+    private long nextId() {
+        long ret;
+        synchronized (random) {
+            do {
+                ret = random.nextLong();
+            } while (ret == 0);
+        }
+        return ret;
+    }
+}
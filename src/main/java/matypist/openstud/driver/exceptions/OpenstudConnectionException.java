@@ -1,5 +1,8 @@
 package matypist.openstud.driver.exceptions;
 
+import matypist.openstud.driver.core.resilience.BulkheadFullException;
+import matypist.openstud.driver.core.resilience.CircuitOpenException;
+
 public class OpenstudConnectionException extends Exception {
     public OpenstudConnectionException(String message) {
         super(message);
@@ -8,4 +11,18 @@ public class OpenstudConnectionException extends Exception {
     public OpenstudConnectionException(Exception e) {
         super(e);
     }
+
+    /**
+     * Returns true if the request was not sent because the upstream host is considered down.
+     */
+    public boolean isCircuitOpen() {
+        return getCause() instanceof CircuitOpenException;
+    }
+
+    /**
+     * Returns true if the request was not sent because too many requests to the same upstream were in progress.
+     */
+    public boolean isBulkheadFull() {
+        return getCause() instanceof BulkheadFullException;
+    }
 }
@@ -0,0 +1,65 @@
+package matypist.openstud.driver.core.cache;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.OpenstudBuilder;
+import matypist.openstud.driver.core.models.Classroom;
+import matypist.openstud.driver.core.models.ExamDone;
+import matypist.openstud.driver.mock.InfostudMockServer;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CachedOpenstudTest {
+
+    @Test
+    public void testListsAreCopiedModelsAreShared() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            CachedOpenstud cached = new CachedOpenstudBuilder().setOpenstud(os).build();
+            List<ExamDone> first = cached.getExamsDone();
+            first.clear();
+            List<ExamDone> second = cached.getExamsDone();
+            assertEquals(3, second.size());
+            assertSame(second.get(0), cached.getExamsDone().get(0));
+            assertEquals(1, server.getStats().getDataRequests());
+            assertEquals(2.0 / 3, cached.getHitRatio(), 0.0001);
+        }
+    }
+
+    @Test
+    public void testHitRatioOfSharedColdTier() throws Exception {
+        File file = File.createTempFile("cached", ".cache");
+        try (InfostudMockServer server = new InfostudMockServer().start();
+             MappedCache cold = new MappedCache(file, 1 << 20)) {
+            CachedOpenstud first = cached(server, "1234567", cold);
+            CachedOpenstud second = cached(server, "7654321", cold);
+            // a single classroom search fits in memory, the previous one is moved to the file
+            first.getClassRoom("aula", false);
+            first.getClassRoom("sala", false);
+            for (int i = 0; i < 4; i++) {
+                assertEquals(3, first.getClassRoom(i % 2 == 0 ? "aula" : "sala", false).size());
+            }
+            assertEquals(4, cold.getStats().getHits());
+            assertEquals(4.0 / 6, first.getHitRatio(), 0.0001);
+            second.getClassRoom("aula", false);
+            assertEquals(0, second.getHitRatio(), 0);
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static CachedOpenstud cached(InfostudMockServer server, String studentID, MappedCache cold) throws Exception {
+        Openstud os = server.configure(new OpenstudBuilder()).setStudentID(studentID).setPassword("Password1").build();
+        os.login();
+        return new CachedOpenstudBuilder().setOpenstud(os)
+                .setPolicy(CachedMethod.CLASSROOMS, CachePolicy.of(10, TimeUnit.MINUTES, 1))
+                .setColdTier(cold)
+                .setColdTierMethods(CachedMethod.CLASSROOMS)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package matypist.openstud.driver.core.cache;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class DiskCacheTest {
+
+    private static File newDirectory() throws Exception {
+        File directory = Files.createTempDirectory("openstud-disk").toFile();
+        directory.deleteOnExit();
+        return directory;
+    }
+
+    @Test
+    public void testRoundTripAndReopen() throws Exception {
+        File directory = newDirectory();
+        DiskCache cache = new DiskCache(directory, 1024);
+        cache.put("1234567", new byte[]{1, 2, 3});
+        assertArrayEquals(new byte[]{1, 2, 3}, cache.get("1234567"));
+        assertNull(cache.get("7654321"));
+        assertEquals(3, cache.getCurrentBytes());
+        // the student ID doesn't appear in the file names
+        for (String name : directory.list()) assertFalse(name.contains("1234567") || name.contains("31323334353637"));
+
+        DiskCache reopened = new DiskCache(directory, 1024);
+        assertEquals(3, reopened.getCurrentBytes());
+        assertArrayEquals(new byte[]{1, 2, 3}, reopened.get("1234567"));
+        reopened.invalidateAll();
+        assertEquals(0, reopened.getCurrentBytes());
+        assertNull(reopened.get("1234567"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsTrimmed() throws Exception {
+        DiskCache cache = new DiskCache(newDirectory(), 10);
+        cache.put("a", new byte[4]);
+        new File(cache.getDirectory(), cache.getDirectory().list()[0]).setLastModified(System.currentTimeMillis() - 60000);
+        cache.put("b", new byte[4]);
+        cache.put("c", new byte[4]);
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(8, cache.getCurrentBytes());
+        assertEquals(1, cache.getStats().getEvictions());
+        // larger than the whole cache
+        cache.put("d", new byte[11]);
+        assertNull(cache.get("d"));
+    }
+
+    @Test
+    public void testReplaceAndInvalidate() throws Exception {
+        DiskCache cache = new DiskCache(newDirectory(), 1024);
+        cache.put("a", new byte[4]);
+        cache.put("a", new byte[6]);
+        assertEquals(6, cache.getCurrentBytes());
+        cache.invalidate("a");
+        assertEquals(0, cache.getCurrentBytes());
+        assertNull(cache.get("a"));
+    }
+}
@@ -0,0 +1,119 @@
+package matypist.openstud.driver.core.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.junit.Assert.*;
+
+public class MappedCacheTest {
+    // 8 bytes of header and three records of 28 bytes: 17 of overhead, a key of 2 bytes and a value of 9 bytes
+    private static final int CAPACITY = 100;
+    private static final long FOREVER = Long.MAX_VALUE;
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("mapped", ".cache");
+        file.delete();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testReopenKeepsLiveEntries() throws Exception {
+        try (MappedCache cache = new MappedCache(file, CAPACITY)) {
+            assertTrue(cache.put("k1", value(1), FOREVER));
+            assertTrue(cache.put("k2", value(2), FOREVER));
+            assertTrue(cache.put("k2", value(3), FOREVER));
+            cache.invalidate("k1");
+        }
+        try (MappedCache cache = new MappedCache(file, CAPACITY)) {
+            assertEquals(1, cache.size());
+            assertNull(cache.get("k1"));
+            assertArrayEquals(value(3), cache.get("k2"));
+            assertEquals(FOREVER, cache.getExpiration("k2"));
+            assertEquals(8 + 28, cache.getUsedBytes());
+        }
+    }
+
+    @Test
+    public void testExpiredEntriesAreDroppedOnReopen() throws Exception {
+        try (MappedCache cache = new MappedCache(file, CAPACITY)) {
+            cache.put("k1", value(1), System.currentTimeMillis() + 60000);
+            cache.put("k2", value(2), System.currentTimeMillis() + 100);
+        }
+        Thread.sleep(150);
+        try (MappedCache cache = new MappedCache(file, CAPACITY)) {
+            assertEquals(1, cache.size());
+            assertNull(cache.get("k2"));
+            assertArrayEquals(value(1), cache.get("k1"));
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsLiveRecords() throws Exception {
+        try (MappedCache cache = new MappedCache(file, CAPACITY)) {
+            cache.put("k1", value(1), FOREVER);
+            cache.put("k2", value(2), FOREVER);
+            cache.put("k3", value(3), FOREVER);
+            cache.invalidate("k2");
+            // the file is full, the dead record of k2 is reclaimed instead of dropping a live one
+            assertTrue(cache.put("k4", value(4), FOREVER));
+            assertEquals(0, cache.getStats().getEvictions());
+            assertEquals(3, cache.size());
+            assertEquals(8 + 3 * 28, cache.getUsedBytes());
+            assertArrayEquals(value(1), cache.get("k1"));
+            assertArrayEquals(value(3), cache.get("k3"));
+            assertArrayEquals(value(4), cache.get("k4"));
+        }
+        try (MappedCache cache = new MappedCache(file, CAPACITY)) {
+            assertEquals(3, cache.size());
+            assertArrayEquals(value(1), cache.get("k1"));
+            assertArrayEquals(value(3), cache.get("k3"));
+            assertArrayEquals(value(4), cache.get("k4"));
+        }
+    }
+
+    @Test
+    public void testOldestEntriesAreDroppedWhenFull() throws Exception {
+        try (MappedCache cache = new MappedCache(file, CAPACITY)) {
+            cache.put("k1", value(1), FOREVER);
+            cache.put("k2", value(2), FOREVER);
+            cache.put("k3", value(3), FOREVER);
+            assertTrue(cache.put("k4", value(4), FOREVER));
+            assertEquals(1, cache.getStats().getEvictions());
+            assertNull(cache.get("k1"));
+            assertArrayEquals(value(2), cache.get("k2"));
+            assertArrayEquals(value(4), cache.get("k4"));
+            assertFalse(cache.put("k5", new byte[CAPACITY], FOREVER));
+        }
+    }
+
+    @Test
+    public void testUnknownFileIsReset() throws Exception {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        }
+        try (MappedCache cache = new MappedCache(file, CAPACITY)) {
+            assertEquals(0, cache.size());
+            assertTrue(cache.put("k1", value(1), FOREVER));
+        }
+        try (MappedCache cache = new MappedCache(file, CAPACITY)) {
+            assertArrayEquals(value(1), cache.get("k1"));
+        }
+    }
+
+    private static byte[] value(int seed) {
+        byte[] ret = new byte[9];
+        for (int i = 0; i < ret.length; i++) ret[i] = (byte) (seed * 31 + i);
+        return ret;
+    }
+}
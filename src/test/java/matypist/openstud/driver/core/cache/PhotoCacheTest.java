@@ -0,0 +1,53 @@
+package matypist.openstud.driver.core.cache;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class PhotoCacheTest {
+
+    @Test
+    public void testMemoryBound() {
+        PhotoCache cache = new PhotoCache(10, null);
+        cache.put("1", new byte[4]);
+        cache.put("2", new byte[4]);
+        cache.get("1");
+        cache.put("3", new byte[4]);
+        assertNotNull(cache.get("1"));
+        assertNull(cache.get("2"));
+        assertNotNull(cache.get("3"));
+        assertEquals(8, cache.getCurrentBytes());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    public void testPhotosAreCopied() {
+        PhotoCache cache = new PhotoCache(1024, null);
+        byte[] photo = {1, 2, 3};
+        cache.put("1", photo);
+        photo[0] = 9;
+        byte[] cached = cache.get("1");
+        assertEquals(1, cached[0]);
+        cached[1] = 9;
+        assertEquals(2, cache.get("1")[1]);
+    }
+
+    @Test
+    public void testDiskIsConsultedOnMisses() throws Exception {
+        File directory = Files.createTempDirectory("openstud-photo").toFile();
+        directory.deleteOnExit();
+        DiskCache disk = new DiskCache(directory, 1024);
+        new PhotoCache(1024, disk).put("1", new byte[]{1, 2, 3});
+        // a second session sharing the same disk cache
+        PhotoCache other = new PhotoCache(1024, disk);
+        assertArrayEquals(new byte[]{1, 2, 3}, other.get("1"));
+        assertEquals(1, other.size());
+        other.invalidate("1");
+        assertNull(other.get("1"));
+        assertNull(disk.get("1"));
+    }
+}
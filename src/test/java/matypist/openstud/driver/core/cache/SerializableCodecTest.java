@@ -0,0 +1,52 @@
+package matypist.openstud.driver.core.cache;
+
+import matypist.openstud.driver.core.models.ExamDone;
+import org.junit.Test;
+import org.threeten.bp.LocalDate;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SerializableCodecTest {
+
+    @Test
+    public void testModelsRoundTrip() throws Exception {
+        ExamDone exam = new ExamDone();
+        exam.setExamCode("1015880");
+        exam.setDescription("PROGRAMMAZIONE");
+        exam.setDate(LocalDate.of(2019, 2, 14));
+        exam.setResult(30);
+        List<ExamDone> exams = new ArrayList<>(Collections.singletonList(exam));
+        SerializableCodec codec = new SerializableCodec();
+        assertEquals(exams, codec.decode(codec.encode(exams)));
+    }
+
+    @Test
+    public void testOtherClassesAreRejected() throws Exception {
+        SerializableCodec codec = new SerializableCodec();
+        byte[] data = codec.encode(new AtomicInteger(1));
+        try {
+            codec.decode(data);
+            fail("Only the driver models should be decoded");
+        } catch (IOException e) {
+            assertTrue(e instanceof InvalidClassException);
+        }
+    }
+
+    @Test
+    public void testAllowedNames() {
+        assertTrue(SerializableCodec.isAllowed("matypist.openstud.driver.core.models.Student"));
+        assertTrue(SerializableCodec.isAllowed("[Lmatypist.openstud.driver.core.models.Tax;"));
+        assertTrue(SerializableCodec.isAllowed("[[B"));
+        assertTrue(SerializableCodec.isAllowed("java.util.ArrayList"));
+        assertFalse(SerializableCodec.isAllowed("[Ljava.lang.Object;"));
+        assertFalse(SerializableCodec.isAllowed("java.util.PriorityQueue"));
+        assertFalse(SerializableCodec.isAllowed("org.apache.commons.collections.functors.InvokerTransformer"));
+    }
+}
@@ -0,0 +1,91 @@
+package matypist.openstud.driver.core.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class StringPoolTest {
+
+    @Test
+    public void testDuplicatesArePooled() {
+        StringPool pool = new StringPool(16);
+        String first = new String("ROSSI MARIO");
+        String second = new String("ROSSI MARIO");
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertSame(first, pool.intern(first));
+        assertEquals(1, pool.getMisses());
+        assertEquals(2, pool.getHits());
+        // only the copy that was replaced counts
+        assertEquals(40 + 2 * first.length(), pool.getSavedBytes());
+    }
+
+    @Test
+    public void testCollisionReplacesThePooledCopy() {
+        StringPool pool = new StringPool(1);
+        String first = new String("AULA 1");
+        String other = new String("AULA 2");
+        pool.intern(first);
+        assertSame(other, pool.intern(other));
+        // the slot now holds the second string, the first one is no longer pooled
+        String copy = new String("AULA 1");
+        assertSame(copy, pool.intern(copy));
+        assertEquals(1, pool.getCapacity());
+    }
+
+    @Test
+    public void testLongAndNullStringsAreSkipped() {
+        StringPool pool = new StringPool(16);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 300; i++) builder.append('x');
+        String text = builder.toString();
+        assertSame(text, pool.intern(text));
+        assertNotSame(text, pool.intern(new String(text)));
+        assertNull(pool.intern(null));
+        assertEquals(0, pool.getHits() + pool.getMisses());
+    }
+
+    @Test
+    public void testCapacityIsRoundedUpAndCleared() {
+        StringPool pool = new StringPool(100);
+        assertEquals(128, pool.getCapacity());
+        String value = new String("INFORMATICA");
+        pool.intern(value);
+        pool.clear();
+        String copy = new String("INFORMATICA");
+        assertSame(copy, pool.intern(copy));
+    }
+
+    @Test
+    public void testConcurrentInterning() throws Exception {
+        StringPool pool = new StringPool(64);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        String value = new String("TEACHER " + (i % 32));
+                        assertEquals(value, pool.intern(value));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(80000, pool.getHits() + pool.getMisses());
+        assertTrue(pool.getHits() > pool.getMisses());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new StringPool(0);
+    }
+}
@@ -0,0 +1,62 @@
+package matypist.openstud.driver.core.cache;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class TieredCacheTest {
+    private static final ModelCodec STRINGS = new ModelCodec() {
+        @Override
+        public byte[] encode(Object value) {
+            return ((String) value).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Object decode(byte[] data) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+    };
+
+    @Test
+    public void testEvictedEntriesMoveToTheMappedFile() throws Exception {
+        File file = File.createTempFile("tiered", ".cache");
+        try (MappedCache cold = new MappedCache(file, 1 << 16)) {
+            TieredCache<String> cache = new TieredCache<>(new TtlCache<>(60000, 1), cold, STRINGS, "a/");
+            cache.put("1", "one", 60000);
+            cache.put("2", "two", 60000);
+            assertEquals(1, cold.size());
+            assertEquals("one", cache.get("1"));
+            assertEquals(1, cache.getColdHits());
+            // back in memory, "2" took its place in the file
+            assertEquals("two", cache.get("2"));
+            assertEquals(2, cache.getColdHits());
+            assertEquals(2, cache.getStats().getMisses());
+            assertEquals(2, cache.getStats().getRequests());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testColdHitsArePerCache() throws Exception {
+        File file = File.createTempFile("tiered", ".cache");
+        try (MappedCache cold = new MappedCache(file, 1 << 16)) {
+            TieredCache<String> first = new TieredCache<>(new TtlCache<>(60000, 1), cold, STRINGS, "a/");
+            TieredCache<String> second = new TieredCache<>(new TtlCache<>(60000, 1), cold, STRINGS, "b/");
+            first.put("1", "one", 60000);
+            first.put("2", "two", 60000);
+            assertEquals("one", first.get("1"));
+            assertNull(second.get("1"));
+            assertEquals(1, first.getColdHits());
+            assertEquals(0, second.getColdHits());
+            assertEquals(1, second.getColdStats().getHits());
+            first.invalidateAll();
+            assertEquals(0, cold.size());
+        } finally {
+            file.delete();
+        }
+    }
+}
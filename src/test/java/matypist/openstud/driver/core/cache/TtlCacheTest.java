@@ -0,0 +1,81 @@
+package matypist.openstud.driver.core.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TtlCacheTest {
+
+    @Test
+    public void testEntriesExpire() throws Exception {
+        TtlCache<String, String> cache = new TtlCache<>(30, 8);
+        cache.put("card", "1234567");
+        assertEquals("1234567", cache.get("card"));
+        assertTrue(cache.containsKey("card"));
+        Thread.sleep(50);
+        assertFalse(cache.containsKey("card"));
+        assertNull(cache.get("card"));
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getMisses());
+        assertEquals(1, cache.getStats().getExpirations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDisabledCacheKeepsNothing() {
+        TtlCache<String, String> cache = new TtlCache<>(0, 8);
+        assertFalse(cache.isEnabled());
+        cache.put("card", "1234567");
+        assertNull(cache.get("card"));
+    }
+
+    @Test
+    public void testLruEviction() {
+        TtlCache<String, Integer> cache = new TtlCache<>(60000, 2);
+        List<String> evicted = new ArrayList<>();
+        cache.setEvictionListener((key, value, expiresAt) -> evicted.add(key));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+        assertEquals(1, evicted.size());
+        assertEquals("b", evicted.get(0));
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    public void testLfuEviction() {
+        TtlCache<String, Integer> cache = new TtlCache<>(60000, 2, EvictionPolicy.LFU);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        cache.put("c", 3);
+        assertTrue(cache.containsKey("a"));
+        assertFalse(cache.containsKey("b"));
+        cache.put("d", 4);
+        // c was only used once
+        assertFalse(cache.containsKey("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testInvalidation() {
+        TtlCache<String, Integer> cache = new TtlCache<>(60000, 4);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+        cache.put("b", null);
+        assertEquals(0, cache.size());
+        cache.put("c", 3);
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getStats().getInvalidations());
+    }
+}
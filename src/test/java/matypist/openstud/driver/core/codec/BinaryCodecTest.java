@@ -0,0 +1,101 @@
+package matypist.openstud.driver.core.codec;
+
+import matypist.openstud.driver.core.models.*;
+import org.junit.Test;
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class BinaryCodecTest {
+    private final BinaryCodec codec = new BinaryCodec();
+
+    @Test
+    public void testStudentRoundTrip() throws IOException {
+        Student st = new Student();
+        st.setFirstName("Mario");
+        st.setLastName("Rossi");
+        st.setStudentID("1234567");
+        st.setBirthDate(LocalDate.of(1998, 3, 12));
+        st.setAcademicYear(2019);
+        st.setCodeCourse(29923);
+        st.setCfu(120);
+        st.setErasmus(true);
+        assertEquals(st, codec.decode(codec.encode(st)));
+    }
+
+    @Test
+    public void testExamsRoundTrip() throws IOException {
+        List<ExamDone> exams = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ExamDone exam = new ExamDone();
+            exam.setDescription("Exam " + i);
+            exam.setExamCode("1015" + i);
+            exam.setSsd("INF/01");
+            exam.setCfu(6);
+            exam.setDate(LocalDate.of(2019, 1 + i % 12, 1 + i));
+            exam.setYear(2018);
+            exam.setNominalResult("30");
+            exam.setResult(30);
+            exam.setPassed(true);
+            exam.setCertified(i % 2 == 0);
+            exams.add(exam);
+        }
+        byte[] encoded = codec.encode(exams);
+        assertEquals(exams, codec.decode(encoded));
+        // the shared ssd and nominal result are stored once
+        assertTrue(encoded.length < 20 * 30);
+    }
+
+    @Test
+    public void testNestedModelsRoundTrip() throws IOException {
+        Tax tax = new Tax();
+        tax.setCode("A123");
+        tax.setAmount(156.5);
+        tax.setStatus(Tax.TaxStatus.PAID);
+        tax.setPaymentDate(LocalDate.of(2019, 10, 3));
+        PaymentDescription description = new PaymentDescription();
+        description.setDescription("Tassa regionale");
+        description.setAmount(140.0);
+        tax.getPaymentDescriptionList().add(description);
+
+        Lesson lesson = new Lesson();
+        lesson.setName("Analisi");
+        lesson.setStart(LocalDateTime.of(2019, 10, 3, 8, 30));
+        lesson.setEnd(LocalDateTime.of(2019, 10, 3, 10, 0));
+        Classroom classroom = new Classroom();
+        classroom.setName("Aula 1");
+        classroom.setLatitude(41.9);
+        classroom.setLongitude(12.5);
+        classroom.setLessonNow(lesson);
+        classroom.setTodayLessons(Collections.singletonList(lesson));
+
+        ExamReservation res = new ExamReservation();
+        res.setReportID(42);
+        res.setExamDate(LocalDate.of(2020, 1, 20));
+        Event event = new Event(EventType.RESERVED);
+        event.setTitle("Analisi");
+        event.setReservation(res);
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("tax", tax);
+        values.put("event", event);
+        values.put("missing", null);
+        assertEquals(values, codec.decode(codec.encode(values)));
+
+        Classroom decoded = (Classroom) codec.decode(codec.encode(classroom));
+        assertTrue(decoded.hasCoordinates());
+        assertEquals(classroom.toString(), decoded.toString());
+        assertEquals(classroom.getTodayLessons().toString(), decoded.getTodayLessons().toString());
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownVersion() throws IOException {
+        byte[] encoded = codec.encode("value");
+        encoded[1] = (byte) (BinaryCodec.VERSION + 1);
+        codec.decode(encoded);
+    }
+}
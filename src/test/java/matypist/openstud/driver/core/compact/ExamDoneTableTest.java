@@ -0,0 +1,74 @@
+package matypist.openstud.driver.core.compact;
+
+import matypist.openstud.driver.core.models.ExamDone;
+import org.junit.Test;
+import org.threeten.bp.LocalDate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ExamDoneTableTest {
+
+    @Test
+    public void testRoundTrip() {
+        ExamDone passed = exam("1015880", 9, 30, 2019, LocalDate.of(2019, 2, 14));
+        passed.setPassed(true);
+        passed.setCertified(true);
+        passed.setNominalResult("30 e lode");
+        ExamDone undated = exam("1015881", 6, 0, 2020, null);
+        List<ExamDone> exams = Arrays.asList(passed, undated);
+        ExamDoneTable table = ExamDoneTable.from(exams);
+        assertEquals(2, table.size());
+        assertEquals(exams, table);
+        assertEquals(exams, table.toList());
+        assertNotSame(table.get(0), table.get(0));
+        assertEquals("1015880", table.getExamCode(0));
+        assertEquals(9, table.getCfu(0));
+        assertEquals(30, table.getResult(0));
+        assertTrue(table.isPassed(0));
+        assertFalse(table.isPassed(1));
+        assertTrue(table.get(0).isCertified());
+        assertNull(table.getDate(1));
+        assertNull(table.get(1).getDate());
+    }
+
+    @Test
+    public void testShortLimits() {
+        ExamDone max = exam("max", Short.MAX_VALUE, Short.MAX_VALUE, Short.MAX_VALUE, LocalDate.of(1, 1, 1));
+        ExamDone min = exam("min", Short.MIN_VALUE, Short.MIN_VALUE, Short.MIN_VALUE, LocalDate.of(9999, 12, 31));
+        List<ExamDone> exams = Arrays.asList(max, min);
+        assertEquals(exams, ExamDoneTable.from(exams).toList());
+        for (ExamDone overflow : new ExamDone[]{exam("cfu", Short.MAX_VALUE + 1, 0, 0, null),
+                exam("result", 0, Short.MIN_VALUE - 1, 0, null), exam("year", 0, 0, 40000, null)}) {
+            try {
+                ExamDoneTable.from(Collections.singletonList(overflow));
+                fail(overflow.getExamCode() + " should not fit");
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyTables() {
+        assertTrue(ExamDoneTable.from(null).isEmpty());
+        assertTrue(ExamDoneTable.from(new ArrayList<>()).toList().isEmpty());
+        ExamDoneTable table = ExamDoneTable.from(Collections.singletonList(exam("1", 6, 18, 2020, null)));
+        assertSame(table, ExamDoneTable.from(table));
+    }
+
+    private static ExamDone exam(String code, int cfu, int result, int year, LocalDate date) {
+        ExamDone ret = new ExamDone();
+        ret.setExamCode(code);
+        ret.setDescription("Exam " + code);
+        ret.setSsd("INF/01");
+        ret.setCfu(cfu);
+        ret.setResult(result);
+        ret.setYear(year);
+        ret.setDate(date);
+        return ret;
+    }
+}
@@ -0,0 +1,55 @@
+package matypist.openstud.driver.core.compact;
+
+import matypist.openstud.driver.core.models.ExamReservation;
+import org.junit.Test;
+import org.threeten.bp.LocalDate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ExamReservationTableTest {
+
+    @Test
+    public void testRoundTrip() {
+        ExamReservation reservation = reservation(1, LocalDate.of(2020, 6, 15));
+        reservation.setStartDate(LocalDate.of(2020, 5, 1));
+        reservation.setEndDate(LocalDate.of(2020, 6, 10));
+        reservation.setReservationDate(LocalDate.of(2020, 5, 3));
+        reservation.setReservationNumber(12);
+        reservation.setNote("Aula 3");
+        ExamReservation undated = reservation(2, null);
+        List<ExamReservation> reservations = Arrays.asList(reservation, undated);
+        ExamReservationTable table = ExamReservationTable.from(reservations);
+        assertEquals(reservations, table);
+        assertEquals(reservations, table.toList());
+        assertEquals(Integer.MAX_VALUE, table.getReportID(1));
+        assertEquals(Integer.MIN_VALUE, table.getSessionID(1));
+        assertEquals(1015880, table.getCourseCode(0));
+        assertEquals("Subject 1", table.getExamSubject(0));
+        assertEquals(LocalDate.of(2020, 6, 15), table.getExamDate(0));
+        assertNull(table.getExamDate(1));
+        assertNull(table.get(1).getStartDate());
+        assertNull(table.get(1).getReservationDate());
+        assertEquals(-1, table.get(1).getReservationNumber());
+        assertNull(table.get(1).getAttendingModesList());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRowsAreBounded() {
+        ExamReservationTable.from(Arrays.asList(reservation(1, null))).get(1);
+    }
+
+    private static ExamReservation reservation(int id, LocalDate examDate) {
+        ExamReservation ret = new ExamReservation();
+        ret.setReportID(id == 1 ? 1 : Integer.MAX_VALUE);
+        ret.setSessionID(id == 1 ? 1 : Integer.MIN_VALUE);
+        ret.setCourseCode(1015880);
+        ret.setCfu(9);
+        ret.setExamSubject("Subject " + id);
+        ret.setTeacher("Rossi");
+        ret.setExamDate(examDate);
+        return ret;
+    }
+}
@@ -0,0 +1,49 @@
+package matypist.openstud.driver.core.compact;
+
+import matypist.openstud.driver.core.models.Lesson;
+import org.junit.Test;
+import org.threeten.bp.LocalDateTime;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LessonTableTest {
+
+    @Test
+    public void testRoundTrip() {
+        Lesson lesson = lesson("Analisi", LocalDateTime.of(2020, 3, 2, 8, 0), LocalDateTime.of(2020, 3, 2, 10, 0));
+        Lesson open = lesson("Seminario", null, null);
+        LessonTable table = LessonTable.from(Arrays.asList(lesson, open));
+        List<Lesson> lessons = table.toList();
+        assertEquals(2, lessons.size());
+        assertEquals("Analisi", lessons.get(0).getName());
+        assertEquals("Aula 1", lessons.get(0).getWhere());
+        assertEquals("Rossi", lessons.get(0).getTeacher());
+        assertEquals(lesson.getStart(), lessons.get(0).getStart());
+        assertEquals(lesson.getEnd(), table.getEnd(0));
+        assertNull(lessons.get(1).getStart());
+        assertNull(table.getEnd(1));
+        assertEquals("Seminario", table.getName(1));
+    }
+
+    @Test
+    public void testFractionsOfSecondAreDropped() {
+        LocalDateTime start = LocalDateTime.of(2020, 3, 2, 8, 0, 59, 999999999);
+        LessonTable table = LessonTable.from(Arrays.asList(lesson("Analisi", start, start.plusHours(2))));
+        assertEquals(start.withNano(0), table.getStart(0));
+        assertEquals(start.plusHours(2).withNano(0), table.get(0).getEnd());
+        assertEquals(0, table.toList().get(0).getStart().getNano());
+    }
+
+    private static Lesson lesson(String name, LocalDateTime start, LocalDateTime end) {
+        Lesson ret = new Lesson();
+        ret.setName(name);
+        ret.setWhere("Aula 1");
+        ret.setTeacher("Rossi");
+        ret.setStart(start);
+        ret.setEnd(end);
+        return ret;
+    }
+}
@@ -0,0 +1,63 @@
+package matypist.openstud.driver.core.compact;
+
+import matypist.openstud.driver.core.models.PaymentDescription;
+import matypist.openstud.driver.core.models.Tax;
+import org.junit.Test;
+import org.threeten.bp.LocalDate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TaxTableTest {
+
+    @Test
+    public void testRoundTrip() {
+        Tax paid = tax("1", Tax.TaxStatus.PAID, LocalDate.of(2019, 10, 1), LocalDate.of(2019, 11, 5));
+        paid.setPaymentDescriptionList(Arrays.asList(description("Tassa", 156.0, 156.0), description("Bollo", null, 16.0)));
+        Tax unpaid = tax("2", Tax.TaxStatus.UNPAID, null, null);
+        unpaid.setPaymentDescriptionList(null);
+        Tax empty = tax("3", null, null, LocalDate.of(2020, 1, 1));
+        empty.setPaymentDescriptionList(new ArrayList<>());
+        List<Tax> taxes = Arrays.asList(paid, unpaid, empty);
+        TaxTable table = TaxTable.from(taxes);
+        List<Tax> rebuilt = table.toList();
+        assertEquals(taxes, rebuilt);
+        for (int i = 0; i < taxes.size(); i++) assertEquals(taxes.get(i).getStatus(), rebuilt.get(i).getStatus());
+        assertEquals(Tax.TaxStatus.UNPAID, table.getStatus(1));
+        assertNull(table.getStatus(2));
+        assertNull(rebuilt.get(1).getPaymentDate());
+        assertNull(table.getExpirationDate(1));
+        assertEquals(LocalDate.of(2020, 1, 1), table.getExpirationDate(2));
+        assertNull(rebuilt.get(1).getPaymentDescriptionList());
+        assertTrue(rebuilt.get(2).getPaymentDescriptionList().isEmpty());
+        assertNull(rebuilt.get(0).getPaymentDescriptionList().get(1).getAmount());
+        assertEquals(16.0, rebuilt.get(0).getPaymentDescriptionList().get(1).getAmountPaid(), 0);
+        assertEquals("1", table.getCode(0));
+        assertEquals(172.0, table.getAmount(0), 0);
+    }
+
+    private static Tax tax(String code, Tax.TaxStatus status, LocalDate paymentDate, LocalDate expirationDate) {
+        Tax ret = new Tax();
+        ret.setCode(code);
+        ret.setCodeCourse("29389");
+        ret.setDescriptionCourse("Informatica");
+        ret.setAmount(172.0);
+        ret.setAcademicYear(2019);
+        ret.setStatus(status);
+        ret.setPaymentDate(paymentDate);
+        ret.setExpirationDate(expirationDate);
+        return ret;
+    }
+
+    private static PaymentDescription description(String text, Double amount, Double amountPaid) {
+        PaymentDescription ret = new PaymentDescription();
+        ret.setDescription(text);
+        ret.setAcademicYear("2019/2020");
+        ret.setAmount(amount);
+        ret.setAmountPaid(amountPaid);
+        return ret;
+    }
+}
@@ -0,0 +1,29 @@
+package matypist.openstud.driver.core.diff;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.OpenstudBuilder;
+import matypist.openstud.driver.core.sync.ProfileSnapshot;
+import matypist.openstud.driver.mock.InfostudMockServer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ChangeTrackerTest {
+
+    @Test
+    public void testUnchangedProfile() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            ChangeTracker tracker = new ChangeTracker();
+            ProfileSnapshot snapshot = os.sync();
+            assertTrue(snapshot.isComplete());
+            // the first snapshot is the baseline
+            assertTrue(tracker.update(snapshot).isEmpty());
+            assertTrue(tracker.update(os.sync()).isEmpty());
+            assertTrue(tracker.update(null).isEmpty());
+            tracker.reset();
+            assertTrue(tracker.update(snapshot).isEmpty());
+        }
+    }
+}
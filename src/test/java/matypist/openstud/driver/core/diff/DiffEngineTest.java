@@ -0,0 +1,100 @@
+package matypist.openstud.driver.core.diff;
+
+import matypist.openstud.driver.core.models.ExamDone;
+import matypist.openstud.driver.core.models.Tax;
+import org.junit.Test;
+import org.threeten.bp.LocalDate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DiffEngineTest {
+
+    @Test
+    public void testDigestIgnoresOrder() {
+        ExamDone first = exam("1015880", LocalDate.of(2019, 2, 14), 30);
+        ExamDone second = exam("1015881", LocalDate.of(2019, 6, 20), 28);
+        Fingerprints<ExamDone> one = Fingerprints.of(Arrays.asList(first, second), ModelIdentities.EXAM_DONE);
+        Fingerprints<ExamDone> other = Fingerprints.of(Arrays.asList(second, first), ModelIdentities.EXAM_DONE);
+        assertTrue(one.sameAs(other));
+        assertTrue(new DiffEngine().diffExamsDone(one, other).isEmpty());
+        assertFalse(one.sameAs(Fingerprints.of(Collections.singletonList(first), ModelIdentities.EXAM_DONE)));
+    }
+
+    @Test
+    public void testRetakeIsANewGrade() {
+        ExamDone failed = exam("1015880", LocalDate.of(2019, 2, 14), 0);
+        failed.setPassed(false);
+        ExamDone passed = exam("1015880", LocalDate.of(2019, 6, 20), 27);
+        Fingerprints<ExamDone> both = Fingerprints.of(Arrays.asList(failed, passed), ModelIdentities.EXAM_DONE);
+        assertEquals(2, both.size());
+        List<ChangeEvent<ExamDone>> events = new DiffEngine().diffExamsDone(Collections.singletonList(failed), Arrays.asList(failed, passed));
+        assertEquals(1, events.size());
+        assertEquals(ChangeType.GRADE_RECORDED, events.get(0).getType());
+        assertNull(events.get(0).getPrevious());
+        assertSame(passed, events.get(0).getCurrent());
+    }
+
+    @Test
+    public void testFailedAttemptIsNotAGrade() {
+        ExamDone failed = exam("1015880", LocalDate.of(2019, 2, 14), 0);
+        failed.setPassed(false);
+        List<ChangeEvent<ExamDone>> events = new DiffEngine().diffExamsDone(Collections.emptyList(), Collections.singletonList(failed));
+        assertEquals(1, events.size());
+        assertEquals(ChangeType.EXAM_ADDED, events.get(0).getType());
+        assertSame(failed, events.get(0).getCurrent());
+        ExamDone passed = exam("1015880", LocalDate.of(2019, 2, 14), 27);
+        events = new DiffEngine().diffExamsDone(Collections.singletonList(failed), Collections.singletonList(passed));
+        assertEquals(ChangeType.GRADE_RECORDED, events.get(0).getType());
+    }
+
+    @Test
+    public void testUpdatedAndRemovedExams() {
+        ExamDone exam = exam("1015880", LocalDate.of(2019, 2, 14), 30);
+        ExamDone certified = exam("1015880", LocalDate.of(2019, 2, 14), 30);
+        certified.setCertified(true);
+        ExamDone other = exam("1015881", LocalDate.of(2019, 6, 20), 28);
+        List<ChangeEvent<ExamDone>> events = new DiffEngine().diffExamsDone(Arrays.asList(exam, other), Collections.singletonList(certified));
+        assertEquals(2, events.size());
+        assertEquals(ChangeType.EXAM_UPDATED, events.get(0).getType());
+        assertSame(exam, events.get(0).getPrevious());
+        assertSame(certified, events.get(0).getCurrent());
+        assertEquals(ChangeType.EXAM_REMOVED, events.get(1).getType());
+        assertSame(other, events.get(1).getPrevious());
+    }
+
+    @Test
+    public void testPaidTax() {
+        Tax unpaid = tax("A0001", Tax.TaxStatus.UNPAID);
+        Tax paid = tax("A0001", Tax.TaxStatus.PAID);
+        paid.setPaymentDate(LocalDate.of(2019, 10, 1));
+        List<ChangeEvent<Tax>> events = new DiffEngine().diffTaxes(Collections.singletonList(unpaid), Collections.singletonList(paid));
+        assertEquals(1, events.size());
+        assertEquals(ChangeType.TAX_PAID, events.get(0).getType());
+        assertEquals("A0001", events.get(0).getKey());
+    }
+
+    private static ExamDone exam(String code, LocalDate date, int result) {
+        ExamDone exam = new ExamDone();
+        exam.setExamCode(code);
+        exam.setDescription("PROGRAMMAZIONE");
+        exam.setCfu(9);
+        exam.setDate(date);
+        exam.setYear(2018);
+        exam.setResult(result);
+        exam.setPassed(result >= 18);
+        return exam;
+    }
+
+    private static Tax tax(String code, Tax.TaxStatus status) {
+        Tax tax = new Tax();
+        tax.setCode(code);
+        tax.setAmount(156);
+        tax.setAcademicYear(2019);
+        tax.setStatus(status);
+        return tax;
+    }
+}
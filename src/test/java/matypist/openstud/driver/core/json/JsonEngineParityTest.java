@@ -0,0 +1,208 @@
+package matypist.openstud.driver.core.json;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.providers.sapienza.SapienzaBinders;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the same documents through {@link OrgJsonEngine} and {@link StreamingJsonEngine} and checks that values,
+ * bound models and error messages agree. Messages are compared up to the details org.json appends in parentheses.
+ */
+public class JsonEngineParityTest {
+    private static final JsonEngine ORG_JSON = OrgJsonEngine.shared();
+    private static final JsonEngine STREAMING = StreamingJsonEngine.shared();
+
+    private interface Probe {
+        Object read(JsonEngine engine);
+    }
+
+    private static Object run(JsonEngine engine, Probe probe) {
+        try {
+            return probe.read(engine);
+        } catch (JsonFormatException e) {
+            String message = e.getMessage();
+            int details = message.indexOf(" (");
+            if (details >= 0) message = message.substring(0, details);
+            if (message.endsWith(".")) message = message.substring(0, message.length() - 1);
+            return "failed: " + message.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static void assertParity(Probe probe) {
+        assertEquals(run(ORG_JSON, probe), run(STREAMING, probe));
+    }
+
+    private static void assertParity(String json, String key) {
+        assertParity(engine -> engine.parseObject(json).has(key));
+        assertParity(engine -> engine.parseObject(json).isNull(key));
+        assertParity(engine -> engine.parseObject(json).getString(key));
+        assertParity(engine -> engine.parseObject(json).getInt(key));
+        assertParity(engine -> engine.parseObject(json).getDouble(key));
+        assertParity(engine -> engine.parseObject(json).getBoolean(key));
+        assertParity(engine -> engine.parseObject(json).getObject(key).size());
+        assertParity(engine -> engine.parseObject(json).getArray(key).length());
+    }
+
+    private static void assertBothReject(String json) {
+        for (JsonEngine engine : new JsonEngine[]{ORG_JSON, STREAMING}) {
+            try {
+                if (json.trim().startsWith("[")) engine.parseArray(json);
+                else engine.parseObject(json);
+                fail(engine.getClass().getSimpleName() + " accepted " + json);
+            } catch (JsonFormatException ignored) {
+            }
+        }
+    }
+
+    private static String fixture(String name) throws IOException {
+        try (InputStream in = JsonEngineParityTest.class.getResourceAsStream("/mock/" + name)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) out.write(buffer, 0, read);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testEscapes() {
+        String json = "{\"a\":\"tab\\tline\\nreturn\\rquote\\\"slash\\/back\\\\\",\"b\":\"it\\'s\",\"c\":\"\\b\\f\"," +
+                "\"d\\\"key\":1,\"e\":\"plain\"}";
+        for (String key : new String[]{"a", "b", "c", "d\"key", "e"}) assertParity(json, key);
+        assertEquals("it's", STREAMING.parseObject(json).getString("b"));
+        assertBothReject("{\"a\":\"\\x\"}");
+        assertBothReject("{\"a\":\"line\nbreak\"}");
+        assertBothReject("{\"a\":\"escaped\\\"line\nbreak\"}");
+        assertBothReject("{\"a\":\"unterminated}");
+    }
+
+    @Test
+    public void testUnicodeEscapes() {
+        String json = "{\"a\":\"caff\\u00e8\",\"b\":\"\\ud83d\\ude00\",\"c\":\"\\ud83d\",\"d\":\"\\u00E8\\u0000\"," +
+                "\"\\u0063ode\":\"key\",\"e\":\"\uD83D\uDE00 raw\"}";
+        for (String key : new String[]{"a", "b", "c", "d", "code", "e"}) assertParity(json, key);
+        assertEquals("\uD83D\uDE00", STREAMING.parseObject(json).getString("b"));
+        assertBothReject("{\"a\":\"\\u12\"}");
+        assertBothReject("{\"a\":\"\\u12G4\"}");
+    }
+
+    @Test
+    public void testNumbers() {
+        String json = "{\"int\":42,\"negative\":-7,\"zero\":-0,\"decimal\":1.5,\"dot\":1.,\"exp\":1e3,\"upper\":1E+2," +
+                "\"small\":2.5e-3,\"long\":3000000000,\"huge\":12345678901234567890,\"lenient\":1-2e+," +
+                "\"dots\":1.5.2,\"noExp\":1e,\"minus\":-,\"quoted\":\"7\",\"quotedDecimal\":\"1.5\",\"spaced\":\" 7\"}";
+        for (String key : new String[]{"int", "negative", "zero", "decimal", "dot", "exp", "upper", "small", "long",
+                "huge", "lenient", "dots", "noExp", "minus", "quoted", "quotedDecimal", "spaced"}) {
+            assertParity(json, key);
+        }
+        assertEquals("1-2e+", STREAMING.parseObject(json).getString("lenient"));
+        assertEquals(-1294967296, STREAMING.parseObject(json).getInt("long"));
+    }
+
+    @Test
+    public void testLiterals() {
+        String json = "{\"t\":true,\"f\":false,\"n\":null,\"upper\":\"TRUE\",\"word\":\"yes\",\"one\":1}";
+        for (String key : new String[]{"t", "f", "n", "upper", "word", "one", "missing"}) assertParity(json, key);
+    }
+
+    @Test
+    public void testDuplicateKeys() {
+        for (String json : new String[]{"{\"a\":1,\"a\":2}", "{\"a\":null,\"a\":2}", "{\"o\":{\"b\":1,\"b\":1}}",
+                "{\"a\\u0062\":1,\"ab\":2}"}) {
+            assertBothReject(json);
+            for (JsonEngine engine : new JsonEngine[]{ORG_JSON, STREAMING}) {
+                try {
+                    engine.parseObject(json);
+                } catch (JsonFormatException e) {
+                    assertTrue(e.getMessage(), e.getMessage().startsWith("Duplicate key \""));
+                }
+            }
+        }
+        assertParity(engine -> engine.parseArray("[{\"a\":1},{\"a\":2}]").getObject(1).getInt("a"));
+    }
+
+    @Test
+    public void testNestedArrays() {
+        String json = "[[1,[2,\"x\"]],[],[{\"a\":[null,\"y\",[[]]]}],\"z\",{}]";
+        assertParity(engine -> engine.parseArray(json).length());
+        assertParity(engine -> engine.parseArray(json).getArray(0).length());
+        assertParity(engine -> engine.parseArray(json).getArray(0).getArray(1).getString(1));
+        assertParity(engine -> engine.parseArray(json).getArray(0).getArray(1).getString(0));
+        assertParity(engine -> engine.parseArray(json).getArray(1).length());
+        assertParity(engine -> engine.parseArray(json).getArray(1).getString(0));
+        assertParity(engine -> engine.parseArray(json).getArray(1).isNull(0));
+        assertParity(engine -> engine.parseArray(json).getArray(2).getObject(0).getArray("a").isNull(0));
+        assertParity(engine -> engine.parseArray(json).getArray(2).getObject(0).getArray("a").getString(1));
+        assertParity(engine -> engine.parseArray(json).getArray(2).getObject(0).getArray("a").getArray(2).getArray(0).length());
+        assertParity(engine -> engine.parseArray(json).getArray(3));
+        assertParity(engine -> engine.parseArray(json).getObject(3));
+        assertParity(engine -> engine.parseArray(json).getString(3));
+        assertParity(engine -> engine.parseArray(json).getObject(4).size());
+        assertParity(engine -> engine.parseArray(json).getString(9));
+        assertParity(engine -> engine.parseArray(json).isNull(-1));
+        assertBothReject("[[1,2]");
+        assertBothReject("[1 2]");
+        assertBothReject("{\"a\":[1,2}");
+    }
+
+    @Test
+    public void testErrorMessages() {
+        String json = "{\"s\":\"text\",\"i\":3,\"o\":{},\"a\":[],\"n\":null}";
+        for (String key : new String[]{"s", "i", "o", "a", "n", "missing"}) assertParity(json, key);
+        assertEquals("failed: jsonobject[\"missing\"] not found", run(STREAMING, engine -> engine.parseObject(json).getString("missing")));
+        assertEquals("failed: jsonobject[\"s\"] is not a int", run(STREAMING, engine -> engine.parseObject(json).getInt("s")));
+        assertEquals("failed: jsonarray[0] not found", run(STREAMING, engine -> engine.parseArray("[]").getString(0)));
+        for (String json2 : new String[]{"", "{", "[", "{\"a\":1", "{\"a\" 1}", "{\"a\":}", "[\"a\""}) {
+            assertBothReject(json2);
+        }
+    }
+
+    @Test
+    public void testKeys() {
+        String json = "{\"b\":1,\"a\":{\"d\":2,\"c\":3},\"e\":[]}";
+        assertParity(engine -> keys(engine.parseObject(json)));
+        assertParity(engine -> keys(engine.parseObject(json).getObject("a")));
+        assertParity(engine -> keys(engine.parseObject("{}")));
+    }
+
+    private static TreeSet<String> keys(JsonObjectView object) {
+        TreeSet<String> keys = new TreeSet<>();
+        for (int i = 0; i < object.size(); i++) keys.add(object.keyAt(i));
+        return keys;
+    }
+
+    @Test
+    public void testBinders() throws IOException {
+        Openstud os = new Openstud();
+        String examsDone = fixture("exams_done.json");
+        String examsDoable = fixture("exams_doable.json");
+        String taxes = fixture("taxes.json");
+        String classrooms = fixture("classrooms.json");
+        assertParity(engine -> SapienzaBinders.EXAM_DONE.bindAll(os, engine.parseObject(examsDone).getObject("ritorno").getArray("esami")));
+        assertParity(engine -> SapienzaBinders.EXAM_DOABLE.bindAll(os, engine.parseObject(examsDoable).getObject("ritorno").getArray("esami")));
+        assertParity(engine -> SapienzaBinders.PAID_TAX.bindAll(os, engine.parseObject(taxes).getObject("risultatoLista").getArray("risultati")));
+        assertParity(engine -> SapienzaBinders.UNPAID_TAX.bindAll(os, engine.parseObject(taxes).getObject("risultatoLista").getArray("risultati")));
+        assertParity(engine -> SapienzaBinders.CLASSROOM.bindAll(os, engine.parseArray(classrooms)));
+        assertParity(engine -> SapienzaBinders.EXAM_DONE.bindAll(os, engine.parseObject(examsDone).getObject("ritorno").getArray("esami")).size());
+    }
+
+    @Test
+    public void testBinderErrors() {
+        Openstud os = new Openstud();
+        assertParity(engine -> SapienzaBinders.EXAM_DONE.bind(os, engine.parseObject("{\"cfu\":\"nine\"}")));
+        assertParity(engine -> SapienzaBinders.EXAM_DONE.bind(os, engine.parseObject("{\"esito\":\"28\"}")));
+        assertParity(engine -> SapienzaBinders.CLASSROOM.bind(os, engine.parseObject("{\"lat\":\"north\"}")));
+        assertParity(engine -> SapienzaBinders.CLASSROOM.bind(os, engine.parseObject("{\"lat\":null,\"weight\":2.7}")));
+        // both amounts land on the same property, the binder order decides the winner on every engine
+        assertParity(engine -> SapienzaBinders.UNPAID_TAX.bind(os, engine.parseObject("{\"importoBollettino\":\"12,50\",\"impoVers\":\"3.00\"}")));
+    }
+}
@@ -0,0 +1,95 @@
+package matypist.openstud.driver.core.logging;
+
+import matypist.openstud.driver.core.replay.HttpRedactor;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+public class SessionLoggerTest {
+
+    @Test
+    public void testMessagesAreBuiltOnlyWhenLoggable() {
+        Logger logger = newLogger("lazy", Level.WARNING);
+        SessionLogger log = new SessionLogger(logger, 100, 1, null, null);
+        log.log(Level.INFO, () -> {
+            throw new AssertionError("INFO messages must not be built");
+        });
+        log.log(Level.INFO, new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("INFO messages must not be formatted");
+            }
+        });
+        log.log(Level.WARNING, () -> "built");
+        assertEquals("built", records(logger).get(0).getMessage());
+    }
+
+    @Test
+    public void testBodiesAreTruncatedAndRedacted() {
+        Logger logger = newLogger("body", Level.ALL);
+        SessionLogger log = new SessionLogger(logger, 70, 1, HttpRedactor.forLogs(), null);
+        log.logBody(Level.INFO, "{\"codiceFiscale\":\"XXXXXX00X00X000X\",\"nome\":\"MARIO\",\"tokeniws\":\"abcdefghijklmnopqrstuvwxyz\"}");
+        String message = records(logger).get(0).getMessage();
+        assertEquals("{\"codiceFiscale\":\"REDACTED\",\"nome\":\"MARIO\",\"tokeniws\":\"REDACTED\"... (21 more characters)", message);
+    }
+
+    @Test
+    public void testBodySampling() {
+        Logger logger = newLogger("sampled", Level.ALL);
+        new SessionLogger(logger, 100, 0, null, null).logBody(Level.INFO, "{}");
+        new SessionLogger(logger, 0, 1, null, null).logBody(Level.INFO, "{}");
+        assertTrue(records(logger).isEmpty());
+        new SessionLogger(logger, 100, 1, null, null).logBody(Level.INFO, "{}");
+        assertEquals(1, records(logger).size());
+    }
+
+    @Test
+    public void testAsyncDispatch() throws InterruptedException {
+        Logger logger = newLogger("async", Level.ALL);
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher(16);
+        SessionLogger log = new SessionLogger(logger, 100, 1, null, dispatcher);
+        for (int i = 0; i < 10; i++) log.log(Level.INFO, "message " + i);
+        assertTrue(dispatcher.awaitIdle(5, TimeUnit.SECONDS));
+        List<LogRecord> records = records(logger);
+        assertEquals(10, records.size());
+        assertEquals("message 9", records.get(9).getMessage());
+        assertEquals(0, dispatcher.getDropped());
+    }
+
+    private static Logger newLogger(String name, Level level) {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.setLevel(level);
+        logger.addHandler(new CollectingHandler());
+        return logger;
+    }
+
+    private static List<LogRecord> records(Logger logger) {
+        return ((CollectingHandler) logger.getHandlers()[0]).records;
+    }
+
+    private static class CollectingHandler extends Handler {
+        private final List<LogRecord> records = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(LogRecord record) {
+            records.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package matypist.openstud.driver.core.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram(3_600_000_000L, 2);
+        for (long i = 1; i <= 10_000; i++) histogram.record(i * 1000);
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(5_000_500, histogram.getMean(), 0.001);
+        assertEquals(5_000_000, histogram.getValueAtPercentile(50), 5_000_000 / 100);
+        assertEquals(9_900_000, histogram.getValueAtPercentile(99), 9_900_000 / 100);
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        Histogram histogram = new Histogram(1000, 2);
+        for (int i = 0; i < 100; i++) histogram.record(i);
+        assertEquals(0, histogram.getValueAtPercentile(1));
+        assertEquals(49, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testClampAndReset() {
+        Histogram histogram = new Histogram(1000, 2);
+        histogram.record(-5);
+        histogram.record(1_000_000);
+        assertEquals(1000, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+}
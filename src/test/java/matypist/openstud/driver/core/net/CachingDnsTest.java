@@ -0,0 +1,72 @@
+package matypist.openstud.driver.core.net;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CachingDnsTest {
+
+    @Test
+    public void testLookupsAreCached() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CachingDns dns = new CachingDns(hostname -> {
+            lookups.incrementAndGet();
+            return Collections.singletonList(InetAddress.getByAddress(hostname, new byte[]{127, 0, 0, 1}));
+        }, 60000, 16);
+        assertEquals("127.0.0.1", dns.lookup("www.studenti.uniroma1.it").get(0).getHostAddress());
+        dns.lookup("www.studenti.uniroma1.it");
+        assertEquals(1, lookups.get());
+        dns.lookup("gomp.sapienzaapps.it");
+        assertEquals(2, lookups.get());
+        dns.invalidate("www.studenti.uniroma1.it");
+        dns.lookup("www.studenti.uniroma1.it");
+        assertEquals(3, lookups.get());
+        assertEquals(1, dns.getStats().getHits());
+    }
+
+    @Test
+    public void testEntriesExpire() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CachingDns dns = new CachingDns(hostname -> {
+            lookups.incrementAndGet();
+            return Collections.singletonList(InetAddress.getByAddress(hostname, new byte[]{127, 0, 0, 1}));
+        }, 20, 16);
+        dns.lookup("www.uniroma1.it");
+        Thread.sleep(40);
+        dns.lookup("www.uniroma1.it");
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void testFailuresAreNotCached() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CachingDns dns = new CachingDns(hostname -> {
+            if (lookups.incrementAndGet() == 1) throw new UnknownHostException(hostname);
+            return Collections.singletonList(InetAddress.getByAddress(hostname, new byte[]{127, 0, 0, 1}));
+        }, 60000, 16);
+        try {
+            dns.lookup("www.uniroma1.it");
+            fail("the first lookup should fail");
+        } catch (UnknownHostException ignored) {
+        }
+        assertFalse(dns.lookup("www.uniroma1.it").isEmpty());
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void testTtlNeverExceedsTheJvmOne() {
+        assertEquals(10000, CachingDns.ttlMillis("10"));
+        assertEquals(0, CachingDns.ttlMillis("0"));
+        assertEquals(30000, CachingDns.ttlMillis("3600"));
+        // -1 caches forever, missing or broken values fall back to the JVM default
+        assertEquals(30000, CachingDns.ttlMillis("-1"));
+        assertEquals(30000, CachingDns.ttlMillis(null));
+        assertEquals(30000, CachingDns.ttlMillis("forever"));
+        assertTrue(CachingDns.systemTtlMillis() <= 30000);
+    }
+}
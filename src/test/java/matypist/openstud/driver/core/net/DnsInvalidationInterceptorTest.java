@@ -0,0 +1,125 @@
+package matypist.openstud.driver.core.net;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DnsInvalidationInterceptorTest {
+
+    private static CachingDns dns(AtomicInteger lookups) {
+        return new CachingDns(hostname -> {
+            lookups.incrementAndGet();
+            return Collections.singletonList(InetAddress.getByAddress(hostname, new byte[]{127, 0, 0, 1}));
+        }, 60000, 16);
+    }
+
+    private static void intercept(CachingDns dns, IOException failure) {
+        try {
+            new DnsInvalidationInterceptor(dns).intercept(new FailingChain(failure));
+            fail("the failure should be rethrown");
+        } catch (IOException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void testConnectFailuresInvalidateTheHost() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CachingDns dns = dns(lookups);
+        dns.lookup("www.studenti.uniroma1.it");
+        dns.lookup("gomp.sapienzaapps.it");
+        intercept(dns, new ConnectException("Connection refused"));
+        dns.lookup("www.studenti.uniroma1.it");
+        assertEquals(3, lookups.get());
+        dns.lookup("www.studenti.uniroma1.it");
+        intercept(dns, new NoRouteToHostException("No route to host"));
+        dns.lookup("www.studenti.uniroma1.it");
+        assertEquals(4, lookups.get());
+        // only the host of the failed request is dropped
+        dns.lookup("gomp.sapienzaapps.it");
+        assertEquals(4, lookups.get());
+    }
+
+    @Test
+    public void testOtherFailuresKeepTheHost() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CachingDns dns = dns(lookups);
+        dns.lookup("www.studenti.uniroma1.it");
+        intercept(dns, new SocketTimeoutException("timeout"));
+        dns.lookup("www.studenti.uniroma1.it");
+        assertEquals(1, lookups.get());
+    }
+
+    private static class FailingChain implements Interceptor.Chain {
+        private final Request request = new Request.Builder().url("https://www.studenti.uniroma1.it/phxdroidws").build();
+        private final IOException failure;
+
+        FailingChain(IOException failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response proceed(Request request) throws IOException {
+            throw failure;
+        }
+
+        @Override
+        public Connection connection() {
+            return null;
+        }
+
+        @Override
+        public Call call() {
+            return null;
+        }
+
+        @Override
+        public int connectTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withConnectTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int readTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withReadTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int writeTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withWriteTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+    }
+}
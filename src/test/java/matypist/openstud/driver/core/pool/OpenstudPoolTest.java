@@ -0,0 +1,178 @@
+package matypist.openstud.driver.core.pool;
+
+import matypist.openstud.driver.core.Openstud;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class OpenstudPoolTest {
+
+    @Test
+    public void testLeastRecentlyUsedIsClosed() throws Exception {
+        Map<String, RemovalCause> removed = new ConcurrentHashMap<>();
+        OpenstudPool pool = new OpenstudPoolBuilder().setFactory(id -> new TrackedSession())
+                .setMaxSessions(2)
+                .setRemovalListener((id, os, cause) -> {
+                    assertFalse(((TrackedSession) os).closed);
+                    removed.put(id, cause);
+                })
+                .build();
+        TrackedSession first = (TrackedSession) pool.acquire("1");
+        TrackedSession second = (TrackedSession) pool.acquire("2");
+        pool.release(second);
+        assertSame(first, pool.acquire("1"));
+        pool.release(first);
+        pool.release(first);
+        pool.release(pool.acquire("3"));
+        assertEquals(RemovalCause.SIZE, removed.get("2"));
+        assertTrue(second.closed);
+        assertFalse(first.closed);
+        pool.invalidate("1");
+        assertEquals(RemovalCause.EXPLICIT, removed.get("1"));
+        assertTrue(first.closed);
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testLeasedSessionIsClosedOnRelease() throws Exception {
+        Map<String, RemovalCause> removed = new ConcurrentHashMap<>();
+        OpenstudPool pool = new OpenstudPoolBuilder().setFactory(id -> new TrackedSession())
+                .setMaxSessions(1)
+                .setRemovalListener((id, os, cause) -> removed.put(id, cause))
+                .build();
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        AtomicBoolean closedWhileInUse = new AtomicBoolean();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        Thread user = new Thread(() -> {
+            try {
+                TrackedSession session = (TrackedSession) pool.acquire("1");
+                acquired.countDown();
+                evicted.await();
+                closedWhileInUse.set(session.closed);
+                pool.release(session);
+            } catch (Exception e) {
+                error.set(e);
+            }
+        });
+        user.start();
+        acquired.await();
+        TrackedSession first = (TrackedSession) pool.peek("1");
+        pool.release(pool.acquire("2"));
+        // evicted while the other thread still uses it
+        assertEquals(RemovalCause.SIZE, removed.get("1"));
+        assertNull(pool.peek("1"));
+        assertFalse(first.closed);
+        evicted.countDown();
+        user.join();
+        assertNull(error.get());
+        assertFalse(closedWhileInUse.get());
+        assertTrue(first.closed);
+        try {
+            pool.release(first);
+            fail("A released session can't be released again");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void testConcurrentCreationsAreShared() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        OpenstudPool pool = new OpenstudPoolBuilder().setFactory(id -> {
+            created.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new TrackedSession();
+        }).build();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Openstud>> futures = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < 8; i++) futures.add(executor.submit(() -> pool.acquire("1")));
+            Thread.sleep(100);
+            release.countDown();
+            Openstud session = futures.get(0).get();
+            for (Future<Openstud> future : futures) assertSame(session, future.get());
+            assertEquals(1, created.get());
+            assertEquals(1, pool.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCreationCompletedAfterLookupIsReused() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        AtomicReference<Openstud> other = new AtomicReference<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        Map<String, RemovalCause> removed = new ConcurrentHashMap<>();
+        final OpenstudPool[] holder = new OpenstudPool[1];
+        OpenstudPool pool = new OpenstudPoolBuilder().setFactory(id -> {
+            created.incrementAndGet();
+            return new TrackedSession();
+        }).setIdleTimeout(100, TimeUnit.MILLISECONDS).setRemovalListener((id, os, cause) -> {
+            removed.put(id, cause);
+            if (!id.equals("idle")) return;
+            // called after the lookup of "1" has missed and before its creation: another caller creates it meanwhile
+            Thread thread = new Thread(() -> {
+                try {
+                    other.set(holder[0].acquire("1"));
+                } catch (Exception e) {
+                    error.set(e);
+                }
+            });
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }).build();
+        holder[0] = pool;
+        pool.acquire("idle");
+        Thread.sleep(150);
+        Openstud session = pool.acquire("1");
+        assertNull(error.get());
+        assertSame(other.get(), session);
+        assertEquals(2, created.get());
+        assertEquals(RemovalCause.IDLE, removed.get("idle"));
+        assertNull(removed.get("1"));
+        assertFalse(((TrackedSession) session).closed);
+        assertEquals(0, pool.getStats().getRemovals(RemovalCause.EXPLICIT));
+    }
+
+    @Test
+    public void testFailedCreationIsNotPooled() throws Exception {
+        OpenstudPool pool = new OpenstudPoolBuilder().setFactory(id -> {
+            throw new IllegalStateException("down");
+        }).build();
+        try {
+            pool.acquire("1");
+            fail("The factory failure should be rethrown");
+        } catch (IllegalStateException e) {
+            assertEquals("down", e.getMessage());
+        }
+        assertEquals(0, pool.size());
+        assertEquals(1, pool.getStats().getCreationFailures());
+    }
+
+    private static class TrackedSession extends Openstud {
+        volatile boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+            super.close();
+        }
+    }
+}
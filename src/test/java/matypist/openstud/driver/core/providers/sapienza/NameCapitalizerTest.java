@@ -0,0 +1,95 @@
+package matypist.openstud.driver.core.providers.sapienza;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class NameCapitalizerTest {
+    private static final String[] NAMES = {"MARIO", "ROSSI", "GIAN LUCA", "DE ROSA", "D'ANGELO", "DELLA VALLE",
+            "MARIA DEL CARMEN", "LO RUSSO", "DI GIOVANNI", "ANNA MARIA"};
+
+    @Test
+    public void testCapitalizesNames() {
+        NameCapitalizer capitalizer = new NameCapitalizer(16);
+        assertEquals("Mario", capitalizer.capitalize("MARIO"));
+        assertEquals("Gian Luca", capitalizer.capitalize("GIAN LUCA"));
+        assertNull(capitalizer.capitalize(null));
+    }
+
+    @Test
+    public void testMemoizedValueIsReused() {
+        NameCapitalizer capitalizer = new NameCapitalizer(16);
+        String first = capitalizer.capitalize("ROSSI");
+        assertSame(first, capitalizer.capitalize("ROSSI"));
+        assertSame(first, capitalizer.capitalize(new String("ROSSI")));
+    }
+
+    @Test
+    public void testMemoMatchesUncachedResults() {
+        // a memo with a single slot collides on every other name, every result must still be the computed one
+        NameCapitalizer reference = new NameCapitalizer(1 << 10);
+        NameCapitalizer tiny = new NameCapitalizer(1);
+        for (int round = 0; round < 3; round++) {
+            for (String name : NAMES) {
+                assertEquals(reference.capitalize(name), tiny.capitalize(name));
+            }
+        }
+    }
+
+    @Test
+    public void testLongNamesAreNotMemoized() {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() <= 64) builder.append("MARIA ");
+        String name = builder.toString().trim();
+        NameCapitalizer capitalizer = new NameCapitalizer(16);
+        String first = capitalizer.capitalize(name);
+        assertEquals(first, capitalizer.capitalize(name));
+        assertTrue(first.startsWith("Maria Maria"));
+    }
+
+    @Test
+    public void testConcurrentCallsAgree() throws Exception {
+        NameCapitalizer reference = new NameCapitalizer(16);
+        List<String> expected = new ArrayList<>();
+        for (String name : NAMES) expected.add(reference.capitalize(name));
+        NameCapitalizer shared = new NameCapitalizer(4);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        int index = (i + offset) % NAMES.length;
+                        assertEquals(expected.get(index), shared.capitalize(NAMES[index]));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSizeIsValidated() {
+        assertNotNull(new NameCapitalizer(1000));
+        assertSame(NameCapitalizer.shared(), NameCapitalizer.shared());
+        try {
+            new NameCapitalizer(0);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            new NameCapitalizer((1 << 20) + 1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+}
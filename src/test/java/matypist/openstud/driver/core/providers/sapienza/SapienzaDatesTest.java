@@ -0,0 +1,49 @@
+package matypist.openstud.driver.core.providers.sapienza;
+
+import org.junit.Test;
+import org.threeten.bp.DateTimeException;
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
+
+import static org.junit.Assert.*;
+
+public class SapienzaDatesTest {
+
+    @Test
+    public void testDatesMatchFormatter() {
+        LocalDate date = LocalDate.of(1999, 1, 1);
+        while (date.getYear() < 2030) {
+            String text = String.format("%02d/%02d/%04d", date.getDayOfMonth(), date.getMonthValue(), date.getYear());
+            assertEquals(LocalDate.parse(text, SapienzaDates.DATE), SapienzaDates.parseDate(text));
+            date = date.plusDays(1);
+        }
+    }
+
+    @Test
+    public void testDateTimesMatchFormatter() {
+        String[] samples = {"01/02/2019 00:00:00", "29/02/2020 23:59:59", "31/12/2018 12:30:05", "15/07/2021 08:00:00"};
+        for (String text : samples) {
+            assertEquals(LocalDateTime.parse(text, SapienzaDates.DATE_TIME), SapienzaDates.parseDateTime(text));
+            assertEquals(LocalDate.parse(text, SapienzaDates.DATE_TIME), SapienzaDates.parseDateOfDateTime(text));
+        }
+        String[] timetable = {"01/02/2019 08:00", "12/31/2018 19:45", "02/29/2020 00:00"};
+        for (String text : timetable)
+            assertEquals(LocalDateTime.parse(text, SapienzaDates.TIMETABLE), SapienzaDates.parseTimetable(text));
+    }
+
+    @Test
+    public void testUnexpectedInputFallsBack() {
+        // resolved by the formatter to the last day of the month
+        assertEquals(LocalDate.parse("31/04/2019", SapienzaDates.DATE), SapienzaDates.parseDate("31/04/2019"));
+        assertEquals(LocalDate.parse("29/02/2019", SapienzaDates.DATE), SapienzaDates.parseDate("29/02/2019"));
+        String[] invalid = {"", "1/02/2019", "01-02-2019", "01/13/2019", "00/01/2019", "01/02/2019 ", "aa/bb/cccc"};
+        for (String text : invalid) {
+            try {
+                SapienzaDates.parseDate(text);
+                fail("parsed " + text);
+            } catch (DateTimeException ignored) {
+            }
+        }
+        assertEquals(LocalDateTime.parse("01/02/2019 24:00:00", SapienzaDates.DATE_TIME), SapienzaDates.parseDateTime("01/02/2019 24:00:00"));
+    }
+}
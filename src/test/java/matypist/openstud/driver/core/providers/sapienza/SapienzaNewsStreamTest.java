@@ -0,0 +1,116 @@
+package matypist.openstud.driver.core.providers.sapienza;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.OpenstudBuilder;
+import matypist.openstud.driver.core.internals.NewsStream;
+import matypist.openstud.driver.core.models.News;
+import matypist.openstud.driver.exceptions.OpenstudInvalidResponseException;
+import matypist.openstud.driver.mock.InfostudMockServer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SapienzaNewsStreamTest {
+    // every listing page of the mock server has three news
+    private static final int NEWS_PER_PAGE = 3;
+
+    private static Openstud session(InfostudMockServer server) {
+        return server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+    }
+
+    private static List<News> drain(NewsStream stream) throws Exception {
+        List<News> ret = new ArrayList<>();
+        while (stream.hasNext()) ret.add(stream.next());
+        return ret;
+    }
+
+    @Test
+    public void testNextPageIsFetchedInBackground() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer()
+                .setLatency(100, 100, TimeUnit.MILLISECONDS)
+                .setNewsPages(2)
+                .start()) {
+            Openstud os = session(server);
+            try (NewsStream stream = os.getNewsStream("it", false, null, null, 5, null)) {
+                assertNotNull(stream.next());
+                // the second page was requested while the details of the first news were downloaded
+                assertEquals(2, server.getStats().getNewsListings());
+                assertEquals(2 * NEWS_PER_PAGE - 1, drain(stream).size());
+                assertEquals(3, server.getStats().getNewsListings());
+            }
+        }
+    }
+
+    @Test
+    public void testLimitIsRespected() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().start()) {
+            Openstud os = session(server);
+            try (NewsStream stream = os.getNewsStream("it", false, NEWS_PER_PAGE + 1, null, 5, null)) {
+                assertEquals(NEWS_PER_PAGE + 1, drain(stream).size());
+            }
+            // no page is prefetched once the limit is queued
+            assertEquals(2, server.getStats().getNewsListings());
+            assertFalse(os.getNewsIndex().isWarm("it", false));
+        }
+    }
+
+    @Test
+    public void testCloseCancelsPendingFetch() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer()
+                .setLatency(300, 300, TimeUnit.MILLISECONDS)
+                .start()) {
+            Openstud os = session(server);
+            NewsStream stream = os.getNewsStream("it", false, null, null, 5, null);
+            assertNotNull(stream.next());
+            stream.close();
+            long start = System.nanoTime();
+            assertFalse(stream.hasNext());
+            // the second page is still on its way, it isn't waited for
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(300));
+            Thread.sleep(700);
+            assertFalse(stream.hasNext());
+            assertEquals(2, server.getStats().getNewsListings());
+            assertFalse(os.getNewsIndex().isWarm("it", false));
+        }
+    }
+
+    @Test
+    public void testEmptyListingIsInvalidHtml() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().setNewsPages(0).start()) {
+            Openstud os = session(server);
+            try (NewsStream stream = os.getNewsStream("it", false, null, null, 1, null)) {
+                stream.hasNext();
+                fail("an empty listing should be reported");
+            } catch (OpenstudInvalidResponseException e) {
+                assertTrue(e.isHTMLError());
+                assertEquals("invalid HTML", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testOnlyFullCrawlFromFirstPageIsRecorded() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().setNewsPages(2).start()) {
+            Openstud os = session(server);
+            // starts from the second page
+            try (NewsStream stream = os.getNewsStream("it", false, null, 1, null, null)) {
+                assertEquals(NEWS_PER_PAGE, drain(stream).size());
+            }
+            assertFalse(os.getNewsIndex().isWarm("it", false));
+            // stops at the last page without knowing that the listing ran out
+            try (NewsStream stream = os.getNewsStream("it", false, null, null, 2, null)) {
+                assertEquals(2 * NEWS_PER_PAGE, drain(stream).size());
+            }
+            assertFalse(os.getNewsIndex().isWarm("it", false));
+            try (NewsStream stream = os.getNewsStream("it", false, null, null, 10, null)) {
+                assertEquals(2 * NEWS_PER_PAGE, drain(stream).size());
+            }
+            assertTrue(os.getNewsIndex().isWarm("it", false));
+            assertFalse(os.getNewsIndex().isWarm("it", true));
+        }
+    }
+}
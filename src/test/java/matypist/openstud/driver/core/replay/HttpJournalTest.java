@@ -0,0 +1,67 @@
+package matypist.openstud.driver.core.replay;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HttpJournalTest {
+
+    @Test
+    public void testReopenAndGrow() throws IOException {
+        File file = File.createTempFile("openstud", ".journal");
+        file.deleteOnExit();
+        byte[] body = new byte[300 * 1024];
+        for (int i = 0; i < body.length; i++) body[i] = (byte) i;
+        try (HttpJournal journal = new HttpJournal(file)) {
+            for (int i = 0; i < 8; i++)
+                journal.append(new RecordedExchange(i, 120 + i, "GET", "https://example.org/" + i, 200, "application/pdf", body));
+            journal.append(new RecordedExchange(9, 5, "POST", "https://example.org/login", 401, null, null));
+        }
+        assertTrue(file.length() > 8 * body.length);
+        try (HttpJournal journal = new HttpJournal(file)) {
+            assertEquals(9, journal.size());
+            journal.append(new RecordedExchange(10, 7, "GET", "https://example.org/last", 200, "text/html", "ok".getBytes(StandardCharsets.UTF_8)));
+            List<RecordedExchange> exchanges = journal.read();
+            assertEquals(10, exchanges.size());
+            assertEquals("https://example.org/3", exchanges.get(3).getUrl());
+            assertEquals(123, exchanges.get(3).getDurationMillis());
+            assertArrayEquals(body, exchanges.get(7).getBody());
+            assertEquals(401, exchanges.get(8).getCode());
+            assertNull(exchanges.get(8).getContentType());
+            assertEquals(0, exchanges.get(8).getBody().length);
+            assertEquals("ok", new String(exchanges.get(9).getBody(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testRedaction() {
+        HttpRedactor redactor = HttpRedactor.defaults();
+        assertEquals("https://example.org/studente/1234567?ingresso=REDACTED&page=2",
+                redactor.redactUrl("https://example.org/studente/1234567?ingresso=abc123&page=2"));
+        assertEquals("https://example.org/autenticazione?key=REDACTED&matricola=1234567&stringaAutenticazione=REDACTED",
+                redactor.redactUrl("https://example.org/autenticazione?key=k&matricola=1234567&stringaAutenticazione=p%26w"));
+        assertEquals("https://example.org/news", redactor.redactUrl("https://example.org/news"));
+        String login = "{\"result\":{\"tokeniws\":\"secret\\\"token\",\"name\":\"x\"}}";
+        assertEquals("{\"result\":{\"tokeniws\":\"REDACTED\",\"name\":\"x\"}}",
+                text(redactor.redactBody("https://example.org/login", "application/json", bytes(login))));
+        String legacy = "{\"output\": \"secret\",\"esito\":{\"flagEsito\":0}}";
+        assertEquals("{\"output\": \"REDACTED\",\"esito\":{\"flagEsito\":0}}",
+                text(redactor.redactBody("https://example.org/autenticazione", "application/json", bytes(legacy))));
+        assertEquals(legacy, text(redactor.redactBody("https://example.org/studente", "application/json", bytes(legacy))));
+        byte[] pdf = {'%', 'P', 'D', 'F'};
+        assertSame(pdf, redactor.redactBody("https://example.org/autenticazione", "application/pdf", pdf));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
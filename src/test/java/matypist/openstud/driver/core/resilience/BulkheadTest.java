@@ -0,0 +1,82 @@
+package matypist.openstud.driver.core.resilience;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BulkheadTest {
+
+    @Test
+    public void testQueueIsBounded() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(Upstream.WEBSITE, 1, 1, TimeUnit.SECONDS.toMillis(10));
+        bulkhead.acquire();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<?> waiting = executor.submit(() -> {
+                started.countDown();
+                bulkhead.acquire();
+                bulkhead.release();
+                return null;
+            });
+            started.await();
+            while (bulkhead.getQueued() == 0) Thread.sleep(1);
+            try {
+                bulkhead.acquire();
+                fail("the queue should be full");
+            } catch (BulkheadFullException e) {
+                assertEquals(Upstream.WEBSITE, e.getUpstream());
+            }
+            bulkhead.release();
+            waiting.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, bulkhead.getRejected());
+        assertEquals(0, bulkhead.getActive());
+        assertEquals(0, bulkhead.getQueued());
+    }
+
+    @Test
+    public void testWaitIsBounded() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(Upstream.PHOTO, 1, 4, 20);
+        bulkhead.acquire();
+        long start = System.nanoTime();
+        try {
+            bulkhead.acquire();
+            fail("the wait should be over");
+        } catch (BulkheadFullException e) {
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        bulkhead.release();
+        bulkhead.acquire();
+        assertEquals(1, bulkhead.getActive());
+        assertEquals(1, bulkhead.getRejected());
+    }
+
+    @Test
+    public void testSharedBulkheads() {
+        for (Upstream upstream : Upstream.values()) {
+            Bulkhead shared = Bulkhead.shared(upstream);
+            assertSame(shared, Bulkhead.shared(upstream));
+            assertEquals(upstream, shared.getUpstream());
+            Bulkhead defaults = Bulkhead.defaults(upstream);
+            assertNotSame(shared, defaults);
+            assertEquals(defaults.getMaxConcurrent(), shared.getMaxConcurrent());
+            assertEquals(defaults.getMaxQueued(), shared.getMaxQueued());
+        }
+        assertEquals(16, Bulkhead.shared(Upstream.API).getMaxConcurrent());
+        assertEquals(4, Bulkhead.shared(Upstream.PHOTO).getMaxConcurrent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSharedNeedsAnUpstream() {
+        Bulkhead.shared(null);
+    }
+}
@@ -0,0 +1,269 @@
+package matypist.openstud.driver.core.resilience;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreakerRegistry(3, 60000, 1).get("localhost", 443);
+        for (int i = 0; i < 2; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isMaintenance());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getRejected());
+        assertEquals(1, breaker.getTrips());
+        assertTrue(breaker.getRetryAfterMillis() > 0);
+    }
+
+    @Test
+    public void testMaintenanceOpensRightAway() {
+        CircuitBreaker breaker = new CircuitBreakerRegistry(5, 60000, 1).get("localhost", 443);
+        assertTrue(breaker.tryAcquire());
+        breaker.onMaintenance();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.isMaintenance());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testHalfOpenProbes() {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(1, 0, 2);
+        CircuitBreaker breaker = registry.get("localhost", 443);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onIgnored();
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertSame(breaker, registry.get("localhost", 443));
+        assertNotSame(breaker, registry.get("localhost", 8080));
+    }
+
+    @Test
+    public void testFailedProbeOpensAgain() {
+        CircuitBreaker breaker = new CircuitBreakerRegistry(1, 0, 1).get("localhost", 443);
+        assertTrue(breaker.tryAcquire());
+        breaker.onMaintenance();
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(2, breaker.getTrips());
+        assertFalse(breaker.isMaintenance());
+    }
+
+    @Test
+    public void testBareServiceUnavailableIsAFailure() throws IOException {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(2, 60000, 1);
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor(registry);
+        AnsweringChain chain = new AnsweringChain(503, "<html><body><h1>Service Unavailable</h1></body></html>", "text/html");
+        assertEquals(503, interceptor.intercept(chain).code());
+        CircuitBreaker breaker = registry.get("localhost", 80);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(503, interceptor.intercept(chain).code());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isMaintenance());
+        try {
+            interceptor.intercept(chain);
+            fail("an open circuit should reject the request");
+        } catch (CircuitOpenException e) {
+            assertEquals("localhost:80", e.getHost());
+        }
+        assertEquals(2, chain.calls);
+    }
+
+    @Test
+    public void testMaintenancePageOpensRightAway() throws IOException {
+        String page = "<html><body><p>Sorry, the page you are looking for is currently unavailable.</p></body></html>";
+        for (int code : new int[]{503, 200}) {
+            CircuitBreakerRegistry registry = new CircuitBreakerRegistry(5, 60000, 1);
+            CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor(registry);
+            AnsweringChain chain = new AnsweringChain(code, page, "text/html; charset=utf-8");
+            interceptor.intercept(chain);
+            CircuitBreaker breaker = registry.get("localhost", 80);
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+            assertTrue(breaker.isMaintenance());
+            // the copy of the maintenance page is served without reaching the server
+            Response response = interceptor.intercept(chain);
+            assertEquals(503, response.code());
+            assertTrue(response.body().string().contains("currently unavailable"));
+            assertEquals(1, chain.calls);
+        }
+    }
+
+    @Test
+    public void testOtherAnswersAreSuccesses() throws IOException {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(2, 60000, 1);
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor(registry);
+        interceptor.intercept(new AnsweringChain(503, "", "text/plain"));
+        interceptor.intercept(new AnsweringChain(500, "<html><body>Error</body></html>", "text/html"));
+        interceptor.intercept(new AnsweringChain(503, "", "text/plain"));
+        interceptor.intercept(new AnsweringChain(200, "{\"unavailable\":\"the page you are looking for is currently unavailable\"}",
+                "application/json"));
+        CircuitBreaker breaker = registry.get("localhost", 80);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getTrips());
+    }
+
+    @Test
+    public void testUnreadableProbeReleasesTheBreaker() throws IOException {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(1, 0, 1);
+        CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor(registry);
+        CircuitBreaker breaker = registry.get("localhost", 80);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        TimingOutSource source = new TimingOutSource();
+        AnsweringChain chain = new AnsweringChain(200, "", "text/html") {
+            @Override
+            ResponseBody body() {
+                return new ResponseBody() {
+                    @Override
+                    public MediaType contentType() {
+                        return MediaType.get("text/html");
+                    }
+
+                    @Override
+                    public long contentLength() {
+                        return -1;
+                    }
+
+                    @Override
+                    public BufferedSource source() {
+                        return Okio.buffer(source);
+                    }
+                };
+            }
+        };
+        try {
+            interceptor.intercept(chain);
+            fail("the body read should have timed out");
+        } catch (SocketTimeoutException ignored) {
+        }
+        assertTrue(source.closed);
+        assertEquals(2, breaker.getTrips());
+        // the probe slot was released, so the next request gets through and closes the breaker
+        assertEquals(200, interceptor.intercept(new AnsweringChain(200, "ok", "text/plain")).code());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private static class TimingOutSource implements Source {
+        private boolean closed;
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            throw new SocketTimeoutException("timeout");
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static class AnsweringChain implements Interceptor.Chain {
+        private final Request request = new Request.Builder().url("http://localhost/phxdroidws").build();
+        private final int code;
+        private final String body;
+        private final String type;
+        private int calls;
+
+        AnsweringChain(int code, String body, String type) {
+            this.code = code;
+            this.body = body;
+            this.type = type;
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response proceed(Request request) {
+            calls++;
+            return new Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(code).message("Status " + code)
+                    .body(body()).build();
+        }
+
+        ResponseBody body() {
+            return ResponseBody.create(body, MediaType.get(type));
+        }
+
+        @Override
+        public Connection connection() {
+            return null;
+        }
+
+        @Override
+        public Call call() {
+            return null;
+        }
+
+        @Override
+        public int connectTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withConnectTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int readTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withReadTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int writeTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withWriteTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package matypist.openstud.driver.core.search;
+
+import matypist.openstud.driver.core.models.News;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NewsIndexTest {
+
+    private static News news(String url, String title, String description) {
+        News news = new News();
+        news.setUrl(url);
+        news.setLocale("it");
+        news.setTitle(title);
+        news.setDescription(description);
+        return news;
+    }
+
+    private static NewsIndex sampleIndex(long ttlMillis) {
+        NewsIndex index = new NewsIndex(ttlMillis);
+        index.index(Arrays.asList(
+                news("https://www.uniroma1.it/1", "Bando Erasmus 2020", "Scadenza delle domande per la mobilità"),
+                news("https://www.uniroma1.it/2", "Concerto in aula magna", "Orchestra dell'università, ingresso libero per gli studenti Erasmus"),
+                news("https://www.uniroma1.it/3", "Lauree di luglio", "Calendario delle sedute di laurea")));
+        return index;
+    }
+
+    @Test
+    public void testTitleMatchesRankFirst() {
+        List<News> results = sampleIndex(60000).search("it", "erasmus", null);
+        assertEquals(2, results.size());
+        assertEquals("https://www.uniroma1.it/1", results.get(0).getUrl());
+        assertEquals("https://www.uniroma1.it/2", results.get(1).getUrl());
+        assertEquals(1, sampleIndex(60000).search("it", "erasmus", 1).size());
+    }
+
+    @Test
+    public void testMoreQueryTermsRankHigher() {
+        List<News> results = sampleIndex(60000).search("it", "erasmus orchestra", null);
+        assertEquals("https://www.uniroma1.it/2", results.get(0).getUrl());
+    }
+
+    @Test
+    public void testPrefixAndAccentsMatch() {
+        List<News> results = sampleIndex(60000).search("it", "laur", null);
+        assertEquals(1, results.size());
+        assertEquals("https://www.uniroma1.it/3", results.get(0).getUrl());
+        assertEquals(1, sampleIndex(60000).search("it", "MOBILITA", null).size());
+        // single characters only match whole terms
+        assertTrue(sampleIndex(60000).search("it", "l", null).isEmpty());
+        assertTrue(sampleIndex(60000).search("en", "erasmus", null).isEmpty());
+    }
+
+    @Test
+    public void testReindexReplacesDocument() {
+        NewsIndex index = sampleIndex(60000);
+        index.index(Arrays.asList(news("https://www.uniroma1.it/1", "Borse di studio", "")));
+        assertEquals(3, index.size("it"));
+        assertEquals(1, index.search("it", "erasmus", null).size());
+        assertEquals(1, index.search("it", "borse", null).size());
+    }
+
+    @Test
+    public void testWarmOnlyAfterCrawl() throws Exception {
+        NewsIndex index = sampleIndex(30);
+        assertFalse(index.isWarm("it", false));
+        index.markCrawled("it", false, 0);
+        assertTrue(index.isWarm("it", false));
+        assertFalse(index.isWarm("it", true));
+        assertFalse(index.isWarm("en", false));
+        Thread.sleep(50);
+        assertFalse(index.isWarm("it", false));
+        index.markCrawled("it", true, 0);
+        assertTrue(index.isWarm("it", true));
+        assertTrue(index.isWarm("it", false));
+        index.clear("it");
+        assertFalse(index.isWarm("it", true));
+    }
+
+    @Test
+    public void testLostDescriptionCoolsDescriptionSearches() {
+        NewsIndex index = sampleIndex(60000);
+        index.markCrawled("it", true, 0);
+        index.index(Arrays.asList(news("https://www.uniroma1.it/1", "Bando Erasmus 2020", "Scadenza delle domande")));
+        assertTrue(index.isWarm("it", true));
+        // fetched again without its description, like a crawl without descriptions does
+        index.index(Arrays.asList(news("https://www.uniroma1.it/3", "Lauree di luglio", null)));
+        assertFalse(index.isWarm("it", true));
+        assertTrue(index.isWarm("it", false));
+        assertTrue(index.search("it", "calendario", null).isEmpty());
+    }
+
+    @Test
+    public void testFullCrawlRemovesUnlistedNews() {
+        NewsIndex index = sampleIndex(60000);
+        long crawlStart = index.startCrawl();
+        index.index(Arrays.asList(
+                news("https://www.uniroma1.it/1", "Bando Erasmus 2020", "Scadenza delle domande per la mobilità"),
+                news("https://www.uniroma1.it/3", "Lauree di luglio", "Calendario delle sedute di laurea")));
+        // indexed while the crawl was running, it stays
+        index.index(Arrays.asList(news("https://www.uniroma1.it/4", "Nuovo bando", "Borse di studio")));
+        index.markCrawled("it", true, crawlStart);
+        assertEquals(3, index.size("it"));
+        assertTrue(index.search("it", "orchestra", null).isEmpty());
+        assertEquals(1, index.search("it", "erasmus", null).size());
+        assertEquals(1, index.search("it", "borse", null).size());
+        assertTrue(index.isWarm("it", true));
+    }
+}
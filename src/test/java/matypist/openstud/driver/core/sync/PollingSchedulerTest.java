@@ -0,0 +1,75 @@
+package matypist.openstud.driver.core.sync;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PollingSchedulerTest {
+
+    @Test
+    public void testPeriodicRuns() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        try (PollingScheduler scheduler = new PollingSchedulerBuilder().setTick(10, TimeUnit.MILLISECONDS).setJitter(0).build()) {
+            scheduler.schedule("1234567", "exams", 100, TimeUnit.MILLISECONDS, runs::incrementAndGet);
+            Thread.sleep(550);
+            // the first run falls anywhere in the first interval
+            assertTrue("Polled " + runs.get() + " times", runs.get() >= 4 && runs.get() <= 6);
+            assertEquals(0, scheduler.getThrottledCount());
+        }
+    }
+
+    @Test
+    public void testBudgetBacklog() throws Exception {
+        int accounts = 20;
+        try (PollingScheduler scheduler = new PollingSchedulerBuilder().setTick(10, TimeUnit.MILLISECONDS)
+                .setRateLimit(20, 1).build()) {
+            List<ScheduledPoll> polls = new ArrayList<>();
+            for (int i = 0; i < accounts; i++) {
+                polls.add(scheduler.schedule(String.valueOf(i), "exams", 50, TimeUnit.MILLISECONDS, () -> {
+                }));
+            }
+            Thread.sleep(1500);
+            long executed = scheduler.getExecutedCount();
+            // polls are due far more often than the budget allows, which bounds the runs but is used in full
+            assertTrue("Executed " + executed, executed <= 1 + 20 * 1.5 + 1);
+            assertTrue("Executed " + executed, executed >= 25);
+            assertTrue(scheduler.getThrottledCount() > 0);
+            // the backlog is served in order, every account had its turn
+            for (ScheduledPoll poll : polls) assertTrue(poll + " never ran", poll.getLastRun() > 0);
+        }
+    }
+
+    @Test
+    public void testScheduleReplacesAndCancels() {
+        try (PollingScheduler scheduler = new PollingSchedulerBuilder().build()) {
+            ScheduledPoll first = scheduler.schedule("1234567", "exams", 1, TimeUnit.HOURS, () -> {
+            });
+            ScheduledPoll second = scheduler.schedule("1234567", "exams", 1, TimeUnit.HOURS, () -> {
+            });
+            scheduler.schedule("1234567", "taxes", 1, TimeUnit.HOURS, () -> {
+            });
+            assertTrue(first.isCancelled());
+            assertSame(second, scheduler.getPoll("1234567", "exams"));
+            assertEquals(1, scheduler.getAccountCount());
+            assertEquals(2, scheduler.getScheduledCount());
+            second.cancel();
+            assertEquals(1, scheduler.getScheduledCount());
+            scheduler.cancel("1234567");
+            assertEquals(0, scheduler.getAccountCount());
+            assertEquals(0, scheduler.getScheduledCount());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosedScheduler() {
+        PollingScheduler scheduler = new PollingSchedulerBuilder().build();
+        scheduler.close();
+        scheduler.schedule("1234567", "exams", 1, TimeUnit.HOURS, () -> {
+        });
+    }
+}
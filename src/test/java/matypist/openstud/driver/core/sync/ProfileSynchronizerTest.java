@@ -0,0 +1,91 @@
+package matypist.openstud.driver.core.sync;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.OpenstudBuilder;
+import matypist.openstud.driver.core.models.ExamDone;
+import matypist.openstud.driver.mock.InfostudMockServer;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ProfileSynchronizerTest {
+
+    @Test
+    public void testPartsAreFetchedConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SyncPart.values().length);
+        try (InfostudMockServer server = new InfostudMockServer().setLatency(200, 200, TimeUnit.MILLISECONDS).start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            ProfileSnapshot snapshot = new ProfileSynchronizer(os, executor).sync();
+            assertTrue(snapshot.getErrors().toString(), snapshot.isComplete());
+            assertEquals(EnumSet.allOf(SyncPart.class), snapshot.getParts());
+            // eight parts and the photo of the card, one after the other would take at least 1800 ms
+            assertTrue("Sync took " + snapshot.getElapsedMillis() + " ms", snapshot.getElapsedMillis() < 1000);
+            assertEquals(9, server.getStats().getDataRequests());
+            assertEquals("XXXXXX00X00X000X", snapshot.getStudent().getSocialSecurityNumber());
+            assertEquals(3, snapshot.getExamsDone().size());
+            assertNotNull(snapshot.getStudentCard().getImage());
+            try {
+                snapshot.getExamsDone().add(new ExamDone());
+                fail("Snapshot lists should be read-only");
+            } catch (UnsupportedOperationException ignored) {
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOnlyRequestedParts() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (InfostudMockServer server = new InfostudMockServer().start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            ProfileSnapshot snapshot = new ProfileSynchronizer(os, executor).sync(SyncPart.EXAMS_DONE, SyncPart.PAID_TAXES);
+            assertEquals(EnumSet.of(SyncPart.EXAMS_DONE, SyncPart.PAID_TAXES), snapshot.getParts());
+            assertTrue(snapshot.isComplete());
+            assertFalse(snapshot.isSuccess(SyncPart.INFO_STUDENT));
+            assertNull(snapshot.getResult(SyncPart.INFO_STUDENT));
+            assertEquals(2, server.getStats().getDataRequests());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExpiredTokenIsRefreshedOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SyncPart.values().length);
+        try (InfostudMockServer server = new InfostudMockServer().setTokenTtl(1200, TimeUnit.MILLISECONDS).start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            Thread.sleep(1300);
+            ProfileSnapshot snapshot = new ProfileSynchronizer(os, executor).sync();
+            assertTrue(snapshot.getErrors().toString(), snapshot.isComplete());
+            // every part found the token expired, they all waited for the same refresh
+            assertEquals(1, server.getStats().getRefreshes());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInterruptedSync() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (InfostudMockServer server = new InfostudMockServer().setLatency(500, 500, TimeUnit.MILLISECONDS).start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            Thread.currentThread().interrupt();
+            ProfileSnapshot snapshot = new ProfileSynchronizer(os, executor).sync(SyncPart.EXAMS_DONE, SyncPart.PAID_TAXES);
+            assertTrue(Thread.interrupted());
+            assertEquals(2, snapshot.getErrors().size());
+            for (Exception error : snapshot.getErrors().values()) assertTrue(error instanceof InterruptedException);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
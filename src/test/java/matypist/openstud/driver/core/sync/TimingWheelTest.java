@@ -0,0 +1,89 @@
+package matypist.openstud.driver.core.sync;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testExpiresOnItsTick() {
+        TimingWheel wheel = new TimingWheel(10, 8, 0);
+        Timeout timeout = timeout(25);
+        wheel.add(timeout);
+        List<TimingWheel.Timeout> expired = new ArrayList<>();
+        wheel.advance(29, expired);
+        assertTrue(expired.isEmpty());
+        wheel.advance(30, expired);
+        assertEquals(1, expired.size());
+        assertSame(timeout, expired.get(0));
+        assertEquals(0, wheel.size());
+        assertEquals(40, wheel.nextTickNanos());
+    }
+
+    @Test
+    public void testRollover() {
+        TimingWheel wheel = new TimingWheel(10, 8, 0);
+        // two full turns later, in the same bucket as the near one
+        Timeout far = timeout(2 * 8 * 10 + 30);
+        Timeout near = timeout(30);
+        wheel.add(far);
+        wheel.add(near);
+        assertEquals(2, far.rounds);
+        List<TimingWheel.Timeout> expired = new ArrayList<>();
+        wheel.advance(30, expired);
+        assertEquals(1, expired.size());
+        assertSame(near, expired.get(0));
+        expired.clear();
+        wheel.advance(189, expired);
+        assertTrue(expired.isEmpty());
+        assertEquals(1, wheel.size());
+        wheel.advance(190, expired);
+        assertEquals(1, expired.size());
+        assertSame(far, expired.get(0));
+    }
+
+    @Test
+    public void testRoundsAreCountedFromTheCurrentTick() {
+        TimingWheel wheel = new TimingWheel(10, 8, 0);
+        List<TimingWheel.Timeout> expired = new ArrayList<>();
+        wheel.advance(50, expired);
+        // exactly one turn after the next tick, whose bucket is visited before the deadline
+        Timeout timeout = timeout(60 + 8 * 10);
+        wheel.add(timeout);
+        wheel.advance(139, expired);
+        assertTrue(expired.isEmpty());
+        wheel.advance(140, expired);
+        assertSame(timeout, expired.get(0));
+    }
+
+    @Test
+    public void testPastDeadlinesExpireOnTheNextTick() {
+        TimingWheel wheel = new TimingWheel(10, 8, 0);
+        List<TimingWheel.Timeout> expired = new ArrayList<>();
+        wheel.advance(50, expired);
+        wheel.add(timeout(0));
+        wheel.advance(60, expired);
+        assertEquals(1, expired.size());
+    }
+
+    @Test
+    public void testWheelSizeIsRoundedUp() {
+        TimingWheel wheel = new TimingWheel(10, 5, 0);
+        Timeout timeout = timeout(80);
+        wheel.add(timeout);
+        assertEquals(1, timeout.rounds);
+    }
+
+    private static Timeout timeout(long deadline) {
+        Timeout ret = new Timeout();
+        ret.deadline = deadline;
+        return ret;
+    }
+
+    private static class Timeout extends TimingWheel.Timeout {
+    }
+}
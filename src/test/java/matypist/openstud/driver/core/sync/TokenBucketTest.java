@@ -0,0 +1,38 @@
+package matypist.openstud.driver.core.sync;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TokenBucketTest {
+
+    @Test
+    public void testBurst() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+        assertEquals(0, bucket.nanosUntilAvailable());
+        for (int i = 0; i < 3; i++) assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        long wait = bucket.nanosUntilAvailable();
+        assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(900));
+        assertTrue(wait <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testRefill() throws Exception {
+        TokenBucket bucket = new TokenBucket(20, 1);
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        Thread.sleep(60);
+        assertTrue(bucket.tryAcquire());
+        // an idle bucket doesn't store more than its burst
+        Thread.sleep(200);
+        assertEquals(1, bucket.getAvailablePermits(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRate() {
+        new TokenBucket(0, 1);
+    }
+}
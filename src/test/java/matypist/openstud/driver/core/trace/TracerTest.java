@@ -0,0 +1,81 @@
+package matypist.openstud.driver.core.trace;
+
+import matypist.openstud.driver.core.metrics.OperationScope;
+import matypist.openstud.driver.exceptions.OpenstudInvalidResponseException;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class TracerTest {
+
+    @Test
+    public void testNestedOperations() {
+        RingBufferSpanSink sink = new RingBufferSpanSink(16);
+        Tracer tracer = new Tracer(sink);
+        OperationScope outer = OperationScope.begin(null, tracer, "getCalendarEvents");
+        Span branch = Tracer.startChild("branch").setAttribute("exam", "101");
+        OperationScope inner = OperationScope.begin(null, tracer, "refreshToken");
+        inner.fail(new OpenstudInvalidResponseException("down").setMaintenanceType());
+        inner.close();
+        branch.end();
+        outer.close();
+        assertNull(Tracer.currentSpan());
+
+        List<Span> spans = sink.getSpans();
+        assertEquals(3, spans.size());
+        Span refresh = spans.get(0);
+        Span root = spans.get(2);
+        assertEquals("refreshToken", refresh.getName());
+        assertEquals("OpenstudInvalidResponseException:maintenance", refresh.getAttribute("error.type"));
+        assertEquals(spans.get(1).getSpanId(), refresh.getParentId());
+        assertEquals("101", spans.get(1).getAttribute("exam"));
+        assertEquals(root.getSpanId(), spans.get(1).getParentId());
+        assertEquals(0, root.getParentId());
+        assertEquals(3, sink.getTrace(root.getTraceId()).size());
+        for (Span span : spans) assertTrue(span.getDurationNanos() >= 0);
+    }
+
+    @Test
+    public void testUntracedThreadRecordsNothing() {
+        Span span = Tracer.startChild("branch").setAttribute("exam", "101");
+        assertTrue(span.isNoop());
+        span.end();
+        assertNull(Tracer.currentSpan());
+    }
+
+    @Test
+    public void testPropagateToExecutor() throws Exception {
+        RingBufferSpanSink sink = new RingBufferSpanSink(16);
+        Tracer tracer = new Tracer(sink);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Span root = tracer.startActiveSpan("sync");
+            String name = executor.submit(Tracer.propagate("branch:EXAMS_DONE", () -> Tracer.currentSpan().getName())).get();
+            assertEquals("branch:EXAMS_DONE", name);
+            assertNull(executor.submit(Tracer::currentSpan).get());
+            root.end();
+            List<Span> spans = sink.getSpans();
+            assertEquals(2, spans.size());
+            assertEquals(root.getSpanId(), spans.get(0).getParentId());
+            assertEquals(root.getTraceId(), spans.get(0).getTraceId());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRingBufferOverwritesOldest() {
+        RingBufferSpanSink sink = new RingBufferSpanSink(3);
+        Tracer tracer = new Tracer(sink);
+        for (int i = 0; i < 5; i++) tracer.startSpan("span" + i, null).end();
+        List<Span> spans = sink.getSpans();
+        assertEquals(3, spans.size());
+        assertEquals("span2", spans.get(0).getName());
+        assertEquals("span4", spans.get(2).getName());
+        assertEquals(2, sink.getDropped());
+    }
+}
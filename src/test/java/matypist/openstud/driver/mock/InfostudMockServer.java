@@ -0,0 +1,421 @@
+package matypist.openstud.driver.mock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import matypist.openstud.driver.core.OpenstudBuilder;
+import matypist.openstud.driver.core.net.CachingDns;
+import matypist.openstud.driver.core.resilience.CircuitBreakerRegistry;
+import okhttp3.Dns;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for Infostud, GOMP and uniroma1.it, serving the recorded answers under {@code /mock}. Latency,
+ * server errors, maintenance pages, bare 503 answers, GOMP rate limiting, broken photos, a short news listing and token expiration can be
+ * injected to exercise the retry and refresh paths of the driver. Point a session to it with {@link #configure(OpenstudBuilder)}.
+ */
+public class InfostudMockServer implements AutoCloseable {
+    private static final String MAINTENANCE_PAGE = "<html><body><h1>Service Unavailable</h1>"
+            + "<p>Sorry, the page you are looking for is currently unavailable. Please try again later.</p></body></html>";
+    private static final String UNAVAILABLE_PAGE = "<html><body><h1>503 Service Unavailable</h1></body></html>";
+    private static final String ERROR_PAGE = "<html><body><h1>500 Internal Server Error</h1></body></html>";
+    private static final String RATE_LIMIT_PAGE = "{\"error\":\"maximum request limit reached\"}";
+    private static final String EMPTY_LISTING = "<html><body><div id=\"main\"><div class=\"view-content\"></div></div></body></html>";
+    private static final String EXPIRED_TOKEN = "{\"esito\":{\"flagEsito\":-4,\"messaggio\":\"Sessione scaduta\"}}";
+    private static final Pattern IDM_USER = Pattern.compile("\"user\"\\s*:\\s*\"([^\"]*)\"");
+    private static final Pattern LEGACY_USER = Pattern.compile("matricola=([^&]*)");
+    private static final String PHOTO_HOST = "https://www.studenti.uniroma1.it/phoenixws";
+
+    private final Map<String, Long> tokens = new ConcurrentHashMap<>();
+    private final Set<String> students = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> fixtures = new ConcurrentHashMap<>();
+    private final AtomicLong tokenCounter = new AtomicLong();
+    private final MockServerStats stats = new MockServerStats();
+    // the process-wide defaults would carry open breakers and cached addresses from one server to the next
+    private final CircuitBreakerRegistry circuitBreakers = new CircuitBreakerRegistry(5, TimeUnit.SECONDS.toMillis(30), 1);
+    private final CachingDns dns = new CachingDns(Dns.SYSTEM, CachingDns.systemTtlMillis(), 64);
+    private volatile long minLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile double errorRate;
+    private volatile double maintenanceRate;
+    private volatile double unavailableRate;
+    private volatile double rateLimitRate;
+    private volatile double photoErrorRate;
+    private volatile int newsPages = Integer.MAX_VALUE;
+    private volatile long tokenTtlNanos = TimeUnit.MINUTES.toNanos(30);
+    private int threads = 32;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Every request waits a random time between {@code min} and {@code max} before being answered.
+     */
+    public InfostudMockServer setLatency(long min, long max, TimeUnit unit) {
+        this.minLatencyNanos = unit.toNanos(min);
+        this.maxLatencyNanos = unit.toNanos(Math.max(min, max));
+        return this;
+    }
+
+    /**
+     * Fraction of the requests answered with an HTTP 500 HTML page.
+     */
+    public InfostudMockServer setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Fraction of the Infostud requests answered with the maintenance page.
+     */
+    public InfostudMockServer setMaintenanceRate(double maintenanceRate) {
+        this.maintenanceRate = maintenanceRate;
+        return this;
+    }
+
+    /**
+     * Fraction of the Infostud requests answered with a 503 that is not the maintenance page, like an overloaded
+     * proxy would send.
+     */
+    public InfostudMockServer setUnavailableRate(double unavailableRate) {
+        this.unavailableRate = unavailableRate;
+        return this;
+    }
+
+    /**
+     * Fraction of the GOMP requests answered with the rate limit message.
+     */
+    public InfostudMockServer setRateLimitRate(double rateLimitRate) {
+        this.rateLimitRate = rateLimitRate;
+        return this;
+    }
+
+    /**
+     * Fraction of the photo requests answered with an HTTP 500 HTML page instead of the image.
+     */
+    public InfostudMockServer setPhotoErrorRate(double photoErrorRate) {
+        this.photoErrorRate = photoErrorRate;
+        return this;
+    }
+
+    /**
+     * Number of news listing pages, the following ones are served without any news like the website does past the
+     * last page. Every page has the same news.
+     */
+    public InfostudMockServer setNewsPages(int newsPages) {
+        this.newsPages = newsPages;
+        return this;
+    }
+
+    public InfostudMockServer setTokenTtl(long ttl, TimeUnit unit) {
+        this.tokenTtlNanos = unit.toNanos(ttl);
+        return this;
+    }
+
+    public InfostudMockServer setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public InfostudMockServer start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "infostud-mock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/authws", answerHead(this::handleLogin));
+        server.createContext("/phxdroidws", answerHead(this::handleInfostud));
+        server.createContext("/gomp", answerHead(this::handleGomp));
+        server.createContext("/www", answerHead(this::handleWebsite));
+        server.start();
+        return this;
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Points the endpoints of the builder to this server. Sessions of the same server share its circuit breakers and
+     * DNS cache, bulkheads are already per session unless the builder asks for the shared ones.
+     */
+    public OpenstudBuilder configure(OpenstudBuilder builder) {
+        // the photos are downloaded from a fixed host, send them to the mock Infostud too
+        return builder.addInterceptor(chain -> {
+            String url = chain.request().url().toString();
+            if (!url.startsWith(PHOTO_HOST)) return chain.proceed(chain.request());
+            String redirected = getBaseUrl() + "/phxdroidws" + url.substring(PHOTO_HOST.length());
+            return chain.proceed(chain.request().newBuilder().url(redirected).build());
+        }).setEndpointAPI(getBaseUrl() + "/phxdroidws")
+                .setEndpointLogin(getBaseUrl() + "/authws/login/idm_ldap/iws")
+                .setEndpointTimetable(getBaseUrl() + "/gomp")
+                .setEndpointWebsite(getBaseUrl() + "/www")
+                .setCircuitBreakers(circuitBreakers)
+                .setDns(dns);
+    }
+
+    public MockServerStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private HttpHandler answerHead(HttpHandler handler) {
+        // HEAD requests only come from the connection warm-up of the driver
+        return exchange -> {
+            if (!exchange.getRequestMethod().equals("HEAD")) {
+                handler.handle(exchange);
+                return;
+            }
+            stats.warmUps.increment();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        };
+    }
+
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        if (injectFaults(exchange, true, false)) return;
+        String body = readBody(exchange);
+        Matcher matcher = IDM_USER.matcher(body);
+        String student = matcher.find() ? matcher.group(1) : null;
+        if (student == null || student.isEmpty()) {
+            send(exchange, 200, "{\"error\":{\"code\":\"auth110\",\"message\":\"Invalid credentials\"}}");
+            return;
+        }
+        send(exchange, 200, "{\"result\":{\"tokeniws\":\"" + issueToken(student) + "\"}}");
+    }
+
+    private void handleInfostud(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath().substring("/phxdroidws".length());
+        if (path.equals("/autenticazione")) {
+            // legacy login, used by the driver when the IDM one fails
+            if (injectFaults(exchange, true, false)) return;
+            Matcher matcher = LEGACY_USER.matcher(readBody(exchange));
+            String student = matcher.find() ? URLDecoder.decode(matcher.group(1), "UTF-8") : "";
+            if (student.isEmpty()) send(exchange, 200, "{\"esito\":{\"flagEsito\":-1}}");
+            else send(exchange, 200, "{\"output\":\"" + issueToken(student) + "\",\"esito\":{\"flagEsito\":0}}");
+            return;
+        }
+        stats.dataRequests.increment();
+        if (injectFaults(exchange, true, false)) return;
+        if (!isValid(query(exchange, "ingresso"))) {
+            stats.expiredTokens.increment();
+            send(exchange, 200, EXPIRED_TOKEN);
+            return;
+        }
+        String[] parts = path.split("/");
+        // parts: "", "studente" | "contabilita" | "cartastudente", id, [resource]
+        String resource = parts.length > 3 ? parts[3] : "";
+        if (parts.length > 1 && parts[1].equals("studente")) {
+            switch (resource) {
+                case "":
+                    send(exchange, 200, fixture("student.json"));
+                    return;
+                case "esamiall":
+                    send(exchange, 200, fixture("exams_done.json"));
+                    return;
+                case "insegnamentisostenibili":
+                    send(exchange, 200, fixture("exams_doable.json"));
+                    return;
+                case "prenotazioni":
+                    send(exchange, 200, fixture("reservations.json"));
+                    return;
+                default:
+                    break;
+            }
+        } else if (parts.length > 1 && parts[1].equals("contabilita")) {
+            switch (resource) {
+                case "bollettinipagati":
+                case "bollettininonpagati":
+                    send(exchange, 200, fixture("taxes.json"));
+                    return;
+                case "isee":
+                    send(exchange, 200, fixture("isee.json"));
+                    return;
+                case "listaIsee":
+                    send(exchange, 200, fixture("isee_history.json"));
+                    return;
+                default:
+                    break;
+            }
+        } else if (parts.length > 1 && parts[1].equals("cartastudente")) {
+            switch (resource) {
+                case "info":
+                    send(exchange, 200, fixture("student_card.json"));
+                    return;
+                case "foto":
+                    if (photoErrorRate > 0 && ThreadLocalRandom.current().nextDouble() < photoErrorRate) {
+                        stats.injectedErrors.increment();
+                        send(exchange, 500, ERROR_PAGE);
+                        return;
+                    }
+                    stats.photos.increment();
+                    send(exchange, 200, photo(parts[2]), "image/jpeg");
+                    return;
+                default:
+                    break;
+            }
+        }
+        send(exchange, 404, "{\"esito\":{\"flagEsito\":-1}}");
+    }
+
+    private void handleGomp(HttpExchange exchange) throws IOException {
+        stats.dataRequests.increment();
+        if (injectFaults(exchange, false, true)) return;
+        String path = exchange.getRequestURI().getPath().substring("/gomp".length());
+        if (path.startsWith("/classroom/search")) send(exchange, 200, fixture("classrooms.json"));
+        else if (path.startsWith("/events/")) send(exchange, 200, fixture("timetable.json"));
+        else if (path.startsWith("/lectures/")) send(exchange, 200, fixture("lectures.json"));
+        else send(exchange, 404, "[]");
+    }
+
+    private void handleWebsite(HttpExchange exchange) throws IOException {
+        stats.websiteRequests.increment();
+        String path = exchange.getRequestURI().getPath();
+        boolean listing = path.endsWith("/tutte-le-notizie");
+        if (listing) stats.newsListings.increment();
+        if (injectFaults(exchange, false, false)) return;
+        if (listing) {
+            String page = query(exchange, "page");
+            if (page != null && Integer.parseInt(page) >= newsPages) send(exchange, 200, EMPTY_LISTING);
+            else send(exchange, 200, fixture("news_listing.html"));
+        } else if (path.contains("/notizie/")) send(exchange, 200, fixture("news_detail.html"));
+        else send(exchange, 404, "<html><body>Not found</body></html>");
+    }
+
+    private boolean injectFaults(HttpExchange exchange, boolean infostud, boolean gomp) throws IOException {
+        sleep();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (infostud && maintenanceRate > 0 && random.nextDouble() < maintenanceRate) {
+            stats.maintenancePages.increment();
+            send(exchange, 503, MAINTENANCE_PAGE);
+            return true;
+        }
+        if (infostud && unavailableRate > 0 && random.nextDouble() < unavailableRate) {
+            stats.unavailable.increment();
+            send(exchange, 503, UNAVAILABLE_PAGE);
+            return true;
+        }
+        if (gomp && rateLimitRate > 0 && random.nextDouble() < rateLimitRate) {
+            stats.rateLimited.increment();
+            send(exchange, 200, RATE_LIMIT_PAGE);
+            return true;
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            stats.injectedErrors.increment();
+            send(exchange, 500, ERROR_PAGE);
+            return true;
+        }
+        return false;
+    }
+
+    private void sleep() {
+        long latency = minLatencyNanos;
+        if (maxLatencyNanos > minLatencyNanos)
+            latency += ThreadLocalRandom.current().nextLong(maxLatencyNanos - minLatencyNanos);
+        if (latency <= 0) return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String issueToken(String student) {
+        String token = "mock-" + student + "-" + tokenCounter.incrementAndGet();
+        tokens.put(token, System.nanoTime() + tokenTtlNanos);
+        stats.logins.increment();
+        if (!students.add(student)) stats.refreshes.increment();
+        return token;
+    }
+
+    private boolean isValid(String token) {
+        if (token == null) return false;
+        Long expiration = tokens.get(token);
+        if (expiration == null) return false;
+        if (System.nanoTime() - expiration < 0) return true;
+        tokens.remove(token);
+        return false;
+    }
+
+    /**
+     * The photo served for the given student, a few bytes that only depend on the student ID.
+     */
+    public static byte[] photo(String student) {
+        return ("JFIF-" + student).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String fixture(String name) {
+        return fixtures.computeIfAbsent(name, InfostudMockServer::loadFixture);
+    }
+
+    private static String loadFixture(String name) {
+        try (InputStream in = InfostudMockServer.class.getResourceAsStream("/mock/" + name)) {
+            if (in == null) throw new IllegalArgumentException("Missing fixture " + name);
+            return new String(readAll(in), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String query(HttpExchange exchange, String key) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            int index = pair.indexOf('=');
+            if (index > 0 && pair.substring(0, index).equals(key))
+                return URLDecoder.decode(pair.substring(index + 1), "UTF-8");
+        }
+        return null;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(readAll(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) out.write(buffer, 0, read);
+        return out.toByteArray();
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        send(exchange, status, body.getBytes(StandardCharsets.UTF_8), body.startsWith("<") ? "text/html; charset=utf-8" : "application/json");
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] bytes, String contentType) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package matypist.openstud.driver.mock;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.OpenstudBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives concurrent {@link Openstud} sessions against an {@link InfostudMockServer}. Every session logs in and then
+ * cycles through the operations of {@link Operation}, timing each one.
+ */
+public class LoadHarness {
+    private final InfostudMockServer server;
+    private int sessions = 16;
+    private int operationsPerSession = 50;
+    private int concurrency = 8;
+    private int retryCounter = 3;
+
+    public enum Operation {
+        INFO_STUDENT, EXAMS_DONE, EXAMS_DOABLE, ACTIVE_RESERVATIONS, PAID_TAXES, CURRENT_ISEE, CLASSROOMS
+    }
+
+    public LoadHarness(InfostudMockServer server) {
+        this.server = server;
+    }
+
+    public LoadHarness setSessions(int sessions) {
+        this.sessions = sessions;
+        return this;
+    }
+
+    public LoadHarness setOperationsPerSession(int operationsPerSession) {
+        this.operationsPerSession = operationsPerSession;
+        return this;
+    }
+
+    /**
+     * Number of sessions running at the same time.
+     */
+    public LoadHarness setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public LoadHarness setRetryCounter(int retryCounter) {
+        this.retryCounter = retryCounter;
+        return this;
+    }
+
+    public LoadReport run() throws Exception {
+        MockServerStats stats = server.getStats();
+        long requestsBefore = stats.getDataRequests();
+        long refreshesBefore = stats.getRefreshes();
+        Map<String, Long> errors = new ConcurrentHashMap<>();
+        AtomicLong failures = new AtomicLong();
+        Operation[] operations = Operation.values();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> results = new ArrayList<>(sessions);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < sessions; i++) {
+                String studentId = String.valueOf(1000000 + i);
+                results.add(executor.submit(() -> {
+                    Openstud os = server.configure(new OpenstudBuilder())
+                            .setStudentID(studentId)
+                            .setPassword("Password1")
+                            .setRetryCounter(retryCounter)
+                            .build();
+                    os.login();
+                    long[] latencies = new long[operationsPerSession];
+                    for (int j = 0; j < operationsPerSession; j++) {
+                        long begin = System.nanoTime();
+                        try {
+                            execute(os, operations[j % operations.length]);
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                            errors.merge(e.getClass().getSimpleName(), 1L, Long::sum);
+                        }
+                        latencies[j] = System.nanoTime() - begin;
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[sessions * operationsPerSession];
+            int offset = 0;
+            for (Future<long[]> result : results) {
+                long[] latencies = result.get();
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+                offset += latencies.length;
+            }
+            long elapsed = System.nanoTime() - start;
+            long operationCount = (long) sessions * operationsPerSession;
+            long retries = stats.getDataRequests() - requestsBefore - operationCount;
+            return new LoadReport(sessions, operationCount, failures.get(), elapsed, all, retries,
+                    stats.getRefreshes() - refreshesBefore, errors);
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void execute(Openstud os, Operation operation) throws Exception {
+        switch (operation) {
+            case INFO_STUDENT:
+                os.getInfoStudent();
+                break;
+            case EXAMS_DONE:
+                os.getExamsDone();
+                break;
+            case EXAMS_DOABLE:
+                os.getExamsDoable();
+                break;
+            case ACTIVE_RESERVATIONS:
+                os.getActiveReservations();
+                break;
+            case PAID_TAXES:
+                os.getPaidTaxes();
+                break;
+            case CURRENT_ISEE:
+                os.getCurrentIsee();
+                break;
+            case CLASSROOMS:
+                os.getClassRoom("aula", false);
+                break;
+        }
+    }
+}
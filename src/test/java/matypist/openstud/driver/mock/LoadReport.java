@@ -0,0 +1,89 @@
+package matypist.openstud.driver.mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a {@link LoadHarness} run.
+ */
+public class LoadReport {
+    private final int sessions;
+    private final long operations;
+    private final long failures;
+    private final long elapsedNanos;
+    private final long[] latencies;
+    private final long retries;
+    private final long refreshes;
+    private final Map<String, Long> errors;
+
+    LoadReport(int sessions, long operations, long failures, long elapsedNanos, long[] latencies, long retries, long refreshes, Map<String, Long> errors) {
+        this.sessions = sessions;
+        this.operations = operations;
+        this.failures = failures;
+        this.elapsedNanos = elapsedNanos;
+        this.latencies = latencies;
+        this.retries = retries;
+        this.refreshes = refreshes;
+        this.errors = Collections.unmodifiableMap(errors);
+        Arrays.sort(this.latencies);
+    }
+
+    public int getSessions() {
+        return sessions;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Completed operations per second, failed ones included.
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : operations * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Latency of an operation at the given percentile, in the given unit.
+     */
+    public double getLatency(double percentile, TimeUnit unit) {
+        if (latencies.length == 0) return 0;
+        int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+        long nanos = latencies[Math.max(0, Math.min(latencies.length - 1, index))];
+        return nanos / (double) unit.toNanos(1);
+    }
+
+    /**
+     * Requests sent again by the driver after a failed or expired answer.
+     */
+    public long getRetries() {
+        return retries;
+    }
+
+    /**
+     * Token refreshes performed by the sessions.
+     */
+    public long getRefreshes() {
+        return refreshes;
+    }
+
+    /**
+     * Failed operations by exception class.
+     */
+    public Map<String, Long> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sessions=%d operations=%d failures=%d throughput=%.1f op/s p50=%.2f ms p99=%.2f ms retries=%d refreshes=%d errors=%s",
+                sessions, operations, failures, getThroughput(), getLatency(50, TimeUnit.MILLISECONDS),
+                getLatency(99, TimeUnit.MILLISECONDS), retries, refreshes, errors);
+    }
+}
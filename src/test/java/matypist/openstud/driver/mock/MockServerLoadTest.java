@@ -0,0 +1,356 @@
+package matypist.openstud.driver.mock;
+
+import matypist.openstud.driver.core.Openstud;
+import matypist.openstud.driver.core.OpenstudBuilder;
+import matypist.openstud.driver.core.cache.DiskCache;
+import matypist.openstud.driver.core.metrics.HostStats;
+import matypist.openstud.driver.core.metrics.InMemoryMetrics;
+import matypist.openstud.driver.core.metrics.OperationStats;
+import matypist.openstud.driver.core.resilience.Bulkhead;
+import matypist.openstud.driver.core.resilience.CircuitBreaker;
+import matypist.openstud.driver.core.resilience.CircuitBreakerRegistry;
+import matypist.openstud.driver.core.resilience.Upstream;
+import matypist.openstud.driver.core.trace.RingBufferSpanSink;
+import matypist.openstud.driver.core.trace.Span;
+import matypist.openstud.driver.core.trace.Tracer;
+import matypist.openstud.driver.core.models.Classroom;
+import matypist.openstud.driver.core.models.ExamDone;
+import matypist.openstud.driver.core.models.Student;
+import matypist.openstud.driver.core.models.StudentCard;
+import matypist.openstud.driver.exceptions.OpenstudConnectionException;
+import matypist.openstud.driver.exceptions.OpenstudInvalidResponseException;
+import okhttp3.HttpUrl;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MockServerLoadTest {
+
+    @Test
+    public void testSessionAgainstMockServer() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            Student student = os.getInfoStudent();
+            assertEquals("XXXXXX00X00X000X", student.getSocialSecurityNumber());
+            List<ExamDone> exams = os.getExamsDone();
+            assertEquals(3, exams.size());
+            List<Classroom> classrooms = os.getClassRoom("aula", false);
+            assertEquals(3, classrooms.size());
+            assertEquals(1, server.getStats().getLogins());
+            assertEquals(3, server.getStats().getDataRequests());
+        }
+    }
+
+    @Test
+    public void testLoadWithFaults() throws Exception {
+        // tokens outlive the one second refresh coalescing window of the driver, so that every expiration is refreshed
+        try (InfostudMockServer server = new InfostudMockServer()
+                .setLatency(5, 15, TimeUnit.MILLISECONDS)
+                .setErrorRate(0.02)
+                .setTokenTtl(1200, TimeUnit.MILLISECONDS)
+                .start()) {
+            LoadReport report = new LoadHarness(server)
+                    .setSessions(8)
+                    .setOperationsPerSession(200)
+                    .setConcurrency(8)
+                    .setRetryCounter(5)
+                    .run();
+            assertEquals(8, report.getSessions());
+            assertEquals(1600, report.getOperations());
+            assertEquals(report.toString(), 0, report.getFailures());
+            assertTrue(report.toString(), report.getErrors().isEmpty());
+            assertTrue(report.getThroughput() > 0);
+            // every request waits at least 5 milliseconds on the server
+            assertTrue(report.toString(), report.getLatency(50, TimeUnit.MILLISECONDS) >= 5);
+            assertTrue(report.getRetries() > 0);
+            assertTrue(report.getRefreshes() > 0);
+            assertTrue(report.getLatency(99, TimeUnit.MILLISECONDS) >= report.getLatency(50, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void testMetricsAgainstMockServer() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().setTokenTtl(1200, TimeUnit.MILLISECONDS).start()) {
+            InMemoryMetrics metrics = new InMemoryMetrics();
+            Openstud os = server.configure(new OpenstudBuilder()).setMetrics(metrics)
+                    .setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            assertEquals(3, os.getExamsDone().size());
+            Thread.sleep(1300);
+            assertEquals(3, os.getExamsDone().size());
+            OperationStats exams = metrics.getOperation("getExamsDone");
+            assertEquals(2, exams.getCount());
+            assertEquals(0, exams.getFailures());
+            // first call, call with the expired token and retry, the refresh is an operation of its own
+            assertEquals(3, exams.getHttpCalls());
+            assertEquals(1, exams.getRetries());
+            assertEquals(1, exams.getTokenRefreshes());
+            assertTrue(exams.getResponseBytes() > 0);
+            assertTrue(exams.getLatencyP99Millis() >= exams.getLatencyP50Millis());
+            assertEquals(1, metrics.getOperation("login").getCount());
+            assertEquals(1, metrics.getOperation("refreshToken").getHttpCalls());
+            assertEquals(1, metrics.getHosts().size());
+            HostStats host = metrics.getHosts().iterator().next();
+            assertEquals(server.getStats().getLogins() + server.getStats().getDataRequests(), host.getCalls());
+            assertEquals(host.getCalls(), host.getTimeToFirstByteHistogram().getCount());
+        }
+    }
+
+    @Test
+    public void testTraceOfRefreshedCall() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().setTokenTtl(1200, TimeUnit.MILLISECONDS).start()) {
+            RingBufferSpanSink sink = new RingBufferSpanSink(64);
+            Openstud os = server.configure(new OpenstudBuilder()).setTracer(new Tracer(sink))
+                    .setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            Thread.sleep(1300);
+            sink.clear();
+            os.getExamsDone();
+            List<Span> spans = sink.getSpans();
+            Span root = spans.get(spans.size() - 1);
+            assertEquals("getExamsDone", root.getName());
+            assertEquals(spans.size(), sink.getTrace(root.getTraceId()).size());
+            int attempts = 0;
+            int refreshes = 0;
+            int parses = 0;
+            for (Span span : spans) {
+                if (span.getName().equals("refreshToken")) {
+                    assertEquals(root.getSpanId(), span.getParentId());
+                    refreshes++;
+                } else if (span.getName().equals("http") && span.getParentId() == root.getSpanId()) {
+                    assertTrue(((String) span.getAttribute("endpoint")).endsWith("/esamiall"));
+                    assertEquals(200, span.getAttribute("status"));
+                    attempts = Math.max(attempts, (Integer) span.getAttribute("attempt"));
+                } else if (span.getName().equals("parse")) parses++;
+            }
+            assertEquals(1, refreshes);
+            assertEquals(2, attempts);
+            assertTrue(parses >= 2);
+        }
+    }
+
+    @Test
+    public void testMaintenanceIsReported() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().setMaintenanceRate(1).start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            try {
+                os.login();
+                fail("login should fail while Infostud is in maintenance");
+            } catch (OpenstudInvalidResponseException e) {
+                assertTrue(e.isMaintenance());
+            }
+        }
+    }
+
+    @Test
+    public void testOpenCircuitKeepsReportingMaintenance() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().setMaintenanceRate(1).start()) {
+            CircuitBreakerRegistry breakers = new CircuitBreakerRegistry(5, 60000, 1);
+            Openstud os = server.configure(new OpenstudBuilder()).setCircuitBreakers(breakers)
+                    .setStudentID("1234567").setPassword("Password1").build();
+            for (int i = 0; i < 2; i++) {
+                try {
+                    os.login();
+                    fail("login should fail while Infostud is in maintenance");
+                } catch (OpenstudInvalidResponseException e) {
+                    assertTrue(e.isMaintenance());
+                }
+            }
+            // the legacy login and the second attempt never reach the server
+            assertEquals(1, server.getStats().getMaintenancePages());
+            HttpUrl url = HttpUrl.get(server.getBaseUrl());
+            assertTrue(breakers.get(url.host(), url.port()).isMaintenance());
+        }
+    }
+
+    @Test
+    public void testServiceUnavailableIsNotMaintenance() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().start()) {
+            CircuitBreakerRegistry breakers = new CircuitBreakerRegistry(3, 60000, 1);
+            Openstud os = server.configure(new OpenstudBuilder()).setCircuitBreakers(breakers)
+                    .setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            server.setUnavailableRate(1);
+            boolean open = false;
+            for (int i = 0; i < 5 && !open; i++) {
+                try {
+                    os.getExamsDone();
+                    fail("a 503 answer can't be parsed");
+                } catch (OpenstudInvalidResponseException e) {
+                    assertFalse(e.isMaintenance());
+                } catch (OpenstudConnectionException e) {
+                    open = e.isCircuitOpen();
+                }
+            }
+            assertTrue(open);
+            // the breaker opens on its failure threshold rather than on the first 503
+            assertEquals(3, server.getStats().getUnavailable());
+            HttpUrl url = HttpUrl.get(server.getBaseUrl());
+            CircuitBreaker breaker = breakers.get(url.host(), url.port());
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+            assertFalse(breaker.isMaintenance());
+        }
+    }
+
+    @Test
+    public void testSaturatedUpstreamIsIsolated() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().start()) {
+            Bulkhead timetable = new Bulkhead(Upstream.TIMETABLE, 1, 0, 0);
+            Openstud os = server.configure(new OpenstudBuilder()).setBulkhead(timetable)
+                    .setStudentID("1234567").setPassword("Password1").build();
+            assertEquals(Upstream.LOGIN, os.getUpstream(os.getEndpointLogin()));
+            assertEquals(Upstream.API, os.getUpstream(os.getEndpointAPI() + "/studente/1234567?ingresso=token"));
+            assertEquals(Upstream.PHOTO, os.getUpstream(os.getEndpointAPI() + "/cartastudente/1234567/foto?ingresso=token"));
+            assertEquals(Upstream.TIMETABLE, os.getUpstream(os.getEndpointTimetable() + "/classroom/search?q=aula"));
+            assertNull(os.getUpstream("https://example.com"));
+            os.login();
+            timetable.acquire();
+            try {
+                os.getClassRoom("aula", false);
+                fail("GOMP requests should be rejected while its bulkhead is full");
+            } catch (OpenstudConnectionException e) {
+                assertTrue(e.isBulkheadFull());
+            } finally {
+                timetable.release();
+            }
+            assertEquals(3, os.getExamsDone().size());
+            assertEquals(1, timetable.getRejected());
+            assertEquals(0, os.getBulkhead(Upstream.API).getActive());
+            // upstreams left alone get bulkheads of their own, the process-wide ones are opt-in
+            Openstud other = server.configure(new OpenstudBuilder()).setBulkhead(timetable)
+                    .setStudentID("1234567").setPassword("Password1").build();
+            Openstud plain = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            Openstud shared = server.configure(new OpenstudBuilder()).setSharedBulkheads().setBulkhead(timetable)
+                    .setStudentID("1234567").setPassword("Password1").build();
+            assertNotSame(os.getBulkhead(Upstream.API), plain.getBulkhead(Upstream.API));
+            assertNotSame(Bulkhead.shared(Upstream.API), plain.getBulkhead(Upstream.API));
+            assertSame(timetable, other.getBulkhead(Upstream.TIMETABLE));
+            assertSame(Bulkhead.shared(Upstream.API), shared.getBulkhead(Upstream.API));
+            assertSame(timetable, shared.getBulkhead(Upstream.TIMETABLE));
+        }
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setWarmUpConnections(2)
+                    .setStudentID("1234567").setPassword("Password1").build();
+            // API, login and timetable endpoints
+            assertEquals(6, os.warmUp());
+            assertEquals(6, server.getStats().getWarmUps());
+            assertEquals(0, server.getStats().getDataRequests());
+            assertTrue(os.getClient().connectionPool().idleConnectionCount() > 0);
+            long idle = os.getConnectionWarmer().getIdleNanos();
+            os.login();
+            assertTrue(os.getConnectionWarmer().getIdleNanos() < idle);
+        }
+    }
+
+    @Test
+    public void testStudentCardWithPhoto() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().setLatency(300, 300, TimeUnit.MILLISECONDS).start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            Student student = os.getInfoStudent();
+            long start = System.nanoTime();
+            StudentCard card = os.getStudentCard(student, true);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            // the photo is downloaded while the card is looked up, one after the other would take at least 600 ms
+            assertTrue("Card and photo took " + elapsed + " ms", elapsed < 550);
+            assertEquals("SAP000000002", card.getCode());
+            assertTrue(card.isEnabled());
+            assertArrayEquals(InfostudMockServer.photo(student.getStudentID()), card.getImage());
+            long requests = server.getStats().getDataRequests();
+            StudentCard cached = os.getStudentCard(student, true);
+            assertEquals(card.getCode(), cached.getCode());
+            assertArrayEquals(card.getImage(), cached.getImage());
+            assertEquals(requests, server.getStats().getDataRequests());
+            assertEquals(1, server.getStats().getPhotos());
+        }
+    }
+
+    @Test
+    public void testPhotoFetchSurvivesTokenRefresh() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().setTokenTtl(1200, TimeUnit.MILLISECONDS).start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            Student student = os.getInfoStudent();
+            Thread.sleep(1300);
+            // the photo request leaves with the expired token, the card lookup refreshes it in the meantime
+            StudentCard card = os.getStudentCard(student, true);
+            assertArrayEquals(InfostudMockServer.photo(student.getStudentID()), card.getImage());
+            assertEquals(1, server.getStats().getRefreshes());
+            assertEquals(2, server.getStats().getExpiredTokens());
+            assertEquals(1, server.getStats().getPhotos());
+            assertArrayEquals(card.getImage(), os.getStudentPhoto(student));
+        }
+    }
+
+    @Test
+    public void testErrorPageIsNotCachedAsPhoto() throws Exception {
+        File directory = Files.createTempDirectory("openstud-photo").toFile();
+        directory.deleteOnExit();
+        DiskCache disk = new DiskCache(directory, 64 * 1024);
+        try (InfostudMockServer server = new InfostudMockServer().setPhotoErrorRate(1).start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setPhotoDiskCache(disk)
+                    .setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            Student student = os.getInfoStudent();
+            try {
+                os.getStudentPhoto(student);
+                fail("an error page is not a photo");
+            } catch (OpenstudInvalidResponseException e) {
+                assertFalse(e.isMaintenance());
+            }
+            try {
+                os.getStudentCard(student, true);
+                fail("an error page is not a photo");
+            } catch (OpenstudInvalidResponseException e) {
+                assertFalse(e.isMaintenance());
+            }
+            assertNull(os.getPhotoCache().get(student.getStudentID()));
+            assertNull(disk.get(student.getStudentID()));
+            assertEquals(0, server.getStats().getPhotos());
+            server.setPhotoErrorRate(0);
+            assertArrayEquals(InfostudMockServer.photo(student.getStudentID()), os.getStudentPhoto(student));
+            assertArrayEquals(InfostudMockServer.photo(student.getStudentID()), disk.get(student.getStudentID()));
+        }
+    }
+
+    @Test
+    public void testExpiredTokenIsNotCachedAsPhoto() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().setTokenTtl(1200, TimeUnit.MILLISECONDS).start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            Student student = os.getInfoStudent();
+            Thread.sleep(1300);
+            // the expired token answer is JSON, the driver refreshes the token instead of caching it
+            assertArrayEquals(InfostudMockServer.photo(student.getStudentID()), os.getStudentPhoto(student));
+            assertArrayEquals(InfostudMockServer.photo(student.getStudentID()), os.getPhotoCache().get(student.getStudentID()));
+            assertEquals(1, server.getStats().getExpiredTokens());
+            assertEquals(1, server.getStats().getRefreshes());
+            assertEquals(1, server.getStats().getPhotos());
+        }
+    }
+
+    @Test
+    public void testRateLimitIsReported() throws Exception {
+        try (InfostudMockServer server = new InfostudMockServer().setRateLimitRate(1).start()) {
+            Openstud os = server.configure(new OpenstudBuilder()).setStudentID("1234567").setPassword("Password1").build();
+            os.login();
+            try {
+                os.getClassRoom("aula", false);
+                fail("GOMP requests should be rate limited");
+            } catch (OpenstudInvalidResponseException e) {
+                assertTrue(e.isRateLimit());
+            }
+            assertEquals(1, server.getStats().getRateLimited());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package matypist.openstud.driver.mock;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the requests served by an {@link InfostudMockServer}.
+ */
+public class MockServerStats {
+    final LongAdder logins = new LongAdder();
+    final LongAdder refreshes = new LongAdder();
+    final LongAdder dataRequests = new LongAdder();
+    final LongAdder websiteRequests = new LongAdder();
+    final LongAdder newsListings = new LongAdder();
+    final LongAdder expiredTokens = new LongAdder();
+    final LongAdder injectedErrors = new LongAdder();
+    final LongAdder maintenancePages = new LongAdder();
+    final LongAdder unavailable = new LongAdder();
+    final LongAdder rateLimited = new LongAdder();
+    final LongAdder warmUps = new LongAdder();
+    final LongAdder photos = new LongAdder();
+
+    /**
+     * Successful logins, the first one of every student and the following token refreshes.
+     */
+    public long getLogins() {
+        return logins.sum();
+    }
+
+    /**
+     * Successful logins of students that had already logged in.
+     */
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Requests to the Infostud API and to GOMP, failed ones included.
+     */
+    public long getDataRequests() {
+        return dataRequests.sum();
+    }
+
+    public long getWebsiteRequests() {
+        return websiteRequests.sum();
+    }
+
+    /**
+     * Requests of a news listing page, counted as soon as they are received.
+     */
+    public long getNewsListings() {
+        return newsListings.sum();
+    }
+
+    public long getExpiredTokens() {
+        return expiredTokens.sum();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    public long getMaintenancePages() {
+        return maintenancePages.sum();
+    }
+
+    /**
+     * Answers with a bare 503, without the maintenance page.
+     */
+    public long getUnavailable() {
+        return unavailable.sum();
+    }
+
+    public long getRateLimited() {
+        return rateLimited.sum();
+    }
+
+    public long getWarmUps() {
+        return warmUps.sum();
+    }
+
+    /**
+     * Student photos sent, requests with an expired token excluded.
+     */
+    public long getPhotos() {
+        return photos.sum();
+    }
+}